@@ -0,0 +1,96 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.alee.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs WebLaF benchmarks with standard JMH command line options.
+ * Unless other result options are specified results are saved in JSON format into "weblaf-[version].json" file, so that results of
+ * different library versions can be compared. Benchmark forks are always started headless.
+ *
+ * @author Mikle Garin
+ */
+
+public final class BenchmarkRunner
+{
+    /**
+     * Runs benchmarks.
+     *
+     * @param args JMH command line options
+     * @throws CommandLineOptionException if command line options are invalid
+     * @throws RunnerException            if benchmarks run failed
+     */
+    public static void main ( final String[] args ) throws CommandLineOptionException, RunnerException
+    {
+        final CommandLineOptions options = new CommandLineOptions ( args );
+        final ChainedOptionsBuilder builder = new OptionsBuilder ().parent ( options );
+        builder.jvmArgsAppend ( getForkJvmArgs () );
+
+        // Machine-readable results by default
+        final ResultFormatType format = options.getResultFormat ().hasValue () ? options.getResultFormat ().get () : ResultFormatType.JSON;
+        builder.resultFormat ( format );
+        if ( !options.getResult ().hasValue () )
+        {
+            builder.result ( "weblaf-" + getLibraryVersion () + "." + format.toString ().toLowerCase () );
+        }
+
+        new Runner ( builder.build () ).run ();
+    }
+
+    /**
+     * Returns JVM arguments appended to each benchmark fork.
+     * XStream used by XmlUtils requires reflective access to JDK internals on Java 9 and later.
+     *
+     * @return JVM arguments appended to each benchmark fork
+     */
+    private static String[] getForkJvmArgs ()
+    {
+        final List<String> jvmArgs = new ArrayList<String> ();
+        jvmArgs.add ( "-Djava.awt.headless=true" );
+        if ( !System.getProperty ( "java.specification.version" ).startsWith ( "1." ) )
+        {
+            for ( final String pkg : new String[]{ "java.base/java.lang", "java.base/java.lang.reflect", "java.base/java.util",
+                    "java.base/java.text", "java.desktop/java.awt", "java.desktop/java.awt.font" } )
+            {
+                jvmArgs.add ( "--add-opens" );
+                jvmArgs.add ( pkg + "=ALL-UNNAMED" );
+            }
+        }
+        return jvmArgs.toArray ( new String[ jvmArgs.size () ] );
+    }
+
+    /**
+     * Returns benchmarked library version.
+     *
+     * @return benchmarked library version
+     */
+    private static String getLibraryVersion ()
+    {
+        final String version = BenchmarkRunner.class.getPackage ().getImplementationVersion ();
+        return version != null ? version : "dev";
+    }
+}
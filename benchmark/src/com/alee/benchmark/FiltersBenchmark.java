@@ -0,0 +1,122 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.alee.benchmark;
+
+import com.alee.graphics.filters.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for image filters.
+ *
+ * @author Mikle Garin
+ */
+
+@State ( Scope.Thread )
+@BenchmarkMode ( Mode.AverageTime )
+@OutputTimeUnit ( TimeUnit.MILLISECONDS )
+@Warmup ( iterations = 5, time = 1 )
+@Measurement ( iterations = 5, time = 1 )
+@Fork ( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+public class FiltersBenchmark
+{
+    /**
+     * Filtered image size.
+     */
+    @Param ( { "256", "1024" } )
+    public int size;
+
+    /**
+     * Filtered image.
+     */
+    private BufferedImage image;
+
+    /**
+     * Prepares filtered image with some translucent content.
+     */
+    @Setup
+    public void setup ()
+    {
+        image = new BufferedImage ( size, size, BufferedImage.TYPE_INT_ARGB );
+        final Graphics2D g2d = image.createGraphics ();
+        final Random random = new Random ( 0 );
+        for ( int i = 0; i < 100; i++ )
+        {
+            g2d.setPaint ( new Color ( random.nextInt (), true ) );
+            g2d.fillOval ( random.nextInt ( size ), random.nextInt ( size ), random.nextInt ( size / 4 ) + 1, random.nextInt ( size / 4 ) + 1 );
+        }
+        g2d.dispose ();
+    }
+
+    /**
+     * Applies Gaussian blur with a small radius.
+     */
+    @Benchmark
+    public BufferedImage gaussianSmall ()
+    {
+        return new GaussianFilter ( 3 ).filter ( image, null );
+    }
+
+    /**
+     * Applies Gaussian blur with a large radius.
+     */
+    @Benchmark
+    public BufferedImage gaussianLarge ()
+    {
+        return new GaussianFilter ( 24 ).filter ( image, null );
+    }
+
+    /**
+     * Applies box blur.
+     */
+    @Benchmark
+    public BufferedImage boxBlur ()
+    {
+        return new BoxBlurFilter ( 5, 5, 3 ).filter ( image, null );
+    }
+
+    /**
+     * Applies shadow filter.
+     */
+    @Benchmark
+    public BufferedImage shadow ()
+    {
+        return new ShadowFilter ( 10, 0, 0, 0.75f ).filter ( image, null );
+    }
+
+    /**
+     * Applies opacity point filter.
+     */
+    @Benchmark
+    public BufferedImage opacity ()
+    {
+        return new OpacityFilter ( 128 ).filter ( image, null );
+    }
+
+    /**
+     * Applies motion blur.
+     */
+    @Benchmark
+    public BufferedImage motionBlur ()
+    {
+        return new MotionBlurOp ( 10f, 0.5f, 0.1f, 0.1f ).filter ( image, null );
+    }
+}
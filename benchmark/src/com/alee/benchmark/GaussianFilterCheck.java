@@ -0,0 +1,173 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.benchmark;
+
+import com.alee.graphics.filters.GaussianFilter;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * Compares approximated Gaussian blur against the exact kernel on opaque, shadow mask and translucent images.
+ * Prints maximum and mean channel difference out of 255 along with the time taken by both modes.
+ * It only requires WebLaF on the classpath and should be started with "-Djava.awt.headless=true" option.
+ *
+ * @author Mikle Garin
+ */
+
+public final class GaussianFilterCheck
+{
+    /**
+     * Checked blur radii.
+     */
+    private static final float[] RADII = { 12, 32, 64 };
+
+    /**
+     * Runs the check.
+     *
+     * @param args unused
+     */
+    public static void main ( final String[] args )
+    {
+        check ( "opaque", createOpaqueImage () );
+        check ( "shadow mask", createShadowMask () );
+        check ( "translucent", createTranslucentImage () );
+    }
+
+    /**
+     * Compares both blur modes for the specified image and all checked radii.
+     *
+     * @param name  image name
+     * @param image checked image
+     */
+    private static void check ( final String name, final BufferedImage image )
+    {
+        for ( final float radius : RADII )
+        {
+            final GaussianFilter exact = new GaussianFilter ( radius );
+            exact.setApproximationRadius ( Float.MAX_VALUE );
+            final GaussianFilter approximated = new GaussianFilter ( radius );
+
+            final long[] exactTime = new long[ 1 ];
+            final long[] approximatedTime = new long[ 1 ];
+            final BufferedImage expected = filter ( exact, image, exactTime );
+            final BufferedImage actual = filter ( approximated, image, approximatedTime );
+
+            long max = 0;
+            long total = 0;
+            final int width = image.getWidth ();
+            final int height = image.getHeight ();
+            for ( int y = 0; y < height; y++ )
+            {
+                for ( int x = 0; x < width; x++ )
+                {
+                    final int e = expected.getRGB ( x, y );
+                    final int a = actual.getRGB ( x, y );
+                    for ( int shift = 0; shift < 32; shift += 8 )
+                    {
+                        final int difference = Math.abs ( ( ( e >>> shift ) & 0xff ) - ( ( a >>> shift ) & 0xff ) );
+                        max = Math.max ( max, difference );
+                        total += difference;
+                    }
+                }
+            }
+            System.out.println ( String.format ( "%-12s r=%-3d max %3d  mean %5.2f  exact %4dms  approximated %4dms", name, ( int ) radius,
+                    max, total / ( width * height * 4.0 ), exactTime[ 0 ], approximatedTime[ 0 ] ) );
+        }
+    }
+
+    /**
+     * Returns filtered image and saves the best of several runs time in milliseconds.
+     *
+     * @param filter filter
+     * @param image  filtered image
+     * @param time   array to save time into
+     * @return filtered image
+     */
+    private static BufferedImage filter ( final GaussianFilter filter, final BufferedImage image, final long[] time )
+    {
+        BufferedImage result = null;
+        long best = Long.MAX_VALUE;
+        for ( int i = 0; i < 5; i++ )
+        {
+            final long start = System.nanoTime ();
+            result = filter.filter ( image, null );
+            best = Math.min ( best, System.nanoTime () - start );
+        }
+        time[ 0 ] = best / 1000000;
+        return result;
+    }
+
+    /**
+     * Returns opaque image with random shapes.
+     *
+     * @return opaque image with random shapes
+     */
+    private static BufferedImage createOpaqueImage ()
+    {
+        final BufferedImage image = new BufferedImage ( 600, 400, BufferedImage.TYPE_INT_ARGB );
+        final Graphics2D g2d = image.createGraphics ();
+        g2d.setPaint ( Color.WHITE );
+        g2d.fillRect ( 0, 0, 600, 400 );
+        final Random random = new Random ( 0 );
+        for ( int i = 0; i < 100; i++ )
+        {
+            g2d.setPaint ( new Color ( random.nextInt () ) );
+            g2d.fillOval ( random.nextInt ( 600 ), random.nextInt ( 400 ), random.nextInt ( 150 ) + 1, random.nextInt ( 100 ) + 1 );
+        }
+        g2d.dispose ();
+        return image;
+    }
+
+    /**
+     * Returns shadow mask similar to the ones blurred by ShadowFilter.
+     *
+     * @return shadow mask
+     */
+    private static BufferedImage createShadowMask ()
+    {
+        final BufferedImage image = new BufferedImage ( 600, 400, BufferedImage.TYPE_INT_ARGB );
+        final Graphics2D g2d = image.createGraphics ();
+        g2d.setRenderingHint ( RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON );
+        g2d.setPaint ( new Color ( 0, 0, 0, 190 ) );
+        g2d.fillRoundRect ( 100, 80, 400, 240, 20, 20 );
+        g2d.dispose ();
+        return image;
+    }
+
+    /**
+     * Returns image with random translucent shapes on transparent background.
+     *
+     * @return image with random translucent shapes
+     */
+    private static BufferedImage createTranslucentImage ()
+    {
+        final BufferedImage image = new BufferedImage ( 600, 400, BufferedImage.TYPE_INT_ARGB );
+        final Graphics2D g2d = image.createGraphics ();
+        g2d.setRenderingHint ( RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON );
+        final Random random = new Random ( 0 );
+        for ( int i = 0; i < 100; i++ )
+        {
+            g2d.setPaint ( new Color ( random.nextInt (), true ) );
+            g2d.fillOval ( random.nextInt ( 600 ), random.nextInt ( 400 ), random.nextInt ( 150 ) + 1, random.nextInt ( 100 ) + 1 );
+        }
+        g2d.dispose ();
+        return image;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.alee.benchmark;
+
+import com.alee.managers.hotkey.HotkeyData;
+import com.alee.managers.hotkey.HotkeyInfo;
+import com.alee.managers.hotkey.HotkeyManager;
+import com.alee.utils.SwingUtils;
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.*;
+import java.awt.AWTEvent;
+import java.awt.Toolkit;
+import java.awt.event.AWTEventListener;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for HotkeyManager key events dispatch.
+ * Key events are passed directly into registered AWT key events listeners, the same way toolkit passes real ones.
+ * Dispatching them into component instead won't work without focus owner which is never available in headless environment.
+ * Hotkeys are registered without actions, so that only hotkeys lookup and matching is measured. Otherwise each triggered hotkey
+ * would post its action into EDT since benchmark thread is not EDT.
+ *
+ * @author Mikle Garin
+ */
+
+@State ( Scope.Thread )
+@BenchmarkMode ( Mode.AverageTime )
+@OutputTimeUnit ( TimeUnit.NANOSECONDS )
+@Warmup ( iterations = 5, time = 1 )
+@Measurement ( iterations = 5, time = 1 )
+@Fork ( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+public class HotkeyBenchmark
+{
+    /**
+     * Amount of registered hotkeys.
+     */
+    @Param ( { "10", "1000" } )
+    public int hotkeys;
+
+    /**
+     * Component receiving key events.
+     */
+    private JComponent component;
+
+    /**
+     * Registered hotkeys.
+     */
+    private List<HotkeyInfo> registered;
+
+    /**
+     * AWT key events listeners.
+     */
+    private AWTEventListener[] listeners;
+
+    /**
+     * Registers hotkeys.
+     * Registered hotkeys use different key codes and modifiers, only Ctrl+Shift+F12 is used by benchmarks.
+     */
+    @Setup
+    public void setup ()
+    {
+        HotkeyManager.initialize ();
+        component = new JPanel ();
+        registered = new ArrayList<HotkeyInfo> ( hotkeys );
+        registered.add ( HotkeyManager.registerHotkey ( new HotkeyData ( true, false, true, KeyEvent.VK_F12 ), null ) );
+        for ( int i = 1; i < hotkeys; i++ )
+        {
+            final int keyCode = KeyEvent.VK_A + i % 26;
+            registered.add ( HotkeyManager.registerHotkey ( new HotkeyData ( i % 2 == 0, i % 3 == 0, i % 5 == 0, keyCode ), null ) );
+        }
+        listeners = Toolkit.getDefaultToolkit ().getAWTEventListeners ( AWTEvent.KEY_EVENT_MASK );
+    }
+
+    /**
+     * Unregisters hotkeys.
+     */
+    @TearDown
+    public void tearDown ()
+    {
+        for ( final HotkeyInfo hotkeyInfo : registered )
+        {
+            HotkeyManager.unregisterHotkey ( hotkeyInfo );
+        }
+    }
+
+    /**
+     * Dispatches key event which triggers registered hotkey.
+     */
+    @Benchmark
+    public KeyEvent dispatchHit ()
+    {
+        return dispatch ( createKeyEvent ( SwingUtils.getSystemShortcutModifier () | InputEvent.SHIFT_MASK, KeyEvent.VK_F12 ) );
+    }
+
+    /**
+     * Dispatches key event which doesn't trigger any hotkey.
+     */
+    @Benchmark
+    public KeyEvent dispatchMiss ()
+    {
+        return dispatch ( createKeyEvent ( InputEvent.ALT_MASK, KeyEvent.VK_F11 ) );
+    }
+
+    /**
+     * Passes key event into all AWT key events listeners and returns it.
+     *
+     * @param event key event
+     * @return dispatched key event
+     */
+    private KeyEvent dispatch ( final KeyEvent event )
+    {
+        for ( final AWTEventListener listener : listeners )
+        {
+            listener.eventDispatched ( event );
+        }
+        return event;
+    }
+
+    /**
+     * Returns new key pressed event.
+     * New event is created each time since processed events might get consumed.
+     *
+     * @param modifiers key modifiers
+     * @param keyCode   key code
+     * @return new key pressed event
+     */
+    private KeyEvent createKeyEvent ( final int modifiers, final int keyCode )
+    {
+        return new KeyEvent ( component, KeyEvent.KEY_PRESSED, 0, modifiers, keyCode, KeyEvent.CHAR_UNDEFINED );
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.alee.benchmark;
+
+import com.alee.utils.ImageUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for image utilities.
+ *
+ * @author Mikle Garin
+ */
+
+@State ( Scope.Thread )
+@BenchmarkMode ( Mode.AverageTime )
+@OutputTimeUnit ( TimeUnit.MILLISECONDS )
+@Warmup ( iterations = 5, time = 1 )
+@Measurement ( iterations = 5, time = 1 )
+@Fork ( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+public class ImageBenchmark
+{
+    /**
+     * Preview length.
+     */
+    @Param ( { "64", "256" } )
+    public int length;
+
+    /**
+     * Source image.
+     */
+    private BufferedImage image;
+
+    /**
+     * Prepares source image.
+     */
+    @Setup
+    public void setup ()
+    {
+        image = new BufferedImage ( 1600, 1200, BufferedImage.TYPE_INT_RGB );
+        final Graphics2D g2d = image.createGraphics ();
+        g2d.setPaint ( new GradientPaint ( 0, 0, Color.WHITE, 1600, 1200, Color.BLUE ) );
+        g2d.fillRect ( 0, 0, 1600, 1200 );
+        g2d.dispose ();
+    }
+
+    /**
+     * Creates image preview.
+     */
+    @Benchmark
+    public BufferedImage createPreviewImage ()
+    {
+        return ImageUtils.createPreviewImage ( image, length );
+    }
+}
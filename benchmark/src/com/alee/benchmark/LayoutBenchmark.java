@@ -0,0 +1,88 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.alee.benchmark;
+
+import com.alee.extended.layout.TableLayout;
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for WebLaF layouts.
+ *
+ * @author Mikle Garin
+ */
+
+@State ( Scope.Thread )
+@BenchmarkMode ( Mode.AverageTime )
+@OutputTimeUnit ( TimeUnit.MICROSECONDS )
+@Warmup ( iterations = 5, time = 1 )
+@Measurement ( iterations = 5, time = 1 )
+@Fork ( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+public class LayoutBenchmark
+{
+    /**
+     * Amount of layout rows.
+     */
+    @Param ( { "10", "100" } )
+    public int rows;
+
+    /**
+     * Laid out container.
+     */
+    private JPanel container;
+
+    /**
+     * Container layout.
+     */
+    private TableLayout layout;
+
+    /**
+     * Prepares container with a form-like table layout.
+     */
+    @Setup
+    public void setup ()
+    {
+        final double[] columnSizes = { TableLayout.PREFERRED, TableLayout.FILL, 80 };
+        final double[] rowSizes = new double[ rows ];
+        for ( int i = 0; i < rows; i++ )
+        {
+            rowSizes[ i ] = TableLayout.PREFERRED;
+        }
+        layout = new TableLayout ( columnSizes, rowSizes, 4, 4 );
+        container = new JPanel ( layout );
+        for ( int i = 0; i < rows; i++ )
+        {
+            container.add ( new JLabel ( "Label " + i ), "0," + i );
+            container.add ( new JTextField ( "Field " + i ), "1," + i );
+            container.add ( new JButton ( "..." ), "2," + i );
+        }
+        container.setSize ( 600, rows * 30 );
+    }
+
+    /**
+     * Lays out container after layout invalidation.
+     */
+    @Benchmark
+    public JPanel layoutContainer ()
+    {
+        layout.invalidateLayout ( container );
+        layout.layoutContainer ( container );
+        return container;
+    }
+}
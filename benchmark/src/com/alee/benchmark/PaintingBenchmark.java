@@ -0,0 +1,156 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.alee.benchmark;
+
+import com.alee.laf.StyleConstants;
+import com.alee.utils.LafUtils;
+import com.alee.utils.NinePatchUtils;
+import com.alee.utils.ninepatch.NinePatchIcon;
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for common WebLaF painting operations performed on offscreen image graphics.
+ *
+ * @author Mikle Garin
+ */
+
+@State ( Scope.Thread )
+@BenchmarkMode ( Mode.AverageTime )
+@OutputTimeUnit ( TimeUnit.MICROSECONDS )
+@Warmup ( iterations = 5, time = 1 )
+@Measurement ( iterations = 5, time = 1 )
+@Fork ( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+public class PaintingBenchmark
+{
+    /**
+     * Painted area width.
+     */
+    private static final int WIDTH = 400;
+
+    /**
+     * Painted area height.
+     */
+    private static final int HEIGHT = 300;
+
+    /**
+     * Shade width.
+     */
+    @Param ( { "5", "15" } )
+    public int shadeWidth;
+
+    /**
+     * Offscreen image.
+     */
+    private BufferedImage image;
+
+    /**
+     * Offscreen image graphics.
+     */
+    private Graphics2D g2d;
+
+    /**
+     * Shaded shape.
+     */
+    private Shape shape;
+
+    /**
+     * Component painted with web style.
+     */
+    private JComponent component;
+
+    /**
+     * Shade nine-patch icon.
+     */
+    private NinePatchIcon shadeIcon;
+
+    /**
+     * Prepares offscreen image and painted data.
+     */
+    @Setup
+    public void setup ()
+    {
+        image = new BufferedImage ( WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB );
+        g2d = image.createGraphics ();
+        LafUtils.setupAntialias ( g2d );
+        shape = new RoundRectangle2D.Double ( shadeWidth, shadeWidth, WIDTH - shadeWidth * 2, HEIGHT - shadeWidth * 2, 12, 12 );
+        component = new JPanel ();
+        component.setSize ( WIDTH, HEIGHT );
+        shadeIcon = NinePatchUtils.createShadeIcon ( shadeWidth, 6, 0.75f );
+    }
+
+    /**
+     * Disposes offscreen image graphics.
+     */
+    @TearDown
+    public void tearDown ()
+    {
+        g2d.dispose ();
+    }
+
+    /**
+     * Paints shade around the shape.
+     */
+    @Benchmark
+    public BufferedImage drawShade ()
+    {
+        LafUtils.drawShade ( g2d, shape, StyleConstants.shadeColor, shadeWidth );
+        return image;
+    }
+
+    /**
+     * Paints web-styled component background and border.
+     */
+    @Benchmark
+    public Shape drawWebStyle ()
+    {
+        return LafUtils.drawWebStyle ( g2d, component, StyleConstants.shadeColor, shadeWidth, StyleConstants.smallRound );
+    }
+
+    /**
+     * Paints shade nine-patch icon stretched over the whole image.
+     */
+    @Benchmark
+    public BufferedImage paintNinePatchIcon ()
+    {
+        shadeIcon.paintIcon ( g2d, 0, 0, WIDTH, HEIGHT );
+        return image;
+    }
+
+    /**
+     * Creates outer shade nine-patch icon.
+     */
+    @Benchmark
+    public NinePatchIcon createShadeIcon ()
+    {
+        return NinePatchUtils.createShadeIcon ( shadeWidth, 6, 0.75f );
+    }
+
+    /**
+     * Creates inner shade nine-patch icon.
+     */
+    @Benchmark
+    public NinePatchIcon createInnerShadeIcon ()
+    {
+        return NinePatchUtils.createInnerShadeIcon ( shadeWidth, 6, 0.75f );
+    }
+}
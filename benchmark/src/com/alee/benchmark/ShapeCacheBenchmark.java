@@ -0,0 +1,93 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.alee.benchmark;
+
+import com.alee.utils.ShapeCache;
+import com.alee.utils.swing.DataProvider;
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.RoundRectangle2D;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for ShapeCache lookups with matching and changing shape settings.
+ *
+ * @author Mikle Garin
+ */
+
+@State ( Scope.Thread )
+@BenchmarkMode ( Mode.AverageTime )
+@OutputTimeUnit ( TimeUnit.NANOSECONDS )
+@Warmup ( iterations = 5, time = 1 )
+@Measurement ( iterations = 5, time = 1 )
+@Fork ( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+public class ShapeCacheBenchmark
+{
+    /**
+     * Component for which shapes are cached.
+     */
+    private JComponent component;
+
+    /**
+     * Current shape width.
+     */
+    private int width;
+
+    /**
+     * Shape provider.
+     */
+    private DataProvider<Shape> provider;
+
+    /**
+     * Prepares component and shape provider.
+     */
+    @Setup
+    public void setup ()
+    {
+        component = new JPanel ();
+        width = 100;
+        provider = new DataProvider<Shape> ()
+        {
+            @Override
+            public Shape provide ()
+            {
+                return new RoundRectangle2D.Double ( 0, 0, width, 50, 6, 6 );
+            }
+        };
+    }
+
+    /**
+     * Retrieves shape cached with the same settings.
+     */
+    @Benchmark
+    public Shape getShapeHit ()
+    {
+        return ShapeCache.getShape ( component, "shape", provider, width, 50, 6, Color.BLACK, true );
+    }
+
+    /**
+     * Retrieves shape with settings changed since the previous call, so that it has to be created and cached again.
+     */
+    @Benchmark
+    public Shape getShapeMiss ()
+    {
+        width = width == 100 ? 101 : 100;
+        return ShapeCache.getShape ( component, "shape", provider, width, 50, 6, Color.BLACK, true );
+    }
+}
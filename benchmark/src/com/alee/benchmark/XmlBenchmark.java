@@ -0,0 +1,109 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.alee.benchmark;
+
+import com.alee.managers.language.data.Dictionary;
+import com.alee.managers.language.data.Record;
+import com.alee.managers.language.data.Text;
+import com.alee.managers.language.data.Tooltip;
+import com.alee.managers.language.data.Value;
+import com.alee.utils.XmlUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for XmlUtils serialization round-trips.
+ * Language dictionary is used as a typical structure serialized by WebLaF.
+ *
+ * @author Mikle Garin
+ */
+
+@State ( Scope.Thread )
+@BenchmarkMode ( Mode.AverageTime )
+@OutputTimeUnit ( TimeUnit.MICROSECONDS )
+@Warmup ( iterations = 5, time = 1 )
+@Measurement ( iterations = 5, time = 1 )
+@Fork ( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+public class XmlBenchmark
+{
+    /**
+     * Amount of dictionary records.
+     */
+    @Param ( { "10", "500" } )
+    public int records;
+
+    /**
+     * Serialized dictionary.
+     */
+    private Dictionary dictionary;
+
+    /**
+     * Dictionary XML.
+     */
+    private String xml;
+
+    /**
+     * Prepares dictionary and its XML.
+     */
+    @Setup
+    public void setup ()
+    {
+        XmlUtils.processAnnotations ( Dictionary.class );
+        XmlUtils.processAnnotations ( Record.class );
+        XmlUtils.processAnnotations ( Value.class );
+        XmlUtils.processAnnotations ( Text.class );
+        XmlUtils.processAnnotations ( Tooltip.class );
+
+        dictionary = new Dictionary ( "benchmark", "benchmark" );
+        for ( int i = 0; i < records; i++ )
+        {
+            final Record record = new Record ( "key" + i );
+            record.addValue ( new Value ( "en", "Value " + i ) );
+            record.addValue ( new Value ( "ru", "Значение " + i ) );
+            dictionary.addRecord ( record );
+        }
+        xml = XmlUtils.toXML ( dictionary );
+    }
+
+    /**
+     * Serializes dictionary into XML.
+     */
+    @Benchmark
+    public String toXML ()
+    {
+        return XmlUtils.toXML ( dictionary );
+    }
+
+    /**
+     * Deserializes dictionary from XML.
+     */
+    @Benchmark
+    public Dictionary fromXML ()
+    {
+        return XmlUtils.fromXML ( xml );
+    }
+
+    /**
+     * Serializes dictionary into XML and deserializes it back.
+     */
+    @Benchmark
+    public Dictionary roundTrip ()
+    {
+        return XmlUtils.fromXML ( XmlUtils.toXML ( dictionary ) );
+    }
+}
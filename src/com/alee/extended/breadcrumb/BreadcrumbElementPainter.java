@@ -21,6 +21,7 @@ import com.alee.extended.painter.AbstractPainter;
 import com.alee.laf.StyleConstants;
 import com.alee.utils.ColorUtils;
 import com.alee.utils.LafUtils;
+import com.alee.utils.ShapeCache;
 import com.alee.utils.SwingUtils;
 
 import javax.swing.*;
@@ -28,8 +29,6 @@ import java.awt.*;
 import java.awt.geom.Area;
 import java.awt.geom.GeneralPath;
 import java.awt.geom.RoundRectangle2D;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * @param <E> breadcrumb element type
@@ -53,8 +52,10 @@ public class BreadcrumbElementPainter<E extends JComponent> extends AbstractPain
     protected static final Color[] shadeColors =
             new Color[]{ StyleConstants.transparent, StyleConstants.shadeColor, StyleConstants.shadeColor, StyleConstants.transparent };
 
-    protected Map<String, GeneralPath> borderShapeCache = new HashMap<String, GeneralPath> ();
-    protected Map<String, Shape> fillShapeCache = new HashMap<String, Shape> ();
+    protected static final String BORDER_SHAPE = "breadcrumb-border";
+    protected static final String FILL_SHAPE = "breadcrumb-fill";
+
+    protected final ShapeCache.Key shapeKey = new ShapeCache.Key ();
 
     protected int overlap = WebBreadcrumbStyle.elementOverlap;
 
@@ -84,7 +85,6 @@ public class BreadcrumbElementPainter<E extends JComponent> extends AbstractPain
     public void setOverlap ( int overlap )
     {
         this.overlap = overlap;
-        borderShapeCache.clear ();
         fireUpdate ();
     }
 
@@ -96,7 +96,6 @@ public class BreadcrumbElementPainter<E extends JComponent> extends AbstractPain
     public void setType ( BreadcrumbElementType type )
     {
         this.type = type;
-        borderShapeCache.clear ();
         fireUpdate ();
     }
 
@@ -252,13 +251,13 @@ public class BreadcrumbElementPainter<E extends JComponent> extends AbstractPain
 
     public GeneralPath getBorderShape ( E c, boolean ltr )
     {
-        String key = ltr + ":" + c.getWidth () + "," + c.getHeight ();
-        GeneralPath bs = borderShapeCache.get ( key );
+        final ShapeCache.Key key = shapeKey.reset ().add ( ltr ).add ( overlap ).add ( shadeWidth ).add ( c.getWidth () )
+                .add ( c.getHeight () );
+        GeneralPath bs = ShapeCache.getShape ( c, BORDER_SHAPE, key );
         if ( bs == null )
         {
-            borderShapeCache.clear ();
             bs = getBorderShapeImpl ( c, ltr );
-            borderShapeCache.put ( key, bs );
+            ShapeCache.putShape ( c, BORDER_SHAPE, key, bs );
         }
         return bs;
     }
@@ -283,13 +282,13 @@ public class BreadcrumbElementPainter<E extends JComponent> extends AbstractPain
 
     public Shape getFillShape ( E c, boolean ltr, int round )
     {
-        String key = ltr + ":" + round + ":" + c.getWidth () + "," + c.getHeight ();
-        Shape fs = fillShapeCache.get ( key );
+        final ShapeCache.Key key = shapeKey.reset ().add ( ltr ).add ( round ).add ( type ).add ( overlap ).add ( shadeWidth )
+                .add ( c.getWidth () ).add ( c.getHeight () );
+        Shape fs = ShapeCache.getShape ( c, FILL_SHAPE, key );
         if ( fs == null )
         {
-            fillShapeCache.clear ();
             fs = getFillShapeImpl ( c, ltr, round );
-            fillShapeCache.put ( key, fs );
+            ShapeCache.putShape ( c, FILL_SHAPE, key, fs );
         }
         return fs;
     }
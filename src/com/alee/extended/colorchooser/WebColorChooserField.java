@@ -32,6 +32,7 @@ import com.alee.laf.text.WebTextField;
 import com.alee.managers.hotkey.Hotkey;
 import com.alee.managers.hotkey.HotkeyManager;
 import com.alee.managers.hotkey.HotkeyRunnable;
+import com.alee.managers.task.TaskManager;
 import com.alee.utils.ColorUtils;
 import com.alee.utils.ImageUtils;
 import com.alee.utils.SwingUtils;
@@ -367,7 +368,7 @@ public class WebColorChooserField extends WebTextField
                         {
                             // Updating image in a separate thread to avoid UI freezing
                             updating = true;
-                            new Thread ( new Runnable ()
+                            TaskManager.execute ( new Runnable ()
                             {
                                 @Override
                                 public void run ()
@@ -393,7 +394,7 @@ public class WebColorChooserField extends WebTextField
                                     }
                                     updating = false;
                                 }
-                            } ).start ();
+                            } );
                         }
                     }
 
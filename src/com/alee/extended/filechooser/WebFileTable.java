@@ -18,7 +18,11 @@
 package com.alee.extended.filechooser;
 
 import com.alee.extended.filefilter.AbstractFileFilter;
+import com.alee.laf.GlobalConstants;
 import com.alee.laf.table.WebTable;
+import com.alee.managers.file.FileChange;
+import com.alee.managers.file.FileChangeListener;
+import com.alee.managers.file.FileWatchManager;
 import com.alee.utils.FileUtils;
 
 import javax.swing.table.TableColumn;
@@ -48,6 +52,21 @@ public class WebFileTable extends WebTable implements WebFileTableColumns
      */
     private File displayedDirectory;
 
+    /**
+     * Whether displayed directory should be watched for changes or not.
+     */
+    private boolean watchChanges = WebFileTableStyle.watchChanges;
+
+    /**
+     * Currently watched directory.
+     */
+    private File watchedDirectory = null;
+
+    /**
+     * Displayed directory changes listener.
+     */
+    private FileChangeListener fileChangeListener = null;
+
     /**
      * Constructs empty WebFileTable.
      */
@@ -131,6 +150,28 @@ public class WebFileTable extends WebTable implements WebFileTableColumns
         reloadFiles ();
     }
 
+    /**
+     * Returns whether displayed directory should be watched for changes or not.
+     *
+     * @return true if displayed directory should be watched for changes, false otherwise
+     */
+    public boolean isWatchChanges ()
+    {
+        return watchChanges;
+    }
+
+    /**
+     * Sets whether displayed directory should be watched for changes or not.
+     * Changes are applied to the table incrementally without reloading whole directory.
+     *
+     * @param watchChanges whether displayed directory should be watched for changes or not
+     */
+    public void setWatchChanges ( boolean watchChanges )
+    {
+        this.watchChanges = watchChanges;
+        updateWatchedDirectory ();
+    }
+
     /**
      * Reloads files from displayed directory.
      */
@@ -176,6 +217,7 @@ public class WebFileTable extends WebTable implements WebFileTableColumns
 
         // Saving new displayed directory
         displayedDirectory = file;
+        updateWatchedDirectory ();
     }
 
     /**
@@ -186,9 +228,111 @@ public class WebFileTable extends WebTable implements WebFileTableColumns
     public void setFiles ( Collection<File> files )
     {
         displayedDirectory = null;
+        updateWatchedDirectory ();
         getFileTableModel ().setFiles ( files );
     }
 
+    /**
+     * Starts watching displayed directory if needed and stops watching directory which is not displayed anymore.
+     * Directory is only watched while table is displayable.
+     */
+    private void updateWatchedDirectory ()
+    {
+        final File directory = watchChanges && isDisplayable () ? displayedDirectory : null;
+        if ( !FileUtils.equals ( watchedDirectory, directory ) )
+        {
+            if ( watchedDirectory != null )
+            {
+                FileWatchManager.removeListener ( watchedDirectory, fileChangeListener );
+                watchedDirectory = null;
+            }
+            if ( directory != null )
+            {
+                if ( fileChangeListener == null )
+                {
+                    fileChangeListener = new FileChangeListener ()
+                    {
+                        @Override
+                        public void filesChanged ( final File directory, final List<FileChange> changes )
+                        {
+                            if ( FileUtils.equals ( directory, watchedDirectory ) )
+                            {
+                                WebFileTable.this.filesChanged ( changes );
+                            }
+                        }
+                    };
+                }
+                if ( FileWatchManager.addListener ( directory, fileChangeListener ) )
+                {
+                    watchedDirectory = directory;
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies displayed directory changes to the table.
+     *
+     * @param changes displayed directory changes
+     */
+    protected void filesChanged ( List<FileChange> changes )
+    {
+        final WebFileTableModel model = getFileTableModel ();
+        for ( final FileChange change : changes )
+        {
+            final File file = change.getFile ();
+            switch ( change.getType () )
+            {
+                case overflow:
+                {
+                    reloadFiles ();
+                    return;
+                }
+                case deleted:
+                {
+                    model.removeFile ( file );
+                    break;
+                }
+                default:
+                {
+                    // Created or modified file might have become accepted or declined by filter
+                    if ( fileFilter == null || fileFilter.accept ( file ) )
+                    {
+                        if ( !model.updateFile ( file ) )
+                        {
+                            model.insertFile ( file, GlobalConstants.FILE_COMPARATOR );
+                        }
+                    }
+                    else
+                    {
+                        model.removeFile ( file );
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addNotify ()
+    {
+        super.addNotify ();
+        updateWatchedDirectory ();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeNotify ()
+    {
+        super.removeNotify ();
+        updateWatchedDirectory ();
+    }
+
     /**
      * Adds displayed files.
      *
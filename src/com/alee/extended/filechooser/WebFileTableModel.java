@@ -26,6 +26,7 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -125,6 +126,75 @@ public class WebFileTableModel extends AbstractTableModel implements WebFileTabl
         }
     }
 
+    /**
+     * Inserts file keeping files order defined by the specified comparator.
+     * Does nothing if the specified file is already displayed.
+     *
+     * @param file       file to insert
+     * @param comparator files comparator
+     * @return row of inserted or existing file
+     */
+    public int insertFile ( File file, Comparator<File> comparator )
+    {
+        final int existing = files.indexOf ( file );
+        if ( existing != -1 )
+        {
+            return existing;
+        }
+        int low = 0;
+        int high = files.size () - 1;
+        while ( low <= high )
+        {
+            final int middle = ( low + high ) >>> 1;
+            if ( comparator.compare ( files.get ( middle ), file ) < 0 )
+            {
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle - 1;
+            }
+        }
+        files.add ( low, file );
+        fireTableRowsInserted ( low, low );
+        return low;
+    }
+
+    /**
+     * Removes displayed file.
+     *
+     * @param file file to remove
+     * @return true if file was removed, false if it wasn't displayed
+     */
+    public boolean removeFile ( File file )
+    {
+        final int row = files.indexOf ( file );
+        if ( row != -1 )
+        {
+            files.remove ( row );
+            fireTableRowsDeleted ( row, row );
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Updates row of the specified file.
+     *
+     * @param file file to update
+     * @return true if row was updated, false if file wasn't displayed
+     */
+    public boolean updateFile ( File file )
+    {
+        final int row = files.indexOf ( file );
+        if ( row != -1 )
+        {
+            fireTableRowsUpdated ( row, row );
+            return true;
+        }
+        return false;
+    }
+
     /**
      * Returns index of row with the specified file.
      *
@@ -32,4 +32,9 @@ public final class WebFileTableStyle
      * File filter.
      */
     public static AbstractFileFilter fileFilter = GlobalConstants.NON_HIDDEN_ONLY_FILTER;
-}
\ No newline at end of file
+
+    /**
+     * Whether displayed directory should be watched for changes or not.
+     */
+    public static boolean watchChanges = true;
+}
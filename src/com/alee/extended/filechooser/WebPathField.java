@@ -835,7 +835,7 @@ public class WebPathField extends WebPanel
 
     protected File[] getFileChilds ( File file )
     {
-        return file != null ? file.listFiles ( fileFilter ) : FileUtils.getDiskRoots ();
+        return file != null ? FileUtils.listFiles ( file, fileFilter ) : FileUtils.getDiskRoots ();
     }
 
     protected boolean canShortenPath ()
@@ -58,6 +58,7 @@ public class WebDecoratedImage extends JComponent implements SwingConstants, Sha
     private float zoomBlurFactor = WebDecoratedImageStyle.zoomBlurFactor;
     private boolean rotationBlur = WebDecoratedImageStyle.rotationBlur;
     private float rotationBlurFactor = WebDecoratedImageStyle.rotationBlurFactor;
+    private boolean parallelFiltering = WebDecoratedImageStyle.parallelFiltering;
 
     public WebDecoratedImage ()
     {
@@ -296,6 +297,25 @@ public class WebDecoratedImage extends JComponent implements SwingConstants, Sha
         }
     }
 
+    public boolean isParallelFiltering ()
+    {
+        return parallelFiltering;
+    }
+
+    public void setParallelFiltering ( boolean parallelFiltering )
+    {
+        setParallelFiltering ( parallelFiltering, true );
+    }
+
+    public void setParallelFiltering ( boolean parallelFiltering, boolean update )
+    {
+        this.parallelFiltering = parallelFiltering;
+        if ( update )
+        {
+            updatePreview ();
+        }
+    }
+
     public boolean isZoomBlur ()
     {
         return zoomBlur;
@@ -433,7 +453,7 @@ public class WebDecoratedImage extends JComponent implements SwingConstants, Sha
         }
         if ( blur )
         {
-            ImageFilterUtils.applyGaussianFilter ( image, image, blurFactor );
+            ImageFilterUtils.applyGaussianFilter ( image, image, blurFactor, parallelFiltering );
         }
         if ( zoomBlur && rotationBlur )
         {
@@ -113,4 +113,9 @@ public final class WebDecoratedImageStyle implements SwingConstants
      * Image rotation blur factor
      */
     public static float rotationBlurFactor = 0.2f;
+
+    /**
+     * Whether large images should be filtered in parallel or not
+     */
+    public static boolean parallelFiltering = false;
 }
\ No newline at end of file
@@ -32,6 +32,7 @@ import java.awt.event.*;
 import java.awt.geom.Area;
 import java.awt.geom.RoundRectangle2D;
 import java.awt.image.BufferedImage;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -292,6 +293,38 @@ public class WebImageGallery extends JComponent
         try
         {
             ImageIcon previewIcon = ImageUtils.createPreviewIcon ( image, imageLength );
+            addPreview ( index, previewIcon, image.getIconWidth () + " x " + image.getIconHeight () + " px" );
+        }
+        catch ( Throwable e )
+        {
+            // Out of memory
+        }
+    }
+
+    public void addImage ( File file )
+    {
+        addImage ( 0, file );
+    }
+
+    public void addImage ( int index, File file )
+    {
+        try
+        {
+            // Thumbnail is read without decoding full-size image and is stored in disk cache
+            ImageIcon previewIcon = ImageUtils.createThumbnailIcon ( file.getAbsolutePath (), imageLength );
+            String size = previewIcon.getDescription ();
+            addPreview ( index, previewIcon, size != null ? size.replace ( "x", " x " ) + " px" : "" );
+        }
+        catch ( Throwable e )
+        {
+            // Out of memory
+        }
+    }
+
+    private void addPreview ( int index, ImageIcon previewIcon, String description )
+    {
+        try
+        {
             int rwidth = previewIcon.getIconWidth ();
             int rheight = previewIcon.getIconHeight ();
 
@@ -306,7 +339,7 @@ public class WebImageGallery extends JComponent
             g2d.dispose ();
 
             images.add ( index, previewIcon );
-            descriptions.add ( index, image.getIconWidth () + " x " + image.getIconHeight () + " px" );
+            descriptions.add ( index, description );
             reflections.add ( index, reflection );
         }
         catch ( Throwable e )
@@ -19,6 +19,7 @@ package com.alee.extended.label;
 
 import com.alee.laf.label.WebLabel;
 import com.alee.managers.language.LanguageMethods;
+import com.alee.managers.task.TaskManager;
 import com.alee.utils.*;
 
 import javax.swing.*;
@@ -30,8 +31,6 @@ import java.awt.event.MouseEvent;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * This custom component provides a link functionality together with default label options.
@@ -50,9 +49,9 @@ public class WebLinkLabel extends WebLabel implements LanguageMethods
     public static final ImageIcon EMAIL_ICON = new ImageIcon ( WebLinkLabel.class.getResource ( "icons/email.png" ) );
 
     /**
-     * ExecutorService to limit simultaneously running threads.
+     * TaskManager group used to open links.
      */
-    protected ExecutorService executorService = Executors.newSingleThreadExecutor ();
+    public static final String LINKS_GROUP = "WebLinkLabel";
 
     /**
      * Link activation listeners.
@@ -437,7 +436,7 @@ public class WebLinkLabel extends WebLabel implements LanguageMethods
                 @Override
                 public void run ()
                 {
-                    executorService.execute ( new Runnable ()
+                    TaskManager.execute ( LINKS_GROUP, new Runnable ()
                     {
                         @Override
                         public void run ()
@@ -463,7 +462,7 @@ public class WebLinkLabel extends WebLabel implements LanguageMethods
                 @Override
                 public void run ()
                 {
-                    executorService.execute ( new Runnable ()
+                    TaskManager.execute ( LINKS_GROUP, new Runnable ()
                     {
                         @Override
                         public void run ()
@@ -489,7 +488,7 @@ public class WebLinkLabel extends WebLabel implements LanguageMethods
                 @Override
                 public void run ()
                 {
-                    executorService.execute ( new Runnable ()
+                    TaskManager.execute ( LINKS_GROUP, new Runnable ()
                     {
                         @Override
                         public void run ()
@@ -105,6 +105,21 @@ public class FileElement
         }
     }
 
+    /**
+     * Drops loaded thumbnails so that they will be loaded again.
+     * Should be called when element file content changes.
+     */
+    public void resetThumbnails ()
+    {
+        synchronized ( lock )
+        {
+            thumbnailQueued = false;
+            disabledThumbnailQueued = false;
+            enabledThumbnail = null;
+            disabledThumbnail = null;
+        }
+    }
+
     /**
      * Returns whether thumbnail load is queued or not.
      *
@@ -18,9 +18,11 @@
 package com.alee.extended.list;
 
 import com.alee.laf.list.WebListModel;
+import com.alee.utils.FileUtils;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -179,6 +181,88 @@ public class FileListModel extends WebListModel<FileElement>
         setElements ( toElementsList ( data ) );
     }
 
+    /**
+     * Inserts element for the specified file keeping files order defined by the specified comparator.
+     * Does nothing if element for that file is already in the list.
+     *
+     * @param file       file to insert
+     * @param comparator files comparator
+     * @return inserted or existing element for the specified file
+     */
+    public FileElement insertFile ( final File file, final Comparator<File> comparator )
+    {
+        final FileElement existing = getElement ( file );
+        if ( existing != null )
+        {
+            return existing;
+        }
+
+        // Searching for insertion index
+        int low = 0;
+        int high = getSize () - 1;
+        while ( low <= high )
+        {
+            final int middle = ( low + high ) >>> 1;
+            if ( comparator.compare ( get ( middle ).getFile (), file ) < 0 )
+            {
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle - 1;
+            }
+        }
+
+        // Inserting new element
+        final FileElement element = new FileElement ( file );
+        synchronized ( elementsCacheLock )
+        {
+            elementsCache.put ( file.getAbsolutePath (), element );
+        }
+        add ( low, element );
+        return element;
+    }
+
+    /**
+     * Removes element for the specified file.
+     *
+     * @param file file to remove
+     * @return true if element was removed, false if there was no element for the specified file
+     */
+    public boolean removeFile ( final File file )
+    {
+        final FileElement element;
+        synchronized ( elementsCacheLock )
+        {
+            element = elementsCache.remove ( file.getAbsolutePath () );
+        }
+        if ( element != null )
+        {
+            removeElement ( element );
+            element.setFile ( null );
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Updates element for the specified file, dropping its loaded thumbnails.
+     *
+     * @param file file to update
+     * @return true if element was updated, false if there was no element for the specified file
+     */
+    public boolean updateFile ( final File file )
+    {
+        final FileElement element = getElement ( file );
+        if ( element != null )
+        {
+            element.resetThumbnails ();
+            update ( element );
+            return true;
+        }
+        return false;
+    }
+
     /**
      * Returns files under the specified directory.
      *
@@ -189,7 +273,7 @@ public class FileListModel extends WebListModel<FileElement>
     {
         if ( directory != null )
         {
-            return directory.listFiles ();
+            return FileUtils.listFiles ( directory, null );
         }
         else
         {
@@ -0,0 +1,688 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.alee.extended.list;
+
+import com.alee.managers.task.Task;
+import com.alee.managers.task.TaskManager;
+import com.alee.managers.task.TaskState;
+
+import javax.swing.*;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.ComponentListener;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.File;
+import java.util.*;
+import java.util.List;
+
+/**
+ * This class schedules file list thumbnails generation.
+ * <p/>
+ * Thumbnails are generated within TaskManager thumbnails group which is sized to the available processors by default. Requests are
+ * processed in top-to-bottom order, requests for elements scrolled out of view are cancelled and requests for the same file are merged.
+ * Resulting list repaints are batched into a single repaint per event queue pass.
+ *
+ * @author Mikle Garin
+ * @see com.alee.extended.list.WebFileListCellRenderer
+ */
+
+public class ThumbnailScheduler
+{
+    /**
+     * TaskManager group used to generate thumbnails.
+     */
+    public static final String THUMBNAILS_GROUP = "thumbnails";
+
+    /**
+     * Default worker threads amount.
+     */
+    public static final int DEFAULT_THREADS_AMOUNT = Math.max ( 1, Runtime.getRuntime ().availableProcessors () );
+
+    static
+    {
+        TaskManager.registerGroup ( THUMBNAILS_GROUP, DEFAULT_THREADS_AMOUNT );
+    }
+
+    /**
+     * File list for which thumbnails are generated.
+     */
+    protected final WebFileList fileList;
+
+    /**
+     * File list cell renderer which loads thumbnails.
+     */
+    protected final WebFileListCellRenderer renderer;
+
+    /**
+     * Scheduler state lock.
+     */
+    protected final Object lock = new Object ();
+
+    /**
+     * Pending thumbnail tasks mapped by file.
+     */
+    protected final Map<File, ThumbnailTask> pending = new HashMap<File, ThumbnailTask> ();
+
+    /**
+     * Elements awaiting repaint mapped to their latest requested cell indices.
+     */
+    protected final Map<FileElement, Integer> repaintQueue = new LinkedHashMap<FileElement, Integer> ();
+
+    /**
+     * Whether repaint is scheduled or not.
+     */
+    protected boolean repaintScheduled = false;
+
+    /**
+     * Visible cells range, updated on event dispatch thread.
+     */
+    protected int firstVisible = -1;
+    protected int lastVisible = -1;
+
+    /**
+     * Whether visible cells range should be updated or not.
+     */
+    protected boolean visibleRangeChanged = true;
+
+    /**
+     * Visible range generation, incremented each time visible range changes.
+     */
+    protected long generation = 0;
+
+    /**
+     * Time when first thumbnail request was made since last visible range change, -1 if there were no requests yet.
+     */
+    protected long requestTime = -1;
+
+    /**
+     * Whether first visible thumbnail for the current visible range was already generated or not.
+     */
+    protected boolean firstThumbnailGenerated = false;
+
+    /**
+     * Time it took to generate last first visible thumbnail in milliseconds, -1 if none was generated yet.
+     */
+    protected long firstThumbnailTime = -1;
+
+    /**
+     * Generated thumbnails count.
+     */
+    protected long generatedCount = 0;
+
+    /**
+     * Cancelled requests count.
+     */
+    protected long cancelledCount = 0;
+
+    /**
+     * Merged duplicate requests count.
+     */
+    protected long mergedCount = 0;
+
+    /**
+     * Listens to file list bounds changes.
+     */
+    protected final ComponentListener componentListener;
+
+    /**
+     * Listens to file list model changes.
+     */
+    protected final ListDataListener modelListener;
+
+    /**
+     * Listens to file list model replacement.
+     */
+    protected final PropertyChangeListener modelChangeListener;
+
+    /**
+     * File list model to which model listener is currently attached.
+     */
+    protected ListModel<?> listenedModel;
+
+    /**
+     * Constructs new thumbnail scheduler.
+     *
+     * @param fileList file list for which thumbnails are generated
+     * @param renderer file list cell renderer which loads thumbnails
+     */
+    public ThumbnailScheduler ( final WebFileList fileList, final WebFileListCellRenderer renderer )
+    {
+        super ();
+        this.fileList = fileList;
+        this.renderer = renderer;
+
+        // List moves within viewport when scrolled
+        componentListener = new ComponentAdapter ()
+        {
+            @Override
+            public void componentResized ( final ComponentEvent e )
+            {
+                visibleRangeChanged ();
+            }
+
+            @Override
+            public void componentMoved ( final ComponentEvent e )
+            {
+                visibleRangeChanged ();
+            }
+        };
+        fileList.addComponentListener ( componentListener );
+
+        // List model changes
+        modelListener = new ListDataListener ()
+        {
+            @Override
+            public void intervalAdded ( final ListDataEvent e )
+            {
+                visibleRangeChanged ();
+            }
+
+            @Override
+            public void intervalRemoved ( final ListDataEvent e )
+            {
+                visibleRangeChanged ();
+            }
+
+            @Override
+            public void contentsChanged ( final ListDataEvent e )
+            {
+                visibleRangeChanged ();
+            }
+        };
+        listenedModel = fileList.getModel ();
+        listenedModel.addListDataListener ( modelListener );
+        modelChangeListener = new PropertyChangeListener ()
+        {
+            @Override
+            public void propertyChange ( final PropertyChangeEvent evt )
+            {
+                if ( listenedModel != null )
+                {
+                    listenedModel.removeListDataListener ( modelListener );
+                }
+                listenedModel = ( ListModel<?> ) evt.getNewValue ();
+                if ( listenedModel != null )
+                {
+                    listenedModel.addListDataListener ( modelListener );
+                }
+                visibleRangeChanged ();
+            }
+        };
+        fileList.addPropertyChangeListener ( "model", modelChangeListener );
+    }
+
+    /**
+     * Detaches this scheduler from the file list and cancels all pending requests.
+     * Scheduler should not be used after this call.
+     */
+    public void uninstall ()
+    {
+        fileList.removeComponentListener ( componentListener );
+        fileList.removePropertyChangeListener ( "model", modelChangeListener );
+        if ( listenedModel != null )
+        {
+            listenedModel.removeListDataListener ( modelListener );
+            listenedModel = null;
+        }
+        cancelAll ();
+    }
+
+    /**
+     * Returns worker threads amount.
+     *
+     * @return worker threads amount
+     */
+    public int getThreadsAmount ()
+    {
+        return TaskManager.getGroup ( THUMBNAILS_GROUP ).getThreadsAmount ();
+    }
+
+    /**
+     * Sets worker threads amount.
+     * Thumbnails group is shared between all file lists so this affects all of them.
+     *
+     * @param amount worker threads amount
+     */
+    public void setThreadsAmount ( final int amount )
+    {
+        TaskManager.getGroup ( THUMBNAILS_GROUP ).setThreadsAmount ( Math.max ( 1, amount ) );
+    }
+
+    /**
+     * Queues thumbnail generation for the specified element.
+     * This method should be called from the event dispatch thread.
+     *
+     * @param element  element to generate thumbnail for
+     * @param index    rendered cell index
+     * @param disabled whether disabled thumbnail should be generated as well or not
+     */
+    public void queue ( final FileElement element, final int index, final boolean disabled )
+    {
+        updateVisibleRange ();
+        synchronized ( lock )
+        {
+            element.setThumbnailQueued ( true );
+            element.setDisabledThumbnailQueued ( disabled );
+
+            if ( requestTime == -1 )
+            {
+                requestTime = System.nanoTime ();
+            }
+
+            final File file = element.getFile ();
+            final ThumbnailTask existing = pending.get ( file );
+            if ( existing != null && existing.getState () == TaskState.waiting )
+            {
+                // Merging request into the existing one and updating its priority
+                existing.addElement ( element, index, disabled );
+                existing.setGeneration ( generation );
+                existing.setPriority ( Math.max ( existing.getPriority (), -index ) );
+                mergedCount++;
+            }
+            else
+            {
+                final ThumbnailTask task = new ThumbnailTask ( file, index, generation );
+                task.addElement ( element, index, disabled );
+                pending.put ( file, task );
+                TaskManager.submit ( THUMBNAILS_GROUP, task );
+            }
+        }
+    }
+
+    /**
+     * Marks visible cells range as changed.
+     */
+    protected void visibleRangeChanged ()
+    {
+        visibleRangeChanged = true;
+        if ( SwingUtilities.isEventDispatchThread () )
+        {
+            updateVisibleRange ();
+        }
+    }
+
+    /**
+     * Updates visible cells range and cancels requests for elements which are not visible anymore.
+     * This method should be called from the event dispatch thread.
+     */
+    protected void updateVisibleRange ()
+    {
+        if ( !visibleRangeChanged )
+        {
+            return;
+        }
+        visibleRangeChanged = false;
+
+        final int first = fileList.getFirstVisibleIndex ();
+        final int last = fileList.getLastVisibleIndex ();
+        synchronized ( lock )
+        {
+            firstVisible = first;
+            lastVisible = last;
+            generation++;
+            requestTime = -1;
+            firstThumbnailGenerated = false;
+
+            // Cancelling requests for elements which are not visible anymore
+            final Iterator<ThumbnailTask> iterator = pending.values ().iterator ();
+            while ( iterator.hasNext () )
+            {
+                final ThumbnailTask task = iterator.next ();
+                if ( task.getState () == TaskState.waiting && !task.isVisible () && task.cancel () )
+                {
+                    iterator.remove ();
+                    for ( final FileElement element : task.getElements () )
+                    {
+                        element.setThumbnailQueued ( false );
+                        element.setDisabledThumbnailQueued ( false );
+                    }
+                    cancelledCount++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether cell with the specified index is visible or not.
+     *
+     * @param index cell index
+     * @return true if cell with the specified index is visible, false otherwise
+     */
+    protected boolean isVisible ( final int index )
+    {
+        synchronized ( lock )
+        {
+            return index >= firstVisible && index <= lastVisible;
+        }
+    }
+
+    /**
+     * Informs that thumbnail was generated for the specified elements.
+     *
+     * @param task completed task
+     */
+    protected void completed ( final ThumbnailTask task )
+    {
+        synchronized ( lock )
+        {
+            if ( pending.get ( task.getFile () ) == task )
+            {
+                pending.remove ( task.getFile () );
+            }
+            generatedCount++;
+            if ( !firstThumbnailGenerated && requestTime != -1 && task.getGeneration () == generation &&
+                    isVisible ( -task.getPriority () ) )
+            {
+                firstThumbnailGenerated = true;
+                firstThumbnailTime = ( System.nanoTime () - requestTime ) / 1000000;
+            }
+            repaintQueue.putAll ( task.getIndices () );
+            if ( !repaintScheduled )
+            {
+                repaintScheduled = true;
+                SwingUtilities.invokeLater ( new Runnable ()
+                {
+                    @Override
+                    public void run ()
+                    {
+                        repaintCompleted ();
+                    }
+                } );
+            }
+        }
+    }
+
+    /**
+     * Repaints all cells which thumbnails were generated since last repaint with a single repaint call.
+     */
+    protected void repaintCompleted ()
+    {
+        final Map<FileElement, Integer> elements;
+        synchronized ( lock )
+        {
+            elements = new LinkedHashMap<FileElement, Integer> ( repaintQueue );
+            repaintQueue.clear ();
+            repaintScheduled = false;
+        }
+        final ListModel<?> model = fileList.getModel ();
+        Rectangle dirty = null;
+        for ( final Map.Entry<FileElement, Integer> entry : elements.entrySet () )
+        {
+            // Element might have moved since it was requested, visible area is repainted in that case
+            final int index = entry.getValue ();
+            final boolean valid = index < model.getSize () && model.getElementAt ( index ) == entry.getKey ();
+            final Rectangle bounds = valid ? fileList.getCellBounds ( index, index ) : fileList.getVisibleRect ();
+            if ( bounds != null )
+            {
+                dirty = dirty == null ? bounds : dirty.union ( bounds );
+            }
+        }
+        if ( dirty != null )
+        {
+            fileList.repaint ( dirty );
+        }
+    }
+
+    /**
+     * Cancels all pending requests.
+     */
+    public void cancelAll ()
+    {
+        synchronized ( lock )
+        {
+            for ( final ThumbnailTask task : pending.values () )
+            {
+                if ( task.getState () == TaskState.waiting && task.cancel () )
+                {
+                    for ( final FileElement element : task.getElements () )
+                    {
+                        element.setThumbnailQueued ( false );
+                        element.setDisabledThumbnailQueued ( false );
+                    }
+                    cancelledCount++;
+                }
+            }
+            pending.clear ();
+        }
+    }
+
+    /**
+     * Returns pending requests count.
+     *
+     * @return pending requests count
+     */
+    public int getPendingCount ()
+    {
+        synchronized ( lock )
+        {
+            return pending.size ();
+        }
+    }
+
+    /**
+     * Returns generated thumbnails count.
+     *
+     * @return generated thumbnails count
+     */
+    public long getGeneratedCount ()
+    {
+        synchronized ( lock )
+        {
+            return generatedCount;
+        }
+    }
+
+    /**
+     * Returns cancelled requests count.
+     *
+     * @return cancelled requests count
+     */
+    public long getCancelledCount ()
+    {
+        synchronized ( lock )
+        {
+            return cancelledCount;
+        }
+    }
+
+    /**
+     * Returns merged duplicate requests count.
+     *
+     * @return merged duplicate requests count
+     */
+    public long getMergedCount ()
+    {
+        synchronized ( lock )
+        {
+            return mergedCount;
+        }
+    }
+
+    /**
+     * Returns time it took to display first visible thumbnail after the last directory or viewport change in milliseconds.
+     * Time is measured from the first thumbnail request to the first generated visible thumbnail.
+     *
+     * @return time to first visible thumbnail in milliseconds, -1 if none was generated yet
+     */
+    public long getFirstThumbnailTime ()
+    {
+        synchronized ( lock )
+        {
+            return firstThumbnailTime;
+        }
+    }
+
+    /**
+     * Single file thumbnail generation task.
+     */
+    protected class ThumbnailTask extends Task<Object>
+    {
+        /**
+         * Thumbnail file.
+         */
+        protected final File file;
+
+        /**
+         * Elements waiting for this thumbnail mapped to their latest requested cell indices.
+         */
+        protected final Map<FileElement, Integer> elements = new LinkedHashMap<FileElement, Integer> ( 1 );
+
+        /**
+         * Elements which also need disabled thumbnail.
+         */
+        protected final Set<FileElement> disabled = new HashSet<FileElement> ( 1 );
+
+        /**
+         * Visible range generation at the latest request time.
+         */
+        protected volatile long generation;
+
+        /**
+         * Constructs new thumbnail task.
+         *
+         * @param file       thumbnail file
+         * @param index      requested cell index
+         * @param generation visible range generation at the request time
+         */
+        public ThumbnailTask ( final File file, final int index, final long generation )
+        {
+            // Upper cells go first
+            super ( null, -index );
+            this.file = file;
+            this.generation = generation;
+        }
+
+        /**
+         * Returns thumbnail file.
+         *
+         * @return thumbnail file
+         */
+        public File getFile ()
+        {
+            return file;
+        }
+
+        /**
+         * Returns visible range generation at the latest request time.
+         *
+         * @return visible range generation at the latest request time
+         */
+        public long getGeneration ()
+        {
+            return generation;
+        }
+
+        /**
+         * Returns elements waiting for this thumbnail.
+         *
+         * @return elements waiting for this thumbnail
+         */
+        public List<FileElement> getElements ()
+        {
+            synchronized ( ThumbnailScheduler.this.lock )
+            {
+                return new ArrayList<FileElement> ( elements.keySet () );
+            }
+        }
+
+        /**
+         * Returns elements waiting for this thumbnail mapped to their latest requested cell indices.
+         *
+         * @return elements waiting for this thumbnail mapped to their latest requested cell indices
+         */
+        public Map<FileElement, Integer> getIndices ()
+        {
+            synchronized ( ThumbnailScheduler.this.lock )
+            {
+                return new LinkedHashMap<FileElement, Integer> ( elements );
+            }
+        }
+
+        /**
+         * Adds element waiting for this thumbnail.
+         *
+         * @param element  element waiting for this thumbnail
+         * @param index    requested cell index
+         * @param disabled whether disabled thumbnail is required or not
+         */
+        public void addElement ( final FileElement element, final int index, final boolean disabled )
+        {
+            elements.put ( element, index );
+            if ( disabled )
+            {
+                this.disabled.add ( element );
+            }
+        }
+
+        /**
+         * Sets visible range generation at the latest request time.
+         *
+         * @param generation visible range generation at the latest request time
+         */
+        public void setGeneration ( final long generation )
+        {
+            this.generation = generation;
+        }
+
+        /**
+         * Returns whether any of the waiting elements was requested for a currently visible cell or not.
+         *
+         * @return true if any of the waiting elements was requested for a currently visible cell, false otherwise
+         */
+        protected boolean isVisible ()
+        {
+            for ( final Integer index : elements.values () )
+            {
+                if ( index >= firstVisible && index <= lastVisible )
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        protected Object execute ()
+        {
+            final List<FileElement> elements;
+            final Set<FileElement> disabled;
+            synchronized ( ThumbnailScheduler.this.lock )
+            {
+                elements = new ArrayList<FileElement> ( this.elements.keySet () );
+                disabled = new HashSet<FileElement> ( this.disabled );
+            }
+            // Thumbnail is generated once and shared between all waiting elements
+            final FileElement first = elements.get ( 0 );
+            renderer.loadThumbnail ( first, !disabled.isEmpty () );
+            for ( int i = 1; i < elements.size (); i++ )
+            {
+                final FileElement element = elements.get ( i );
+                element.setEnabledThumbnail ( first.getEnabledThumbnail () );
+                if ( disabled.contains ( element ) )
+                {
+                    element.setDisabledThumbnail ( first.getDisabledThumbnail () );
+                }
+            }
+            completed ( this );
+            return null;
+        }
+    }
+}
@@ -17,10 +17,14 @@
 
 package com.alee.extended.list;
 
+import com.alee.laf.GlobalConstants;
 import com.alee.laf.list.WebList;
 import com.alee.laf.list.editor.ListCellEditor;
 import com.alee.laf.scroll.WebScrollBarUI;
 import com.alee.laf.scroll.WebScrollPane;
+import com.alee.managers.file.FileChange;
+import com.alee.managers.file.FileChangeListener;
+import com.alee.managers.file.FileWatchManager;
 import com.alee.utils.FileUtils;
 
 import javax.swing.*;
@@ -70,6 +74,21 @@ public class WebFileList extends WebList
      */
     protected File displayedDirectory = null;
 
+    /**
+     * Whether displayed directory should be watched for changes or not.
+     */
+    protected boolean watchChanges = WebFileListStyle.watchChanges;
+
+    /**
+     * Currently watched directory.
+     */
+    protected File watchedDirectory = null;
+
+    /**
+     * Displayed directory changes listener.
+     */
+    protected FileChangeListener fileChangeListener = null;
+
     /**
      * Scroll pane with fixed preferred size that fits file list settings.
      */
@@ -141,6 +160,23 @@ public class WebFileList extends WebList
         setCellRenderer ( new WebFileListCellRenderer ( WebFileList.this ) );
     }
 
+    /**
+     * Sets list cell renderer.
+     * Previously used WebFileListCellRenderer is uninstalled to stop its thumbnails generation.
+     *
+     * @param cellRenderer new list cell renderer
+     */
+    @Override
+    public void setCellRenderer ( final ListCellRenderer cellRenderer )
+    {
+        final WebFileListCellRenderer oldRenderer = getWebFileListCellRenderer ();
+        super.setCellRenderer ( cellRenderer );
+        if ( oldRenderer != null && oldRenderer != cellRenderer )
+        {
+            oldRenderer.uninstall ();
+        }
+    }
+
     /**
      * Returns specific for WebFileList renderer.
      * Be aware that this method might throw ClassCastException if renderer is altered by user.
@@ -279,6 +315,28 @@ public class WebFileList extends WebList
         reloadFiles ();
     }
 
+    /**
+     * Returns whether displayed directory should be watched for changes or not.
+     *
+     * @return true if displayed directory should be watched for changes, false otherwise
+     */
+    public boolean isWatchChanges ()
+    {
+        return watchChanges;
+    }
+
+    /**
+     * Sets whether displayed directory should be watched for changes or not.
+     * Changes are applied to the list incrementally without reloading whole directory.
+     *
+     * @param watchChanges whether displayed directory should be watched for changes or not
+     */
+    public void setWatchChanges ( final boolean watchChanges )
+    {
+        this.watchChanges = watchChanges;
+        updateWatchedDirectory ();
+    }
+
     /**
      * Reloads files from displayed directory.
      */
@@ -313,7 +371,7 @@ public class WebFileList extends WebList
         final List<File> oldSelection = getSelectedFiles ();
 
         // Getting files and updating list model
-        final File[] files = file != null ? FileUtils.sortFiles ( file.listFiles ( fileFilter ) ) : FileUtils.getDiskRoots ();
+        final File[] files = file != null ? FileUtils.sortFiles ( FileUtils.listFiles ( file, fileFilter ) ) : FileUtils.getDiskRoots ();
         getFileListModel ().setData ( files );
 
         // Restoring selection if its same folder
@@ -324,6 +382,108 @@ public class WebFileList extends WebList
 
         // Saving new displayed directory
         this.displayedDirectory = file;
+        updateWatchedDirectory ();
+    }
+
+    /**
+     * Starts watching displayed directory if needed and stops watching directory which is not displayed anymore.
+     * Directory is only watched while list is displayable.
+     */
+    protected void updateWatchedDirectory ()
+    {
+        final File directory = watchChanges && isDisplayable () ? displayedDirectory : null;
+        if ( !FileUtils.equals ( watchedDirectory, directory ) )
+        {
+            if ( watchedDirectory != null )
+            {
+                FileWatchManager.removeListener ( watchedDirectory, fileChangeListener );
+                watchedDirectory = null;
+            }
+            if ( directory != null )
+            {
+                if ( fileChangeListener == null )
+                {
+                    fileChangeListener = new FileChangeListener ()
+                    {
+                        @Override
+                        public void filesChanged ( final File directory, final List<FileChange> changes )
+                        {
+                            if ( FileUtils.equals ( directory, watchedDirectory ) )
+                            {
+                                WebFileList.this.filesChanged ( changes );
+                            }
+                        }
+                    };
+                }
+                if ( FileWatchManager.addListener ( directory, fileChangeListener ) )
+                {
+                    watchedDirectory = directory;
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies displayed directory changes to the list.
+     *
+     * @param changes displayed directory changes
+     */
+    protected void filesChanged ( final List<FileChange> changes )
+    {
+        final FileListModel model = getFileListModel ();
+        for ( final FileChange change : changes )
+        {
+            final File file = change.getFile ();
+            switch ( change.getType () )
+            {
+                case overflow:
+                {
+                    reloadFiles ();
+                    return;
+                }
+                case deleted:
+                {
+                    model.removeFile ( file );
+                    break;
+                }
+                default:
+                {
+                    // Created or modified file might have become accepted or declined by filter
+                    if ( fileFilter == null || fileFilter.accept ( file ) )
+                    {
+                        if ( !model.updateFile ( file ) )
+                        {
+                            model.insertFile ( file, GlobalConstants.FILE_COMPARATOR );
+                        }
+                    }
+                    else
+                    {
+                        model.removeFile ( file );
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addNotify ()
+    {
+        super.addNotify ();
+        updateWatchedDirectory ();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeNotify ()
+    {
+        super.removeNotify ();
+        updateWatchedDirectory ();
     }
 
     /**
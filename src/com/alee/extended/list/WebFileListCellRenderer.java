@@ -31,8 +31,6 @@ import java.awt.*;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.File;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Custom list cell renderer for WebFileList component.
@@ -101,9 +99,9 @@ public class WebFileListCellRenderer extends WebListCellRenderer
     protected final Object thumbnailsLock = new Object ();
 
     /**
-     * Executor service for thumbnails generation.
+     * Thumbnails generation scheduler.
      */
-    protected ExecutorService executorService = Executors.newSingleThreadExecutor ();
+    protected ThumbnailScheduler thumbnailScheduler;
 
     /**
      * Constructs cell renderer for the specified file list.
@@ -115,6 +113,7 @@ public class WebFileListCellRenderer extends WebListCellRenderer
         super ();
 
         this.fileList = fileList;
+        this.thumbnailScheduler = new ThumbnailScheduler ( fileList, this );
 
         iconLabel = new WebLabel ();
         iconLabel.setHorizontalAlignment ( JLabel.CENTER );
@@ -267,7 +266,7 @@ public class WebFileListCellRenderer extends WebListCellRenderer
             {
                 if ( !element.isThumbnailQueued () && !element.isDisabledThumbnailQueued () )
                 {
-                    queueThumbnailLoad ( element, false );
+                    queueThumbnailLoad ( element, index, false );
                 }
             }
 
@@ -288,7 +287,7 @@ public class WebFileListCellRenderer extends WebListCellRenderer
             {
                 if ( !element.isDisabledThumbnailQueued () )
                 {
-                    queueThumbnailLoad ( element, true );
+                    queueThumbnailLoad ( element, index, true );
                 }
             }
 
@@ -344,58 +343,77 @@ public class WebFileListCellRenderer extends WebListCellRenderer
         return fileList.getFileListViewType ().equals ( FileListViewType.tiles );
     }
 
+    /**
+     * Returns thumbnails generation scheduler.
+     *
+     * @return thumbnails generation scheduler
+     */
+    public ThumbnailScheduler getThumbnailScheduler ()
+    {
+        return thumbnailScheduler;
+    }
+
+    /**
+     * Detaches thumbnails generation scheduler from the file list.
+     * This method is called when this renderer is replaced in the file list.
+     */
+    public void uninstall ()
+    {
+        thumbnailScheduler.uninstall ();
+    }
+
     /**
      * Adds specified element into thumbnails queue.
      *
-     * @param element element to add
+     * @param element  element to add
+     * @param index    rendered cell index
+     * @param disabled whether disabled thumbnail should be generated as well or not
      */
-    protected void queueThumbnailLoad ( final FileElement element, final boolean disabled )
+    protected void queueThumbnailLoad ( final FileElement element, final int index, final boolean disabled )
     {
-        element.setThumbnailQueued ( true );
-        element.setDisabledThumbnailQueued ( disabled );
+        thumbnailScheduler.queue ( element, index, disabled );
+    }
 
-        executorService.submit ( new Runnable ()
+    /**
+     * Loads thumbnails for the specified element.
+     * This method is called from thumbnail generation threads.
+     *
+     * @param element  element to load thumbnails for
+     * @param disabled whether disabled thumbnail should be loaded as well or not
+     */
+    protected void loadThumbnail ( final FileElement element, final boolean disabled )
+    {
+        final String absolutePath = element.getFile ().getAbsolutePath ();
+        final String ext = FileUtils.getFileExtPart ( element.getFile ().getName (), false ).toLowerCase ();
+        if ( fileList.isGenerateThumbnails () && GlobalConstants.IMAGE_FORMATS.contains ( ext ) )
         {
-            @Override
-            public void run ()
+            final ImageIcon thumb = element.getEnabledThumbnail () != null ? element.getEnabledThumbnail () :
+                    ImageUtils.createThumbnailIcon ( absolutePath, thumbSize );
+            if ( thumb != null )
             {
-                final String absolutePath = element.getFile ().getAbsolutePath ();
-                final String ext = FileUtils.getFileExtPart ( element.getFile ().getName (), false ).toLowerCase ();
-                if ( fileList.isGenerateThumbnails () && GlobalConstants.IMAGE_FORMATS.contains ( ext ) )
-                {
-                    final ImageIcon thumb = element.getEnabledThumbnail () != null ? element.getEnabledThumbnail () :
-                            ImageUtils.createThumbnailIcon ( absolutePath, thumbSize );
-                    if ( thumb != null )
-                    {
-                        element.setEnabledThumbnail ( thumb );
-                        if ( disabled )
-                        {
-                            element.setDisabledThumbnail ( ImageUtils.createDisabledCopy ( thumb ) );
-                        }
-                    }
-                    else
-                    {
-                        element.setEnabledThumbnail ( FileUtils.getStandartFileIcon ( element.getFile (), true, true ) );
-                        if ( disabled )
-                        {
-                            element.setDisabledThumbnail ( FileUtils.getStandartFileIcon ( element.getFile (), true, false ) );
-                        }
-                    }
-                }
-                else
+                element.setEnabledThumbnail ( thumb );
+                if ( disabled )
                 {
-                    element.setEnabledThumbnail ( FileUtils.getStandartFileIcon ( element.getFile (), true, true ) );
-                    if ( disabled )
-                    {
-                        element.setDisabledThumbnail ( FileUtils.getStandartFileIcon ( element.getFile (), true, false ) );
-                    }
+                    element.setDisabledThumbnail ( ImageUtils.createDisabledCopy ( thumb ) );
                 }
-                if ( disabled != fileList.isEnabled () )
+            }
+            else
+            {
+                element.setEnabledThumbnail ( FileUtils.getStandartFileIcon ( element.getFile (), true, true ) );
+                if ( disabled )
                 {
-                    fileList.repaint ( element );
+                    element.setDisabledThumbnail ( FileUtils.getStandartFileIcon ( element.getFile (), true, false ) );
                 }
             }
-        } );
+        }
+        else
+        {
+            element.setEnabledThumbnail ( FileUtils.getStandartFileIcon ( element.getFile (), true, true ) );
+            if ( disabled )
+            {
+                element.setDisabledThumbnail ( FileUtils.getStandartFileIcon ( element.getFile (), true, false ) );
+            }
+        }
     }
 
     /**
@@ -53,4 +53,9 @@ public final class WebFileListStyle
      * File filter.
      */
     public static AbstractFileFilter fileFilter = GlobalConstants.NON_HIDDEN_ONLY_FILTER;
-}
\ No newline at end of file
+
+    /**
+     * Whether displayed directory should be watched for changes or not.
+     */
+    public static boolean watchChanges = true;
+}
@@ -31,12 +31,14 @@ import com.alee.managers.settings.DefaultValue;
 import com.alee.managers.settings.SettingsManager;
 import com.alee.managers.settings.SettingsMethods;
 import com.alee.managers.settings.SettingsProcessor;
+import com.alee.utils.AnimationManager;
 import com.alee.utils.CollectionUtils;
 import com.alee.utils.ImageUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.laf.ShapeProvider;
+import com.alee.utils.swing.Animation;
+import com.alee.utils.swing.AnimationAdapter;
 import com.alee.utils.swing.DataProvider;
-import com.alee.utils.swing.WebTimer;
 
 import javax.swing.*;
 import java.awt.*;
@@ -153,7 +155,7 @@ public class WebCollapsiblePane extends WebPanel implements SwingConstants, Shap
     /**
      * State change animation timer.
      */
-    protected WebTimer animator = null;
+    protected Animation animator = null;
 
     /**
      * Whether custom title component is set or not.
@@ -552,7 +554,7 @@ public class WebCollapsiblePane extends WebPanel implements SwingConstants, Shap
      */
     public boolean isAnimating ()
     {
-        return animator != null && animator.isRunning ();
+        return AnimationManager.isRegistered ( animator );
     }
 
     /**
@@ -655,25 +657,39 @@ public class WebCollapsiblePane extends WebPanel implements SwingConstants, Shap
 
         if ( animate && isShowing () )
         {
-            animator = new WebTimer ( "WebCollapsiblePane.collapseTimer", StyleConstants.fastAnimationDelay, new ActionListener ()
+            animator = new AnimationAdapter ( this, StyleConstants.fastAnimationDelay )
             {
                 @Override
-                public void actionPerformed ( final ActionEvent e )
+                public boolean step ()
                 {
                     if ( transitionProgress > 0f )
                     {
                         transitionProgress = Math.max ( 0f, transitionProgress - expandSpeed );
                         revalidate ();
+                        return true;
                     }
                     else
                     {
-                        transitionProgress = 0f;
-                        finishCollapseAction ();
-                        animator.stop ();
+                        complete ();
+                        return false;
                     }
                 }
-            } );
-            animator.start ();
+
+                @Override
+                public Rectangle getDirtyRegion ()
+                {
+                    // Revalidation will repaint pane anyway
+                    return new Rectangle ();
+                }
+
+                @Override
+                public void complete ()
+                {
+                    transitionProgress = 0f;
+                    finishCollapseAction ();
+                }
+            };
+            AnimationManager.register ( animator );
         }
         else
         {
@@ -747,25 +763,39 @@ public class WebCollapsiblePane extends WebPanel implements SwingConstants, Shap
 
         if ( animate && isShowing () )
         {
-            animator = new WebTimer ( "WebCollapsiblePane.expandTimer", StyleConstants.fastAnimationDelay, new ActionListener ()
+            animator = new AnimationAdapter ( this, StyleConstants.fastAnimationDelay )
             {
                 @Override
-                public void actionPerformed ( final ActionEvent e )
+                public boolean step ()
                 {
                     if ( transitionProgress < 1f )
                     {
                         transitionProgress = Math.min ( 1f, transitionProgress + expandSpeed );
                         revalidate ();
+                        return true;
                     }
                     else
                     {
-                        transitionProgress = 1f;
-                        finishExpandAction ();
-                        animator.stop ();
+                        complete ();
+                        return false;
                     }
                 }
-            } );
-            animator.start ();
+
+                @Override
+                public Rectangle getDirtyRegion ()
+                {
+                    // Revalidation will repaint pane anyway
+                    return new Rectangle ();
+                }
+
+                @Override
+                public void complete ()
+                {
+                    transitionProgress = 1f;
+                    finishExpandAction ();
+                }
+            };
+            AnimationManager.register ( animator );
         }
         else
         {
@@ -793,10 +823,7 @@ public class WebCollapsiblePane extends WebPanel implements SwingConstants, Shap
      */
     protected void stopAnimation ()
     {
-        if ( animator != null && animator.isRunning () )
-        {
-            animator.stop ();
-        }
+        AnimationManager.unregister ( animator );
     }
 
     /**
@@ -18,15 +18,15 @@
 package com.alee.extended.transition;
 
 import com.alee.extended.transition.effects.TransitionEffect;
+import com.alee.utils.AnimationManager;
 import com.alee.utils.CollectionUtils;
 import com.alee.utils.MathUtils;
 import com.alee.utils.SwingUtils;
-import com.alee.utils.swing.WebTimer;
+import com.alee.utils.swing.Animation;
+import com.alee.utils.swing.AnimationAdapter;
 
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
@@ -35,7 +35,7 @@ import java.util.List;
  * User: mgarin Date: 27.10.11 Time: 14:58
  */
 
-public class ImageTransition extends JComponent implements ActionListener
+public class ImageTransition extends JComponent
 {
     // Transition listeners
     protected List<TransitionListener> transitionListeners = new ArrayList<TransitionListener> ( 1 );
@@ -48,7 +48,7 @@ public class ImageTransition extends JComponent implements ActionListener
     protected List<TransitionEffect> transitionEffects = new ArrayList<TransitionEffect> ();
 
     // Variables
-    protected WebTimer animator = null;
+    protected Animation animator = null;
     protected boolean animating = false;
     protected boolean blocked = false;
 
@@ -77,7 +77,7 @@ public class ImageTransition extends JComponent implements ActionListener
 
     public boolean isAnimating ()
     {
-        return animator != null && animator.isRunning () && animating;
+        return AnimationManager.isRegistered ( animator ) && animating;
     }
 
     public boolean isBlocked ()
@@ -163,9 +163,9 @@ public class ImageTransition extends JComponent implements ActionListener
 
     public void destroy ()
     {
-        if ( animator != null && animator.isRunning () )
+        if ( animator != null )
         {
-            animator.stop ();
+            AnimationManager.unregister ( animator );
             animator = null;
         }
         if ( transitionListeners.size () > 0 )
@@ -218,29 +218,41 @@ public class ImageTransition extends JComponent implements ActionListener
 
         // Starting new transition
         final long animationDelay = actualTransitionEffect != null ? actualTransitionEffect.getAnimationDelay () : 0;
-        animator = new WebTimer ( "ImageTransition.animator", animationDelay, this );
+        animator = new AnimationAdapter ( this, animationDelay )
+        {
+            @Override
+            public boolean step ()
+            {
+                if ( actualTransitionEffect == null || actualTransitionEffect.performAnimationTick ( ImageTransition.this ) )
+                {
+                    finishTransition ();
+                    return false;
+                }
+                return true;
+            }
+
+            @Override
+            public Rectangle getDirtyRegion ()
+            {
+                // Transition effects repaint transition themselves
+                return new Rectangle ();
+            }
+
+            @Override
+            public void complete ()
+            {
+                finishTransition ();
+            }
+        };
 
         // Starting transition
         fireTransitionStarted ();
-        animator.start ();
-    }
-
-    @Override
-    public void actionPerformed ( ActionEvent e )
-    {
-        if ( actualTransitionEffect == null || actualTransitionEffect.performAnimationTick ( ImageTransition.this ) )
-        {
-            animator.stop ();
-            finishTransition ();
-        }
+        AnimationManager.register ( animator );
     }
 
     public void cancelTransition ()
     {
-        if ( animator != null )
-        {
-            animator.stop ();
-        }
+        AnimationManager.unregister ( animator );
     }
 
     protected void finishTransition ()
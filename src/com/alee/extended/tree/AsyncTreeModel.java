@@ -18,6 +18,8 @@
 package com.alee.extended.tree;
 
 import com.alee.laf.tree.TreeState;
+import com.alee.managers.profiler.EdtWatchdog;
+import com.alee.managers.task.Task;
 import com.alee.laf.tree.WebTreeModel;
 import com.alee.utils.CollectionUtils;
 import com.alee.utils.MapUtils;
@@ -28,7 +30,10 @@ import com.alee.utils.compare.Filter;
 import javax.swing.*;
 import javax.swing.tree.MutableTreeNode;
 import javax.swing.tree.TreeNode;
+import javax.swing.tree.TreePath;
+import java.awt.*;
 import java.util.*;
+import java.util.List;
 
 /**
  * Special model for asynchronous tree that provides asynchronous data loading.
@@ -49,6 +54,12 @@ public class AsyncTreeModel<E extends AsyncUniqueNode> extends WebTreeModel<E>
      */
     protected static final String ROOT_CACHE = "root";
 
+    /**
+     * Maximum amount of nodes inserted and removed by filtering update under a single parent which are passed into separate events.
+     * Larger changes are applied as a parent node structure change.
+     */
+    protected static final int FILTERING_EVENTS_LIMIT = 1000;
+
     /**
      * Lock object for asynchronous tree listeners.
      */
@@ -109,6 +120,71 @@ public class AsyncTreeModel<E extends AsyncUniqueNode> extends WebTreeModel<E>
      */
     protected final DoubleMap<String, E> nodeById = new DoubleMap<String, E> ();
 
+    /**
+     * Active childs loads (parent ID -> load ID).
+     * Childs provided by any other load than the active one for that parent are ignored.
+     */
+    protected final Map<String, Object> activeLoads = new HashMap<String, Object> ();
+
+    /**
+     * Unfinished asynchronous childs loads tasks (parent node -> load task).
+     * These tasks are used to cancel or reprioritize loads.
+     */
+    protected final Map<E, Task<Object>> loadTasks = new HashMap<E, Task<Object>> ();
+
+    /**
+     * Whether childs loads priorities update is scheduled or not.
+     */
+    protected boolean prioritiesUpdateScheduled = false;
+
+    /**
+     * Whether huge nodes should keep their childs virtual or not.
+     */
+    protected boolean virtualChilds = WebAsyncTreeStyle.virtualChilds;
+
+    /**
+     * Minimum amount of node childs which makes them virtual.
+     */
+    protected int virtualChildsThreshold = WebAsyncTreeStyle.virtualChildsThreshold;
+
+    /**
+     * Maximum amount of created nodes kept for each node with virtual childs.
+     */
+    protected int virtualWindowSize = WebAsyncTreeStyle.virtualWindowSize;
+
+    /**
+     * Virtual childs indices (parent ID -> virtual childs index).
+     * Nodes which have their childs in this map do not keep them in their childs vector.
+     */
+    protected final Map<String, VirtualChildsIndex> virtualChildsIndices = new HashMap<String, VirtualChildsIndex> ();
+
+    /**
+     * Created virtual childs (parent ID -> child ID -> child node).
+     * These nodes are created on demand and least recently used ones are discarded once there are too many of them.
+     */
+    protected final Map<String, Map<String, E>> virtualChildsWindows = new HashMap<String, Map<String, E>> ();
+
+    /**
+     * Unfinished incremental filtering task.
+     */
+    protected Task<Object> filteringTask = null;
+
+    /**
+     * Unfinished incremental filtering ID, used to skip outdated filtering results.
+     */
+    protected Object filteringId = null;
+
+    /**
+     * Whether unfinished incremental filtering only narrows down currently displayed nodes or not.
+     */
+    protected boolean filteringNarrowing = false;
+
+    /**
+     * Paths of expanded nodes which are currently hidden by filtering.
+     * Those are expanded again as soon as they are displayed again.
+     */
+    protected final Set<TreePath> hiddenExpandedPaths = new HashSet<TreePath> ();
+
     /**
      * Lock object for busy state changes.
      */
@@ -177,6 +253,93 @@ public class AsyncTreeModel<E extends AsyncUniqueNode> extends WebTreeModel<E>
         return dataProvider;
     }
 
+    /**
+     * Returns whether huge nodes should keep their childs virtual or not.
+     *
+     * @return true if huge nodes should keep their childs virtual, false otherwise
+     */
+    public boolean isVirtualChilds ()
+    {
+        return virtualChilds;
+    }
+
+    /**
+     * Sets whether huge nodes should keep their childs virtual or not.
+     * Virtual childs are only supported by data providers implementing VirtualTreeDataProvider.
+     * This setting only affects childs loaded after the change.
+     *
+     * @param virtualChilds whether huge nodes should keep their childs virtual or not
+     */
+    public void setVirtualChilds ( final boolean virtualChilds )
+    {
+        this.virtualChilds = virtualChilds;
+    }
+
+    /**
+     * Returns minimum amount of node childs which makes them virtual.
+     *
+     * @return minimum amount of node childs which makes them virtual
+     */
+    public int getVirtualChildsThreshold ()
+    {
+        return virtualChildsThreshold;
+    }
+
+    /**
+     * Sets minimum amount of node childs which makes them virtual.
+     *
+     * @param threshold minimum amount of node childs which makes them virtual
+     */
+    public void setVirtualChildsThreshold ( final int threshold )
+    {
+        this.virtualChildsThreshold = threshold;
+    }
+
+    /**
+     * Returns maximum amount of created nodes kept for each node with virtual childs.
+     *
+     * @return maximum amount of created nodes kept for each node with virtual childs
+     */
+    public int getVirtualWindowSize ()
+    {
+        return virtualWindowSize;
+    }
+
+    /**
+     * Sets maximum amount of created nodes kept for each node with virtual childs.
+     *
+     * @param size maximum amount of created nodes kept for each node with virtual childs
+     */
+    public void setVirtualWindowSize ( final int size )
+    {
+        this.virtualWindowSize = size;
+    }
+
+    /**
+     * Returns whether the specified node keeps its childs virtual or not.
+     *
+     * @param node node
+     * @return true if the specified node keeps its childs virtual, false otherwise
+     */
+    public boolean isVirtual ( final E node )
+    {
+        return getVirtualChildsIndex ( node ) != null;
+    }
+
+    /**
+     * Returns virtual childs index for the specified node or null if it doesn't keep its childs virtual.
+     *
+     * @param node node
+     * @return virtual childs index for the specified node or null if it doesn't keep its childs virtual
+     */
+    protected VirtualChildsIndex getVirtualChildsIndex ( final E node )
+    {
+        synchronized ( cacheLock )
+        {
+            return virtualChildsIndices.get ( node.getId () );
+        }
+    }
+
     /**
      * Returns tree root node.
      *
@@ -224,7 +387,8 @@ public class AsyncTreeModel<E extends AsyncUniqueNode> extends WebTreeModel<E>
         }
         else if ( areChildsLoaded ( node ) )
         {
-            return super.getChildCount ( parent );
+            final VirtualChildsIndex index = getVirtualChildsIndex ( node );
+            return index != null ? index.size () : super.getChildCount ( parent );
         }
         else
         {
@@ -245,12 +409,179 @@ public class AsyncTreeModel<E extends AsyncUniqueNode> extends WebTreeModel<E>
         final E node = ( E ) parent;
         if ( areChildsLoaded ( node ) )
         {
-            return ( E ) super.getChild ( parent, index );
+            final VirtualChildsIndex virtualIndex = getVirtualChildsIndex ( node );
+            return virtualIndex != null ? getVirtualChild ( node, virtualIndex.getId ( index ) ) : ( E ) super.getChild ( parent, index );
+        }
+        else
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Returns index of child node in parent node.
+     *
+     * @param parent parent node
+     * @param child  child node
+     * @return index of child node in parent node
+     */
+    @Override
+    public int getIndexOfChild ( final Object parent, final Object child )
+    {
+        if ( parent == null || child == null )
+        {
+            return -1;
+        }
+        final E node = ( E ) parent;
+        final VirtualChildsIndex index = getVirtualChildsIndex ( node );
+        if ( index != null )
+        {
+            final E childNode = ( E ) child;
+            return index.indexOf ( childNode.getId (), getVirtualSortKey ( node, childNode ) );
+        }
+        else
+        {
+            return super.getIndexOfChild ( parent, child );
+        }
+    }
+
+    /**
+     * Informs tree that the specified node has changed.
+     * Virtual child nodes are not actually added into their parent node so their index is resolved through virtual childs index.
+     *
+     * @param node changed node
+     */
+    @Override
+    public void nodeChanged ( final TreeNode node )
+    {
+        final TreeNode parent = node != null ? node.getParent () : null;
+        if ( parent != null && isVirtual ( ( E ) parent ) )
+        {
+            final int index = getIndexOfChild ( parent, node );
+            if ( index != -1 )
+            {
+                fireTreeNodesChanged ( this, getPathToRoot ( parent ), new int[]{ index }, new Object[]{ node } );
+            }
+        }
+        else
+        {
+            super.nodeChanged ( node );
+        }
+    }
+
+    /**
+     * Informs tree that childs at the specified indices of the specified node have changed.
+     * Virtual child nodes are retrieved through virtual childs index since they are not actually added into their parent node.
+     *
+     * @param node         parent node
+     * @param childIndices changed childs indices
+     */
+    @Override
+    public void nodesChanged ( final TreeNode node, final int[] childIndices )
+    {
+        if ( node != null && childIndices != null && childIndices.length > 0 && isVirtual ( ( E ) node ) )
+        {
+            final Object[] childs = new Object[ childIndices.length ];
+            for ( int i = 0; i < childIndices.length; i++ )
+            {
+                childs[ i ] = getChild ( node, childIndices[ i ] );
+            }
+            fireTreeNodesChanged ( this, getPathToRoot ( node ), childIndices, childs );
         }
         else
+        {
+            super.nodesChanged ( node, childIndices );
+        }
+    }
+
+    /**
+     * Returns virtual child node with the specified ID, creating it if needed.
+     * Returns null if specified node doesn't keep its childs virtual or if there is no such child.
+     *
+     * @param parent  parent node
+     * @param childId child node ID
+     * @return virtual child node with the specified ID
+     */
+    public E findVirtualChild ( final E parent, final String childId )
+    {
+        final VirtualChildsIndex index = getVirtualChildsIndex ( parent );
+        if ( index == null )
         {
             return null;
         }
+        synchronized ( cacheLock )
+        {
+            final Map<String, E> window = virtualChildsWindows.get ( parent.getId () );
+            if ( window != null && window.containsKey ( childId ) )
+            {
+                return window.get ( childId );
+            }
+        }
+        final E child = ( ( VirtualTreeDataProvider<E> ) dataProvider ).createChild ( parent, childId );
+        return index.indexOf ( childId, getVirtualSortKey ( parent, child ) ) >= 0 ? getVirtualChild ( parent, childId ) : null;
+    }
+
+    /**
+     * Returns virtual child node with the specified ID, creating it if it is not yet created.
+     * Least recently used created childs are discarded in case there are too many of them.
+     *
+     * @param parent  parent node
+     * @param childId child node ID
+     * @return virtual child node with the specified ID
+     */
+    protected E getVirtualChild ( final E parent, final String childId )
+    {
+        synchronized ( cacheLock )
+        {
+            Map<String, E> window = virtualChildsWindows.get ( parent.getId () );
+            if ( window == null )
+            {
+                window = new LinkedHashMap<String, E> ( 16, 0.75f, true );
+                virtualChildsWindows.put ( parent.getId (), window );
+            }
+            E child = window.get ( childId );
+            if ( child == null )
+            {
+                child = ( ( VirtualTreeDataProvider<E> ) dataProvider ).createChild ( parent, childId );
+                child.setParent ( parent );
+                window.put ( childId, child );
+                nodeById.put ( childId, child );
+                trimVirtualWindow ( window );
+            }
+            return child;
+        }
+    }
+
+    /**
+     * Discards least recently used created virtual childs in case there are too many of them.
+     * Childs which have their own childs loaded and selected childs are always kept to preserve tree state.
+     *
+     * @param window created virtual childs
+     */
+    protected void trimVirtualWindow ( final Map<String, E> window )
+    {
+        final Iterator<E> iterator = window.values ().iterator ();
+        while ( window.size () > virtualWindowSize && iterator.hasNext () )
+        {
+            final E child = iterator.next ();
+            if ( child.isWaiting () && !tree.isPathSelected ( child.getTreePath () ) )
+            {
+                iterator.remove ();
+                nodeById.remove ( child.getId () );
+            }
+        }
+    }
+
+    /**
+     * Returns sort key for the specified virtual child.
+     *
+     * @param parent parent node
+     * @param child  child node
+     * @return sort key for the specified virtual child
+     */
+    protected Comparable<?> getVirtualSortKey ( final E parent, final E child )
+    {
+        return ( ( VirtualTreeDataProvider<E> ) dataProvider ).getChildSortKey ( parent, child );
     }
 
     /**
@@ -279,6 +610,9 @@ public class AsyncTreeModel<E extends AsyncUniqueNode> extends WebTreeModel<E>
         // Cancels tree editing
         tree.cancelEditing ();
 
+        // Cancels unfinished childs loads
+        cancelChildsLoads ( ( E ) node );
+
         // Cleaning up nodes cache
         clearNodeChildsCache ( ( E ) node, false );
 
@@ -300,11 +634,28 @@ public class AsyncTreeModel<E extends AsyncUniqueNode> extends WebTreeModel<E>
             if ( clearNode )
             {
                 nodeById.remove ( node.getId () );
+                activeLoads.remove ( node.getId () );
+                final Task<Object> task = loadTasks.remove ( node );
+                if ( task != null )
+                {
+                    AsyncTreeQueue.getInstance ( tree ).cancel ( task );
+                }
             }
 
             // Clears node childs cached state
             nodeCached.remove ( node.getId () );
 
+            // Clears node virtual childs
+            virtualChildsIndices.remove ( node.getId () );
+            final Map<String, E> window = virtualChildsWindows.remove ( node.getId () );
+            if ( window != null )
+            {
+                for ( final E child : window.values () )
+                {
+                    clearNodeChildsCache ( child, true );
+                }
+            }
+
             // Clears node raw childs cache
             final List<E> childs = rawNodeChildsCache.remove ( node.getId () );
 
@@ -389,6 +740,7 @@ public class AsyncTreeModel<E extends AsyncUniqueNode> extends WebTreeModel<E>
             else
             {
                 parent.setState ( AsyncNodeState.loading );
+                registerObserver ( parent );
                 nodeChanged ( parent );
             }
         }
@@ -411,163 +763,322 @@ public class AsyncTreeModel<E extends AsyncUniqueNode> extends WebTreeModel<E>
             nodesWereRemoved ( parent, indices, childs );
         }
 
+        // Registering new load, results of any previous load for this node will be ignored
+        final Object loadId = new Object ();
+        synchronized ( cacheLock )
+        {
+            activeLoads.put ( parent.getId (), loadId );
+        }
+
         // Loading node childs
         if ( asyncLoading )
         {
             // Executing childs load in a separate thread to avoid locking EDT
             // This queue will also take care of amount of threads to execute async trees requests
-            AsyncTreeQueue.execute ( tree, new Runnable ()
+            final Task<Object> task = AsyncTreeQueue.execute ( tree, new Runnable ()
             {
                 @Override
                 public void run ()
                 {
-                    // Loading childs
-                    dataProvider.loadChilds ( parent, new ChildsListener<E> ()
-                    {
-                        @Override
-                        public void childsLoadCompleted ( final List<E> childs )
-                        {
-                            // Caching raw childs
-                            synchronized ( cacheLock )
-                            {
-                                rawNodeChildsCache.put ( parent.getId (), childs );
-                                cacheNodesById ( childs );
-                            }
-
-                            // Filtering and sorting raw childs
-                            final List<E> realChilds = filterAndSort ( parent, childs );
-
-                            // Updating cache
-                            synchronized ( cacheLock )
-                            {
-                                nodeCached.put ( parent.getId (), true );
-                            }
-
-                            // Performing UI updates and event notification in EDT
-                            SwingUtils.invokeLater ( new Runnable ()
-                            {
-                                @Override
-                                public void run ()
-                                {
-                                    // Checking if any nodes loaded
-                                    if ( realChilds != null && realChilds.size () > 0 )
-                                    {
-                                        // Inserting loaded nodes
-                                        insertNodesIntoImpl ( realChilds, parent, 0 );
-                                    }
-
-                                    // Releasing node busy state
-                                    synchronized ( busyLock )
-                                    {
-                                        parent.setState ( AsyncNodeState.loaded );
-                                        nodeChanged ( parent );
-                                    }
-
-                                    // Firing load completed event
-                                    fireChildsLoadCompleted ( parent, realChilds );
-                                }
-                            } );
-                        }
-
-                        @Override
-                        public void childsLoadFailed ( final Throwable cause )
-                        {
-                            // Caching childs
-                            synchronized ( cacheLock )
-                            {
-                                rawNodeChildsCache.put ( parent.getId (), new ArrayList<E> ( 0 ) );
-                                nodeCached.put ( parent.getId (), true );
-                            }
-
-                            // Performing event notification in EDT
-                            SwingUtils.invokeLater ( new Runnable ()
-                            {
-                                @Override
-                                public void run ()
-                                {
-                                    // Releasing node busy state
-                                    synchronized ( busyLock )
-                                    {
-                                        parent.setState ( AsyncNodeState.failed );
-                                        parent.setFailureCause ( cause );
-                                        nodeChanged ( parent );
-                                    }
-
-                                    // Firing load failed event
-                                    fireChildsLoadFailed ( parent, cause );
-                                }
-                            } );
-                        }
-                    } );
+                    dataProvider.loadChilds ( parent, new ModelChildsListener ( parent, loadId, true ) );
                 }
             } );
+            synchronized ( cacheLock )
+            {
+                loadTasks.put ( parent, task );
+            }
+            scheduleLoadPrioritiesUpdate ();
             return 0;
         }
         else
         {
             // Loading childs
-            dataProvider.loadChilds ( parent, new ChildsListener<E> ()
+            dataProvider.loadChilds ( parent, new ModelChildsListener ( parent, loadId, false ) );
+            return parent.getChildCount ();
+        }
+    }
+
+    /**
+     * Cancels unfinished childs loads of the specified node and all of its child nodes.
+     * Nodes with cancelled loads are returned into waiting state so their childs will be loaded again when requested.
+     *
+     * @param node node to cancel childs loads for
+     */
+    public void cancelChildsLoads ( final E node )
+    {
+        // Collecting unfinished loads
+        final Map<E, Task<Object>> cancelled = new HashMap<E, Task<Object>> ();
+        synchronized ( cacheLock )
+        {
+            final Iterator<Map.Entry<E, Task<Object>>> iterator = loadTasks.entrySet ().iterator ();
+            while ( iterator.hasNext () )
             {
-                @Override
-                public void childsLoadCompleted ( final List<E> childs )
+                final Map.Entry<E, Task<Object>> entry = iterator.next ();
+                final E loading = entry.getKey ();
+                if ( loading == node || loading.isNodeAncestor ( node ) )
                 {
-                    // Caching raw childs
-                    synchronized ( cacheLock )
-                    {
-                        rawNodeChildsCache.put ( parent.getId (), childs );
-                        cacheNodesById ( childs );
-                    }
-
-                    // Filtering and sorting raw childs
-                    final List<E> realChilds = filterAndSort ( parent, childs );
-
-                    // Updating cache
-                    synchronized ( cacheLock )
-                    {
-                        nodeCached.put ( parent.getId (), true );
-                    }
-
-                    // Checking if any nodes loaded
-                    if ( realChilds != null && realChilds.size () > 0 )
-                    {
-                        // Inserting loaded nodes
-                        insertNodesIntoImpl ( realChilds, parent, 0 );
-                    }
-
-                    // Releasing node busy state
-                    synchronized ( busyLock )
-                    {
-                        parent.setState ( AsyncNodeState.loaded );
-                        nodeChanged ( parent );
-                    }
-
-                    // Firing load completed event
-                    fireChildsLoadCompleted ( parent, realChilds );
+                    cancelled.put ( loading, entry.getValue () );
+                    activeLoads.remove ( loading.getId () );
+                    iterator.remove ();
                 }
+            }
+        }
 
-                @Override
-                public void childsLoadFailed ( final Throwable cause )
-                {
-                    // Caching childs
-                    synchronized ( cacheLock )
-                    {
-                        rawNodeChildsCache.put ( parent.getId (), new ArrayList<E> ( 0 ) );
-                        nodeCached.put ( parent.getId (), true );
-                    }
-
-                    // Releasing node busy state
-                    synchronized ( busyLock )
-                    {
-                        parent.setState ( AsyncNodeState.failed );
-                        parent.setFailureCause ( cause );
-                        nodeChanged ( parent );
-                    }
+        // Cancelling loads and resetting nodes
+        final AsyncTreeQueue queue = AsyncTreeQueue.getInstance ( tree );
+        for ( final Map.Entry<E, Task<Object>> entry : cancelled.entrySet () )
+        {
+            final E loading = entry.getKey ();
+            queue.cancel ( entry.getValue () );
+            clearNodeChildsCache ( loading, false );
+            loading.removeAllChildren ();
+            synchronized ( busyLock )
+            {
+                loading.setState ( AsyncNodeState.waiting );
+            }
+            nodeStructureChanged ( loading );
+        }
+    }
 
-                    // Firing load failed event
-                    fireChildsLoadFailed ( parent, cause );
+    /**
+     * Schedules childs loads priorities update.
+     * Update is performed later in EDT since tree layout might be updating at this moment.
+     */
+    protected void scheduleLoadPrioritiesUpdate ()
+    {
+        synchronized ( cacheLock )
+        {
+            if ( prioritiesUpdateScheduled )
+            {
+                return;
+            }
+            prioritiesUpdateScheduled = true;
+        }
+        SwingUtilities.invokeLater ( new Runnable ()
+        {
+            @Override
+            public void run ()
+            {
+                synchronized ( cacheLock )
+                {
+                    prioritiesUpdateScheduled = false;
                 }
-            } );
-            return parent.getChildCount ();
+                updateLoadPriorities ();
+            }
+        } );
+    }
+
+    /**
+     * Updates priorities of childs loads which are not started yet.
+     * Loads for nodes displayed within the tree visible area are performed first.
+     */
+    public void updateLoadPriorities ()
+    {
+        final Map<E, Task<Object>> tasks;
+        synchronized ( cacheLock )
+        {
+            if ( loadTasks.isEmpty () )
+            {
+                return;
+            }
+            tasks = new HashMap<E, Task<Object>> ( loadTasks );
+        }
+        final Rectangle visibleRect = tree.getVisibleRect ();
+        final AsyncTreeQueue queue = AsyncTreeQueue.getInstance ( tree );
+        for ( final Map.Entry<E, Task<Object>> entry : tasks.entrySet () )
+        {
+            final Rectangle bounds = tree.getPathBounds ( entry.getKey ().getTreePath () );
+            final boolean visible = bounds != null && bounds.intersects ( visibleRect );
+            queue.setPriority ( entry.getValue (), visible ? Task.HIGH_PRIORITY : Task.NORMAL_PRIORITY );
+        }
+    }
+
+    /**
+     * Inserts loaded childs part into parent node keeping childs sorted.
+     * Childs which are already inserted into parent node are skipped.
+     *
+     * @param parent parent node
+     * @param childs filtered and sorted childs part
+     */
+    protected void insertChildsPart ( final E parent, final List<E> childs )
+    {
+        // Skipping childs which were already inserted by sorting and filtering update
+        final List<E> inserted = new ArrayList<E> ( childs.size () );
+        for ( final E child : childs )
+        {
+            if ( child.getParent () != parent )
+            {
+                inserted.add ( child );
+            }
+        }
+        if ( inserted.size () == 0 )
+        {
+            return;
+        }
+
+        final Comparator<E> comparator = dataProvider.getChildsComparator ( parent );
+        final int childCount = parent.getChildCount ();
+        if ( comparator == null || childCount == 0 )
+        {
+            // Simply appending childs
+            insertNodesIntoImpl ( inserted, parent, childCount );
+        }
+        else
+        {
+            // Merging sorted childs part with already sorted parent childs
+            final List<E> existing = new ArrayList<E> ( childCount );
+            for ( int i = 0; i < childCount; i++ )
+            {
+                existing.add ( ( E ) parent.getChildAt ( i ) );
+            }
+            final List<E> merged = new ArrayList<E> ( childCount + inserted.size () );
+            final int[] indices = new int[ inserted.size () ];
+            int e = 0;
+            int n = 0;
+            while ( e < existing.size () || n < inserted.size () )
+            {
+                if ( n < inserted.size () && ( e == existing.size () || comparator.compare ( inserted.get ( n ), existing.get ( e ) ) < 0 ) )
+                {
+                    indices[ n ] = merged.size ();
+                    merged.add ( inserted.get ( n ) );
+                    n++;
+                }
+                else
+                {
+                    merged.add ( existing.get ( e ) );
+                    e++;
+                }
+            }
+            parent.removeAllChildren ();
+            for ( final E child : merged )
+            {
+                parent.add ( child );
+            }
+            nodesWereInserted ( parent, indices );
+            registerObservers ( inserted );
+        }
+    }
+
+    /**
+     * Returns current parent node childs.
+     * Virtual childs are returned as a list which creates child nodes on demand.
+     *
+     * @param parent parent node
+     * @return current parent node childs
+     */
+    protected List<E> getCurrentChilds ( final E parent )
+    {
+        if ( isVirtual ( parent ) )
+        {
+            return new VirtualChildsList ( parent );
+        }
+        final List<E> childs = new ArrayList<E> ( parent.getChildCount () );
+        for ( int i = 0; i < parent.getChildCount (); i++ )
+        {
+            childs.add ( ( E ) parent.getChildAt ( i ) );
+        }
+        return childs;
+    }
+
+    /**
+     * Replaces parent node childs with the specified virtual childs index.
+     * Already created parent node childs are kept to preserve their selection and expansion states.
+     *
+     * @param parent parent node
+     * @param index  virtual childs index
+     */
+    protected void setVirtualChilds ( final E parent, final VirtualChildsIndex index )
+    {
+        // Saving parent node childs selection and expansion states
+        final TreePath path = parent.getTreePath ();
+        final TreePath[] selection = tree.getSelectionPaths ();
+        final Enumeration<TreePath> expanded = tree.getExpandedDescendants ( path );
+        final List<TreePath> expandedPaths = expanded != null ? Collections.list ( expanded ) : null;
+
+        synchronized ( cacheLock )
+        {
+            // Moving already created childs into virtual childs window
+            Map<String, E> window = virtualChildsWindows.get ( parent.getId () );
+            if ( window == null )
+            {
+                window = new LinkedHashMap<String, E> ( 16, 0.75f, true );
+                virtualChildsWindows.put ( parent.getId (), window );
+            }
+            final List<E> childs = getCurrentChilds ( parent );
+            parent.removeAllChildren ();
+            for ( final E child : childs )
+            {
+                child.setParent ( parent );
+                window.put ( child.getId (), child );
+                nodeById.put ( child.getId (), child );
+            }
+
+            // Updating virtual childs index
+            virtualChildsIndices.put ( parent.getId (), index );
+        }
+        nodeStructureChanged ( parent );
+
+        // Restoring parent node childs selection and expansion states
+        if ( expandedPaths != null )
+        {
+            for ( final TreePath expandedPath : expandedPaths )
+            {
+                tree.expandPath ( expandedPath );
+            }
+        }
+        if ( selection != null )
+        {
+            tree.setSelectionPaths ( selection );
+        }
+    }
+
+    /**
+     * Inserts child nodes into parent node which keeps its childs virtual.
+     * Childs are placed according to their sort keys, childs which are already indexed or filtered out are skipped.
+     *
+     * @param parent parent node
+     * @param childs child nodes to insert
+     */
+    protected void insertVirtualChilds ( final E parent, final List<E> childs )
+    {
+        final VirtualChildsIndex index = getVirtualChildsIndex ( parent );
+        final Filter<E> filter = dataProvider.getChildsFilter ( parent );
+        for ( final E child : childs )
+        {
+            final Comparable<?> key = getVirtualSortKey ( parent, child );
+            if ( ( filter == null || filter.accept ( child ) ) && index.indexOf ( child.getId (), key ) < 0 )
+            {
+                clearNodeChildsCache ( child, false );
+                synchronized ( cacheLock )
+                {
+                    final int i = index.add ( child.getId (), key );
+                    child.setParent ( parent );
+                    virtualChildsWindows.get ( parent.getId () ).put ( child.getId (), child );
+                    nodeById.put ( child.getId (), child );
+                    fireTreeNodesInserted ( this, getPathToRoot ( parent ), new int[]{ i }, new Object[]{ child } );
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes child node from parent node which keeps its childs virtual.
+     *
+     * @param parent parent node
+     * @param child  child node to remove
+     */
+    protected void removeVirtualChild ( final E parent, final E child )
+    {
+        final int i;
+        synchronized ( cacheLock )
+        {
+            i = getVirtualChildsIndex ( parent ).remove ( child.getId (), getVirtualSortKey ( parent, child ) );
+            virtualChildsWindows.get ( parent.getId () ).remove ( child.getId () );
+        }
+        clearNodeChildsCache ( child, true );
+        if ( i >= 0 )
+        {
+            nodesWereRemoved ( parent, new int[]{ i }, new Object[]{ child } );
         }
     }
 
@@ -590,6 +1101,7 @@ public class AsyncTreeModel<E extends AsyncUniqueNode> extends WebTreeModel<E>
             else
             {
                 parent.setState ( AsyncNodeState.loading );
+                registerObserver ( parent );
                 nodeChanged ( parent );
             }
         }
@@ -655,6 +1167,13 @@ public class AsyncTreeModel<E extends AsyncUniqueNode> extends WebTreeModel<E>
             return;
         }
 
+        // Virtual childs are simply added into index
+        if ( isVirtual ( parent ) )
+        {
+            insertVirtualChilds ( parent, childs );
+            return;
+        }
+
         // Adding new raw childs
         synchronized ( cacheLock )
         {
@@ -702,6 +1221,13 @@ public class AsyncTreeModel<E extends AsyncUniqueNode> extends WebTreeModel<E>
             return;
         }
 
+        // Virtual childs are simply removed from index
+        if ( isVirtual ( parentNode ) )
+        {
+            removeVirtualChild ( parentNode, childNode );
+            return;
+        }
+
         // Removing raw childs
         synchronized ( cacheLock )
         {
@@ -752,6 +1278,13 @@ public class AsyncTreeModel<E extends AsyncUniqueNode> extends WebTreeModel<E>
             return;
         }
 
+        // Virtual childs are always placed according to their sort keys
+        if ( isVirtual ( parentNode ) )
+        {
+            insertVirtualChilds ( parentNode, Arrays.asList ( childNode ) );
+            return;
+        }
+
         // Inserting new raw childs
         synchronized ( cacheLock )
         {
@@ -794,6 +1327,13 @@ public class AsyncTreeModel<E extends AsyncUniqueNode> extends WebTreeModel<E>
             return;
         }
 
+        // Virtual childs are always placed according to their sort keys
+        if ( isVirtual ( parent ) )
+        {
+            insertVirtualChilds ( parent, children );
+            return;
+        }
+
         // Inserting new raw childs
         synchronized ( cacheLock )
         {
@@ -849,6 +1389,13 @@ public class AsyncTreeModel<E extends AsyncUniqueNode> extends WebTreeModel<E>
             return;
         }
 
+        // Virtual childs are always placed according to their sort keys
+        if ( isVirtual ( parent ) )
+        {
+            insertVirtualChilds ( parent, Arrays.asList ( children ) );
+            return;
+        }
+
         // Inserting new raw childs
         synchronized ( cacheLock )
         {
@@ -1006,6 +1553,13 @@ public class AsyncTreeModel<E extends AsyncUniqueNode> extends WebTreeModel<E>
      */
     protected void performSortingAndFilteringImpl ( final E parentNode )
     {
+        // Virtual childs are filtered and sorted when they are indexed so they have to be reloaded
+        if ( isVirtual ( parentNode ) )
+        {
+            clearNodeChildsCache ( parentNode, false );
+            return;
+        }
+
         // Retrieving raw childs
         final List<E> childs = rawNodeChildsCache.get ( parentNode.getId () );
 
@@ -1064,89 +1618,480 @@ public class AsyncTreeModel<E extends AsyncUniqueNode> extends WebTreeModel<E>
     }
 
     /**
-     * Looks for the node with the specified ID in the tree model and returns it or null if it was not found.
+     * Updates filtering for all loaded nodes.
+     * Unlike {@link #updateSortingAndFiltering()} nodes are matched in a separate thread and only the actual changes are applied to the
+     * tree with nodes insert and remove events, so expansion and selection of the nodes which stay displayed are not affected.
+     * Nodes are not sorted again when filtering is narrowing since filtering doesn't change their order.
      *
-     * @param nodeId node ID
-     * @return node with the specified ID or null if it was not found
+     * @param narrowing whether current filter accepts only nodes accepted by the previous one or not, in that case only currently
+     *                  displayed nodes are matched instead of all loaded ones
      */
-    public E findNode ( final String nodeId )
+    public void updateFiltering ( final boolean narrowing )
     {
-        return nodeById.get ( nodeId );
-    }
+        // Filtering will be updated after root childs load
+        final E root = getRoot ();
+        if ( !root.isLoaded () || !areChildsLoaded ( root ) )
+        {
+            updateSortingAndFiltering ();
+            return;
+        }
 
-    /**
-     * Returns nodes cache map copy.
-     *
-     * @return nodes cache map copy
-     */
-    public DoubleMap<String, E> getNodesCache ()
-    {
-        return MapUtils.copyDoubleMap ( nodeById );
-    }
+        // Cancelling unfinished filtering
+        // Its results were never displayed so narrowing is only possible if that filtering was narrowing as well
+        final boolean incremental;
+        final Task<Object> unfinished;
+        final Object id = new Object ();
+        synchronized ( cacheLock )
+        {
+            unfinished = filteringTask;
+            incremental = narrowing && ( unfinished == null || filteringNarrowing );
+            filteringTask = null;
+            filteringId = id;
+            filteringNarrowing = incremental;
+        }
+        if ( unfinished != null )
+        {
+            AsyncTreeQueue.getInstance ( tree ).cancel ( unfinished );
+        }
 
-    /**
-     * Registers image observer for loader icons of the specified nodes.
-     *
-     * @param nodes nodes
-     */
-    protected void registerObservers ( final List<E> nodes )
-    {
-        for ( final E newChild : nodes )
+        // Collecting nodes to match
+        final Map<E, List<E>> childs = new HashMap<E, List<E>> ();
+        final Map<E, List<E>> rawChilds = new HashMap<E, List<E>> ();
+        final Map<E, Integer> rawSizes = new HashMap<E, Integer> ();
+        final List<E> virtual = new ArrayList<E> ();
+        synchronized ( cacheLock )
         {
-            registerObserver ( newChild );
+            collectFilteringChilds ( root, incremental, childs, rawChilds, rawSizes, virtual );
         }
-    }
 
-    /**
-     * Registers image observer for loader icons of the specified nodes.
-     *
-     * @param nodes nodes
-     */
-    protected void registerObservers ( final E[] children )
-    {
-        for ( final E newChild : children )
+        // Matching nodes in a separate thread
+        final Task<Object> task = AsyncTreeQueue.execute ( tree, new Runnable ()
         {
-            registerObserver ( newChild );
+            @Override
+            public void run ()
+            {
+                final Map<E, List<E>> filtered = filterChilds ( childs, incremental );
+                if ( filtered != null )
+                {
+                    SwingUtilities.invokeLater ( new Runnable ()
+                    {
+                        @Override
+                        public void run ()
+                        {
+                            applyFiltering ( id, filtered, rawChilds, rawSizes, virtual );
+                        }
+                    } );
+                }
+            }
+        }, Task.HIGH_PRIORITY );
+        synchronized ( cacheLock )
+        {
+            if ( filteringId == id )
+            {
+                filteringTask = task;
+            }
         }
     }
 
     /**
-     * Registers image observer for loader icon of the specified node.
+     * Collects childs which should be matched for the specified node and all of its loaded child nodes.
+     * Raw childs lists and their sizes are collected to check whether they were modified before filtering results are applied.
      *
-     * @param node node
+     * @param node        node to collect childs for
+     * @param incremental whether should collect currently displayed childs instead of all loaded ones
+     * @param childs      childs to match by their parent nodes
+     * @param rawChilds   raw childs lists by their parent nodes
+     * @param rawSizes    raw childs lists sizes by their parent nodes
+     * @param virtual     nodes with virtual childs which have to be reloaded instead
      */
-    protected void registerObserver ( final E node )
+    protected void collectFilteringChilds ( final E node, final boolean incremental, final Map<E, List<E>> childs,
+                                            final Map<E, List<E>> rawChilds, final Map<E, Integer> rawSizes, final List<E> virtual )
     {
-        final ImageIcon loaderIcon = node.getLoaderIcon ();
-        if ( loaderIcon != null )
+        if ( isVirtual ( node ) )
         {
-            loaderIcon.setImageObserver ( new NodeImageObserver ( tree, node ) );
+            virtual.add ( node );
+            return;
+        }
+        final List<E> raw = rawNodeChildsCache.get ( node.getId () );
+        if ( raw == null )
+        {
+            return;
+        }
+        final List<E> nodeChilds = incremental ? getCurrentChilds ( node ) : new ArrayList<E> ( raw );
+        childs.put ( node, nodeChilds );
+        rawChilds.put ( node, raw );
+        rawSizes.put ( node, raw.size () );
+        for ( final E child : nodeChilds )
+        {
+            collectFilteringChilds ( child, incremental, childs, rawChilds, rawSizes, virtual );
         }
     }
 
     /**
-     * Returns list of all available asynchronous tree model listeners.
+     * Returns filtered and sorted childs by their parent nodes or null if filtering was cancelled.
+     * This method is called outside of the event dispatch thread and checks thread interruption to stop early on cancel.
      *
-     * @return asynchronous tree model listeners list
+     * @param childs      childs to match by their parent nodes
+     * @param incremental whether specified childs are currently displayed childs which are already sorted
+     * @return filtered and sorted childs by their parent nodes or null if filtering was cancelled
      */
-    public List<AsyncTreeModelListener> getAsyncTreeModelListeners ()
+    protected Map<E, List<E>> filterChilds ( final Map<E, List<E>> childs, final boolean incremental )
     {
-        synchronized ( modelListenersLock )
+        final Map<Filter<E>, Map<E, Boolean>> results = new IdentityHashMap<Filter<E>, Map<E, Boolean>> ( 1 );
+        final Map<E, List<E>> filtered = new HashMap<E, List<E>> ( childs.size () );
+        for ( final Map.Entry<E, List<E>> entry : childs.entrySet () )
         {
-            return CollectionUtils.copy ( asyncTreeModelListeners );
+            final E parent = entry.getKey ();
+            final List<E> nodeChilds = entry.getValue ();
+            final Filter<E> filter = dataProvider.getChildsFilter ( parent );
+            final List<E> accepted;
+            if ( filter != null )
+            {
+                Map<E, Boolean> filterResults = results.get ( filter );
+                if ( filterResults == null )
+                {
+                    filterResults = new HashMap<E, Boolean> ();
+                    results.put ( filter, filterResults );
+                }
+                accepted = new ArrayList<E> ( nodeChilds.size () );
+                for ( int i = 0; i < nodeChilds.size (); i++ )
+                {
+                    if ( i % 1024 == 0 && Thread.currentThread ().isInterrupted () )
+                    {
+                        return null;
+                    }
+                    final E child = nodeChilds.get ( i );
+                    if ( filter instanceof AsyncTreeNodesFilter ? ( ( AsyncTreeNodesFilter<E> ) filter ).accept ( child, childs, filterResults ) :
+                            filter.accept ( child ) )
+                    {
+                        accepted.add ( child );
+                    }
+                }
+            }
+            else
+            {
+                accepted = new ArrayList<E> ( nodeChilds );
+            }
+            if ( !incremental )
+            {
+                final Comparator<E> comparator = dataProvider.getChildsComparator ( parent );
+                if ( comparator != null )
+                {
+                    Collections.sort ( accepted, comparator );
+                }
+            }
+            filtered.put ( parent, accepted );
+            if ( Thread.currentThread ().isInterrupted () )
+            {
+                return null;
+            }
         }
+        return filtered;
     }
 
     /**
-     * Adds new asynchronous tree model listener.
+     * Applies filtering results to the tree.
+     * Childs of the nodes which were modified while filtering was performed are filtered and sorted again right away.
      *
-     * @param listener asynchronous tree model listener to add
+     * @param id        filtering ID
+     * @param filtered  filtered and sorted childs by their parent nodes
+     * @param rawChilds raw childs lists by their parent nodes
+     * @param rawSizes  raw childs lists sizes by their parent nodes
+     * @param virtual   nodes with virtual childs which have to be reloaded
      */
-    public void addAsyncTreeModelListener ( final AsyncTreeModelListener listener )
+    protected void applyFiltering ( final Object id, final Map<E, List<E>> filtered, final Map<E, List<E>> rawChilds,
+                                    final Map<E, Integer> rawSizes, final List<E> virtual )
     {
-        synchronized ( modelListenersLock )
+        synchronized ( cacheLock )
         {
-            asyncTreeModelListeners.add ( listener );
+            if ( filteringId != id )
+            {
+                return;
+            }
+            filteringId = null;
+            filteringTask = null;
+        }
+
+        // Saving expanded paths to find out which of them get hidden
+        final List<TreePath> expanded = new ArrayList<TreePath> ();
+        final Enumeration<TreePath> descendants = tree.getExpandedDescendants ( getRoot ().getTreePath () );
+        if ( descendants != null )
+        {
+            while ( descendants.hasMoreElements () )
+            {
+                expanded.add ( descendants.nextElement () );
+            }
+        }
+
+        // Updating nodes childs
+        for ( final Map.Entry<E, List<E>> entry : filtered.entrySet () )
+        {
+            final E parent = entry.getKey ();
+            final List<E> raw;
+            synchronized ( cacheLock )
+            {
+                raw = rawNodeChildsCache.get ( parent.getId () );
+            }
+            if ( raw != null && !isVirtual ( parent ) )
+            {
+                final boolean modified = raw != rawChilds.get ( parent ) || raw.size () != rawSizes.get ( parent );
+                setFilteredChilds ( parent, modified ? filterAndSort ( parent, raw ) : entry.getValue () );
+            }
+        }
+
+        // Virtual childs are filtered and sorted when they are indexed so they have to be reloaded
+        for ( final E parent : virtual )
+        {
+            if ( isVirtual ( parent ) )
+            {
+                clearNodeChildsCache ( parent, false );
+                nodeStructureChanged ( parent );
+            }
+        }
+
+        // Restoring expansion of the nodes which are displayed again
+        final Iterator<TreePath> iterator = hiddenExpandedPaths.iterator ();
+        while ( iterator.hasNext () )
+        {
+            final TreePath path = iterator.next ();
+            if ( isDisplayed ( path ) )
+            {
+                tree.expandPath ( path );
+                iterator.remove ();
+            }
+            else
+            {
+                final E node = ( E ) path.getLastPathComponent ();
+                if ( findNode ( node.getId () ) != node )
+                {
+                    iterator.remove ();
+                }
+            }
+        }
+
+        // Saving expansion of the nodes which were hidden
+        for ( final TreePath path : expanded )
+        {
+            if ( !isDisplayed ( path ) )
+            {
+                hiddenExpandedPaths.add ( path );
+            }
+        }
+    }
+
+    /**
+     * Replaces parent node childs with the specified filtered childs.
+     * Only the nodes which were actually removed or inserted are passed into tree model events.
+     *
+     * @param parent parent node
+     * @param childs filtered and sorted childs
+     */
+    protected void setFilteredChilds ( final E parent, final List<E> childs )
+    {
+        final int childCount = parent.getChildCount ();
+        final Set<E> current = Collections.newSetFromMap ( new IdentityHashMap<E, Boolean> ( childCount ) );
+        final Set<E> updated = Collections.newSetFromMap ( new IdentityHashMap<E, Boolean> ( childs.size () ) );
+        updated.addAll ( childs );
+
+        // Collecting removed childs
+        final List<Integer> removedIndices = new ArrayList<Integer> ();
+        final List<E> removed = new ArrayList<E> ();
+        for ( int i = 0; i < childCount; i++ )
+        {
+            final E child = ( E ) parent.getChildAt ( i );
+            current.add ( child );
+            if ( !updated.contains ( child ) )
+            {
+                removedIndices.add ( i );
+                removed.add ( child );
+            }
+        }
+
+        // Collecting inserted childs
+        final List<Integer> insertedIndices = new ArrayList<Integer> ();
+        final List<E> inserted = new ArrayList<E> ();
+        for ( int i = 0; i < childs.size (); i++ )
+        {
+            final E child = childs.get ( i );
+            if ( !current.contains ( child ) )
+            {
+                insertedIndices.add ( i );
+                inserted.add ( child );
+            }
+        }
+        if ( removed.size () == 0 && inserted.size () == 0 )
+        {
+            return;
+        }
+
+        // Updating childs
+        if ( removed.size () + inserted.size () > FILTERING_EVENTS_LIMIT )
+        {
+            // Tree applies each removed node separately in linear time so large changes are applied as a structure change
+            // Only this parent node childs selection and expansion states have to be restored afterwards
+            final TreePath[] selection = tree.getSelectionPaths ();
+            final Enumeration<TreePath> expanded = tree.getExpandedDescendants ( parent.getTreePath () );
+            final List<TreePath> expandedPaths = expanded != null ? Collections.list ( expanded ) : null;
+            parent.removeAllChildren ();
+            for ( final E child : childs )
+            {
+                parent.add ( child );
+            }
+            nodeStructureChanged ( parent );
+            registerObservers ( inserted );
+            if ( expandedPaths != null )
+            {
+                for ( final TreePath expandedPath : expandedPaths )
+                {
+                    if ( isDisplayed ( expandedPath ) )
+                    {
+                        tree.expandPath ( expandedPath );
+                    }
+                }
+            }
+            if ( selection != null )
+            {
+                final List<TreePath> displayed = new ArrayList<TreePath> ( selection.length );
+                for ( final TreePath selected : selection )
+                {
+                    if ( isDisplayed ( selected ) )
+                    {
+                        displayed.add ( selected );
+                    }
+                }
+                tree.setSelectionPaths ( displayed.toArray ( new TreePath[ displayed.size () ] ) );
+            }
+            return;
+        }
+
+        // Removal indices are relative to the old childs and insertion indices to the new ones, so tree can apply events one by one
+        parent.removeAllChildren ();
+        for ( final E child : childs )
+        {
+            parent.add ( child );
+        }
+        if ( removed.size () > 0 )
+        {
+            nodesWereRemoved ( parent, CollectionUtils.toArray ( removedIndices ), removed.toArray () );
+        }
+        if ( inserted.size () > 0 )
+        {
+            nodesWereInserted ( parent, CollectionUtils.toArray ( insertedIndices ) );
+            registerObservers ( inserted );
+        }
+    }
+
+    /**
+     * Returns whether all nodes of the specified path are displayed in the tree or not.
+     *
+     * @param path path to check
+     * @return true if all nodes of the specified path are displayed in the tree, false otherwise
+     */
+    protected boolean isDisplayed ( final TreePath path )
+    {
+        if ( path.getPathComponent ( 0 ) != getRoot () )
+        {
+            return false;
+        }
+        for ( int i = 1; i < path.getPathCount (); i++ )
+        {
+            if ( ( ( TreeNode ) path.getPathComponent ( i ) ).getParent () != path.getPathComponent ( i - 1 ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Looks for the node with the specified ID in the tree model and returns it or null if it was not found.
+     *
+     * @param nodeId node ID
+     * @return node with the specified ID or null if it was not found
+     */
+    public E findNode ( final String nodeId )
+    {
+        return nodeById.get ( nodeId );
+    }
+
+    /**
+     * Returns nodes cache map copy.
+     *
+     * @return nodes cache map copy
+     */
+    public DoubleMap<String, E> getNodesCache ()
+    {
+        return MapUtils.copyDoubleMap ( nodeById );
+    }
+
+    /**
+     * Registers image observer for loader icons of the specified nodes.
+     *
+     * @param nodes nodes
+     */
+    protected void registerObservers ( final List<E> nodes )
+    {
+        for ( final E newChild : nodes )
+        {
+            registerObserver ( newChild );
+        }
+    }
+
+    /**
+     * Registers image observer for loader icons of the specified nodes.
+     *
+     * @param nodes nodes
+     */
+    protected void registerObservers ( final E[] children )
+    {
+        for ( final E newChild : children )
+        {
+            registerObserver ( newChild );
+        }
+    }
+
+    /**
+     * Registers image observer for loader icon of the specified node.
+     * Loader icon is only created for nodes which are actually loading to avoid creating an icon per node in huge trees.
+     *
+     * @param node node
+     */
+    protected void registerObserver ( final E node )
+    {
+        if ( !node.isLoading () )
+        {
+            return;
+        }
+        final ImageIcon loaderIcon = node.getLoaderIcon ();
+        if ( loaderIcon != null )
+        {
+            loaderIcon.setImageObserver ( new NodeImageObserver ( tree, node ) );
+        }
+    }
+
+    /**
+     * Returns list of all available asynchronous tree model listeners.
+     *
+     * @return asynchronous tree model listeners list
+     */
+    public List<AsyncTreeModelListener> getAsyncTreeModelListeners ()
+    {
+        synchronized ( modelListenersLock )
+        {
+            return CollectionUtils.copy ( asyncTreeModelListeners );
+        }
+    }
+
+    /**
+     * Adds new asynchronous tree model listener.
+     *
+     * @param listener asynchronous tree model listener to add
+     */
+    public void addAsyncTreeModelListener ( final AsyncTreeModelListener listener )
+    {
+        synchronized ( modelListenersLock )
+        {
+            asyncTreeModelListeners.add ( listener );
         }
     }
 
@@ -1177,7 +2122,15 @@ public class AsyncTreeModel<E extends AsyncUniqueNode> extends WebTreeModel<E>
         }
         for ( final AsyncTreeModelListener listener : listeners )
         {
-            listener.childsLoadStarted ( parent );
+            final EdtWatchdog.Trace trace = EdtWatchdog.enter ( "AsyncTreeModel", listener );
+            try
+            {
+                listener.childsLoadStarted ( parent );
+            }
+            finally
+            {
+                EdtWatchdog.exit ( trace );
+            }
         }
     }
 
@@ -1196,7 +2149,15 @@ public class AsyncTreeModel<E extends AsyncUniqueNode> extends WebTreeModel<E>
         }
         for ( final AsyncTreeModelListener listener : listeners )
         {
-            listener.childsLoadCompleted ( parent, childs );
+            final EdtWatchdog.Trace trace = EdtWatchdog.enter ( "AsyncTreeModel", listener );
+            try
+            {
+                listener.childsLoadCompleted ( parent, childs );
+            }
+            finally
+            {
+                EdtWatchdog.exit ( trace );
+            }
         }
     }
 
@@ -1215,7 +2176,467 @@ public class AsyncTreeModel<E extends AsyncUniqueNode> extends WebTreeModel<E>
         }
         for ( final AsyncTreeModelListener listener : listeners )
         {
-            listener.childsLoadFailed ( parent, cause );
+            final EdtWatchdog.Trace trace = EdtWatchdog.enter ( "AsyncTreeModel", listener );
+            try
+            {
+                listener.childsLoadFailed ( parent, cause );
+            }
+            finally
+            {
+                EdtWatchdog.exit ( trace );
+            }
+        }
+    }
+
+    /**
+     * Listener that receives childs loaded by data provider and inserts them into the model.
+     * Each childs part is filtered and sorted separately and merged into already displayed childs, node busy state ends as soon as
+     * the first part is displayed.
+     * When childs are sorted parts are merged only once they are at least as large as already displayed childs, otherwise each merge
+     * would cost as much as all displayed childs and loading a large amount of parts would take quadratic time.
+     */
+    protected class ModelChildsListener implements PartialChildsListener<E>
+    {
+        /**
+         * Parent node.
+         */
+        protected final E parent;
+
+        /**
+         * Load ID.
+         */
+        protected final Object loadId;
+
+        /**
+         * Whether load is performed asynchronously or not.
+         */
+        protected final boolean async;
+
+        /**
+         * Whether next childs part is the first one or not.
+         */
+        protected boolean first = true;
+
+        /**
+         * Virtual childs index being built.
+         * It is only created when parent node gets enough childs to keep them virtual.
+         */
+        protected VirtualChildsIndex virtualIndex = null;
+
+        /**
+         * Amount of virtual childs last published into the tree.
+         */
+        protected int published = 0;
+
+        /**
+         * Raw childs which are loaded and cached but not yet displayed.
+         */
+        protected List<E> pending = null;
+
+        /**
+         * Amount of raw childs already passed into the tree.
+         */
+        protected int displayed = 0;
+
+        /**
+         * Constructs new model childs listener.
+         *
+         * @param parent parent node
+         * @param loadId load ID
+         * @param async  whether load is performed asynchronously or not
+         */
+        public ModelChildsListener ( final E parent, final Object loadId, final boolean async )
+        {
+            super ();
+            this.parent = parent;
+            this.loadId = loadId;
+            this.async = async;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void childsPartLoaded ( final List<E> childs )
+        {
+            childsLoaded ( childs, false );
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void childsLoadCompleted ( final List<E> childs )
+        {
+            childsLoaded ( childs, true );
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void childsLoadFailed ( final Throwable cause )
+        {
+            // Caching childs
+            synchronized ( cacheLock )
+            {
+                if ( !isActive () )
+                {
+                    return;
+                }
+                if ( first )
+                {
+                    rawNodeChildsCache.put ( parent.getId (), new ArrayList<E> ( 0 ) );
+                }
+                nodeCached.put ( parent.getId (), true );
+            }
+
+            // Filtering and sorting childs which were loaded but not yet displayed
+            final List<E> realChilds = pending != null ? filterAndSort ( parent, pending ) : null;
+            pending = null;
+
+            // Performing event notification in EDT
+            perform ( new Runnable ()
+            {
+                @Override
+                public void run ()
+                {
+                    // Checking that load is still actual
+                    if ( !isActive () )
+                    {
+                        return;
+                    }
+                    loadFinished ();
+
+                    // Inserting loaded nodes
+                    if ( realChilds != null && realChilds.size () > 0 )
+                    {
+                        insertChildsPart ( parent, realChilds );
+                    }
+
+                    // Releasing node busy state
+                    synchronized ( busyLock )
+                    {
+                        parent.setState ( AsyncNodeState.failed );
+                        parent.setFailureCause ( cause );
+                        nodeChanged ( parent );
+                    }
+
+                    // Firing load failed event
+                    fireChildsLoadFailed ( parent, cause );
+                }
+            } );
+        }
+
+        /**
+         * Caches and displays loaded childs part.
+         *
+         * @param childs loaded childs part
+         * @param last   whether this is the last childs part or not
+         */
+        protected void childsLoaded ( final List<E> childs, final boolean last )
+        {
+            final boolean firstPart = first;
+            first = false;
+
+            // Caching raw childs
+            final List<E> part = childs != null ? childs : new ArrayList<E> ( 0 );
+            List<E> indexed = null;
+            synchronized ( cacheLock )
+            {
+                if ( !isActive () )
+                {
+                    return;
+                }
+
+                // Switching to virtual childs
+                if ( virtualIndex == null && shouldBeVirtual ( firstPart, part.size () ) )
+                {
+                    // Raw childs loaded so far are moved into the index so they can be discarded
+                    indexed = firstPart ? null : rawNodeChildsCache.remove ( parent.getId () );
+                    if ( indexed != null )
+                    {
+                        for ( final E child : indexed )
+                        {
+                            nodeById.remove ( child.getId () );
+                        }
+                    }
+                    virtualIndex = new VirtualChildsIndex ( ( indexed != null ? indexed.size () : 0 ) + part.size () );
+                    pending = null;
+                }
+                if ( virtualIndex != null )
+                {
+                    if ( firstPart )
+                    {
+                        nodeCached.put ( parent.getId (), true );
+                    }
+                }
+                else
+                {
+                    final List<E> raw = firstPart ? null : rawNodeChildsCache.get ( parent.getId () );
+                    if ( raw == null )
+                    {
+                        rawNodeChildsCache.put ( parent.getId (), new ArrayList<E> ( part ) );
+                    }
+                    else
+                    {
+                        raw.addAll ( part );
+                    }
+                    cacheNodesById ( part );
+                }
+            }
+
+            // Indexing virtual childs
+            if ( virtualIndex != null )
+            {
+                virtualChildsLoaded ( indexed, part, firstPart, last );
+                return;
+            }
+
+            // Postponing sorted childs merge until enough childs are loaded
+            final List<E> loaded;
+            if ( pending != null )
+            {
+                pending.addAll ( part );
+                loaded = pending;
+            }
+            else
+            {
+                loaded = part;
+            }
+            if ( !firstPart && !last && loaded.size () < displayed && dataProvider.getChildsComparator ( parent ) != null )
+            {
+                if ( pending == null )
+                {
+                    pending = new ArrayList<E> ( part );
+                }
+                return;
+            }
+            pending = null;
+            displayed += loaded.size ();
+
+            // Filtering and sorting raw childs part
+            final List<E> realChilds = filterAndSort ( parent, loaded );
+
+            // Updating cache
+            if ( firstPart )
+            {
+                synchronized ( cacheLock )
+                {
+                    nodeCached.put ( parent.getId (), true );
+                }
+            }
+
+            // Performing UI updates and event notification in EDT
+            perform ( new Runnable ()
+            {
+                @Override
+                public void run ()
+                {
+                    // Checking that load is still actual
+                    if ( !isActive () )
+                    {
+                        return;
+                    }
+
+                    // Inserting loaded nodes
+                    if ( realChilds.size () > 0 )
+                    {
+                        insertChildsPart ( parent, realChilds );
+                    }
+
+                    // Releasing node busy state
+                    if ( firstPart )
+                    {
+                        synchronized ( busyLock )
+                        {
+                            parent.setState ( AsyncNodeState.loaded );
+                            nodeChanged ( parent );
+                        }
+                    }
+
+                    // Firing load completed event
+                    if ( last )
+                    {
+                        loadFinished ();
+                        fireChildsLoadCompleted ( parent, getCurrentChilds ( parent ) );
+                    }
+                }
+            } );
+        }
+
+        /**
+         * Returns whether parent node childs should become virtual after the specified amount of childs is added or not.
+         *
+         * @param firstPart whether added childs are the first childs part or not
+         * @param partSize  amount of added childs
+         * @return true if parent node childs should become virtual, false otherwise
+         */
+        protected boolean shouldBeVirtual ( final boolean firstPart, final int partSize )
+        {
+            if ( !virtualChilds || !( dataProvider instanceof VirtualTreeDataProvider ) )
+            {
+                return false;
+            }
+            final List<E> raw = firstPart ? null : rawNodeChildsCache.get ( parent.getId () );
+            return ( raw != null ? raw.size () : 0 ) + partSize >= virtualChildsThreshold;
+        }
+
+        /**
+         * Indexes loaded childs part and publishes virtual childs index.
+         * Index is published each time it doubles in size to display progress without sorting it too often.
+         *
+         * @param raw       raw childs loaded before childs became virtual, might be null
+         * @param part      loaded childs part
+         * @param firstPart whether this is the first childs part or not
+         * @param last      whether this is the last childs part or not
+         */
+        protected void virtualChildsLoaded ( final List<E> raw, final List<E> part, final boolean firstPart, final boolean last )
+        {
+            // Indexing loaded childs
+            if ( raw != null )
+            {
+                indexChilds ( raw );
+            }
+            indexChilds ( part );
+
+            // Publishing index
+            if ( last || virtualIndex.size () >= published * 2 )
+            {
+                published = virtualIndex.size ();
+                final VirtualChildsIndex index = last ? virtualIndex : virtualIndex.copy ();
+                index.sort ();
+                perform ( new Runnable ()
+                {
+                    @Override
+                    public void run ()
+                    {
+                        // Checking that load is still actual
+                        if ( !isActive () )
+                        {
+                            return;
+                        }
+
+                        // Updating virtual childs
+                        setVirtualChilds ( parent, index );
+
+                        // Releasing node busy state
+                        if ( firstPart || parent.isLoading () )
+                        {
+                            synchronized ( busyLock )
+                            {
+                                parent.setState ( AsyncNodeState.loaded );
+                                nodeChanged ( parent );
+                            }
+                        }
+
+                        // Firing load completed event
+                        if ( last )
+                        {
+                            loadFinished ();
+                            fireChildsLoadCompleted ( parent, getCurrentChilds ( parent ) );
+                        }
+                    }
+                } );
+            }
+        }
+
+        /**
+         * Adds IDs and sort keys of the specified childs accepted by filter into virtual childs index.
+         *
+         * @param childs childs to index
+         */
+        protected void indexChilds ( final List<E> childs )
+        {
+            final Filter<E> filter = dataProvider.getChildsFilter ( parent );
+            for ( final E child : childs )
+            {
+                if ( filter == null || filter.accept ( child ) )
+                {
+                    virtualIndex.append ( child.getId (), getVirtualSortKey ( parent, child ) );
+                }
+            }
+        }
+
+        /**
+         * Forgets this load task since it cannot be cancelled anymore.
+         */
+        protected void loadFinished ()
+        {
+            synchronized ( cacheLock )
+            {
+                loadTasks.remove ( parent );
+            }
+        }
+
+        /**
+         * Returns whether this load is still the active one for the parent node or not.
+         *
+         * @return true if this load is still the active one for the parent node, false otherwise
+         */
+        protected boolean isActive ()
+        {
+            synchronized ( cacheLock )
+            {
+                return activeLoads.get ( parent.getId () ) == loadId;
+            }
+        }
+
+        /**
+         * Performs the specified action in EDT.
+         *
+         * @param action action to perform
+         */
+        protected void perform ( final Runnable action )
+        {
+            if ( async )
+            {
+                SwingUtils.invokeLater ( action );
+            }
+            else
+            {
+                action.run ();
+            }
+        }
+    }
+
+    /**
+     * List of virtual childs which creates child nodes on demand.
+     */
+    protected class VirtualChildsList extends AbstractList<E>
+    {
+        /**
+         * Parent node.
+         */
+        protected final E parent;
+
+        /**
+         * Constructs new virtual childs list.
+         *
+         * @param parent parent node
+         */
+        public VirtualChildsList ( final E parent )
+        {
+            super ();
+            this.parent = parent;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public E get ( final int index )
+        {
+            return getChild ( parent, index );
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int size ()
+        {
+            return getChildCount ( parent );
         }
     }
-}
\ No newline at end of file
+}
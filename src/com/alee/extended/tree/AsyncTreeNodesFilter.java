@@ -21,9 +21,8 @@ import com.alee.utils.compare.Filter;
 import com.alee.utils.text.DefaultTextProvider;
 import com.alee.utils.text.TextProvider;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.StringTokenizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Special smart tree filter that doesn't filter out parent nodes which has childs that are accepted by filter.
@@ -41,8 +40,17 @@ public class AsyncTreeNodesFilter<E extends AsyncUniqueNode> implements Filter<E
 
     /**
      * Accept states by node IDs cache.
+     * Cache is replaced on each search request change so that matching which is still running for the previous request in some
+     * background thread won't put outdated states into it.
      */
-    protected Map<String, Boolean> acceptStatesCache = new HashMap<String, Boolean> ();
+    protected volatile AcceptStatesCache acceptStatesCache = new AcceptStatesCache ( "" );
+
+    /**
+     * Normalized nodes text cache.
+     * Node text is provided and converted to lower case (if case doesn't matter) only once and reused for any search request.
+     * Nodes are referenced weakly so that text of nodes removed from the tree doesn't stay in the cache.
+     */
+    protected final Map<E, String> nodeTextCache = Collections.synchronizedMap ( new WeakHashMap<E, String> () );
 
     /**
      * Whether should match case or not.
@@ -83,6 +91,7 @@ public class AsyncTreeNodesFilter<E extends AsyncUniqueNode> implements Filter<E
     public void setTextProvider ( final TextProvider<E> textProvider )
     {
         this.textProvider = textProvider != null ? textProvider : new DefaultTextProvider ();
+        clearTextCache ();
     }
 
     /**
@@ -102,7 +111,11 @@ public class AsyncTreeNodesFilter<E extends AsyncUniqueNode> implements Filter<E
      */
     public void setMatchCase ( final boolean matchCase )
     {
-        this.matchCase = matchCase;
+        if ( this.matchCase != matchCase )
+        {
+            this.matchCase = matchCase;
+            clearTextCache ();
+        }
     }
 
     /**
@@ -165,12 +178,62 @@ public class AsyncTreeNodesFilter<E extends AsyncUniqueNode> implements Filter<E
         this.searchText = searchText;
     }
 
+    /**
+     * Returns whether the specified search text can only narrow down the set of nodes accepted with the previous search text or not.
+     * That is true when any node text accepted by the new search text is also accepted by the previous one under current settings.
+     * This is used to check only the nodes which are currently visible instead of all loaded nodes when search text is extended.
+     *
+     * @param previousText previous search text
+     * @param searchText   new search text
+     * @return true if the specified search text can only narrow down the set of accepted nodes, false otherwise
+     */
+    public boolean isNarrowing ( final String previousText, final String searchText )
+    {
+        final String previous = getSearchRequest ( previousText );
+        final String request = getSearchRequest ( searchText );
+        if ( previous.equals ( "" ) )
+        {
+            return true;
+        }
+        else if ( request.equals ( "" ) || useSpaceAsSeparator && ( previous.contains ( " " ) || request.contains ( " " ) ) )
+        {
+            // Tokens are alternatives so adding a new one might accept more nodes
+            return false;
+        }
+        else
+        {
+            return searchFromStart ? request.startsWith ( previous ) : request.contains ( previous );
+        }
+    }
+
     /**
      * Clears accept states cache.
+     * Normalized nodes text cache is kept since it doesn't depend on search request.
      */
     public void clearCache ()
     {
-        acceptStatesCache.clear ();
+        acceptStatesCache = new AcceptStatesCache ( getSearchRequest ( searchText ) );
+    }
+
+    /**
+     * Clears normalized nodes text cache.
+     * This should be called whenever nodes text might have changed, for example after node editing.
+     */
+    public void clearTextCache ()
+    {
+        nodeTextCache.clear ();
+        clearCache ();
+    }
+
+    /**
+     * Clears cached normalized text and accept state for the specified node.
+     *
+     * @param node node to clear cache for
+     */
+    public void clearCache ( final E node )
+    {
+        nodeTextCache.remove ( node );
+        acceptStatesCache.states.remove ( node.getId () );
     }
 
     /**
@@ -179,10 +242,37 @@ public class AsyncTreeNodesFilter<E extends AsyncUniqueNode> implements Filter<E
     @Override
     public boolean accept ( final E node )
     {
-        final String searchRequest = matchCase ? searchText : searchText.toLowerCase ();
+        final String searchRequest = getSearchRequest ( searchText );
         return searchRequest.equals ( "" ) || acceptIncludingChilds ( node, searchRequest );
     }
 
+    /**
+     * Returns whether the specified node or any of its childs match the filter or not.
+     * Unlike {@link #accept(AsyncUniqueNode)} this method takes childs from the specified map instead of the node itself, so it can be
+     * used to match nodes which are currently filtered out or to match nodes outside of the event dispatch thread.
+     *
+     * @param node    node to match
+     * @param childs  nodes childs by their parent nodes, nodes which are not in the map are considered to have no childs
+     * @param results already known results by nodes, filled with new results by this method
+     * @return true if the specified node or any of its childs match the filter, false otherwise
+     */
+    public boolean accept ( final E node, final Map<E, List<E>> childs, final Map<E, Boolean> results )
+    {
+        final String searchRequest = getSearchRequest ( searchText );
+        return searchRequest.equals ( "" ) || acceptIncludingChilds ( node, searchRequest, childs, results );
+    }
+
+    /**
+     * Returns normalized search request for the specified search text.
+     *
+     * @param searchText search text
+     * @return normalized search request for the specified search text
+     */
+    protected String getSearchRequest ( final String searchText )
+    {
+        return searchText == null ? "" : matchCase ? searchText : searchText.toLowerCase ();
+    }
+
     /**
      * Returns whether the specified node or any of its childs match the filter or not.
      *
@@ -206,6 +296,36 @@ public class AsyncTreeNodesFilter<E extends AsyncUniqueNode> implements Filter<E
         return false;
     }
 
+    /**
+     * Returns whether the specified node or any of its childs provided by the specified map match the filter or not.
+     *
+     * @param node          node to match
+     * @param searchRequest search request text
+     * @param childs        nodes childs by their parent nodes
+     * @param results       already known results by nodes
+     * @return true if the specified node or any of its childs match the filter, false otherwise
+     */
+    protected boolean acceptIncludingChilds ( final E node, final String searchRequest, final Map<E, List<E>> childs,
+                                              final Map<E, Boolean> results )
+    {
+        Boolean accept = results.get ( node );
+        if ( accept == null )
+        {
+            accept = acceptNode ( node, searchRequest );
+            final List<E> nodeChilds = childs.get ( node );
+            if ( !accept && nodeChilds != null )
+            {
+                // All childs are checked so their results can be reused for their own childs lists
+                for ( final E child : nodeChilds )
+                {
+                    accept |= acceptIncludingChilds ( child, searchRequest, childs, results );
+                }
+            }
+            results.put ( node, accept );
+        }
+        return accept;
+    }
+
     /**
      * Returns whether the specified node matches the filter or not.
      * This method might return cached value if it exists, otherwise it will retrieve and cache a new value.
@@ -216,13 +336,21 @@ public class AsyncTreeNodesFilter<E extends AsyncUniqueNode> implements Filter<E
      */
     protected boolean acceptNode ( final E node, final String searchRequest )
     {
-        Boolean accept = acceptStatesCache.get ( node.getId () );
-        if ( accept == null )
+        final AcceptStatesCache cache = acceptStatesCache;
+        if ( cache.searchRequest.equals ( searchRequest ) )
         {
-            accept = acceptNodeImpl ( node, searchRequest );
-            acceptStatesCache.put ( node.getId (), accept );
+            Boolean accept = cache.states.get ( node.getId () );
+            if ( accept == null )
+            {
+                accept = acceptNodeImpl ( node, searchRequest );
+                cache.states.put ( node.getId (), accept );
+            }
+            return accept;
+        }
+        else
+        {
+            return acceptNodeImpl ( node, searchRequest );
         }
-        return accept;
     }
 
     /**
@@ -234,7 +362,7 @@ public class AsyncTreeNodesFilter<E extends AsyncUniqueNode> implements Filter<E
      */
     protected boolean acceptNodeImpl ( final E node, final String searchRequest )
     {
-        final String nodeText = matchCase ? textProvider.provide ( node ) : textProvider.provide ( node ).toLowerCase ();
+        final String nodeText = getNodeText ( node );
         if ( useSpaceAsSeparator )
         {
             final StringTokenizer tokenizer = new StringTokenizer ( searchRequest, " ", false );
@@ -265,4 +393,49 @@ public class AsyncTreeNodesFilter<E extends AsyncUniqueNode> implements Filter<E
     {
         return searchFromStart ? nodeText.startsWith ( searchRequest ) : nodeText.contains ( searchRequest );
     }
+
+    /**
+     * Returns normalized node text.
+     * This method might return cached value if it exists, otherwise it will retrieve and cache a new value.
+     *
+     * @param node node to retrieve text for
+     * @return normalized node text
+     */
+    protected String getNodeText ( final E node )
+    {
+        String nodeText = nodeTextCache.get ( node );
+        if ( nodeText == null )
+        {
+            final String text = textProvider.provide ( node );
+            nodeText = text == null ? "" : matchCase ? text : text.toLowerCase ();
+            nodeTextCache.put ( node, nodeText );
+        }
+        return nodeText;
+    }
+
+    /**
+     * Accept states cache for a single search request.
+     */
+    protected static class AcceptStatesCache
+    {
+        /**
+         * Search request for which accept states are cached.
+         */
+        protected final String searchRequest;
+
+        /**
+         * Accept states by node IDs.
+         */
+        protected final Map<String, Boolean> states = new ConcurrentHashMap<String, Boolean> ();
+
+        /**
+         * Constructs new accept states cache.
+         *
+         * @param searchRequest search request for which accept states are cached
+         */
+        public AcceptStatesCache ( final String searchRequest )
+        {
+            this.searchRequest = searchRequest;
+        }
+    }
 }
\ No newline at end of file
@@ -14,16 +14,22 @@
  * You should have received a copy of the GNU General Public License
  * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
  */
-
 package com.alee.extended.tree;
 
-import java.util.Map;
-import java.util.WeakHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import com.alee.managers.task.Task;
+import com.alee.managers.task.TaskAdapter;
+import com.alee.managers.task.TaskGroup;
+import com.alee.managers.task.TaskManager;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Asynchronous tree childs loading queue.
+ * <p/>
+ * All queues run their requests within a single shared TaskManager group, so any idle thread picks up the next request of any tree.
+ * Each queue keeps its own requests until they can be started to limit amount of simultaneous requests for a single tree.
+ * Queued requests are ordered by their priority and can be cancelled, queue also keeps its requests metrics.
  *
  * @author Mikle Garin
  */
@@ -31,36 +37,83 @@ import java.util.concurrent.Executors;
 public final class AsyncTreeQueue
 {
     /**
-     * Maximum threads amount to run all asynchronous trees requests in.
-     * You can set this to zero to disable thread limit.
+     * Name of the TaskManager group shared by all queues.
+     */
+    public static final String GROUP_NAME = "AsyncTreeQueue";
+
+    /**
+     * Maximum amount of simultaneous requests for each queue.
+     * You can set this to zero to disable the limit, requests will still be limited by shared threads amount.
      */
     public static int threadsAmount = 4;
 
     /**
-     * Whether to use threads mount limit for each separate asynchronous tree or for all existing asynchronous trees.
+     * Maximum threads amount to run all asynchronous trees requests in.
+     * You can set this to zero to disable threads limit.
+     */
+    public static int sharedThreadsAmount = TaskManager.DEFAULT_THREADS_AMOUNT;
+
+    /**
+     * Whether to use separate queue for each asynchronous tree or a single queue for all existing asynchronous trees.
      */
     public static boolean separateLimitForEachTree = true;
 
+    /**
+     * Queues lock.
+     */
+    private static final Object lock = new Object ();
+
     /**
      * Currently cached queues list.
      */
     private static Map<WebAsyncTree, AsyncTreeQueue> queues = new WeakHashMap<WebAsyncTree, AsyncTreeQueue> ();
 
     /**
-     * Lock for ExecutorService calls synchronization.
+     * Requests counter used to order requests with the same priority.
      */
-    private final Object lock = new Object ();
+    private static final AtomicLong requestsCounter = new AtomicLong ( 0 );
 
     /**
-     * ExecutorService to limit simultaneously running threads.
+     * Queue state lock.
      */
-    private ExecutorService executorService = Executors.newFixedThreadPool ( threadsAmount );
+    private final Object queueLock = new Object ();
 
     /**
-     * Sets maximum threads amount for the specified asynchronous tree.
+     * Maximum amount of simultaneous requests for this queue, 0 if it is not limited.
+     */
+    private int maximumThreadsAmount = threadsAmount;
+
+    /**
+     * Requests waiting to be passed into shared group.
+     */
+    private final PriorityQueue<Request> pending = new PriorityQueue<Request> ();
+
+    /**
+     * Requests passed into shared group which are not finished yet.
+     */
+    private final Set<Request> submitted = new HashSet<Request> ();
+
+    /**
+     * Running requests count.
+     */
+    private int running = 0;
+
+    /**
+     * Queue statistics.
+     */
+    private long completedCount = 0;
+    private long cancelledCount = 0;
+    private long startedCount = 0;
+    private long totalWaitTime = 0;
+    private long maximumWaitTime = 0;
+    private long totalLoadTime = 0;
+    private long maximumLoadTime = 0;
+
+    /**
+     * Sets maximum amount of simultaneous requests for the specified asynchronous tree.
      *
      * @param asyncTree asynchronous tree to process
-     * @param amount    new maximum threads amount
+     * @param amount    new maximum amount of simultaneous requests
      */
     public static void setMaximumThreadsAmount ( final WebAsyncTree asyncTree, final int amount )
     {
@@ -68,14 +121,42 @@ public final class AsyncTreeQueue
     }
 
     /**
-     * Executes runnable using queue for the specified asynchronous tree.
+     * Sets maximum threads amount to run all asynchronous trees requests in.
+     *
+     * @param amount new maximum threads amount, 0 to disable limit
+     */
+    public static void setSharedThreadsAmount ( final int amount )
+    {
+        synchronized ( lock )
+        {
+            sharedThreadsAmount = amount;
+            TaskManager.registerGroup ( GROUP_NAME, amount );
+        }
+    }
+
+    /**
+     * Executes runnable using queue for the specified asynchronous tree and returns its task.
+     *
+     * @param asyncTree asynchronous tree to process
+     * @param runnable  runnable to execute
+     * @return runnable task
+     */
+    public static Task<Object> execute ( final WebAsyncTree asyncTree, final Runnable runnable )
+    {
+        return getInstance ( asyncTree ).execute ( runnable );
+    }
+
+    /**
+     * Executes runnable with the specified priority using queue for the specified asynchronous tree and returns its task.
      *
      * @param asyncTree asynchronous tree to process
      * @param runnable  runnable to execute
+     * @param priority  runnable priority
+     * @return runnable task
      */
-    public static void execute ( final WebAsyncTree asyncTree, final Runnable runnable )
+    public static Task<Object> execute ( final WebAsyncTree asyncTree, final Runnable runnable, final int priority )
     {
-        getInstance ( asyncTree ).execute ( runnable );
+        return getInstance ( asyncTree ).execute ( runnable, priority );
     }
 
     /**
@@ -105,24 +186,27 @@ public final class AsyncTreeQueue
      */
     private static AsyncTreeQueue getInstanceImpl ( final WebAsyncTree asyncTree )
     {
-        AsyncTreeQueue queue = queues.get ( asyncTree );
-        if ( queue == null )
+        synchronized ( lock )
         {
-            // Shutting down all tree-specific queues since the queue generation rule has changed
-            if ( asyncTree == null )
+            AsyncTreeQueue queue = queues.get ( asyncTree );
+            if ( queue == null )
             {
-                shutdownAllQueues ();
-            }
+                // Shutting down all tree-specific queues since the queue generation rule has changed
+                if ( asyncTree == null )
+                {
+                    shutdownAllQueues ();
+                }
 
-            // Creating new queue
-            queue = new AsyncTreeQueue ();
-            queues.put ( asyncTree, queue );
+                // Creating new queue
+                queue = new AsyncTreeQueue ();
+                queues.put ( asyncTree, queue );
+            }
+            return queue;
         }
-        return queue;
     }
 
     /**
-     * Forces all queues to shutdown.
+     * Forces all queues to shutdown and forgets them.
      */
     private static void shutdownAllQueues ()
     {
@@ -130,6 +214,21 @@ public final class AsyncTreeQueue
         {
             queueEntry.getValue ().shutdown ();
         }
+        queues.clear ();
+    }
+
+    /**
+     * Returns TaskManager group shared by all queues.
+     *
+     * @return TaskManager group shared by all queues
+     */
+    public static TaskGroup getGroup ()
+    {
+        synchronized ( lock )
+        {
+            final TaskGroup group = TaskManager.isGroupRegistered ( GROUP_NAME ) ? TaskManager.getGroup ( GROUP_NAME ) : null;
+            return group != null && !group.isShutdown () ? group : TaskManager.registerGroup ( GROUP_NAME, sharedThreadsAmount );
+        }
     }
 
     /**
@@ -141,60 +240,414 @@ public final class AsyncTreeQueue
     }
 
     /**
-     * Sets maximum threads amount for this queue.
+     * Returns maximum amount of simultaneous requests for this queue.
      *
-     * @param amount maximum threads amount for this queue
+     * @return maximum amount of simultaneous requests for this queue, 0 if it is not limited
+     */
+    public int getMaximumThreadsAmount ()
+    {
+        synchronized ( queueLock )
+        {
+            return maximumThreadsAmount;
+        }
+    }
+
+    /**
+     * Sets maximum amount of simultaneous requests for this queue.
+     * Started requests are not affected, new limit is applied as soon as they finish.
+     *
+     * @param amount maximum amount of simultaneous requests for this queue, 0 to disable limit
      */
     public void setMaximumThreadsAmount ( final int amount )
     {
-        synchronized ( lock )
+        synchronized ( queueLock )
         {
-            if ( executorService != null )
+            maximumThreadsAmount = Math.max ( 0, amount );
+        }
+        dispatch ();
+    }
+
+    /**
+     * Executes runnable using this queue and returns its task.
+     *
+     * @param runnable runnable to execute
+     * @return runnable task
+     */
+    public Task<Object> execute ( final Runnable runnable )
+    {
+        return execute ( runnable, Task.NORMAL_PRIORITY );
+    }
+
+    /**
+     * Executes runnable with the specified priority using this queue and returns its task.
+     * Returned task can be used to cancel the request or change its priority through this queue.
+     *
+     * @param runnable runnable to execute
+     * @param priority runnable priority
+     * @return runnable task
+     */
+    public Task<Object> execute ( final Runnable runnable, final int priority )
+    {
+        final Request request = new Request ( runnable, priority );
+        synchronized ( queueLock )
+        {
+            pending.add ( request );
+        }
+        dispatch ();
+        return request;
+    }
+
+    /**
+     * Changes priority of the specified request.
+     * Priority only affects requests which are not yet started.
+     *
+     * @param task     request task
+     * @param priority new request priority
+     */
+    public void setPriority ( final Task<Object> task, final int priority )
+    {
+        synchronized ( queueLock )
+        {
+            if ( task.getPriority () == priority )
             {
-                executorService.shutdown ();
+                return;
             }
-            if ( amount > 0 )
+            if ( pending.remove ( task ) )
             {
-                executorService = Executors.newFixedThreadPool ( amount );
+                // Pending request have to be requeued to keep queue order consistent
+                task.setPriority ( priority );
+                pending.add ( ( Request ) task );
+                return;
             }
-            else
+        }
+        task.setPriority ( priority );
+    }
+
+    /**
+     * Cancels the specified request.
+     * Started request is interrupted, request runnable should check thread interrupted state to stop its work early.
+     *
+     * @param task request task
+     */
+    public void cancel ( final Task<Object> task )
+    {
+        synchronized ( queueLock )
+        {
+            if ( pending.remove ( task ) )
             {
-                executorService = null;
+                task.cancel ();
+                cancelledCount++;
+                return;
             }
         }
+        task.cancel ( true );
     }
 
     /**
-     * Shutdowns this queue.
+     * Shutdowns this queue cancelling all its requests which are not yet started.
      */
     public void shutdown ()
     {
-        synchronized ( lock )
+        final List<Request> requests;
+        synchronized ( queueLock )
         {
-            if ( executorService != null )
+            requests = new ArrayList<Request> ( pending );
+            requests.addAll ( submitted );
+        }
+        for ( final Request request : requests )
+        {
+            cancel ( request );
+        }
+    }
+
+    /**
+     * Passes pending requests into shared group while simultaneous requests limit allows it.
+     */
+    private void dispatch ()
+    {
+        final List<Request> requests = new ArrayList<Request> ( 1 );
+        synchronized ( queueLock )
+        {
+            while ( !pending.isEmpty () && ( maximumThreadsAmount == 0 || submitted.size () < maximumThreadsAmount ) )
             {
-                executorService.shutdown ();
+                final Request request = pending.poll ();
+                submitted.add ( request );
+                requests.add ( request );
+            }
+        }
+        if ( requests.size () > 0 )
+        {
+            final TaskGroup group = getGroup ();
+            for ( final Request request : requests )
+            {
+                group.submit ( request );
             }
         }
     }
 
     /**
-     * Executes runnable using this queue.
+     * Informs queue that request has started.
      *
-     * @param runnable runnable to execute
+     * @param request started request
      */
-    public void execute ( final Runnable runnable )
+    private void started ( final Request request )
     {
-        synchronized ( lock )
+        synchronized ( queueLock )
         {
-            if ( executorService != null )
+            request.startTime = System.nanoTime ();
+            final long waitTime = request.startTime - request.queueTime;
+            totalWaitTime += waitTime;
+            maximumWaitTime = Math.max ( maximumWaitTime, waitTime );
+            startedCount++;
+            running++;
+        }
+    }
+
+    /**
+     * Informs queue that request has finished or was cancelled and starts next pending requests.
+     *
+     * @param request finished request
+     */
+    private void finished ( final Request request )
+    {
+        synchronized ( queueLock )
+        {
+            if ( !submitted.remove ( request ) )
+            {
+                return;
+            }
+            if ( request.startTime != 0 )
             {
-                executorService.execute ( runnable );
+                running--;
+            }
+            if ( request.isCancelled () )
+            {
+                cancelledCount++;
             }
             else
             {
-                new Thread ( runnable, "AsyncTreeQueue" ).start ();
+                final long loadTime = System.nanoTime () - request.queueTime;
+                totalLoadTime += loadTime;
+                maximumLoadTime = Math.max ( maximumLoadTime, loadTime );
+                completedCount++;
+            }
+        }
+        dispatch ();
+    }
+
+    /**
+     * Returns amount of requests waiting to be started.
+     *
+     * @return amount of requests waiting to be started
+     */
+    public int getQueueDepth ()
+    {
+        synchronized ( queueLock )
+        {
+            return pending.size () + submitted.size () - running;
+        }
+    }
+
+    /**
+     * Returns amount of running requests.
+     *
+     * @return amount of running requests
+     */
+    public int getActiveCount ()
+    {
+        synchronized ( queueLock )
+        {
+            return running;
+        }
+    }
+
+    /**
+     * Returns amount of completed requests.
+     *
+     * @return amount of completed requests
+     */
+    public long getCompletedCount ()
+    {
+        synchronized ( queueLock )
+        {
+            return completedCount;
+        }
+    }
+
+    /**
+     * Returns amount of cancelled requests.
+     *
+     * @return amount of cancelled requests
+     */
+    public long getCancelledCount ()
+    {
+        synchronized ( queueLock )
+        {
+            return cancelledCount;
+        }
+    }
+
+    /**
+     * Returns average time requests spent waiting to be started in milliseconds.
+     *
+     * @return average time requests spent waiting to be started in milliseconds
+     */
+    public double getAverageWaitTime ()
+    {
+        synchronized ( queueLock )
+        {
+            return startedCount > 0 ? totalWaitTime / startedCount / 1000000d : 0d;
+        }
+    }
+
+    /**
+     * Returns maximum time request spent waiting to be started in milliseconds.
+     *
+     * @return maximum time request spent waiting to be started in milliseconds
+     */
+    public double getMaximumWaitTime ()
+    {
+        synchronized ( queueLock )
+        {
+            return maximumWaitTime / 1000000d;
+        }
+    }
+
+    /**
+     * Returns average time from request queueing to its completion in milliseconds.
+     *
+     * @return average time from request queueing to its completion in milliseconds
+     */
+    public double getAverageLoadTime ()
+    {
+        synchronized ( queueLock )
+        {
+            return completedCount > 0 ? totalLoadTime / completedCount / 1000000d : 0d;
+        }
+    }
+
+    /**
+     * Returns maximum time from request queueing to its completion in milliseconds.
+     *
+     * @return maximum time from request queueing to its completion in milliseconds
+     */
+    public double getMaximumLoadTime ()
+    {
+        synchronized ( queueLock )
+        {
+            return maximumLoadTime / 1000000d;
+        }
+    }
+
+    /**
+     * Resets queue statistics.
+     */
+    public void resetStatistics ()
+    {
+        synchronized ( queueLock )
+        {
+            completedCount = 0;
+            cancelledCount = 0;
+            startedCount = 0;
+            totalWaitTime = 0;
+            maximumWaitTime = 0;
+            totalLoadTime = 0;
+            maximumLoadTime = 0;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString ()
+    {
+        return "AsyncTreeQueue [depth: " + getQueueDepth () + ", active: " + getActiveCount () + ", completed: " +
+                getCompletedCount () + ", cancelled: " + getCancelledCount () + ", average load: " + getAverageLoadTime () + "ms]";
+    }
+
+    /**
+     * Queued request task.
+     */
+    private final class Request extends Task<Object>
+    {
+        /**
+         * Request runnable.
+         */
+        private final Runnable runnable;
+
+        /**
+         * Request number used to order requests with the same priority.
+         */
+        private final long number;
+
+        /**
+         * Request queueing time in nanoseconds.
+         */
+        private final long queueTime;
+
+        /**
+         * Request start time in nanoseconds, 0 if it wasn't started.
+         */
+        private long startTime = 0;
+
+        /**
+         * Constructs new request.
+         *
+         * @param runnable request runnable
+         * @param priority request priority
+         */
+        private Request ( final Runnable runnable, final int priority )
+        {
+            super ( null, priority );
+            this.runnable = runnable;
+            this.number = requestsCounter.incrementAndGet ();
+            this.queueTime = System.nanoTime ();
+
+            // Releasing queue slot if request is cancelled before it starts
+            addTaskListener ( new TaskAdapter<Object> ()
+            {
+                @Override
+                public void cancelled ( final Task<Object> task )
+                {
+                    finished ( Request.this );
+                }
+            } );
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected Object execute ()
+        {
+            started ( this );
+            try
+            {
+                runnable.run ();
+                return null;
+            }
+            finally
+            {
+                finished ( this );
+            }
+        }
+
+        /**
+         * Orders requests by priority and then by queueing order across all queues.
+         *
+         * @param task task to compare with
+         * @return negative value if this request should be executed before the specified one, positive value otherwise
+         */
+        @Override
+        public int compareTo ( final Task<?> task )
+        {
+            if ( task instanceof Request && task.getPriority () == getPriority () )
+            {
+                final long n = ( ( Request ) task ).number;
+                return number < n ? -1 : number > n ? 1 : 0;
             }
+            return super.compareTo ( task );
         }
     }
-}
\ No newline at end of file
+}
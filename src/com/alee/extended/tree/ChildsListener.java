@@ -29,6 +29,8 @@ public interface ChildsListener<E extends AsyncUniqueNode>
 {
     /**
      * Informs model that childs were loaded successfully.
+     * In case some childs were already published through {@link PartialChildsListener#childsPartLoaded(java.util.List)} method only
+     * the remaining childs should be passed here.
      *
      * @param childs list of loaded childs
      */
@@ -19,9 +19,14 @@ package com.alee.extended.tree;
 
 import com.alee.utils.CollectionUtils;
 import com.alee.utils.FileUtils;
+import com.alee.utils.cache.FileAttributesCache;
 import com.alee.utils.compare.Filter;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -31,8 +36,19 @@ import java.util.List;
  * @author Mikle Garin
  */
 
-public class FileTreeDataProvider extends AbstractTreeDataProvider<FileTreeNode>
+public class FileTreeDataProvider extends AbstractTreeDataProvider<FileTreeNode> implements VirtualTreeDataProvider<FileTreeNode>
 {
+    /**
+     * Amount of files in the first published childs part.
+     * It is rather small to display first files as soon as possible.
+     */
+    protected static final int FIRST_PART_SIZE = 100;
+
+    /**
+     * Amount of files in each subsequent published childs part.
+     */
+    protected static final int PART_SIZE = 2000;
+
     /**
      * Tree root files.
      */
@@ -109,14 +125,76 @@ public class FileTreeDataProvider extends AbstractTreeDataProvider<FileTreeNode>
     {
         try
         {
-            listener.childsLoadCompleted ( parent.getFile () == null ? getRootChilds () : getFileChilds ( parent ) );
+            final Path directory = parent.getFile () != null ? FileAttributesCache.toPath ( parent.getFile () ) : null;
+            if ( directory != null )
+            {
+                loadFileChilds ( directory, listener );
+            }
+            else
+            {
+                listener.childsLoadCompleted ( parent.getFile () == null ? getRootChilds () : getFileChilds ( parent ) );
+            }
         }
-        catch ( Throwable cause )
+        catch ( final Throwable cause )
         {
             listener.childsLoadFailed ( cause );
         }
     }
 
+    /**
+     * Loads child nodes for the specified directory in parts.
+     * Directory is read lazily so that its first files are displayed before the whole directory is read.
+     * Childs are published in parts only if listener is a {@link PartialChildsListener}, otherwise they are passed all at once.
+     *
+     * @param directory directory to load childs for
+     * @param listener  childs loading progress listener
+     * @throws IOException if directory reading fails
+     */
+    protected void loadFileChilds ( final Path directory, final ChildsListener<FileTreeNode> listener ) throws IOException
+    {
+        final DirectoryStream<Path> stream;
+        try
+        {
+            stream = Files.newDirectoryStream ( directory );
+        }
+        catch ( final IOException e )
+        {
+            // Unreadable directories are displayed as empty ones
+            listener.childsLoadCompleted ( new ArrayList<FileTreeNode> ( 0 ) );
+            return;
+        }
+        try
+        {
+            final PartialChildsListener<FileTreeNode> partial =
+                    listener instanceof PartialChildsListener ? ( PartialChildsListener<FileTreeNode> ) listener : null;
+            int partSize = FIRST_PART_SIZE;
+            List<FileTreeNode> part = new ArrayList<FileTreeNode> ( partSize );
+            for ( final Path path : stream )
+            {
+                // Stopping if load was cancelled
+                if ( Thread.currentThread ().isInterrupted () )
+                {
+                    return;
+                }
+
+                // Caching file attributes on the way since filter and comparator request them
+                FileAttributesCache.load ( path );
+                part.add ( new FileTreeNode ( path.toFile () ) );
+                if ( partial != null && part.size () == partSize )
+                {
+                    partial.childsPartLoaded ( part );
+                    partSize = PART_SIZE;
+                    part = new ArrayList<FileTreeNode> ( partSize );
+                }
+            }
+            listener.childsLoadCompleted ( part );
+        }
+        finally
+        {
+            stream.close ();
+        }
+    }
+
     /**
      * Returns root child nodes.
      *
@@ -140,7 +218,7 @@ public class FileTreeDataProvider extends AbstractTreeDataProvider<FileTreeNode>
      */
     public List<FileTreeNode> getFileChilds ( final FileTreeNode node )
     {
-        final File[] childsList = node.getFile ().listFiles ();
+        final File[] childsList = FileUtils.listFiles ( node.getFile (), null );
         if ( childsList == null || childsList.length == 0 )
         {
             return new ArrayList<FileTreeNode> ( 0 );
@@ -164,4 +242,60 @@ public class FileTreeDataProvider extends AbstractTreeDataProvider<FileTreeNode>
     {
         return node.getFile () != null && !FileUtils.isDirectory ( node.getFile () );
     }
-}
\ No newline at end of file
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Comparable<?> getChildSortKey ( final FileTreeNode parent, final FileTreeNode child )
+    {
+        // Sort key is only available for the default comparator
+        return comparator instanceof FileTreeNodeComparator && child.getFile () != null ? new SortKey ( child.getFile () ) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FileTreeNode createChild ( final FileTreeNode parent, final String childId )
+    {
+        return new FileTreeNode ( new File ( childId ) );
+    }
+
+    /**
+     * Compact file sort key which gives the same order as FileTreeNodeComparator.
+     */
+    protected static class SortKey implements Comparable<SortKey>
+    {
+        /**
+         * File type order: directories first, then hidden files first.
+         */
+        protected final int type;
+
+        /**
+         * File name.
+         */
+        protected final String name;
+
+        /**
+         * Constructs sort key for the specified file.
+         *
+         * @param file file
+         */
+        public SortKey ( final File file )
+        {
+            super ();
+            this.type = ( FileUtils.isDirectory ( file ) ? 0 : 2 ) + ( FileUtils.isHidden ( file ) ? 0 : 1 );
+            this.name = file.getName ();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int compareTo ( final SortKey key )
+        {
+            return type != key.type ? type - key.type : name.compareToIgnoreCase ( key.name );
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.extended.tree;
+
+import java.util.List;
+
+/**
+ * Childs listener which is also able to receive childs in parts.
+ * Data providers loading large amounts of childs might check whether listener implements this interface and publish childs in parts
+ * so that model could display them right away, otherwise all childs should be passed into {@link #childsLoadCompleted(java.util.List)}.
+ *
+ * @author Mikle Garin
+ */
+
+public interface PartialChildsListener<E extends AsyncUniqueNode> extends ChildsListener<E>
+{
+    /**
+     * Informs model that a part of childs was loaded and more childs will follow.
+     * Load should still be finished with either {@link #childsLoadCompleted(java.util.List)} or {@link #childsLoadFailed(Throwable)} call.
+     * Only the remaining childs should be passed into {@link #childsLoadCompleted(java.util.List)} call.
+     *
+     * @param childs list of loaded childs part
+     */
+    public void childsPartLoaded ( List<E> childs );
+}
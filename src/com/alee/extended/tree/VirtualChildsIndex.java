@@ -0,0 +1,322 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.alee.extended.tree;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Compact index of virtual child nodes.
+ * It keeps only IDs and sort keys of child nodes in plain arrays instead of keeping the nodes themselves.
+ * Index is either sorted by sort keys or keeps childs in the order they were added if sort keys are not available.
+ * <p/>
+ * This class is not thread-safe, tree model only modifies published indices within the EDT.
+ *
+ * @author Mikle Garin
+ * @see VirtualTreeDataProvider
+ * @see AsyncTreeModel
+ */
+
+public class VirtualChildsIndex
+{
+    /**
+     * Child node IDs.
+     */
+    protected String[] ids;
+
+    /**
+     * Child node sort keys.
+     */
+    protected Comparable<?>[] keys;
+
+    /**
+     * Amount of indexed childs.
+     */
+    protected int size = 0;
+
+    /**
+     * Constructs new empty index.
+     *
+     * @param capacity initial index capacity
+     */
+    public VirtualChildsIndex ( final int capacity )
+    {
+        super ();
+        this.ids = new String[ Math.max ( capacity, 16 ) ];
+        this.keys = new Comparable<?>[ ids.length ];
+    }
+
+    /**
+     * Returns amount of indexed childs.
+     *
+     * @return amount of indexed childs
+     */
+    public int size ()
+    {
+        return size;
+    }
+
+    /**
+     * Returns ID of the child at the specified index.
+     *
+     * @param index child index
+     * @return ID of the child at the specified index
+     */
+    public String getId ( final int index )
+    {
+        checkIndex ( index );
+        return ids[ index ];
+    }
+
+    /**
+     * Returns sort key of the child at the specified index.
+     *
+     * @param index child index
+     * @return sort key of the child at the specified index
+     */
+    public Comparable<?> getKey ( final int index )
+    {
+        checkIndex ( index );
+        return keys[ index ];
+    }
+
+    /**
+     * Returns index of the child with the specified ID and sort key or -1 if it is not indexed.
+     * Binary search is used if sort key is specified, otherwise the whole index is scanned.
+     *
+     * @param id  child ID
+     * @param key child sort key
+     * @return index of the child with the specified ID and sort key or -1 if it is not indexed
+     */
+    public int indexOf ( final String id, final Comparable<?> key )
+    {
+        if ( key != null )
+        {
+            final int found = search ( key, false );
+            if ( found >= 0 )
+            {
+                for ( int i = found; i < size && compare ( keys[ i ], key ) == 0; i++ )
+                {
+                    if ( ids[ i ].equals ( id ) )
+                    {
+                        return i;
+                    }
+                }
+            }
+        }
+        for ( int i = 0; i < size; i++ )
+        {
+            if ( ids[ i ].equals ( id ) )
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Appends child to the end of the index without keeping it sorted.
+     * Call {@link #sort()} when all childs are appended.
+     *
+     * @param id  child ID
+     * @param key child sort key
+     */
+    public void append ( final String id, final Comparable<?> key )
+    {
+        ensureCapacity ( size + 1 );
+        ids[ size ] = id;
+        keys[ size ] = key;
+        size++;
+    }
+
+    /**
+     * Inserts child into the sorted index and returns its index.
+     *
+     * @param id  child ID
+     * @param key child sort key
+     * @return index of the inserted child
+     */
+    public int add ( final String id, final Comparable<?> key )
+    {
+        final int index = key != null ? -search ( key, true ) - 1 : size;
+        ensureCapacity ( size + 1 );
+        System.arraycopy ( ids, index, ids, index + 1, size - index );
+        System.arraycopy ( keys, index, keys, index + 1, size - index );
+        ids[ index ] = id;
+        keys[ index ] = key;
+        size++;
+        return index;
+    }
+
+    /**
+     * Removes child with the specified ID and sort key from the index and returns its former index.
+     *
+     * @param id  child ID
+     * @param key child sort key
+     * @return former index of the removed child or -1 if it was not indexed
+     */
+    public int remove ( final String id, final Comparable<?> key )
+    {
+        final int index = indexOf ( id, key );
+        if ( index >= 0 )
+        {
+            System.arraycopy ( ids, index + 1, ids, index, size - index - 1 );
+            System.arraycopy ( keys, index + 1, keys, index, size - index - 1 );
+            size--;
+            ids[ size ] = null;
+            keys[ size ] = null;
+        }
+        return index;
+    }
+
+    /**
+     * Sorts indexed childs by their sort keys.
+     * Childs with equal sort keys and childs without sort keys keep their order.
+     */
+    public void sort ()
+    {
+        final Integer[] order = new Integer[ size ];
+        for ( int i = 0; i < size; i++ )
+        {
+            order[ i ] = i;
+        }
+        Arrays.sort ( order, new Comparator<Integer> ()
+        {
+            @Override
+            public int compare ( final Integer i1, final Integer i2 )
+            {
+                return VirtualChildsIndex.this.compare ( keys[ i1 ], keys[ i2 ] );
+            }
+        } );
+        final String[] sortedIds = new String[ ids.length ];
+        final Comparable<?>[] sortedKeys = new Comparable<?>[ keys.length ];
+        for ( int i = 0; i < size; i++ )
+        {
+            sortedIds[ i ] = ids[ order[ i ] ];
+            sortedKeys[ i ] = keys[ order[ i ] ];
+        }
+        ids = sortedIds;
+        keys = sortedKeys;
+    }
+
+    /**
+     * Returns copy of this index.
+     *
+     * @return copy of this index
+     */
+    public VirtualChildsIndex copy ()
+    {
+        final VirtualChildsIndex copy = new VirtualChildsIndex ( size );
+        System.arraycopy ( ids, 0, copy.ids, 0, size );
+        System.arraycopy ( keys, 0, copy.keys, 0, size );
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Returns index of any child with the specified sort key or a negative insertion point if there is none.
+     * Insertion point follows all childs with the same sort key if requested.
+     *
+     * @param key   sort key
+     * @param after whether should always return insertion point after all childs with the same sort key or not
+     * @return index of any child with the specified sort key or a negative insertion point if there is none
+     */
+    protected int search ( final Comparable<?> key, final boolean after )
+    {
+        int low = 0;
+        int high = size - 1;
+        while ( low <= high )
+        {
+            final int mid = ( low + high ) >>> 1;
+            final int result = compare ( keys[ mid ], key );
+            if ( result < 0 || after && result == 0 )
+            {
+                low = mid + 1;
+            }
+            else if ( result > 0 )
+            {
+                high = mid - 1;
+            }
+            else
+            {
+                // Moving to the first child with the same key
+                int first = mid;
+                while ( first > 0 && compare ( keys[ first - 1 ], key ) == 0 )
+                {
+                    first--;
+                }
+                return first;
+            }
+        }
+        return -( low + 1 );
+    }
+
+    /**
+     * Compares two sort keys.
+     * Missing sort keys are placed after all existing ones.
+     *
+     * @param key1 first sort key
+     * @param key2 second sort key
+     * @return a negative integer, zero, or a positive integer as the first key is less than, equal to, or greater than the second
+     */
+    protected int compare ( final Comparable<?> key1, final Comparable<?> key2 )
+    {
+        if ( key1 == null )
+        {
+            return key2 == null ? 0 : 1;
+        }
+        else if ( key2 == null )
+        {
+            return -1;
+        }
+        else
+        {
+            // Sort keys provided for the same parent are mutually comparable
+            @SuppressWarnings ( "unchecked" )
+            final Comparable<Object> comparable = ( Comparable<Object> ) key1;
+            return comparable.compareTo ( key2 );
+        }
+    }
+
+    /**
+     * Ensures that index can hold the specified amount of childs.
+     *
+     * @param capacity required capacity
+     */
+    protected void ensureCapacity ( final int capacity )
+    {
+        if ( capacity > ids.length )
+        {
+            final int length = Math.max ( capacity, ids.length + ( ids.length >> 1 ) );
+            ids = Arrays.copyOf ( ids, length );
+            keys = Arrays.copyOf ( keys, length );
+        }
+    }
+
+    /**
+     * Checks that the specified index is within the index bounds.
+     *
+     * @param index child index
+     */
+    protected void checkIndex ( final int index )
+    {
+        if ( index < 0 || index >= size )
+        {
+            throw new IndexOutOfBoundsException ( "Index: " + index + ", Size: " + size );
+        }
+    }
+}
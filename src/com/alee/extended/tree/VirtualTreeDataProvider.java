@@ -0,0 +1,51 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.alee.extended.tree;
+
+/**
+ * This interface provides additional methods for asynchronous tree data providers which support virtual childs.
+ * Childs of huge nodes are not kept as nodes by the tree model, instead only their IDs and sort keys are kept.
+ * Child nodes are created on demand when tree requests them, for example when they are scrolled into view.
+ *
+ * @param <E> custom node type
+ * @author Mikle Garin
+ * @see AsyncTreeModel#setVirtualChilds(boolean)
+ */
+
+public interface VirtualTreeDataProvider<E extends AsyncUniqueNode> extends AsyncTreeDataProvider<E>
+{
+    /**
+     * Returns compact sort key for the specified child node.
+     * Virtual childs are sorted by these keys natural order instead of childs comparator, so both should give the same order.
+     * Return null in case childs should keep their load order.
+     *
+     * @param parent parent node
+     * @param child  child node
+     * @return compact sort key for the specified child node
+     */
+    public Comparable<?> getChildSortKey ( E parent, E child );
+
+    /**
+     * Returns newly created child node with the specified ID.
+     * This method is called for virtual childs when tree requests them, it uses the EDT and should be processed quickly.
+     *
+     * @param parent  parent node
+     * @param childId child node ID
+     * @return newly created child node with the specified ID
+     */
+    public E createChild ( E parent, String childId );
+}
@@ -75,6 +75,16 @@ public class WebAsyncTree<E extends AsyncUniqueNode> extends WebTree<E> implemen
      */
     protected boolean asyncLoading = true;
 
+    /**
+     * Whether huge nodes should keep their childs virtual or not.
+     */
+    protected boolean virtualChilds = WebAsyncTreeStyle.virtualChilds;
+
+    /**
+     * Minimum amount of node childs which makes them virtual.
+     */
+    protected int virtualChildsThreshold = WebAsyncTreeStyle.virtualChildsThreshold;
+
     /**
      * Tree nodes comparator.
      */
@@ -168,6 +178,78 @@ public class WebAsyncTree<E extends AsyncUniqueNode> extends WebTree<E> implemen
         }
     }
 
+    /**
+     * Returns whether huge nodes should keep their childs virtual or not.
+     *
+     * @return true if huge nodes should keep their childs virtual, false otherwise
+     */
+    public boolean isVirtualChilds ()
+    {
+        return virtualChilds;
+    }
+
+    /**
+     * Sets whether huge nodes should keep their childs virtual or not.
+     * Virtual childs are only supported by data providers implementing VirtualTreeDataProvider.
+     * Only IDs and sort keys of virtual childs are kept and child nodes are created when tree requests them.
+     * <p/>
+     * Tree uses fixed rows height when virtual childs are enabled since otherwise it would request all child nodes to measure them.
+     * This setting only affects childs loaded after the change.
+     *
+     * @param virtualChilds whether huge nodes should keep their childs virtual or not
+     */
+    public void setVirtualChilds ( final boolean virtualChilds )
+    {
+        this.virtualChilds = virtualChilds;
+        if ( isAsyncModel () )
+        {
+            getAsyncModel ().setVirtualChilds ( virtualChilds );
+        }
+        updateVirtualChildsLayout ();
+    }
+
+    /**
+     * Returns minimum amount of node childs which makes them virtual.
+     *
+     * @return minimum amount of node childs which makes them virtual
+     */
+    public int getVirtualChildsThreshold ()
+    {
+        return virtualChildsThreshold;
+    }
+
+    /**
+     * Sets minimum amount of node childs which makes them virtual.
+     *
+     * @param threshold minimum amount of node childs which makes them virtual
+     */
+    public void setVirtualChildsThreshold ( final int threshold )
+    {
+        this.virtualChildsThreshold = threshold;
+        if ( isAsyncModel () )
+        {
+            getAsyncModel ().setVirtualChildsThreshold ( threshold );
+        }
+    }
+
+    /**
+     * Updates tree layout settings according to virtual childs setting.
+     */
+    protected void updateVirtualChildsLayout ()
+    {
+        if ( virtualChilds )
+        {
+            // Fixed rows height allows tree to request only visible nodes
+            setRowHeight ( WebAsyncTreeStyle.virtualRowHeight );
+            setLargeModel ( true );
+        }
+        else
+        {
+            setLargeModel ( false );
+            setRowHeight ( -1 );
+        }
+    }
+
     /**
      * Returns asynchronous tree data provider.
      *
@@ -271,6 +353,17 @@ public class WebAsyncTree<E extends AsyncUniqueNode> extends WebTree<E> implemen
         getAsyncModel ().updateSortingAndFiltering ();
     }
 
+    /**
+     * Updates filtering for all loaded nodes in a separate thread.
+     * Only the actual changes are applied to the tree so expansion and selection of the nodes which stay displayed are not affected.
+     *
+     * @param narrowing whether current filter accepts only nodes accepted by the previous one or not
+     */
+    public void updateFiltering ( final boolean narrowing )
+    {
+        getAsyncModel ().updateFiltering ( narrowing );
+    }
+
     /**
      * Updates sorting and filtering for the specified node childs.
      */
@@ -301,11 +394,68 @@ public class WebAsyncTree<E extends AsyncUniqueNode> extends WebTree<E> implemen
             {
                 final AsyncTreeModel model = ( AsyncTreeModel ) newModel;
                 model.setAsyncLoading ( asyncLoading );
+                model.setVirtualChilds ( virtualChilds );
+                model.setVirtualChildsThreshold ( virtualChildsThreshold );
                 model.addAsyncTreeModelListener ( this );
             }
         }
 
         super.setModel ( newModel );
+
+        // Updating layout for virtual childs
+        if ( virtualChilds )
+        {
+            updateVirtualChildsLayout ();
+        }
+    }
+
+    /**
+     * Notifies listeners about collapsed path and cancels childs loads which are not needed anymore.
+     *
+     * @param path collapsed path
+     */
+    @Override
+    public void fireTreeCollapsed ( final TreePath path )
+    {
+        super.fireTreeCollapsed ( path );
+        if ( isAsyncModel () )
+        {
+            getAsyncModel ().cancelChildsLoads ( ( E ) path.getLastPathComponent () );
+        }
+    }
+
+    /**
+     * Updates tree bounds and childs loads priorities since visible tree area might have changed.
+     * Tree bounds are also changed when tree is scrolled within the scroll pane.
+     *
+     * @param x      new X coordinate
+     * @param y      new Y coordinate
+     * @param width  new width
+     * @param height new height
+     */
+    @Override
+    public void setBounds ( final int x, final int y, final int width, final int height )
+    {
+        super.setBounds ( x, y, width, height );
+        if ( isAsyncModel () )
+        {
+            getAsyncModel ().scheduleLoadPrioritiesUpdate ();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void updateUI ()
+    {
+        super.updateUI ();
+
+        // Restoring layout for virtual childs since UI resets rows height
+        if ( virtualChilds )
+        {
+            updateVirtualChildsLayout ();
+        }
     }
 
     /**
@@ -336,6 +486,10 @@ public class WebAsyncTree<E extends AsyncUniqueNode> extends WebTree<E> implemen
                 {
                     // Updating tree sorting and filtering for parent of the edited node
                     final E node = ( E ) cellEditor.getCellEditorValue ();
+                    if ( filter instanceof AsyncTreeNodesFilter )
+                    {
+                        ( ( AsyncTreeNodesFilter<E> ) filter ).clearCache ( node );
+                    }
                     updateSortingAndFiltering ( ( E ) node.getParent () );
 
                     //                    // Performing data update in a proper separate thread as it might take some time
@@ -385,10 +539,22 @@ public class WebAsyncTree<E extends AsyncUniqueNode> extends WebTree<E> implemen
     }
 
     /**
-     * Sets maximum threads amount for this asynchronous tree.
-     * Separate threads are used for childs loading, data updates and other actions which should be performed asynchronously.
+     * Returns queue used by this asynchronous tree to perform its requests.
+     * Queue provides requests metrics like queue depth and load times.
+     *
+     * @return queue used by this asynchronous tree to perform its requests
+     */
+    public AsyncTreeQueue getQueue ()
+    {
+        return AsyncTreeQueue.getInstance ( this );
+    }
+
+    /**
+     * Sets maximum amount of simultaneous requests for this asynchronous tree.
+     * Requests are used for childs loading, data updates and other actions which should be performed asynchronously.
+     * All asynchronous trees share the same threads, so this amount is also limited by AsyncTreeQueue shared threads amount.
      *
-     * @param amount new maximum threads amount
+     * @param amount new maximum amount of simultaneous requests
      */
     public void setMaximumThreadsAmount ( final int amount )
     {
@@ -77,6 +77,21 @@ public class WebAsyncTreeFilterField<E extends AsyncUniqueNode> extends WebTextF
      */
     protected DocumentListener documentListener;
 
+    /**
+     * Delay in milliseconds between the last field change and tree filtering update.
+     */
+    protected int filterDelay = WebAsyncTreeStyle.filterDelay;
+
+    /**
+     * Timer that delays tree filtering update until typing pauses.
+     */
+    protected Timer filterTimer;
+
+    /**
+     * Search text applied to the tree last time.
+     */
+    protected String appliedText = "";
+
     /**
      * UI elements.
      */
@@ -219,10 +234,20 @@ public class WebAsyncTreeFilterField<E extends AsyncUniqueNode> extends WebTextF
             @Override
             public void documentChanged ( final DocumentEvent e )
             {
-                filter.setSearchText ( getText () );
-                updateFiltering ();
+                filterTimer.restart ();
             }
         };
+
+        // Delayed filtering update
+        filterTimer = new Timer ( filterDelay, new ActionListener ()
+        {
+            @Override
+            public void actionPerformed ( final ActionEvent e )
+            {
+                updateSearchText ();
+            }
+        } );
+        filterTimer.setRepeats ( false );
         updateDocumentListener ();
 
         // Field document change listener
@@ -351,10 +376,57 @@ public class WebAsyncTreeFilterField<E extends AsyncUniqueNode> extends WebTextF
         updateFiltering ();
     }
 
+    /**
+     * Returns delay in milliseconds between the last field change and tree filtering update.
+     *
+     * @return delay in milliseconds between the last field change and tree filtering update
+     */
+    public int getFilterDelay ()
+    {
+        return filterDelay;
+    }
+
+    /**
+     * Sets delay in milliseconds between the last field change and tree filtering update.
+     *
+     * @param filterDelay delay in milliseconds between the last field change and tree filtering update
+     */
+    public void setFilterDelay ( final int filterDelay )
+    {
+        this.filterDelay = filterDelay;
+        if ( filterTimer != null )
+        {
+            filterTimer.setInitialDelay ( filterDelay );
+        }
+    }
+
+    /**
+     * Applies current field text to the filter and updates tree filtering.
+     * When new text only extends the previous one tree matches only the currently displayed nodes.
+     */
+    protected void updateSearchText ()
+    {
+        final String text = getText ();
+        final boolean narrowing = filter.isNarrowing ( appliedText, text );
+        filter.setSearchText ( text );
+        appliedText = text;
+        updateFiltering ( narrowing );
+    }
+
     /**
      * Updates tree filtering.
      */
     protected void updateFiltering ()
+    {
+        updateFiltering ( false );
+    }
+
+    /**
+     * Updates tree filtering.
+     *
+     * @param narrowing whether current filter accepts only nodes accepted by the previous one or not
+     */
+    protected void updateFiltering ( final boolean narrowing )
     {
         // Cleaning up filter cache
         filter.clearCache ();
@@ -363,7 +435,7 @@ public class WebAsyncTreeFilterField<E extends AsyncUniqueNode> extends WebTextF
         final WebAsyncTree<E> asyncTree = getAsyncTree ();
         if ( asyncTree != null )
         {
-            asyncTree.updateSortingAndFiltering ();
+            asyncTree.updateFiltering ( narrowing );
         }
     }
 }
\ No newline at end of file
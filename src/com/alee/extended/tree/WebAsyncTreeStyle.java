@@ -29,4 +29,30 @@ public final class WebAsyncTreeStyle
      * WebAsyncTree loader icon type.
      */
     public static LoaderIconType loaderIconType = LoaderIconType.roller;
-}
\ No newline at end of file
+
+    /**
+     * Whether huge nodes should keep their childs virtual or not.
+     * Virtual childs are only supported by data providers implementing VirtualTreeDataProvider.
+     */
+    public static boolean virtualChilds = false;
+
+    /**
+     * Minimum amount of node childs which makes them virtual.
+     */
+    public static int virtualChildsThreshold = 10000;
+
+    /**
+     * Maximum amount of created nodes kept for each node with virtual childs.
+     */
+    public static int virtualWindowSize = 1000;
+
+    /**
+     * Fixed tree row height used when virtual childs are enabled.
+     */
+    public static int virtualRowHeight = 24;
+
+    /**
+     * Delay in milliseconds between the last filter field change and tree filtering update.
+     */
+    public static int filterDelay = 150;
+}
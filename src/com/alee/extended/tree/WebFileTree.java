@@ -18,15 +18,20 @@
 package com.alee.extended.tree;
 
 import com.alee.extended.drag.FileDropHandler;
+import com.alee.managers.file.FileChange;
+import com.alee.managers.file.FileChangeListener;
+import com.alee.managers.file.FileWatchManager;
 import com.alee.utils.CollectionUtils;
 import com.alee.utils.FileUtils;
 import com.alee.utils.compare.Filter;
 
+import javax.swing.event.TreeExpansionEvent;
+import javax.swing.event.TreeExpansionListener;
 import javax.swing.tree.TreeModel;
 import javax.swing.tree.TreePath;
 import java.awt.*;
 import java.io.File;
-import java.util.ArrayList;
+import java.util.*;
 import java.util.List;
 
 /**
@@ -48,6 +53,21 @@ public class WebFileTree extends WebAsyncTree<FileTreeNode>
      */
     protected FileDropHandler fileLookupDropHandler = null;
 
+    /**
+     * Whether expanded directories should be watched for changes or not.
+     */
+    protected boolean watchChanges = WebFileTreeStyle.watchChanges;
+
+    /**
+     * Currently watched directories.
+     */
+    protected final Set<File> watchedDirectories = new HashSet<File> ();
+
+    /**
+     * Watched directories changes listener.
+     */
+    protected FileChangeListener fileChangeListener = null;
+
     /**
      * Delayed selection ID operations lock.
      */
@@ -113,6 +133,22 @@ public class WebFileTree extends WebAsyncTree<FileTreeNode>
 
         // Transfer handler
         setFilesDropSearchEnabled ( WebFileTreeStyle.filesDropSearchEnabled );
+
+        // Watching expanded directories
+        addTreeExpansionListener ( new TreeExpansionListener ()
+        {
+            @Override
+            public void treeExpanded ( final TreeExpansionEvent event )
+            {
+                updateWatchedDirectories ();
+            }
+
+            @Override
+            public void treeCollapsed ( final TreeExpansionEvent event )
+            {
+                updateWatchedDirectories ();
+            }
+        } );
     }
 
     /**
@@ -225,6 +261,160 @@ public class WebFileTree extends WebAsyncTree<FileTreeNode>
         setFilter ( filter != null ? new FileTreeNodeFilter ( filter ) : null );
     }
 
+    /**
+     * Returns whether expanded directories should be watched for changes or not.
+     *
+     * @return true if expanded directories should be watched for changes, false otherwise
+     */
+    public boolean isWatchChanges ()
+    {
+        return watchChanges;
+    }
+
+    /**
+     * Sets whether expanded directories should be watched for changes or not.
+     * Changes are applied to the tree incrementally without reloading whole directories.
+     *
+     * @param watchChanges whether expanded directories should be watched for changes or not
+     */
+    public void setWatchChanges ( final boolean watchChanges )
+    {
+        this.watchChanges = watchChanges;
+        updateWatchedDirectories ();
+    }
+
+    /**
+     * Starts watching expanded directories and stops watching directories which are not displayed anymore.
+     * Directories are only watched while tree is displayable.
+     */
+    protected void updateWatchedDirectories ()
+    {
+        // Collecting expanded directories
+        final Set<File> directories = new HashSet<File> ();
+        final FileTreeNode root = getRootNode ();
+        if ( watchChanges && isDisplayable () && root != null )
+        {
+            final Enumeration<TreePath> expanded = getExpandedDescendants ( new TreePath ( root ) );
+            if ( expanded != null )
+            {
+                while ( expanded.hasMoreElements () )
+                {
+                    final File file = ( ( FileTreeNode ) expanded.nextElement ().getLastPathComponent () ).getFile ();
+                    if ( file != null )
+                    {
+                        directories.add ( file );
+                    }
+                }
+            }
+        }
+
+        // Stop watching collapsed directories
+        final Iterator<File> iterator = watchedDirectories.iterator ();
+        while ( iterator.hasNext () )
+        {
+            final File directory = iterator.next ();
+            if ( !directories.contains ( directory ) )
+            {
+                FileWatchManager.removeListener ( directory, fileChangeListener );
+                iterator.remove ();
+            }
+        }
+
+        // Start watching expanded directories
+        for ( final File directory : directories )
+        {
+            if ( !watchedDirectories.contains ( directory ) )
+            {
+                if ( fileChangeListener == null )
+                {
+                    fileChangeListener = new FileChangeListener ()
+                    {
+                        @Override
+                        public void filesChanged ( final File directory, final List<FileChange> changes )
+                        {
+                            WebFileTree.this.filesChanged ( directory, changes );
+                        }
+                    };
+                }
+                if ( FileWatchManager.addListener ( directory, fileChangeListener ) )
+                {
+                    watchedDirectories.add ( directory );
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies watched directory changes to the tree.
+     *
+     * @param directory watched directory
+     * @param changes   directory changes
+     */
+    protected void filesChanged ( final File directory, final List<FileChange> changes )
+    {
+        final FileTreeNode node = getNode ( directory );
+        if ( node == null )
+        {
+            // Directory node is not displayed anymore
+            updateWatchedDirectories ();
+            return;
+        }
+        for ( final FileChange change : changes )
+        {
+            final File file = change.getFile ();
+            switch ( change.getType () )
+            {
+                case overflow:
+                {
+                    reloadNode ( node );
+                    return;
+                }
+                case created:
+                {
+                    if ( getNode ( file ) == null )
+                    {
+                        addFile ( node, file );
+                    }
+                    break;
+                }
+                case deleted:
+                {
+                    removeFile ( file );
+                    break;
+                }
+                case modified:
+                {
+                    final FileTreeNode child = getNode ( file );
+                    if ( child != null )
+                    {
+                        updateNode ( child );
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addNotify ()
+    {
+        super.addNotify ();
+        updateWatchedDirectories ();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeNotify ()
+    {
+        super.removeNotify ();
+        updateWatchedDirectories ();
+    }
+
     /**
      * Changes displayed tree root name.
      *
@@ -819,6 +1009,18 @@ public class WebFileTree extends WebAsyncTree<FileTreeNode>
     {
         if ( path.size () > 0 )
         {
+            // Virtual childs are looked up directly
+            if ( getAsyncModel ().isVirtual ( pathNode ) )
+            {
+                final FileTreeNode child = getAsyncModel ().findVirtualChild ( pathNode, path.get ( 0 ).getAbsolutePath () );
+                if ( child != null )
+                {
+                    path.remove ( 0 );
+                    return getDeepestPathNode ( child, path );
+                }
+                return pathNode;
+            }
+
             for ( int i = 0; i < pathNode.getChildCount (); i++ )
             {
                 final FileTreeNode child = pathNode.getChildAt ( i );
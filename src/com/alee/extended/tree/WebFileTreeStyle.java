@@ -37,4 +37,9 @@ public final class WebFileTreeStyle
      * Set to null if you want to display all available files.
      */
     public static Filter<FileTreeNode> filter = new FileTreeNodeFilter ();
-}
\ No newline at end of file
+
+    /**
+     * Whether expanded directories should be watched for changes or not.
+     */
+    public static boolean watchChanges = true;
+}
@@ -46,6 +46,35 @@ import java.awt.image.ColorModel;
 
 public abstract class AbstractBufferedImageOp implements BufferedImageOp
 {
+    /**
+     * Whether filter is allowed to process large images in parallel or not.
+     * Parallel filters process supported images directly through their data arrays which makes those images unmanaged.
+     *
+     * @see FilterEngine
+     */
+    protected boolean parallel = false;
+
+    /**
+     * Returns whether filter is allowed to process large images in parallel or not.
+     *
+     * @return true if filter is allowed to process large images in parallel, false otherwise
+     */
+    public boolean isParallel ()
+    {
+        return parallel;
+    }
+
+    /**
+     * Sets whether filter is allowed to process large images in parallel or not.
+     * Filters which do not support parallel processing simply ignore this setting.
+     *
+     * @param parallel whether filter is allowed to process large images in parallel or not
+     */
+    public void setParallel ( boolean parallel )
+    {
+        this.parallel = parallel;
+    }
+
     @Override
     public BufferedImage createCompatibleDestImage ( BufferedImage src, ColorModel dstCM )
     {
@@ -110,6 +110,11 @@ public class BoxBlurFilter extends AbstractBufferedImageOp
             dst = createCompatibleDestImage ( src, null );
         }
 
+        if ( parallel )
+        {
+            return filterParallel ( src, dst, width, height );
+        }
+
         int[] inPixels = new int[ width * height ];
         int[] outPixels = new int[ width * height ];
         getRGB ( src, 0, 0, width, height, inPixels );
@@ -124,20 +129,84 @@ public class BoxBlurFilter extends AbstractBufferedImageOp
         return dst;
     }
 
+    /**
+     * Applies blur working directly on destination image data array where possible and splitting all passes into parallel tasks.
+     * Scratch buffers are taken from the FilterEngine pool.
+     */
+    protected BufferedImage filterParallel ( BufferedImage src, BufferedImage dst, int width, int height )
+    {
+        int length = width * height;
+        int[] dstData = dst.getWidth () == width && dst.getHeight () == height ? FilterEngine.getData ( dst ) : null;
+
+        // Source is read into destination array right away since each iteration result is written back into it
+        int[] inPixels = dstData != null ? dstData : FilterEngine.acquireBuffer ( length );
+        int[] srcData = FilterEngine.getData ( src );
+        if ( srcData != null )
+        {
+            if ( srcData != inPixels )
+            {
+                System.arraycopy ( srcData, 0, inPixels, 0, length );
+            }
+        }
+        else
+        {
+            getRGB ( src, 0, 0, width, height, inPixels );
+        }
+        int[] outPixels = FilterEngine.acquireBuffer ( length );
+
+        for ( int i = 0; i < iterations; i++ )
+        {
+            blur ( inPixels, outPixels, width, height, hRadius, true );
+            blur ( outPixels, inPixels, height, width, vRadius, true );
+        }
+
+        if ( dstData == null )
+        {
+            setRGB ( dst, 0, 0, width, height, inPixels );
+            FilterEngine.releaseBuffer ( inPixels );
+        }
+        FilterEngine.releaseBuffer ( outPixels );
+        return dst;
+    }
+
     public static void blur ( int[] in, int[] out, int width, int height, int radius )
     {
-        int widthMinus1 = width - 1;
+        blur ( in, out, width, height, radius, false );
+    }
+
+    /**
+     * Blurs rows and writes them transposed, so that the next call processes columns.
+     * Rows are processed in parallel if requested and the image is large enough.
+     */
+    public static void blur ( final int[] in, final int[] out, final int width, final int height, final int radius, boolean parallel )
+    {
         int tableSize = 2 * radius + 1;
-        int divide[] = new int[ 256 * tableSize ];
+        final int divide[] = new int[ 256 * tableSize ];
 
         for ( int i = 0; i < 256 * tableSize; i++ )
         {
             divide[ i ] = i / tableSize;
         }
 
-        int inIndex = 0;
+        FilterEngine.process ( parallel, height, width, new FilterEngine.RowsProcessor ()
+        {
+            @Override
+            public void process ( int from, int to )
+            {
+                blur ( in, out, width, height, radius, divide, from, to );
+            }
+        } );
+    }
+
+    /**
+     * Blurs and transposes rows in the specified range.
+     */
+    private static void blur ( int[] in, int[] out, int width, int height, int radius, int[] divide, int fromY, int toY )
+    {
+        int widthMinus1 = width - 1;
+        int inIndex = fromY * width;
 
-        for ( int y = 0; y < height; y++ )
+        for ( int y = fromY; y < toY; y++ )
         {
             int outIndex = y;
             int ta = 0, tr = 0, tg = 0, tb = 0;
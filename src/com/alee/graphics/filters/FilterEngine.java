@@ -0,0 +1,287 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.alee.graphics.filters;
+
+import java.awt.image.*;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Tiled execution engine for image filters.
+ * It splits image rows (or columns of transposed passes) into fork-join tasks, provides direct access to image data arrays and
+ * keeps a small pool of scratch buffers to avoid allocating large arrays on each filter call.
+ * <p/>
+ * Parallel execution is used only for images large enough to benefit from it, smaller images are processed on the calling thread.
+ *
+ * @author Mikle Garin
+ * @see AbstractBufferedImageOp#setParallel(boolean)
+ */
+
+public final class FilterEngine
+{
+    /**
+     * Minimum amount of processed pixels for parallel execution to be used.
+     */
+    public static final int MIN_PARALLEL_PIXELS = 256 * 256;
+
+    /**
+     * Minimum amount of pixels processed by a single task.
+     */
+    private static final int MIN_TASK_PIXELS = 128 * 128;
+
+    /**
+     * Maximum amount of pooled scratch buffers.
+     */
+    private static final int MAX_POOLED_BUFFERS = 4;
+
+    /**
+     * Pooled scratch buffers.
+     * Soft references allow large buffers to be collected when memory is needed.
+     */
+    private static final List<SoftReference<int[]>> buffers = new ArrayList<SoftReference<int[]>> ( MAX_POOLED_BUFFERS );
+
+    /**
+     * Fork-join pool used to process filter tasks.
+     * It is created lazily on first parallel filter call.
+     */
+    private static ForkJoinPool pool;
+
+    /**
+     * Processes specified amount of rows using the specified processor.
+     * Rows are split between fork-join tasks if parallel execution is requested and there are enough pixels to process.
+     *
+     * @param parallel  whether rows might be processed in parallel or not
+     * @param rows      amount of rows to process
+     * @param rowLength amount of pixels in a single row
+     * @param processor rows processor
+     */
+    public static void process ( final boolean parallel, final int rows, final int rowLength, final RowsProcessor processor )
+    {
+        final int parallelism = Runtime.getRuntime ().availableProcessors ();
+        if ( parallel && parallelism > 1 && rows > 1 && ( long ) rows * rowLength >= MIN_PARALLEL_PIXELS )
+        {
+            // Splitting rows into several tasks per available processor but not into too small tasks
+            final int minRows = Math.max ( 1, MIN_TASK_PIXELS / Math.max ( 1, rowLength ) );
+            final int grain = Math.max ( minRows, ( rows + parallelism * 4 - 1 ) / ( parallelism * 4 ) );
+            getPool ().invoke ( new RowsTask ( processor, 0, rows, grain ) );
+        }
+        else
+        {
+            processor.process ( 0, rows );
+        }
+    }
+
+    /**
+     * Returns fork-join pool used to process filter tasks.
+     *
+     * @return fork-join pool used to process filter tasks
+     */
+    private static synchronized ForkJoinPool getPool ()
+    {
+        if ( pool == null )
+        {
+            pool = new ForkJoinPool ( Runtime.getRuntime ().availableProcessors () );
+        }
+        return pool;
+    }
+
+    /**
+     * Returns image data array if it can be processed directly, null otherwise.
+     * Only non-premultiplied ARGB images with a single data bank, no offset and scanline stride equal to image width are supported.
+     * <p/>
+     * Be aware that direct data access makes the image unmanaged, so it will not be accelerated when painted anymore.
+     *
+     * @param image image to process
+     * @return image data array if it can be processed directly, null otherwise
+     */
+    public static int[] getData ( final BufferedImage image )
+    {
+        if ( image.getType () != BufferedImage.TYPE_INT_ARGB )
+        {
+            return null;
+        }
+        final WritableRaster raster = image.getRaster ();
+        if ( raster.getParent () != null || raster.getSampleModelTranslateX () != 0 || raster.getSampleModelTranslateY () != 0 )
+        {
+            return null;
+        }
+        final SampleModel sampleModel = raster.getSampleModel ();
+        final DataBuffer dataBuffer = raster.getDataBuffer ();
+        if ( !( sampleModel instanceof SinglePixelPackedSampleModel ) || !( dataBuffer instanceof DataBufferInt ) ||
+                dataBuffer.getNumBanks () != 1 || dataBuffer.getOffset () != 0 ||
+                ( ( SinglePixelPackedSampleModel ) sampleModel ).getScanlineStride () != image.getWidth () )
+        {
+            return null;
+        }
+        return ( ( DataBufferInt ) dataBuffer ).getData ();
+    }
+
+    /**
+     * Returns scratch buffer with at least the specified length.
+     * Returned buffer content is undefined. Buffer should be returned into pool using {@link #releaseBuffer(int[])} method when it is
+     * not needed anymore.
+     *
+     * @param length minimum buffer length
+     * @return scratch buffer with at least the specified length
+     */
+    public static int[] acquireBuffer ( final int length )
+    {
+        synchronized ( buffers )
+        {
+            for ( int i = buffers.size () - 1; i >= 0; i-- )
+            {
+                final int[] buffer = buffers.get ( i ).get ();
+                if ( buffer == null )
+                {
+                    buffers.remove ( i );
+                }
+                else if ( buffer.length >= length )
+                {
+                    buffers.remove ( i );
+                    return buffer;
+                }
+            }
+        }
+        return new int[ length ];
+    }
+
+    /**
+     * Returns scratch buffer into pool.
+     * If pool is full the smallest pooled buffer is replaced if it is smaller than the returned one.
+     *
+     * @param buffer scratch buffer
+     */
+    public static void releaseBuffer ( final int[] buffer )
+    {
+        if ( buffer == null )
+        {
+            return;
+        }
+        synchronized ( buffers )
+        {
+            int smallest = -1;
+            int smallestLength = Integer.MAX_VALUE;
+            for ( int i = buffers.size () - 1; i >= 0; i-- )
+            {
+                final int[] pooled = buffers.get ( i ).get ();
+                if ( pooled == null )
+                {
+                    buffers.remove ( i );
+                    smallest = smallest > i ? smallest - 1 : smallest;
+                }
+                else if ( pooled == buffer )
+                {
+                    return;
+                }
+                else if ( pooled.length < smallestLength )
+                {
+                    smallest = i;
+                    smallestLength = pooled.length;
+                }
+            }
+            if ( buffers.size () < MAX_POOLED_BUFFERS )
+            {
+                buffers.add ( new SoftReference<int[]> ( buffer ) );
+            }
+            else if ( smallest != -1 && smallestLength < buffer.length )
+            {
+                buffers.set ( smallest, new SoftReference<int[]> ( buffer ) );
+            }
+        }
+    }
+
+    /**
+     * Rows processor.
+     * Implementations must be safe to call concurrently for different ranges of rows.
+     */
+    public static interface RowsProcessor
+    {
+        /**
+         * Processes rows in the specified range.
+         *
+         * @param from first row index, inclusive
+         * @param to   last row index, exclusive
+         */
+        public void process ( int from, int to );
+    }
+
+    /**
+     * Fork-join task splitting rows range in halves until it is small enough.
+     */
+    private static final class RowsTask extends RecursiveAction
+    {
+        /**
+         * Serialization version.
+         * Tasks are never serialized, it is only declared because ForkJoinTask is serializable.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Rows processor.
+         */
+        private final RowsProcessor processor;
+
+        /**
+         * First row index, inclusive.
+         */
+        private final int from;
+
+        /**
+         * Last row index, exclusive.
+         */
+        private final int to;
+
+        /**
+         * Maximum amount of rows processed without splitting.
+         */
+        private final int grain;
+
+        /**
+         * Constructs new rows task.
+         *
+         * @param processor rows processor
+         * @param from      first row index, inclusive
+         * @param to        last row index, exclusive
+         * @param grain     maximum amount of rows processed without splitting
+         */
+        private RowsTask ( final RowsProcessor processor, final int from, final int to, final int grain )
+        {
+            super ();
+            this.processor = processor;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute ()
+        {
+            if ( to - from <= grain )
+            {
+                processor.process ( from, to );
+            }
+            else
+            {
+                final int middle = ( from + to ) >>> 1;
+                invokeAll ( new RowsTask ( processor, from, middle, grain ), new RowsTask ( processor, middle, to, grain ) );
+            }
+        }
+    }
+}
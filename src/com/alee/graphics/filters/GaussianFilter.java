@@ -45,8 +45,20 @@ import java.awt.image.Kernel;
 
 public class GaussianFilter extends ConvolveFilter
 {
+    /**
+     * Default radius above which blur is approximated with box passes.
+     * Above this radius approximated pixels differ from the exact kernel result by a few levels per channel at most.
+     */
+    public static final float DEFAULT_APPROXIMATION_RADIUS = 8f;
+
+    /**
+     * Amount of box passes used to approximate Gaussian blur.
+     */
+    private static final int APPROXIMATION_PASSES = 3;
+
     protected float radius;
     protected Kernel kernel;
+    protected float approximationRadius = DEFAULT_APPROXIMATION_RADIUS;
 
     /**
      * Construct a Gaussian filter
@@ -87,6 +99,27 @@ public class GaussianFilter extends ConvolveFilter
         return radius;
     }
 
+    /**
+     * Set the radius above which blur is approximated with several box blur passes. Approximation cost doesn't depend on the radius.
+     * Use Float.MAX_VALUE to always use the exact kernel.
+     *
+     * @param approximationRadius the radius above which blur is approximated
+     */
+    public void setApproximationRadius ( float approximationRadius )
+    {
+        this.approximationRadius = approximationRadius;
+    }
+
+    /**
+     * Get the radius above which blur is approximated with several box blur passes.
+     *
+     * @return the radius above which blur is approximated
+     */
+    public float getApproximationRadius ()
+    {
+        return approximationRadius;
+    }
+
     @Override
     public BufferedImage filter ( BufferedImage src, BufferedImage dst )
     {
@@ -98,6 +131,15 @@ public class GaussianFilter extends ConvolveFilter
             dst = createCompatibleDestImage ( src, null );
         }
 
+        if ( radius > approximationRadius )
+        {
+            return filterApproximated ( src, dst, width, height );
+        }
+        if ( parallel )
+        {
+            return filterParallel ( src, dst, width, height );
+        }
+
         int[] inPixels = new int[ width * height ];
         int[] outPixels = new int[ width * height ];
         src.getRGB ( 0, 0, width, height, inPixels, 0, width );
@@ -109,14 +151,226 @@ public class GaussianFilter extends ConvolveFilter
         return dst;
     }
 
+    /**
+     * Applies blur working directly on image data arrays where possible and splitting both passes into parallel tasks.
+     * Scratch buffers are taken from the FilterEngine pool.
+     */
+    protected BufferedImage filterParallel ( BufferedImage src, BufferedImage dst, int width, int height )
+    {
+        int length = width * height;
+        int[] srcData = FilterEngine.getData ( src );
+        int[] dstData = dst.getWidth () == width && dst.getHeight () == height ? FilterEngine.getData ( dst ) : null;
+
+        int[] inPixels = srcData;
+        if ( inPixels == null )
+        {
+            inPixels = FilterEngine.acquireBuffer ( length );
+            src.getRGB ( 0, 0, width, height, inPixels, 0, width );
+        }
+        int[] tmpPixels = FilterEngine.acquireBuffer ( length );
+        int[] outPixels = dstData != null ? dstData : srcData == null ? inPixels : FilterEngine.acquireBuffer ( length );
+
+        convolveAndTranspose ( kernel, inPixels, tmpPixels, width, height, alpha, CLAMP_EDGES, true );
+        convolveAndTranspose ( kernel, tmpPixels, outPixels, height, width, alpha, CLAMP_EDGES, true );
+
+        if ( dstData == null )
+        {
+            dst.setRGB ( 0, 0, width, height, outPixels, 0, width );
+        }
+
+        FilterEngine.releaseBuffer ( tmpPixels );
+        if ( inPixels != srcData )
+        {
+            FilterEngine.releaseBuffer ( inPixels );
+        }
+        if ( outPixels != dstData && outPixels != inPixels )
+        {
+            FilterEngine.releaseBuffer ( outPixels );
+        }
+        return dst;
+    }
+
+    /**
+     * Applies blur approximated with several sliding window box blur passes, so its cost doesn't depend on the radius.
+     * Box sizes are chosen to match the variance of the exact kernel. Channels are blurred separately without premultiplying them, just
+     * like the exact kernel does, so translucent images are blurred the same way. Image is padded with its edge pixels by the total
+     * passes radius, so that edges are clamped the same way exact kernel clamps them.
+     */
+    protected BufferedImage filterApproximated ( BufferedImage src, BufferedImage dst, int width, int height )
+    {
+        int[] sizes = makeBoxSizes ( radius / 3, APPROXIMATION_PASSES );
+        int pad = 0;
+        for ( int size : sizes )
+        {
+            pad += size / 2;
+        }
+        int paddedWidth = width + pad * 2;
+        int paddedHeight = height + pad * 2;
+        int length = width * height;
+        int paddedLength = paddedWidth * paddedHeight;
+
+        int[] pixels = FilterEngine.acquireBuffer ( length );
+        int[] paddedPixels = FilterEngine.acquireBuffer ( paddedLength );
+        int[] tmpPixels = FilterEngine.acquireBuffer ( paddedLength );
+        src.getRGB ( 0, 0, width, height, pixels, 0, width );
+
+        // Padding image with its edge pixels
+        for ( int y = 0; y < paddedHeight; y++ )
+        {
+            int row = ImageMath.clamp ( y - pad, 0, height - 1 ) * width;
+            int index = y * paddedWidth;
+            for ( int x = 0; x < pad; x++ )
+            {
+                paddedPixels[ index + x ] = pixels[ row ];
+                paddedPixels[ index + pad + width + x ] = pixels[ row + width - 1 ];
+            }
+            System.arraycopy ( pixels, row, paddedPixels, index + pad, width );
+        }
+
+        for ( int size : sizes )
+        {
+            boxBlurAndTranspose ( paddedPixels, tmpPixels, paddedWidth, paddedHeight, size / 2, parallel );
+            boxBlurAndTranspose ( tmpPixels, paddedPixels, paddedHeight, paddedWidth, size / 2, parallel );
+        }
+
+        // Cropping padding
+        for ( int y = 0; y < height; y++ )
+        {
+            System.arraycopy ( paddedPixels, ( y + pad ) * paddedWidth + pad, pixels, y * width, width );
+        }
+        if ( !alpha )
+        {
+            for ( int i = 0; i < length; i++ )
+            {
+                pixels[ i ] |= 0xff000000;
+            }
+        }
+
+        dst.setRGB ( 0, 0, width, height, pixels, 0, width );
+        FilterEngine.releaseBuffer ( pixels );
+        FilterEngine.releaseBuffer ( paddedPixels );
+        FilterEngine.releaseBuffer ( tmpPixels );
+        return dst;
+    }
+
+    /**
+     * Returns odd box sizes which approximate Gaussian blur with the specified standard deviation when applied one after another.
+     * Sizes are chosen so that the sum of box variances is as close as possible to the Gaussian variance.
+     */
+    public static int[] makeBoxSizes ( float sigma, int passes )
+    {
+        double variance = 12.0 * sigma * sigma;
+        int lower = ( int ) Math.floor ( Math.sqrt ( variance / passes + 1 ) );
+        if ( lower % 2 == 0 )
+        {
+            lower--;
+        }
+        lower = Math.max ( 1, lower );
+        int upper = lower + 2;
+        int lowerPasses = ( int ) Math.round ( ( variance - passes * lower * lower - 4 * passes * lower - 3 * passes ) / ( -4 * lower - 4 ) );
+        lowerPasses = Math.max ( 0, Math.min ( passes, lowerPasses ) );
+        int[] sizes = new int[ passes ];
+        for ( int i = 0; i < passes; i++ )
+        {
+            sizes[ i ] = i < lowerPasses ? lower : upper;
+        }
+        return sizes;
+    }
+
+    /**
+     * Blurs rows with a sliding window box of the specified radius and writes them transposed, so that the next call processes
+     * columns. Edge pixels are clamped, sums are divided with rounding.
+     */
+    public static void boxBlurAndTranspose ( final int[] inPixels, final int[] outPixels, final int width, final int height,
+                                             final int radius, boolean parallel )
+    {
+        final int size = radius * 2 + 1;
+        final int[] divide = new int[ 256 * size ];
+        for ( int i = 0; i < divide.length; i++ )
+        {
+            divide[ i ] = ( i + size / 2 ) / size;
+        }
+        FilterEngine.process ( parallel, height, width, new FilterEngine.RowsProcessor ()
+        {
+            @Override
+            public void process ( int from, int to )
+            {
+                boxBlurAndTranspose ( inPixels, outPixels, width, height, radius, divide, from, to );
+            }
+        } );
+    }
+
+    /**
+     * Box blurs and transposes rows in the specified range.
+     */
+    private static void boxBlurAndTranspose ( int[] inPixels, int[] outPixels, int width, int height, int radius, int[] divide,
+                                              int fromY, int toY )
+    {
+        int widthMinus1 = width - 1;
+        for ( int y = fromY; y < toY; y++ )
+        {
+            int inIndex = y * width;
+            int outIndex = y;
+            int ta = 0, tr = 0, tg = 0, tb = 0;
+
+            for ( int i = -radius; i <= radius; i++ )
+            {
+                int rgb = inPixels[ inIndex + ImageMath.clamp ( i, 0, widthMinus1 ) ];
+                ta += ( rgb >>> 24 );
+                tr += ( rgb >> 16 ) & 0xff;
+                tg += ( rgb >> 8 ) & 0xff;
+                tb += rgb & 0xff;
+            }
+
+            for ( int x = 0; x < width; x++ )
+            {
+                outPixels[ outIndex ] = ( divide[ ta ] << 24 ) | ( divide[ tr ] << 16 ) | ( divide[ tg ] << 8 ) | divide[ tb ];
+
+                int rgb1 = inPixels[ inIndex + Math.min ( x + radius + 1, widthMinus1 ) ];
+                int rgb2 = inPixels[ inIndex + Math.max ( x - radius, 0 ) ];
+                ta += ( rgb1 >>> 24 ) - ( rgb2 >>> 24 );
+                tr += ( ( rgb1 >> 16 ) & 0xff ) - ( ( rgb2 >> 16 ) & 0xff );
+                tg += ( ( rgb1 >> 8 ) & 0xff ) - ( ( rgb2 >> 8 ) & 0xff );
+                tb += ( rgb1 & 0xff ) - ( rgb2 & 0xff );
+                outIndex += height;
+            }
+        }
+    }
+
     public static void convolveAndTranspose ( Kernel kernel, int[] inPixels, int[] outPixels, int width, int height, boolean alpha,
                                               int edgeAction )
     {
-        float[] matrix = kernel.getKernelData ( null );
-        int cols = kernel.getWidth ();
+        convolveAndTranspose ( kernel, inPixels, outPixels, width, height, alpha, edgeAction, false );
+    }
+
+    /**
+     * Convolves rows with a horizontal kernel and writes them transposed, so that the next call processes columns.
+     * Rows are processed in parallel if requested and the image is large enough.
+     */
+    public static void convolveAndTranspose ( Kernel kernel, final int[] inPixels, final int[] outPixels, final int width,
+                                              final int height, final boolean alpha, final int edgeAction, boolean parallel )
+    {
+        final float[] matrix = kernel.getKernelData ( null );
+        final int cols = kernel.getWidth ();
+        FilterEngine.process ( parallel, height, width, new FilterEngine.RowsProcessor ()
+        {
+            @Override
+            public void process ( int from, int to )
+            {
+                convolveAndTranspose ( matrix, cols, inPixels, outPixels, width, height, alpha, edgeAction, from, to );
+            }
+        } );
+    }
+
+    /**
+     * Convolves and transposes rows in the specified range.
+     */
+    private static void convolveAndTranspose ( float[] matrix, int cols, int[] inPixels, int[] outPixels, int width, int height,
+                                               boolean alpha, int edgeAction, int fromY, int toY )
+    {
         int cols2 = cols / 2;
 
-        for ( int y = 0; y < height; y++ )
+        for ( int y = fromY; y < toY; y++ )
         {
             int index = y;
             int ioffset = y * width;
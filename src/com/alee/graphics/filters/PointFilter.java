@@ -38,6 +38,7 @@ import java.awt.image.WritableRaster;
 
 /**
  * An abstract superclass for point filters. The interface is the same as the old RGBImageFilter.
+ * Parallel filtering calls filterRGB concurrently for different rows, so it should only be enabled for stateless filters.
  */
 
 public abstract class PointFilter extends AbstractBufferedImageOp
@@ -61,6 +62,33 @@ public abstract class PointFilter extends AbstractBufferedImageOp
 
         setDimensions ( width, height );
 
+        if ( parallel )
+        {
+            // Filtering data arrays directly if both images allow that
+            final int[] srcData = FilterEngine.getData ( src );
+            final int[] dstData = dst.getWidth () == width && dst.getHeight () == height ? FilterEngine.getData ( dst ) : null;
+            if ( srcData != null && dstData != null )
+            {
+                final int w = width;
+                FilterEngine.process ( true, height, width, new FilterEngine.RowsProcessor ()
+                {
+                    @Override
+                    public void process ( int from, int to )
+                    {
+                        for ( int y = from; y < to; y++ )
+                        {
+                            int index = y * w;
+                            for ( int x = 0; x < w; x++, index++ )
+                            {
+                                dstData[ index ] = filterRGB ( x, y, srcData[ index ] );
+                            }
+                        }
+                    }
+                } );
+                return dst;
+            }
+        }
+
         int[] inPixels = new int[ width ];
         for ( int y = 0; y < height; y++ )
         {
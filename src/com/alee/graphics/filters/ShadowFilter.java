@@ -52,6 +52,7 @@ public class ShadowFilter extends AbstractBufferedImageOp
     private boolean addMargins = false;
     private boolean shadowOnly = true;
     private int shadowColor = 0xff000000;
+    private float approximationRadius = GaussianFilter.DEFAULT_APPROXIMATION_RADIUS;
 
     public ShadowFilter ()
     {
@@ -105,6 +106,27 @@ public class ShadowFilter extends AbstractBufferedImageOp
         return radius;
     }
 
+    /**
+     * Set the radius above which shadow blur is approximated with several box blur passes.
+     *
+     * @param approximationRadius the radius above which shadow blur is approximated
+     * @see GaussianFilter#setApproximationRadius(float)
+     */
+    public void setApproximationRadius ( float approximationRadius )
+    {
+        this.approximationRadius = approximationRadius;
+    }
+
+    /**
+     * Get the radius above which shadow blur is approximated with several box blur passes.
+     *
+     * @return the radius above which shadow blur is approximated
+     */
+    public float getApproximationRadius ()
+    {
+        return approximationRadius;
+    }
+
     public void setOpacity ( float opacity )
     {
         this.opacity = opacity;
@@ -178,7 +200,10 @@ public class ShadowFilter extends AbstractBufferedImageOp
         float[][] extractAlpha = { { 0, 0, 0, 0 }, { 0, 0, 0, 0 }, { 0, 0, 0, 0 }, { 0, 0, 0, opacity } };
         BufferedImage shadow = new BufferedImage ( width, height, BufferedImage.TYPE_INT_ARGB );
         new BandCombineOp ( extractAlpha, null ).filter ( src.getRaster (), shadow.getRaster () );
-        shadow = new GaussianFilter ( radius ).filter ( shadow, null );
+        GaussianFilter blur = new GaussianFilter ( radius );
+        blur.setParallel ( parallel );
+        blur.setApproximationRadius ( approximationRadius );
+        shadow = blur.filter ( shadow, null );
 
         Graphics2D g = dst.createGraphics ();
         g.setComposite ( AlphaComposite.getInstance ( AlphaComposite.SRC_OVER, opacity ) );
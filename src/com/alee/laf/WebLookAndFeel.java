@@ -60,6 +60,8 @@ import com.alee.laf.viewport.WebViewportUI;
 import com.alee.managers.focus.FocusManager;
 import com.alee.managers.hotkey.HotkeyManager;
 import com.alee.managers.language.LanguageManager;
+import com.alee.managers.profiler.EdtWatchdog;
+import com.alee.managers.profiler.PaintProfiler;
 import com.alee.managers.proxy.ProxyManager;
 import com.alee.managers.settings.SettingsManager;
 import com.alee.managers.tooltip.TooltipManager;
@@ -96,6 +98,27 @@ public class WebLookAndFeel extends BasicLookAndFeel
      */
     public static final String PROPERTY_HONOR_USER_BORDERS = "WebLookAndFeel.honorUserBorders";
 
+    /**
+     * If this system property is set to <code>true</code>, UI delegates painting time will be measured by PaintProfiler.
+     *
+     * @see com.alee.managers.profiler.PaintProfiler
+     */
+    public static final String PROPERTY_PAINT_PROFILER = "WebLookAndFeel.paintProfiler";
+
+    /**
+     * If this system property is set to <code>true</code>, PaintProfiler will highlight components which take long to paint.
+     *
+     * @see com.alee.managers.profiler.PaintProfiler
+     */
+    public static final String PROPERTY_PAINT_PROFILER_OVERLAY = "WebLookAndFeel.paintProfilerOverlay";
+
+    /**
+     * If this system property is set to <code>true</code>, EdtWatchdog will be started to detect Event Dispatch Thread stalls.
+     *
+     * @see com.alee.managers.profiler.EdtWatchdog
+     */
+    public static final String PROPERTY_EDT_WATCHDOG = "WebLookAndFeel.edtWatchdog";
+
     /**
      * Some known UI constants.
      */
@@ -871,6 +894,8 @@ public class WebLookAndFeel extends BasicLookAndFeel
         FocusManager.initialize ();
         TooltipManager.initialize ();
         ProxyManager.initialize ();
+        PaintProfiler.initialize ();
+        EdtWatchdog.initialize ();
     }
 
     /**
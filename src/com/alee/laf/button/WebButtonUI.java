@@ -21,13 +21,16 @@ import com.alee.extended.painter.Painter;
 import com.alee.extended.painter.PainterSupport;
 import com.alee.laf.StyleConstants;
 import com.alee.laf.WebLookAndFeel;
+import com.alee.managers.profiler.PaintProfiler;
+import com.alee.utils.AnimationManager;
 import com.alee.utils.ColorUtils;
 import com.alee.utils.LafUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.laf.ShapeProvider;
 import com.alee.utils.swing.AncestorAdapter;
+import com.alee.utils.swing.Animation;
+import com.alee.utils.swing.AnimationAdapter;
 import com.alee.utils.swing.BorderMethods;
-import com.alee.utils.swing.WebTimer;
 
 import javax.swing.*;
 import javax.swing.event.AncestorEvent;
@@ -35,8 +38,6 @@ import javax.swing.event.AncestorListener;
 import javax.swing.plaf.ComponentUI;
 import javax.swing.plaf.basic.BasicButtonUI;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.geom.Rectangle2D;
@@ -94,7 +95,7 @@ public class WebButtonUI extends BasicButtonUI implements ShapeProvider, SwingCo
     protected float transparency = 0f;
 
     protected Point mousePoint = null;
-    protected WebTimer animator = null;
+    protected Animation animator = null;
     protected AbstractButton button = null;
 
     protected MouseAdapter mouseAdapter;
@@ -141,25 +142,35 @@ public class WebButtonUI extends BasicButtonUI implements ShapeProvider, SwingCo
                 if ( painter == null &&
                         animate && ( rolloverShine || rolloverDecoratedOnly || rolloverShadeOnly ) )
                 {
-                    animator = new WebTimer ( "WebButtonUI.fadeInTimer", StyleConstants.fastAnimationDelay, new ActionListener ()
+                    animator = new AnimationAdapter ( c, StyleConstants.fastAnimationDelay )
                     {
                         @Override
-                        public void actionPerformed ( final ActionEvent e )
+                        public boolean step ()
                         {
                             transparency += 0.075f;
-                            if ( transparency >= 1f )
+                            final boolean finished = transparency >= 1f;
+                            if ( finished )
                             {
                                 transparency = 1f;
-                                animator.stop ();
                             }
                             updateTransparentShineColor ();
-                            if ( c.isEnabled () )
-                            {
-                                c.repaint ();
-                            }
+                            return !finished;
+                        }
+
+                        @Override
+                        public Rectangle getDirtyRegion ()
+                        {
+                            return c.isEnabled () ? null : new Rectangle ();
                         }
-                    } );
-                    animator.start ();
+
+                        @Override
+                        public void complete ()
+                        {
+                            transparency = 1f;
+                            updateTransparentShineColor ();
+                        }
+                    };
+                    AnimationManager.register ( animator );
                 }
                 else
                 {
@@ -180,28 +191,41 @@ public class WebButtonUI extends BasicButtonUI implements ShapeProvider, SwingCo
                 if ( painter == null &&
                         animate && ( rolloverShine || rolloverDecoratedOnly || rolloverShadeOnly ) )
                 {
-                    animator = new WebTimer ( "WebButtonUI.fadeOutTimer", StyleConstants.fastAnimationDelay, new ActionListener ()
+                    animator = new AnimationAdapter ( c, StyleConstants.fastAnimationDelay )
                     {
                         @Override
-                        public void actionPerformed ( final ActionEvent e )
+                        public boolean step ()
                         {
                             transparency -= 0.075f;
-                            if ( transparency <= 0f )
+                            final boolean finished = transparency <= 0f;
+                            if ( finished )
                             {
-                                rollover = false;
-                                button.getModel ().setRollover ( false );
-                                transparency = 0f;
-                                mousePoint = null;
-                                animator.stop ();
+                                complete ();
                             }
-                            updateTransparentShineColor ();
-                            if ( c.isEnabled () )
+                            else
                             {
-                                c.repaint ();
+                                updateTransparentShineColor ();
                             }
+                            return !finished;
+                        }
+
+                        @Override
+                        public Rectangle getDirtyRegion ()
+                        {
+                            return c.isEnabled () ? null : new Rectangle ();
+                        }
+
+                        @Override
+                        public void complete ()
+                        {
+                            rollover = false;
+                            button.getModel ().setRollover ( false );
+                            transparency = 0f;
+                            mousePoint = null;
+                            updateTransparentShineColor ();
                         }
-                    } );
-                    animator.start ();
+                    };
+                    AnimationManager.register ( animator );
                 }
                 else
                 {
@@ -235,10 +259,7 @@ public class WebButtonUI extends BasicButtonUI implements ShapeProvider, SwingCo
 
             private void stopAnimator ()
             {
-                if ( animator != null )
-                {
-                    animator.stop ();
-                }
+                AnimationManager.unregister ( animator );
             }
 
             @Override
@@ -265,7 +286,7 @@ public class WebButtonUI extends BasicButtonUI implements ShapeProvider, SwingCo
             {
                 if ( c.isEnabled () )
                 {
-                    if ( animator == null || !animator.isRunning () )
+                    if ( !AnimationManager.isRegistered ( animator ) )
                     {
                         c.repaint ();
                     }
@@ -768,6 +789,21 @@ public class WebButtonUI extends BasicButtonUI implements ShapeProvider, SwingCo
         updateBorder ();
     }
 
+    /**
+     * Updates component, this also fills component background if it is opaque and paints it.
+     * Painting time is measured here when PaintProfiler is enabled.
+     *
+     * @param g graphics
+     * @param c component
+     */
+    @Override
+    public void update ( final Graphics g, final JComponent c )
+    {
+        final long start = PaintProfiler.start ();
+        super.update ( g, c );
+        PaintProfiler.finish ( this, c, g, start );
+    }
+
     @Override
     public void paint ( final Graphics g, final JComponent c )
     {
@@ -55,6 +55,7 @@ import com.alee.managers.hotkey.Hotkey;
 import com.alee.managers.language.LanguageManager;
 import com.alee.managers.tooltip.TooltipWay;
 import com.alee.utils.*;
+import com.alee.utils.cache.FileAttributesCache;
 import com.alee.utils.swing.AncestorAdapter;
 import com.alee.utils.swing.DataProvider;
 import com.alee.utils.swing.DefaultFileFilterListCellRenderer;
@@ -1471,9 +1472,11 @@ public class WebFileChooserPanel extends WebPanel
     public void reloadCurrentFolder ()
     {
         // Clearing all caches for folder files
+        // Folder is not listed here since view components list it on reload anyway
         if ( currentFolder != null )
         {
-            FileUtils.clearFilesCaches ( currentFolder.listFiles () );
+            FileUtils.clearFileCaches ( currentFolder );
+            FileAttributesCache.clearChildren ( currentFolder );
         }
 
         // Updating view in a specific way
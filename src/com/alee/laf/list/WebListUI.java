@@ -18,6 +18,7 @@
 package com.alee.laf.list;
 
 import com.alee.laf.StyleConstants;
+import com.alee.managers.profiler.PaintProfiler;
 import com.alee.utils.LafUtils;
 import com.alee.utils.SwingUtils;
 
@@ -286,6 +287,21 @@ public class WebListUI extends BasicListUI
         this.autoScrollToSelection = autoScrollToSelection;
     }
 
+    /**
+     * Updates component, this also fills component background if it is opaque and paints it.
+     * Painting time is measured here when PaintProfiler is enabled.
+     *
+     * @param g graphics
+     * @param c component
+     */
+    @Override
+    public void update ( final Graphics g, final JComponent c )
+    {
+        final long start = PaintProfiler.start ();
+        super.update ( g, c );
+        PaintProfiler.finish ( this, c, g, start );
+    }
+
     /**
      * Paints list content.
      *
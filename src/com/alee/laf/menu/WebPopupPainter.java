@@ -24,7 +24,6 @@ import com.alee.utils.NinePatchUtils;
 import com.alee.utils.ShapeCache;
 import com.alee.utils.laf.PainterShapeProvider;
 import com.alee.utils.ninepatch.NinePatchIcon;
-import com.alee.utils.swing.DataProvider;
 
 import javax.swing.*;
 import java.awt.*;
@@ -41,6 +40,16 @@ import java.awt.geom.GeneralPath;
 @SuppressWarnings ("UnusedParameters")
 public class WebPopupPainter<E extends JComponent> extends AbstractPainter<E> implements PainterShapeProvider<E>, SwingConstants
 {
+    /**
+     * Cached shape IDs.
+     */
+    protected static final String SIMPLE_FILL_SHAPE = "simple-fill";
+    protected static final String SIMPLE_BORDER_SHAPE = "simple-border";
+    protected static final String DROPDOWN_FILL_SHAPE = "dropdown-fill";
+    protected static final String DROPDOWN_BORDER_SHAPE = "dropdown-border";
+    protected static final String DROPDOWN_CORNER_FILL_SHAPE = "dropdown-corner-fill";
+    protected static final String DROPDOWN_CORNER_BORDER_SHAPE = "dropdown-corner-border";
+
     /**
      * Style settings.
      */
@@ -60,6 +69,11 @@ public class WebPopupPainter<E extends JComponent> extends AbstractPainter<E> im
     protected int relativeCorner = 0;
     protected int cornerAlignment = -1;
 
+    /**
+     * Reusable cached shapes key.
+     */
+    protected final ShapeCache.Key shapeKey = new ShapeCache.Key ();
+
     /**
      * Returns popup style.
      *
@@ -547,25 +561,27 @@ public class WebPopupPainter<E extends JComponent> extends AbstractPainter<E> im
         {
             case simple:
             {
-                return ShapeCache.getShape ( popup, fill ? "simple-fill" : "simple-border", new DataProvider<Shape> ()
+                final String shapeId = fill ? SIMPLE_FILL_SHAPE : SIMPLE_BORDER_SHAPE;
+                final ShapeCache.Key key = getCachedShapeKey ( popup );
+                Shape shape = ShapeCache.getShape ( popup, shapeId, key );
+                if ( shape == null )
                 {
-                    @Override
-                    public Shape provide ()
-                    {
-                        return createSimpleShape ( popup, popupSize, fill );
-                    }
-                }, getCachedShapeSettings ( popup ) );
+                    shape = createSimpleShape ( popup, popupSize, fill );
+                    ShapeCache.putShape ( popup, shapeId, key, shape );
+                }
+                return shape;
             }
             case dropdown:
             {
-                return ShapeCache.getShape ( popup, fill ? "dropdown-fill" : "dropdown-border", new DataProvider<Shape> ()
+                final String shapeId = fill ? DROPDOWN_FILL_SHAPE : DROPDOWN_BORDER_SHAPE;
+                final ShapeCache.Key key = getCachedShapeKey ( popup );
+                Shape shape = ShapeCache.getShape ( popup, shapeId, key );
+                if ( shape == null )
                 {
-                    @Override
-                    public Shape provide ()
-                    {
-                        return createDropdownShape ( popup, popupSize, fill );
-                    }
-                }, getCachedShapeSettings ( popup ) );
+                    shape = createDropdownShape ( popup, popupSize, fill );
+                    ShapeCache.putShape ( popup, shapeId, key, shape );
+                }
+                return shape;
             }
             default:
             {
@@ -575,14 +591,16 @@ public class WebPopupPainter<E extends JComponent> extends AbstractPainter<E> im
     }
 
     /**
-     * Returns an array of shape settings cached along with the shape.
+     * Returns key built from shape settings cached along with the shape.
+     * The same key instance is reused for each call to avoid garbage creation on each paint.
      *
      * @param popup popup component
-     * @return an array of shape settings cached along with the shape
+     * @return key built from shape settings cached along with the shape
      */
-    protected Object[] getCachedShapeSettings ( final E popup )
+    protected ShapeCache.Key getCachedShapeKey ( final E popup )
     {
-        return new Object[]{ round, shadeWidth, cornerWidth, cornerSide, relativeCorner, cornerAlignment, popup.getSize () };
+        return shapeKey.reset ().add ( round ).add ( shadeWidth ).add ( cornerWidth ).add ( cornerSide ).add ( relativeCorner )
+                .add ( cornerAlignment ).add ( popup.getWidth () ).add ( popup.getHeight () );
     }
 
     /**
@@ -717,14 +735,15 @@ public class WebPopupPainter<E extends JComponent> extends AbstractPainter<E> im
      */
     protected Shape getDropdownCornerShape ( final E popupMenu, final Dimension menuSize, final boolean fill )
     {
-        return ShapeCache.getShape ( popupMenu, fill ? "dropdown-corner-fill" : "dropdown-corner-border", new DataProvider<Shape> ()
+        final String shapeId = fill ? DROPDOWN_CORNER_FILL_SHAPE : DROPDOWN_CORNER_BORDER_SHAPE;
+        final ShapeCache.Key key = getCachedShapeKey ( popupMenu );
+        Shape shape = ShapeCache.getShape ( popupMenu, shapeId, key );
+        if ( shape == null )
         {
-            @Override
-            public Shape provide ()
-            {
-                return createDropdownCornerShape ( popupMenu, menuSize, fill );
-            }
-        }, getCachedShapeSettings ( popupMenu ) );
+            shape = createDropdownCornerShape ( popupMenu, menuSize, fill );
+            ShapeCache.putShape ( popupMenu, shapeId, key, shape );
+        }
+        return shape;
     }
 
     /**
@@ -24,6 +24,7 @@ import com.alee.laf.WebLookAndFeel;
 import com.alee.managers.focus.DefaultFocusTracker;
 import com.alee.managers.focus.FocusManager;
 import com.alee.managers.focus.FocusTracker;
+import com.alee.managers.profiler.PaintProfiler;
 import com.alee.utils.LafUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.laf.PainterShapeProvider;
@@ -545,6 +546,21 @@ public class WebPanelUI extends BasicPanelUI implements ShapeProvider, BorderMet
         updateBorder ();
     }
 
+    /**
+     * Updates component, this also fills component background if it is opaque and paints it.
+     * Painting time is measured here when PaintProfiler is enabled.
+     *
+     * @param g graphics
+     * @param c component
+     */
+    @Override
+    public void update ( final Graphics g, final JComponent c )
+    {
+        final long start = PaintProfiler.start ();
+        super.update ( g, c );
+        PaintProfiler.finish ( this, c, g, start );
+    }
+
     /**
      * Paints panel.
      *
@@ -18,21 +18,20 @@
 package com.alee.laf.progressbar;
 
 import com.alee.laf.StyleConstants;
+import com.alee.utils.AnimationManager;
 import com.alee.utils.LafUtils;
 import com.alee.utils.SwingUtils;
-import com.alee.utils.ThreadUtils;
 import com.alee.utils.laf.ShapeProvider;
 import com.alee.utils.swing.AncestorAdapter;
+import com.alee.utils.swing.Animation;
+import com.alee.utils.swing.AnimationAdapter;
 import com.alee.utils.swing.BorderMethods;
-import com.alee.utils.swing.WebTimer;
 
 import javax.swing.*;
 import javax.swing.event.AncestorEvent;
 import javax.swing.plaf.ComponentUI;
 import javax.swing.plaf.basic.BasicProgressBarUI;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.awt.geom.*;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
@@ -74,7 +73,7 @@ public class WebProgressBarUI extends BasicProgressBarUI implements ShapeProvide
 
     private final int determinateAnimationPause = 1500;
     private int animationLocation = 0;
-    private WebTimer animator = null;
+    private Animation animator = null;
 
     private PropertyChangeListener propertyChangeListener;
 
@@ -132,10 +131,7 @@ public class WebProgressBarUI extends BasicProgressBarUI implements ShapeProvide
     {
         c.removePropertyChangeListener ( propertyChangeListener );
 
-        if ( animator != null )
-        {
-            animator.stop ();
-        }
+        AnimationManager.unregister ( animator );
 
         super.uninstallUI ( c );
     }
@@ -287,10 +283,7 @@ public class WebProgressBarUI extends BasicProgressBarUI implements ShapeProvide
 
     private void updateAnimator ( final JProgressBar progressBar )
     {
-        if ( animator != null )
-        {
-            animator.stop ();
-        }
+        AnimationManager.unregister ( animator );
         if ( SwingUtils.getWindowAncestor ( progressBar ) != null && progressBar.isShowing () )
         {
             if ( progressBar.isEnabled () )
@@ -298,10 +291,10 @@ public class WebProgressBarUI extends BasicProgressBarUI implements ShapeProvide
                 if ( progressBar.isIndeterminate () )
                 {
                     animationLocation = 0;
-                    animator = new WebTimer ( "WebProgressBarUI.animator", StyleConstants.animationDelay, new ActionListener ()
+                    animator = new AnimationAdapter ( progressBar, StyleConstants.animationDelay )
                     {
                         @Override
-                        public void actionPerformed ( final ActionEvent e )
+                        public boolean step ()
                         {
                             if ( animationLocation < indeterminateStep * 2 - 1 )
                             {
@@ -311,57 +304,47 @@ public class WebProgressBarUI extends BasicProgressBarUI implements ShapeProvide
                             {
                                 animationLocation = 0;
                             }
-                            SwingUtilities.invokeLater ( new Runnable ()
-                            {
-                                @Override
-                                public void run ()
-                                {
-                                    progressBar.repaint ();
-                                }
-                            } );
+                            return true;
                         }
-                    } );
-                    animator.setUseEventDispatchThread ( false );
+                    };
                 }
                 else
                 {
                     animationLocation = -determinateAnimationWidth;
-                    animator = new WebTimer ( "WebProgressBarUI.animator", StyleConstants.animationDelay, new ActionListener ()
+                    animator = new AnimationAdapter ( progressBar, StyleConstants.animationDelay )
                     {
+                        /**
+                         * Time until which animation is paused.
+                         */
+                        private long pausedUntil = 0;
+
                         @Override
-                        public void actionPerformed ( final ActionEvent e )
+                        public boolean step ()
                         {
-                            if ( animationLocation < getProgressWidth () )
+                            if ( System.currentTimeMillis () >= pausedUntil )
                             {
-                                animationLocation += 15;
-                                refresh ( progressBar );
-                            }
-                            else
-                            {
-                                animationLocation = -determinateAnimationWidth;
-                                refresh ( progressBar );
-                                ThreadUtils.sleepSafely ( determinateAnimationPause );
+                                if ( animationLocation < getProgressWidth () )
+                                {
+                                    animationLocation += 15;
+                                }
+                                else
+                                {
+                                    animationLocation = -determinateAnimationWidth;
+                                    pausedUntil = System.currentTimeMillis () + determinateAnimationPause;
+                                }
                             }
+                            return true;
                         }
 
-                        private void refresh ( final JProgressBar progressBar )
+                        @Override
+                        public Rectangle getDirtyRegion ()
                         {
-                            if ( !progressBar.isIndeterminate () && progressBar.getValue () > progressBar.getMinimum () )
-                            {
-                                SwingUtilities.invokeLater ( new Runnable ()
-                                {
-                                    @Override
-                                    public void run ()
-                                    {
-                                        progressBar.repaint ();
-                                    }
-                                } );
-                            }
+                            final boolean refresh = !progressBar.isIndeterminate () && progressBar.getValue () > progressBar.getMinimum ();
+                            return refresh ? null : new Rectangle ();
                         }
-                    } );
+                    };
                 }
-                animator.setUseEventDispatchThread ( false );
-                animator.start ();
+                AnimationManager.register ( animator );
             }
         }
     }
@@ -24,6 +24,7 @@ import com.alee.laf.WebLookAndFeel;
 import com.alee.laf.button.WebButton;
 import com.alee.laf.label.WebLabel;
 import com.alee.laf.panel.WebPanel;
+import com.alee.managers.profiler.PaintProfiler;
 import com.alee.utils.*;
 import com.alee.utils.ninepatch.NinePatchIcon;
 
@@ -1032,6 +1033,21 @@ public class WebRootPaneUI extends BasicRootPaneUI implements SwingConstants
         return dialog != null;
     }
 
+    /**
+     * Updates component, this also fills component background if it is opaque and paints it.
+     * Painting time is measured here when PaintProfiler is enabled.
+     *
+     * @param g graphics
+     * @param c component
+     */
+    @Override
+    public void update ( Graphics g, JComponent c )
+    {
+        final long start = PaintProfiler.start ();
+        super.update ( g, c );
+        PaintProfiler.finish ( this, c, g, start );
+    }
+
     /**
      * Custom window decoration
      */
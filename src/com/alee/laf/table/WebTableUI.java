@@ -21,6 +21,7 @@ import com.alee.laf.table.editors.WebBooleanEditor;
 import com.alee.laf.table.editors.WebGenericEditor;
 import com.alee.laf.table.editors.WebNumberEditor;
 import com.alee.laf.table.renderers.*;
+import com.alee.managers.profiler.PaintProfiler;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.swing.AncestorAdapter;
 
@@ -28,6 +29,7 @@ import javax.swing.*;
 import javax.swing.event.AncestorEvent;
 import javax.swing.plaf.ComponentUI;
 import javax.swing.plaf.basic.BasicTableUI;
+import java.awt.*;
 import java.util.Date;
 
 /**
@@ -158,4 +160,19 @@ public class WebTableUI extends BasicTableUI
             scrollPane.setCorner ( JScrollPane.UPPER_TRAILING_CORNER, new WebTableCorner ( true ) );
         }
     }
+
+    /**
+     * Updates component, this also fills component background if it is opaque and paints it.
+     * Painting time is measured here when PaintProfiler is enabled.
+     *
+     * @param g graphics
+     * @param c component
+     */
+    @Override
+    public void update ( final Graphics g, final JComponent c )
+    {
+        final long start = PaintProfiler.start ();
+        super.update ( g, c );
+        PaintProfiler.finish ( this, c, g, start );
+    }
 }
\ No newline at end of file
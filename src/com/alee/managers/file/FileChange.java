@@ -0,0 +1,82 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.managers.file;
+
+import java.io.File;
+
+/**
+ * This class represents single coalesced file change within a watched directory.
+ *
+ * @author Mikle Garin
+ * @see com.alee.managers.file.FileWatchManager
+ */
+
+public final class FileChange
+{
+    /**
+     * Changed file.
+     */
+    private final File file;
+
+    /**
+     * Change type.
+     */
+    private final FileChangeType type;
+
+    /**
+     * Constructs new file change.
+     *
+     * @param file changed file
+     * @param type change type
+     */
+    public FileChange ( final File file, final FileChangeType type )
+    {
+        super ();
+        this.file = file;
+        this.type = type;
+    }
+
+    /**
+     * Returns changed file.
+     *
+     * @return changed file
+     */
+    public File getFile ()
+    {
+        return file;
+    }
+
+    /**
+     * Returns change type.
+     *
+     * @return change type
+     */
+    public FileChangeType getType ()
+    {
+        return type;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString ()
+    {
+        return type + ": " + file;
+    }
+}
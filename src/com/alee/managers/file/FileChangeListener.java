@@ -0,0 +1,42 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.managers.file;
+
+import java.io.File;
+import java.util.EventListener;
+import java.util.List;
+
+/**
+ * This interface allows you to listen to coalesced file changes within watched directories.
+ * All listener methods are called on the event dispatch thread.
+ *
+ * @author Mikle Garin
+ * @see com.alee.managers.file.FileWatchManager
+ */
+
+public interface FileChangeListener extends EventListener
+{
+    /**
+     * Informs about changes within the watched directory.
+     * Each file is reported at most once per call with its resulting change type.
+     *
+     * @param directory watched directory
+     * @param changes   coalesced file changes
+     */
+    public void filesChanged ( File directory, List<FileChange> changes );
+}
@@ -0,0 +1,49 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.managers.file;
+
+/**
+ * This enumeration represents file change types delivered by FileWatchManager.
+ *
+ * @author Mikle Garin
+ * @see com.alee.managers.file.FileWatchManager
+ */
+
+public enum FileChangeType
+{
+    /**
+     * File was created.
+     */
+    created,
+
+    /**
+     * File was modified.
+     */
+    modified,
+
+    /**
+     * File was deleted.
+     */
+    deleted,
+
+    /**
+     * Some changes in the directory were lost and its content should be reloaded entirely.
+     * Change of this type is reported for the watched directory itself.
+     */
+    overflow
+}
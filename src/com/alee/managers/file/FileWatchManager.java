@@ -0,0 +1,598 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.managers.file;
+
+import com.alee.utils.cache.FileAttributesCache;
+
+import javax.swing.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * This manager provides file changes bus based on file system watch service.
+ * <p/>
+ * Directory is watched while it has at least one registered listener and stops being watched once its last listener is removed. File
+ * system events are collected on a single background thread and coalesced per directory for a short delay, so that each listener gets
+ * one notification with the resulting change for each affected file instead of separate events. Cached FileUtils attributes of changed
+ * files are dropped before listeners are informed.
+ * <p/>
+ * Changes are delivered to listeners on the event dispatch thread.
+ *
+ * @author Mikle Garin
+ * @see com.alee.managers.file.FileChangeListener
+ */
+
+public final class FileWatchManager
+{
+    /**
+     * Manager operations lock.
+     */
+    private static final Object lock = new Object ();
+
+    /**
+     * Watched directories.
+     */
+    private static final Map<File, WatchedDirectory> directories = new HashMap<File, WatchedDirectory> ();
+
+    /**
+     * Watched directories by their watch keys.
+     */
+    private static final Map<WatchKey, WatchedDirectory> keys = new HashMap<WatchKey, WatchedDirectory> ();
+
+    /**
+     * Changes waiting for delivery by watched directories.
+     */
+    private static final Map<File, Map<File, FileChangeType>> pending = new LinkedHashMap<File, Map<File, FileChangeType>> ();
+
+    /**
+     * Delay in milliseconds during which changes are coalesced before delivery.
+     */
+    private static long coalesceDelay = 100;
+
+    /**
+     * Watch service.
+     */
+    private static WatchService watchService = null;
+
+    /**
+     * Delivered changes count.
+     */
+    private static long deliveredChanges = 0;
+
+    /**
+     * Received file system events count.
+     */
+    private static long receivedEvents = 0;
+
+    /**
+     * Returns delay in milliseconds during which changes are coalesced before delivery.
+     *
+     * @return delay in milliseconds during which changes are coalesced before delivery
+     */
+    public static long getCoalesceDelay ()
+    {
+        synchronized ( lock )
+        {
+            return coalesceDelay;
+        }
+    }
+
+    /**
+     * Sets delay in milliseconds during which changes are coalesced before delivery.
+     *
+     * @param coalesceDelay delay in milliseconds during which changes are coalesced before delivery
+     */
+    public static void setCoalesceDelay ( final long coalesceDelay )
+    {
+        synchronized ( lock )
+        {
+            FileWatchManager.coalesceDelay = coalesceDelay;
+        }
+    }
+
+    /**
+     * Adds listener for changes within the specified directory and starts watching that directory if needed.
+     *
+     * @param directory directory to watch
+     * @param listener  file change listener
+     * @return true if directory is watched, false if it cannot be watched
+     */
+    public static boolean addListener ( final File directory, final FileChangeListener listener )
+    {
+        final File dir = directory.getAbsoluteFile ();
+        synchronized ( lock )
+        {
+            WatchedDirectory watched = directories.get ( dir );
+            if ( watched == null )
+            {
+                final WatchKey key = register ( dir );
+                if ( key == null )
+                {
+                    return false;
+                }
+                watched = new WatchedDirectory ( dir, key );
+                directories.put ( dir, watched );
+                keys.put ( key, watched );
+            }
+            else if ( watched.key == null )
+            {
+                // Retrying to watch directory which was not accessible before
+                rewatch ( watched );
+            }
+            if ( !watched.listeners.contains ( listener ) )
+            {
+                watched.listeners.add ( listener );
+            }
+            return watched.key != null;
+        }
+    }
+
+    /**
+     * Removes listener for changes within the specified directory and stops watching that directory if it has no more listeners.
+     *
+     * @param directory watched directory
+     * @param listener  file change listener
+     */
+    public static void removeListener ( final File directory, final FileChangeListener listener )
+    {
+        final File dir = directory.getAbsoluteFile ();
+        synchronized ( lock )
+        {
+            final WatchedDirectory watched = directories.get ( dir );
+            if ( watched != null )
+            {
+                watched.listeners.remove ( listener );
+                if ( watched.listeners.isEmpty () )
+                {
+                    unwatch ( watched );
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes listener from all watched directories.
+     *
+     * @param listener file change listener
+     */
+    public static void removeListener ( final FileChangeListener listener )
+    {
+        synchronized ( lock )
+        {
+            for ( final WatchedDirectory watched : new ArrayList<WatchedDirectory> ( directories.values () ) )
+            {
+                watched.listeners.remove ( listener );
+                if ( watched.listeners.isEmpty () )
+                {
+                    unwatch ( watched );
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether the specified directory is watched or not.
+     *
+     * @param directory directory to check
+     * @return true if the specified directory is watched, false otherwise
+     */
+    public static boolean isWatched ( final File directory )
+    {
+        synchronized ( lock )
+        {
+            return directories.containsKey ( directory.getAbsoluteFile () );
+        }
+    }
+
+    /**
+     * Returns watched directories.
+     *
+     * @return watched directories
+     */
+    public static List<File> getWatchedDirectories ()
+    {
+        synchronized ( lock )
+        {
+            return new ArrayList<File> ( directories.keySet () );
+        }
+    }
+
+    /**
+     * Returns received file system events count.
+     *
+     * @return received file system events count
+     */
+    public static long getReceivedEvents ()
+    {
+        synchronized ( lock )
+        {
+            return receivedEvents;
+        }
+    }
+
+    /**
+     * Returns delivered coalesced changes count.
+     *
+     * @return delivered coalesced changes count
+     */
+    public static long getDeliveredChanges ()
+    {
+        synchronized ( lock )
+        {
+            return deliveredChanges;
+        }
+    }
+
+    /**
+     * Registers directory in watch service, starting watch thread if needed.
+     *
+     * @param dir directory to register
+     * @return watch key or null if directory cannot be watched
+     */
+    private static WatchKey register ( final File dir )
+    {
+        try
+        {
+            final Path path = dir.toPath ();
+            if ( watchService == null )
+            {
+                watchService = path.getFileSystem ().newWatchService ();
+                final WatchService service = watchService;
+
+                // Directories which lost their keys along with previous watch service
+                for ( final WatchedDirectory watched : directories.values () )
+                {
+                    if ( watched.key == null && !watched.directory.equals ( dir ) )
+                    {
+                        rewatch ( watched );
+                    }
+                }
+
+                final Thread thread = new Thread ( new Runnable ()
+                {
+                    @Override
+                    public void run ()
+                    {
+                        watch ( service );
+                    }
+                }, "FileWatchManager" );
+                thread.setDaemon ( true );
+                thread.start ();
+            }
+            return path.register ( watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY );
+        }
+        catch ( final IOException e )
+        {
+            return null;
+        }
+        catch ( final RuntimeException e )
+        {
+            // Invalid paths and file systems which do not support watching
+            return null;
+        }
+    }
+
+    /**
+     * Registers watched directory again if it exists.
+     * Directory watch key is set to null if directory cannot be watched.
+     *
+     * @param watched watched directory
+     */
+    private static void rewatch ( final WatchedDirectory watched )
+    {
+        if ( watched.key != null )
+        {
+            keys.remove ( watched.key );
+        }
+        watched.key = watched.directory.isDirectory () ? register ( watched.directory ) : null;
+        if ( watched.key != null )
+        {
+            keys.put ( watched.key, watched );
+        }
+    }
+
+    /**
+     * Stops watching the specified directory and closes watch service once nothing is watched.
+     *
+     * @param watched watched directory
+     */
+    private static void unwatch ( final WatchedDirectory watched )
+    {
+        directories.remove ( watched.directory );
+        pending.remove ( watched.directory );
+        if ( watched.key != null )
+        {
+            keys.remove ( watched.key );
+            watched.key.cancel ();
+        }
+        if ( directories.isEmpty () && watchService != null )
+        {
+            try
+            {
+                watchService.close ();
+            }
+            catch ( final IOException e )
+            {
+                // Watch thread will stop anyway
+            }
+            watchService = null;
+        }
+    }
+
+    /**
+     * Watch thread body.
+     * Collects file system events and delivers coalesced changes once coalesce delay passes.
+     *
+     * @param service watch service
+     */
+    private static void watch ( final WatchService service )
+    {
+        long deadline = 0;
+        try
+        {
+            while ( true )
+            {
+                final boolean waiting;
+                synchronized ( lock )
+                {
+                    waiting = !pending.isEmpty ();
+                }
+                final WatchKey key;
+                if ( waiting )
+                {
+                    key = service.poll ( Math.max ( 0, deadline - System.currentTimeMillis () ), TimeUnit.MILLISECONDS );
+                }
+                else
+                {
+                    key = service.take ();
+                }
+                if ( key != null )
+                {
+                    synchronized ( lock )
+                    {
+                        if ( pending.isEmpty () )
+                        {
+                            deadline = System.currentTimeMillis () + coalesceDelay;
+                        }
+                        collect ( key );
+                    }
+                }
+                if ( waiting && System.currentTimeMillis () >= deadline )
+                {
+                    deliver ();
+                }
+            }
+        }
+        catch ( final ClosedWatchServiceException e )
+        {
+            // Nothing is watched anymore
+        }
+        catch ( final InterruptedException e )
+        {
+            // Watch thread was interrupted, service is closed since nothing polls it anymore
+            synchronized ( lock )
+            {
+                try
+                {
+                    service.close ();
+                }
+                catch ( final IOException ex )
+                {
+                    // Service is abandoned anyway
+                }
+                if ( watchService == service )
+                {
+                    // Directories will be registered again along with the next watch service
+                    watchService = null;
+                    keys.clear ();
+                    for ( final WatchedDirectory watched : directories.values () )
+                    {
+                        watched.key = null;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects events from the specified watch key into pending changes.
+     *
+     * @param key signalled watch key
+     */
+    private static void collect ( final WatchKey key )
+    {
+        final WatchedDirectory watched = keys.get ( key );
+        final List<WatchEvent<?>> events = key.pollEvents ();
+        if ( watched == null )
+        {
+            return;
+        }
+        Map<File, FileChangeType> changes = pending.get ( watched.directory );
+        if ( changes == null )
+        {
+            changes = new LinkedHashMap<File, FileChangeType> ();
+            pending.put ( watched.directory, changes );
+        }
+        for ( final WatchEvent<?> event : events )
+        {
+            receivedEvents++;
+            if ( event.kind () == OVERFLOW )
+            {
+                changes.put ( watched.directory, FileChangeType.overflow );
+            }
+            else
+            {
+                final File file = new File ( watched.directory, event.context ().toString () );
+                final FileChangeType type = event.kind () == ENTRY_CREATE ? FileChangeType.created :
+                        event.kind () == ENTRY_DELETE ? FileChangeType.deleted : FileChangeType.modified;
+                merge ( changes, file, type );
+            }
+        }
+        if ( !key.reset () )
+        {
+            // Key is no longer valid, listeners should reload directory
+            // Directory is registered again if it still exists, otherwise it will be retried when listener is added
+            keys.remove ( key );
+            watched.key = null;
+            rewatch ( watched );
+            changes.put ( watched.directory, FileChangeType.overflow );
+        }
+    }
+
+    /**
+     * Merges new file change into pending changes.
+     *
+     * @param changes pending changes
+     * @param file    changed file
+     * @param type    change type
+     */
+    private static void merge ( final Map<File, FileChangeType> changes, final File file, final FileChangeType type )
+    {
+        final FileChangeType previous = changes.get ( file );
+        if ( previous == null )
+        {
+            changes.put ( file, type );
+        }
+        else if ( previous == FileChangeType.created )
+        {
+            if ( type == FileChangeType.deleted )
+            {
+                // File appeared and disappeared within coalesce delay
+                changes.remove ( file );
+            }
+        }
+        else if ( previous == FileChangeType.deleted )
+        {
+            // File was replaced
+            changes.put ( file, type == FileChangeType.created ? FileChangeType.modified : type );
+        }
+        else
+        {
+            changes.put ( file, type );
+        }
+    }
+
+    /**
+     * Delivers pending changes to listeners.
+     */
+    private static void deliver ()
+    {
+        // Retrieving pending changes
+        final Map<File, Map<File, FileChangeType>> delivered;
+        synchronized ( lock )
+        {
+            delivered = new LinkedHashMap<File, Map<File, FileChangeType>> ( pending );
+            pending.clear ();
+        }
+
+        for ( final Map.Entry<File, Map<File, FileChangeType>> entry : delivered.entrySet () )
+        {
+            final File directory = entry.getKey ();
+            final Map<File, FileChangeType> changes = entry.getValue ();
+            if ( changes.isEmpty () )
+            {
+                continue;
+            }
+
+            // Dropping outdated cached attributes
+            final List<FileChange> fileChanges;
+            FileAttributesCache.clear ( directory );
+            if ( changes.get ( directory ) == FileChangeType.overflow )
+            {
+                FileAttributesCache.clearChildren ( directory );
+                fileChanges = Arrays.asList ( new FileChange ( directory, FileChangeType.overflow ) );
+            }
+            else
+            {
+                fileChanges = new ArrayList<FileChange> ( changes.size () );
+                for ( final Map.Entry<File, FileChangeType> change : changes.entrySet () )
+                {
+                    FileAttributesCache.clear ( change.getKey () );
+                    fileChanges.add ( new FileChange ( change.getKey (), change.getValue () ) );
+                }
+            }
+            final List<FileChange> unmodifiable = Collections.unmodifiableList ( fileChanges );
+            synchronized ( lock )
+            {
+                deliveredChanges += fileChanges.size ();
+            }
+
+            // Informing listeners on EDT
+            SwingUtilities.invokeLater ( new Runnable ()
+            {
+                @Override
+                public void run ()
+                {
+                    final List<FileChangeListener> listeners;
+                    synchronized ( lock )
+                    {
+                        final WatchedDirectory watched = directories.get ( directory );
+                        if ( watched == null )
+                        {
+                            return;
+                        }
+                        listeners = new ArrayList<FileChangeListener> ( watched.listeners );
+                    }
+                    for ( final FileChangeListener listener : listeners )
+                    {
+                        listener.filesChanged ( directory, unmodifiable );
+                    }
+                }
+            } );
+        }
+    }
+
+    /**
+     * Watched directory data.
+     */
+    private static final class WatchedDirectory
+    {
+        /**
+         * Watched directory.
+         */
+        private final File directory;
+
+        /**
+         * Directory watch key, null if directory is not accessible anymore.
+         */
+        private WatchKey key;
+
+        /**
+         * Directory change listeners.
+         */
+        private final List<FileChangeListener> listeners = new ArrayList<FileChangeListener> ( 1 );
+
+        /**
+         * Constructs new watched directory data.
+         *
+         * @param directory watched directory
+         * @param key       directory watch key
+         */
+        private WatchedDirectory ( final File directory, final WatchKey key )
+        {
+            super ();
+            this.directory = directory;
+            this.key = key;
+        }
+    }
+}
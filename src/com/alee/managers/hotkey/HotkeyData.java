@@ -156,6 +156,7 @@ public class HotkeyData implements Serializable
     {
         isCtrl = ctrl;
         this.hashCode = null;
+        HotkeyIndex.invalidate ();
     }
 
     /**
@@ -177,6 +178,7 @@ public class HotkeyData implements Serializable
     {
         isAlt = alt;
         this.hashCode = null;
+        HotkeyIndex.invalidate ();
     }
 
     /**
@@ -198,6 +200,7 @@ public class HotkeyData implements Serializable
     {
         isShift = shift;
         this.hashCode = null;
+        HotkeyIndex.invalidate ();
     }
 
     /**
@@ -219,6 +222,7 @@ public class HotkeyData implements Serializable
     {
         this.keyCode = keyCode;
         this.hashCode = null;
+        HotkeyIndex.invalidate ();
     }
 
     /**
@@ -296,6 +300,8 @@ public class HotkeyData implements Serializable
         isCtrl = SwingUtils.isCtrl ( modifiers );
         isAlt = SwingUtils.isAlt ( modifiers );
         isShift = SwingUtils.isShift ( modifiers );
+        this.hashCode = null;
+        HotkeyIndex.invalidate ();
     }
 
     /**
@@ -0,0 +1,299 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.alee.managers.hotkey;
+
+import com.alee.utils.SwingUtils;
+
+import java.awt.event.KeyEvent;
+import java.lang.ref.WeakReference;
+import java.util.*;
+
+/**
+ * Index of registered hotkeys by their key code and modifiers.
+ * It is used by HotkeyManager to find hotkeys triggered by the key event without iterating through all registered hotkeys.
+ * <p/>
+ * Index is modified under HotkeyManager lock while lookups are lock-free and allocation-free - they are performed on an immutable
+ * open-addressing table snapshot which is lazily rebuilt after modifications.
+ * <p/>
+ * Hotkey data might be changed after hotkey is registered, so index keys are never stored along with hotkeys. Instead any hotkey data
+ * change invalidates all indices through {@link #invalidate()} call and lookup table is rebuilt from actual hotkey data on next lookup.
+ *
+ * @author Mikle Garin
+ */
+
+final class HotkeyIndex
+{
+    /**
+     * Empty bucket.
+     */
+    private static final WeakReference<HotkeyInfo>[] EMPTY_BUCKET = createBucket ( 0 );
+
+    /**
+     * Hotkey data modifications counter.
+     */
+    private static volatile int modifications = 0;
+
+    /**
+     * Indexed hotkeys.
+     * Hotkeys are referenced weakly, HotkeyInfo doesn't override equals so hotkeys are compared by identity.
+     */
+    private final Map<HotkeyInfo, Boolean> hotkeys = new WeakHashMap<HotkeyInfo, Boolean> ();
+
+    /**
+     * Index lookup table keys.
+     */
+    private volatile int[] keys = new int[ 0 ];
+
+    /**
+     * Index lookup table buckets.
+     * Null values mark empty table cells.
+     */
+    private volatile WeakReference<HotkeyInfo>[][] values = createTable ( 0 );
+
+    /**
+     * Whether lookup table should be rebuilt or not.
+     */
+    private volatile boolean dirty = false;
+
+    /**
+     * Hotkey data modifications counter value at which lookup table was built.
+     */
+    private volatile int builtModifications = 0;
+
+    /**
+     * Informs all indices that hotkey data has changed and lookup tables should be rebuilt.
+     * It is called by HotkeyData and HotkeyInfo whenever hotkey key code or modifiers change.
+     */
+    static void invalidate ()
+    {
+        modifications++;
+    }
+
+    /**
+     * Adds hotkey into index.
+     * Hotkeys without key code are also added, they will be found once key code is set.
+     *
+     * @param hotkeyInfo hotkey to add
+     */
+    public synchronized void add ( final HotkeyInfo hotkeyInfo )
+    {
+        hotkeys.put ( hotkeyInfo, Boolean.TRUE );
+        dirty = true;
+    }
+
+    /**
+     * Removes hotkey from index.
+     *
+     * @param hotkeyInfo hotkey to remove
+     */
+    public synchronized void remove ( final HotkeyInfo hotkeyInfo )
+    {
+        if ( hotkeys.remove ( hotkeyInfo ) != null )
+        {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Removes all specified hotkeys from index.
+     *
+     * @param hotkeys hotkeys to remove
+     */
+    public synchronized void removeAll ( final List<HotkeyInfo> hotkeys )
+    {
+        if ( hotkeys != null )
+        {
+            for ( final HotkeyInfo hotkeyInfo : hotkeys )
+            {
+                remove ( hotkeyInfo );
+            }
+        }
+    }
+
+    /**
+     * Returns weak references to hotkeys which have the same key code and modifiers as the specified key event.
+     * Returned array should not be modified, some of its references might be already cleared.
+     *
+     * @param keyEvent key event
+     * @return weak references to hotkeys which have the same key code and modifiers as the specified key event
+     */
+    public WeakReference<HotkeyInfo>[] get ( final KeyEvent keyEvent )
+    {
+        if ( dirty || builtModifications != modifications )
+        {
+            rebuild ();
+        }
+        final int[] keys = this.keys;
+        final WeakReference<HotkeyInfo>[][] values = this.values;
+        if ( keys.length > 0 )
+        {
+            final int key = getKey ( keyEvent );
+            final int mask = keys.length - 1;
+            int index = mix ( key ) & mask;
+            while ( values[ index ] != null )
+            {
+                if ( keys[ index ] == key )
+                {
+                    return values[ index ];
+                }
+                index = ( index + 1 ) & mask;
+            }
+        }
+        return EMPTY_BUCKET;
+    }
+
+    /**
+     * Returns amount of indexed hotkeys.
+     *
+     * @return amount of indexed hotkeys
+     */
+    public synchronized int size ()
+    {
+        return hotkeys.size ();
+    }
+
+    /**
+     * Rebuilds lookup table from the actual data of indexed hotkeys.
+     */
+    private synchronized void rebuild ()
+    {
+        final int modifications = HotkeyIndex.modifications;
+        if ( !dirty && builtModifications == modifications )
+        {
+            return;
+        }
+
+        // Grouping hotkeys by their actual key code and modifiers
+        final Map<Integer, List<WeakReference<HotkeyInfo>>> buckets = new HashMap<Integer, List<WeakReference<HotkeyInfo>>> ();
+        for ( final HotkeyInfo hotkeyInfo : hotkeys.keySet () )
+        {
+            final HotkeyData hotkeyData = hotkeyInfo.getHotkeyData ();
+            if ( hotkeyData != null && hotkeyData.isHotkeySet () )
+            {
+                final Integer key = getKey ( hotkeyData );
+                List<WeakReference<HotkeyInfo>> bucket = buckets.get ( key );
+                if ( bucket == null )
+                {
+                    bucket = new ArrayList<WeakReference<HotkeyInfo>> ( 1 );
+                    buckets.put ( key, bucket );
+                }
+                bucket.add ( new WeakReference<HotkeyInfo> ( hotkeyInfo ) );
+            }
+        }
+
+        // Creating new table with at most half of the cells used
+        int capacity = 4;
+        while ( capacity < buckets.size () * 2 )
+        {
+            capacity <<= 1;
+        }
+        final int[] keys = new int[ capacity ];
+        final WeakReference<HotkeyInfo>[][] values = createTable ( capacity );
+        final int mask = capacity - 1;
+        for ( final Map.Entry<Integer, List<WeakReference<HotkeyInfo>>> entry : buckets.entrySet () )
+        {
+            final int key = entry.getKey ();
+            int index = mix ( key ) & mask;
+            while ( values[ index ] != null )
+            {
+                index = ( index + 1 ) & mask;
+            }
+            keys[ index ] = key;
+            values[ index ] = entry.getValue ().toArray ( createBucket ( entry.getValue ().size () ) );
+        }
+
+        // Publishing table
+        this.keys = keys;
+        this.values = values;
+        this.builtModifications = modifications;
+        this.dirty = false;
+    }
+
+    /**
+     * Returns new lookup table bucket of the specified size.
+     *
+     * @param size bucket size
+     * @return new lookup table bucket of the specified size
+     */
+    @SuppressWarnings ( "unchecked" )
+    private static WeakReference<HotkeyInfo>[] createBucket ( final int size )
+    {
+        return ( WeakReference<HotkeyInfo>[] ) new WeakReference<?>[ size ];
+    }
+
+    /**
+     * Returns new lookup table buckets array of the specified capacity.
+     *
+     * @param capacity table capacity
+     * @return new lookup table buckets array of the specified capacity
+     */
+    @SuppressWarnings ( "unchecked" )
+    private static WeakReference<HotkeyInfo>[][] createTable ( final int capacity )
+    {
+        return ( WeakReference<HotkeyInfo>[][] ) new WeakReference<?>[ capacity ][];
+    }
+
+    /**
+     * Returns index key for the specified hotkey.
+     *
+     * @param hotkeyData hotkey
+     * @return index key for the specified hotkey
+     */
+    private static int getKey ( final HotkeyData hotkeyData )
+    {
+        return getKey ( hotkeyData.getKeyCode (), hotkeyData.isCtrl (), hotkeyData.isAlt (), hotkeyData.isShift () );
+    }
+
+    /**
+     * Returns index key for the specified key event.
+     * Modifiers are checked the same way HotkeyData checks them.
+     *
+     * @param keyEvent key event
+     * @return index key for the specified key event
+     */
+    private static int getKey ( final KeyEvent keyEvent )
+    {
+        return getKey ( keyEvent.getKeyCode (), SwingUtils.isShortcut ( keyEvent ), SwingUtils.isAlt ( keyEvent ),
+                SwingUtils.isShift ( keyEvent ) );
+    }
+
+    /**
+     * Returns index key for the specified key code and modifiers.
+     *
+     * @param keyCode key code
+     * @param isCtrl  whether CTRL modifier is pressed or not
+     * @param isAlt   whether ALT modifier is pressed or not
+     * @param isShift whether SHIFT modifier is pressed or not
+     * @return index key for the specified key code and modifiers
+     */
+    private static int getKey ( final int keyCode, final boolean isCtrl, final boolean isAlt, final boolean isShift )
+    {
+        return keyCode << 3 | ( isCtrl ? 4 : 0 ) | ( isAlt ? 2 : 0 ) | ( isShift ? 1 : 0 );
+    }
+
+    /**
+     * Returns mixed key hash to spread sequential keys across the table.
+     *
+     * @param key index key
+     * @return mixed key hash
+     */
+    private static int mix ( final int key )
+    {
+        final int h = key * 0x9E3779B9;
+        return h ^ h >>> 16;
+    }
+}
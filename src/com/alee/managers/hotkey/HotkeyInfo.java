@@ -117,6 +117,7 @@ public class HotkeyInfo
     public HotkeyInfo setHotkeyData ( HotkeyData hotkeyData )
     {
         this.hotkeyData = hotkeyData;
+        HotkeyIndex.invalidate ();
         return this;
     }
 
@@ -18,6 +18,7 @@
 package com.alee.managers.hotkey;
 
 import com.alee.laf.label.WebLabel;
+import com.alee.managers.profiler.EdtWatchdog;
 import com.alee.managers.tooltip.TooltipManager;
 import com.alee.managers.tooltip.TooltipWay;
 import com.alee.utils.CollectionUtils;
@@ -28,6 +29,7 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.AWTEventListener;
 import java.awt.event.KeyEvent;
+import java.lang.ref.WeakReference;
 import java.util.*;
 import java.util.List;
 
@@ -72,6 +74,12 @@ public final class HotkeyManager
      */
     protected static Map<Container, List<HotkeyCondition>> containerConditions = new WeakHashMap<Container, List<HotkeyCondition>> ();
 
+    /**
+     * Hotkeys index by key code and modifiers.
+     * It is used to find hotkeys triggered by key events without iterating through all added hotkeys.
+     */
+    protected static final HotkeyIndex hotkeysIndex = new HotkeyIndex ();
+
     /**
      * Initialization mark.
      */
@@ -161,66 +169,67 @@ public final class HotkeyManager
      */
     protected static boolean hotkeyForEventExists ( final KeyEvent keyEvent )
     {
-        final int hotkeyHash = SwingUtils.hotkeyToString ( keyEvent ).hashCode ();
-        for ( final Map.Entry<Component, List<HotkeyInfo>> entry : copyHotkeys ().entrySet () )
+        for ( final WeakReference<HotkeyInfo> reference : hotkeysIndex.get ( keyEvent ) )
         {
-            for ( final HotkeyInfo hotkeyInfo : entry.getValue () )
+            if ( reference.get () != null )
             {
-                if ( hotkeyInfo.getHotkeyData ().hashCode () == hotkeyHash )
-                {
-                    return true;
-                }
+                return true;
             }
         }
         return false;
     }
 
     /**
-     * @param e
+     * Performs actions of all hotkeys triggered by the specified key event.
+     *
+     * @param e key event
      */
     protected static void processHotkeys ( final KeyEvent e )
     {
-        for ( final Map.Entry<Component, List<HotkeyInfo>> entry : copyHotkeys ().entrySet () )
+        for ( final WeakReference<HotkeyInfo> reference : hotkeysIndex.get ( e ) )
         {
-            for ( final HotkeyInfo hotkeyInfo : entry.getValue () )
+            final HotkeyInfo hotkeyInfo = reference.get ();
+            if ( hotkeyInfo == null )
             {
-                // Specified components
-                final Component forComponent = hotkeyInfo.getForComponent ();
+                continue;
+            }
 
-                // If there is no pointed components - hotkey will be global
-                if ( forComponent == null )
+            // Specified components
+            final Component forComponent = hotkeyInfo.getForComponent ();
+
+            // If there is no pointed components - hotkey will be global
+            if ( forComponent == null )
+            {
+                // Checking hotkey
+                if ( hotkeyInfo.getHotkeyData ().isTriggered ( e ) && hotkeyInfo.getAction () != null )
                 {
-                    // Checking hotkey
-                    if ( hotkeyInfo.getHotkeyData ().isTriggered ( e ) && hotkeyInfo.getAction () != null )
-                    {
-                        // Performing hotkey action
-                        SwingUtils.invokeLater ( hotkeyInfo.getAction (), e );
-                    }
+                    // Performing hotkey action
+                    performAction ( hotkeyInfo.getAction (), e );
                 }
-                else
-                {
-                    // Finding top component
-                    Component topComponent = hotkeyInfo.getTopComponent ();
-                    topComponent = topComponent != null ? topComponent : SwingUtils.getWindowAncestor ( forComponent );
+            }
+            else
+            {
+                // Finding top component
+                Component topComponent = hotkeyInfo.getTopComponent ();
+                topComponent = topComponent != null ? topComponent : SwingUtils.getWindowAncestor ( forComponent );
 
-                    // Checking if componen or one of its childs has focus
-                    if ( SwingUtils.hasFocusOwner ( topComponent ) )
+                // Checking if componen or one of its childs has focus
+                if ( SwingUtils.hasFocusOwner ( topComponent ) )
+                {
+                    // Checking hotkey
+                    if ( hotkeyInfo.getHotkeyData ().isTriggered ( e ) && hotkeyInfo.getAction () != null )
                     {
-                        // Checking hotkey
-                        if ( hotkeyInfo.getHotkeyData ().isTriggered ( e ) && hotkeyInfo.getAction () != null )
+                        // Checking that hotkey meets parent containers conditions
+                        if ( meetsParentConditions ( forComponent ) )
                         {
-                            // Checking that hotkey meets parent containers conditions
-                            if ( meetsParentConditions ( forComponent ) )
+                            // Transferring focus to hotkey component
+                            if ( transferFocus )
                             {
-                                // Transferring focus to hotkey component
-                                if ( transferFocus )
-                                {
-                                    forComponent.requestFocusInWindow ();
-                                }
-
-                                // Performing hotkey action
-                                SwingUtils.invokeLater ( hotkeyInfo.getAction (), e );
+                                forComponent.requestFocusInWindow ();
                             }
+
+                            // Performing hotkey action
+                            performAction ( hotkeyInfo.getAction (), e );
                         }
                     }
                 }
@@ -228,13 +237,52 @@ public final class HotkeyManager
         }
     }
 
+    /**
+     * Performs hotkey action in EDT.
+     *
+     * @param action hotkey action
+     * @param e      key event
+     */
+    private static void performAction ( final HotkeyRunnable action, final KeyEvent e )
+    {
+        SwingUtils.invokeLater ( new HotkeyRunnable ()
+        {
+            @Override
+            public void run ( final KeyEvent event )
+            {
+                final EdtWatchdog.Trace trace = EdtWatchdog.enter ( "HotkeyManager", action );
+                try
+                {
+                    action.run ( event );
+                }
+                finally
+                {
+                    EdtWatchdog.exit ( trace );
+                }
+            }
+        }, e );
+    }
+
+    /**
+     * Returns whether the specified component meets conditions of all its parent containers or not.
+     *
+     * @param forComponent hotkey component
+     * @return true if the specified component meets conditions of all its parent containers, false otherwise
+     */
     protected static boolean meetsParentConditions ( final Component forComponent )
     {
-        for ( final Map.Entry<Container, List<HotkeyCondition>> entry : copyContainerConditions ().entrySet () )
+        Container parent = forComponent.getParent ();
+        while ( parent != null )
         {
-            if ( entry.getKey ().isAncestorOf ( forComponent ) )
+            final List<HotkeyCondition> conditions;
+            synchronized ( sync )
+            {
+                final List<HotkeyCondition> list = containerConditions.get ( parent );
+                conditions = list != null && list.size () > 0 ? CollectionUtils.copy ( list ) : null;
+            }
+            if ( conditions != null )
             {
-                for ( final HotkeyCondition condition : entry.getValue () )
+                for ( final HotkeyCondition condition : conditions )
                 {
                     if ( !condition.checkCondition ( forComponent ) )
                     {
@@ -242,6 +290,7 @@ public final class HotkeyManager
                     }
                 }
             }
+            parent = parent.getParent ();
         }
         return true;
     }
@@ -456,6 +505,7 @@ public final class HotkeyManager
             final List<HotkeyInfo> hlist = getComponentHotkeysCache ( hotkeyInfo.getForComponent () );
             hlist.add ( hotkeyInfo );
             hotkeys.put ( hotkeyInfo.getForComponent (), hlist );
+            hotkeysIndex.add ( hotkeyInfo );
         }
     }
 
@@ -465,6 +515,7 @@ public final class HotkeyManager
         {
             final List<HotkeyInfo> hlist = getComponentHotkeysCache ( hotkeyInfo.getForComponent () );
             hlist.remove ( hotkeyInfo );
+            hotkeysIndex.remove ( hotkeyInfo );
         }
     }
 
@@ -480,7 +531,7 @@ public final class HotkeyManager
     {
         synchronized ( sync )
         {
-            hotkeys.remove ( component );
+            hotkeysIndex.removeAll ( hotkeys.remove ( component ) );
         }
     }
 
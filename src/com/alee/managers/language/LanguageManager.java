@@ -21,6 +21,7 @@ import com.alee.laf.WebLookAndFeel;
 import com.alee.managers.language.data.Dictionary;
 import com.alee.managers.language.data.*;
 import com.alee.managers.language.updaters.*;
+import com.alee.managers.profiler.EdtWatchdog;
 import com.alee.managers.tooltip.TooltipManager;
 import com.alee.managers.tooltip.WebCustomTooltip;
 import com.alee.utils.CollectionUtils;
@@ -38,6 +39,7 @@ import java.io.File;
 import java.net.URL;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This manager allows you to quickly setup changeable lanugage onto different components and to listen to application-wide language change
@@ -169,12 +171,14 @@ public final class LanguageManager implements LanguageConstants
     private static final List<Dictionary> dictionaries = new ArrayList<Dictionary> ();
 
     /**
-     * Component operations synchronization object.
+     * Amount of components updated at once during components language update.
+     * Any components above this amount which are not visible on the screen are updated in batches of this size on EDT.
      */
-    private static final Object componentsLock = new Object ();
+    private static final int UPDATE_BATCH_SIZE = 250;
 
     /**
-     * Components registered for auto-translation.
+     * Components registered for auto-translation along with their language data, calculated keys, custom updaters and tooltips.
+     * Registry also indexes components by their language keys to quickly find components affected by dictionary changes.
      * Specific implementations of LanguageUpdater interface used to translate them.
      *
      * @see #registerComponent(java.awt.Component, String, Object...)
@@ -183,31 +187,7 @@ public final class LanguageManager implements LanguageConstants
      * @see #unregisterComponent(java.awt.Component)
      * @see #isRegisteredComponent(java.awt.Component)
      */
-    private static final Map<Component, String> components = new WeakHashMap<Component, String> ();
-
-    /**
-     * Object data provided with component language key.
-     * It is used to format the final translation string.
-     *
-     * @see #registerComponent(java.awt.Component, String, Object...)
-     * @see #unregisterComponent(java.awt.Component)
-     * @see #updateComponent(java.awt.Component, Object...)
-     * @see #updateComponent(java.awt.Component, String, Object...)
-     */
-    private static final Map<Component, Object[]> componentsData = new WeakHashMap<Component, Object[]> ();
-
-    /**
-     * Calculated components cache map.
-     * It is getting filled and updated automatically when key is requested.
-     *
-     * @see #updateComponentKey(java.awt.Component)
-     */
-    private static final Map<Component, String> componentKeysCache = new WeakHashMap<Component, String> ();
-
-    /**
-     * Components ancestor listeners used to update component keys cache.
-     */
-    private static final Map<Component, AncestorListener> componentsListeners = new WeakHashMap<Component, AncestorListener> ();
+    private static final LanguageRegistry registry = new LanguageRegistry ();
 
     /**
      * Language container operations synchronization object.
@@ -246,28 +226,13 @@ public final class LanguageManager implements LanguageConstants
      */
     private static final List<LanguageUpdater> updaters = new ArrayList<LanguageUpdater> ();
 
-    /**
-     * Component-specific language updaters.
-     * These are used only for the components they are bound to.
-     *
-     * @see #getLanguageUpdater(java.awt.Component)
-     * @see #registerLanguageUpdater(java.awt.Component, com.alee.managers.language.updaters.LanguageUpdater)
-     * @see #unregisterLanguageUpdater(java.awt.Component)
-     */
-    private static final Map<Component, LanguageUpdater> customUpdaters = new WeakHashMap<Component, LanguageUpdater> ();
-
     /**
      * Language updaters cache by specific class types.
      * Used to improve LanguageUpdater retrieval speed for language requests.
      * This cache gets fully updated when any language updater is added or removed.
+     * Component-specific language updaters are stored in components registry.
      */
-    private static final Map<Class, LanguageUpdater> updatersCache = new HashMap<Class, LanguageUpdater> ();
-
-    /**
-     * Components custom WebLaF tooltips cache.
-     * Used for proper tooltips disposal and update.
-     */
-    private static final Map<Component, List<WebCustomTooltip>> tooltipsCache = new WeakHashMap<Component, List<WebCustomTooltip>> ();
+    private static final Map<Class, LanguageUpdater> updatersCache = new ConcurrentHashMap<Class, LanguageUpdater> ();
 
     /**
      * Language icons.
@@ -495,37 +460,35 @@ public final class LanguageManager implements LanguageConstants
             data = null;
         }
 
-        synchronized ( componentsLock )
-        {
-            components.put ( component, key );
-            if ( data != null )
-            {
-                componentsData.put ( component, data );
-            }
-        }
+        registry.register ( component, key, data );
 
         updateComponent ( component, key );
-        synchronized ( componentsLock )
+        if ( component instanceof JComponent )
         {
-            if ( component instanceof JComponent )
+            final JComponent jComponent = ( JComponent ) component;
+            final AncestorAdapter listener = new AncestorAdapter ()
             {
-                final JComponent jComponent = ( JComponent ) component;
-                final AncestorAdapter listener = new AncestorAdapter ()
+                @Override
+                public void ancestorAdded ( final AncestorEvent event )
                 {
-                    @Override
-                    public void ancestorAdded ( final AncestorEvent event )
-                    {
-                        updateComponentKey ( component );
-                    }
+                    updateComponentKey ( component );
+                }
 
-                    @Override
-                    public void ancestorMoved ( final AncestorEvent event )
+                @Override
+                public void ancestorMoved ( final AncestorEvent event )
+                {
+                    // Moving component doesn't affect its translation, only postponed update is performed
+                    if ( registry.isPending ( component ) )
                     {
                         updateComponent ( component );
                     }
-                };
-                jComponent.addAncestorListener ( listener );
-                componentsListeners.put ( component, listener );
+                }
+            };
+            jComponent.addAncestorListener ( listener );
+            final AncestorListener old = registry.setListener ( component, listener );
+            if ( old != null )
+            {
+                jComponent.removeAncestorListener ( old );
             }
         }
     }
@@ -547,9 +510,9 @@ public final class LanguageManager implements LanguageConstants
         final String key = getComponentKey ( component );
         if ( key != null )
         {
-            final String oldKey = componentKeysCache.get ( component );
+            final String oldKey = registry.getCachedKey ( component );
             final String newKey = combineWithContainerKeysImpl ( component, key );
-            if ( oldKey == null || !CompareUtils.equals ( oldKey, newKey ) )
+            if ( oldKey == null || !CompareUtils.equals ( oldKey, newKey ) || registry.isPending ( component ) )
             {
                 LanguageManager.updateComponent ( component, key );
             }
@@ -558,34 +521,21 @@ public final class LanguageManager implements LanguageConstants
 
     public static void unregisterComponent ( final Component component )
     {
-        synchronized ( componentsLock )
+        final AncestorListener listener = registry.unregister ( component );
+        if ( listener != null && component instanceof JComponent )
         {
-            components.remove ( component );
-            componentsData.remove ( component );
-            if ( component instanceof JComponent )
-            {
-                final JComponent jComponent = ( JComponent ) component;
-                final AncestorListener listener = componentsListeners.get ( jComponent );
-                jComponent.removeAncestorListener ( listener );
-                componentsListeners.remove ( component );
-            }
+            ( ( JComponent ) component ).removeAncestorListener ( listener );
         }
     }
 
     public static boolean isRegisteredComponent ( final Component component )
     {
-        synchronized ( componentsLock )
-        {
-            return components.containsKey ( component );
-        }
+        return registry.isRegistered ( component );
     }
 
     public static String getComponentKey ( final Component component )
     {
-        synchronized ( componentsLock )
-        {
-            return components.get ( component );
-        }
+        return registry.getKey ( component );
     }
 
     /**
@@ -612,70 +562,69 @@ public final class LanguageManager implements LanguageConstants
 
     public static void registerLanguageUpdater ( final Component component, final LanguageUpdater updater )
     {
-        synchronized ( updatersLock )
-        {
-            customUpdaters.put ( component, updater );
-        }
+        registry.setUpdater ( component, updater );
     }
 
     public static void unregisterLanguageUpdater ( final Component component )
     {
-        synchronized ( updatersLock )
-        {
-            customUpdaters.remove ( component );
-        }
+        registry.setUpdater ( component, null );
     }
 
     public static LanguageUpdater getLanguageUpdater ( final Component component )
     {
-        synchronized ( updatersLock )
+        // Checking custom updaters first
+        final LanguageUpdater customUpdater = registry.getUpdater ( component );
+        if ( customUpdater != null )
         {
-            // Checking custom updaters first
-            final LanguageUpdater customUpdater = customUpdaters.get ( component );
-            if ( customUpdater != null )
-            {
-                return customUpdater;
-            }
+            return customUpdater;
+        }
 
-            // Retrieving cached updater
-            LanguageUpdater updater = updatersCache.get ( component.getClass () );
+        // Retrieving cached updater
+        final LanguageUpdater cachedUpdater = updatersCache.get ( component.getClass () );
+        if ( cachedUpdater != null )
+        {
+            return cachedUpdater;
+        }
 
-            // Checking found updater
+        synchronized ( updatersLock )
+        {
+            // Checking cache again as updater might have been added in the meantime
+            LanguageUpdater updater = updatersCache.get ( component.getClass () );
             if ( updater != null )
             {
-                // Returning cached updater
                 return updater;
             }
-            else
+
+            // Searching for a suitable component updater if none cached yet
+            final List<LanguageUpdater> foundUpdaters = new ArrayList<LanguageUpdater> ();
+            for ( final LanguageUpdater lu : updaters )
             {
-                // Searching for a suitable component updater if none cached yet
-                final List<LanguageUpdater> foundUpdaters = new ArrayList<LanguageUpdater> ();
-                for ( final LanguageUpdater lu : updaters )
+                if ( lu.getComponentClass ().isInstance ( component ) )
                 {
-                    if ( lu.getComponentClass ().isInstance ( component ) )
-                    {
-                        foundUpdaters.add ( lu );
-                    }
+                    foundUpdaters.add ( lu );
                 }
+            }
 
-                // Determining the best updater according to class hierarchy
-                if ( foundUpdaters.size () == 1 )
-                {
-                    // Single updater
-                    updater = foundUpdaters.get ( 0 );
-                }
-                else if ( foundUpdaters.size () > 1 )
-                {
-                    // More than one updater
-                    Collections.sort ( foundUpdaters, languageUpdaterComparator );
-                    updater = foundUpdaters.get ( 0 );
-                }
+            // Determining the best updater according to class hierarchy
+            if ( foundUpdaters.size () == 1 )
+            {
+                // Single updater
+                updater = foundUpdaters.get ( 0 );
+            }
+            else if ( foundUpdaters.size () > 1 )
+            {
+                // More than one updater
+                Collections.sort ( foundUpdaters, languageUpdaterComparator );
+                updater = foundUpdaters.get ( 0 );
+            }
 
-                // Caching calculated updater
+            // Caching calculated updater
+            if ( updater != null )
+            {
                 updatersCache.put ( component.getClass (), updater );
-
-                return updater;
             }
+
+            return updater;
         }
     }
 
@@ -685,32 +634,69 @@ public final class LanguageManager implements LanguageConstants
 
     public static void updateAllComponents ()
     {
-        synchronized ( componentsLock )
-        {
-            for ( final Map.Entry<Component, String> entry : components.entrySet () )
-            {
-                updateComponent ( entry.getKey (), entry.getValue () );
-            }
-        }
+        updateComponents ( registry.getComponents () );
     }
 
     public static void updateAllComponents ( final List<String> keys )
     {
-        synchronized ( componentsLock )
+        updateComponents ( registry.getComponents ( new HashSet<String> ( keys ) ) );
+    }
+
+    /**
+     * Updates language of the specified registered components.
+     * Small amount of components is updated right away. Otherwise only components visible on the screen are updated right away and all
+     * other components are marked as pending and updated later on EDT in small batches, so that large UI doesn't freeze. Pending
+     * component is also updated as soon as it gets added into visible hierarchy.
+     *
+     * @param components registered components to update
+     */
+    private static void updateComponents ( final List<Component> components )
+    {
+        if ( components.size () <= UPDATE_BATCH_SIZE )
+        {
+            for ( final Component component : components )
+            {
+                updateComponent ( component );
+            }
+        }
+        else
         {
-            for ( final Map.Entry<Component, String> entry : components.entrySet () )
+            // Updating visible components first
+            final List<Component> showing = new ArrayList<Component> ();
+            final List<Component> hidden = new ArrayList<Component> ();
+            for ( final Component component : components )
             {
-                if ( keys.contains ( entry.getValue () ) )
+                if ( component.isShowing () )
+                {
+                    if ( !( component instanceof JComponent ) || !( ( JComponent ) component ).getVisibleRect ().isEmpty () )
+                    {
+                        updateComponent ( component );
+                    }
+                    else
+                    {
+                        registry.setPending ( component, true );
+                        showing.add ( component );
+                    }
+                }
+                else
                 {
-                    updateComponent ( entry.getKey (), entry.getValue () );
+                    registry.setPending ( component, true );
+                    hidden.add ( component );
                 }
             }
+
+            // Postponing other components update
+            showing.addAll ( hidden );
+            if ( showing.size () > 0 )
+            {
+                SwingUtilities.invokeLater ( new PendingComponentsUpdater ( showing ) );
+            }
         }
     }
 
     public static void updateComponent ( final Component component, final Object... data )
     {
-        final String key = components.get ( component );
+        final String key = registry.getKey ( component );
         if ( key != null )
         {
             updateComponent ( component, key, data );
@@ -725,34 +711,34 @@ public final class LanguageManager implements LanguageConstants
             data = null;
         }
 
+        // Component is up-to-date since now
+        registry.setPending ( component, false );
+
         // Not-null value for specified key
         final Value value = getNotNullValue ( component, key );
 
         // Actualized value data
-        final Object[] actualData;
-        synchronized ( componentsLock )
-        {
-            if ( data != null )
-            {
-                componentsData.put ( component, data );
-                actualData = data;
-            }
-            else
-            {
-                actualData = componentsData.get ( component );
-            }
-        }
+        final Object[] actualData = registry.updateData ( component, data );
 
         // Updating component language
         final LanguageUpdater updater = getLanguageUpdater ( component );
         if ( updater != null )
         {
-            updater.update ( component, key, value, parseData ( actualData ) );
+            final EdtWatchdog.Trace trace = EdtWatchdog.enter ( "LanguageManager", updater );
+            try
+            {
+                updater.update ( component, key, value, parseData ( actualData ) );
+            }
+            finally
+            {
+                EdtWatchdog.exit ( trace );
+            }
         }
 
         // Removing old cached tooltips
         final boolean swingComponent = component instanceof JComponent;
-        if ( tooltipsCache.containsKey ( component ) )
+        final List<WebCustomTooltip> oldTooltips = registry.removeTooltips ( component );
+        if ( oldTooltips != null )
         {
             // Clearing Swing tooltip
             if ( swingComponent )
@@ -761,8 +747,7 @@ public final class LanguageManager implements LanguageConstants
             }
 
             // Clearing WebLaF tooltips
-            TooltipManager.removeTooltips ( component, tooltipsCache.get ( component ) );
-            tooltipsCache.get ( component ).clear ();
+            TooltipManager.removeTooltips ( component, oldTooltips );
         }
         // Adding new tooltips
         if ( value != null && value.getTooltips () != null && value.getTooltips ().size () > 0 )
@@ -818,16 +803,54 @@ public final class LanguageManager implements LanguageConstants
 
     private static void cacheTip ( final WebCustomTooltip tooltip )
     {
-        final Component component = tooltip.getComponent ();
+        registry.addTooltip ( tooltip.getComponent (), tooltip );
+    }
+
+    /**
+     * Postponed components language updater.
+     * Updates pending components in batches on EDT, components which were already updated in the meantime are skipped.
+     */
+    private static final class PendingComponentsUpdater implements Runnable
+    {
+        /**
+         * Components to update.
+         */
+        private final List<Component> components;
 
-        // Creating array if it is needed
-        if ( !tooltipsCache.containsKey ( component ) )
+        /**
+         * Index of the next component to update.
+         */
+        private int index = 0;
+
+        /**
+         * Constructs new pending components updater.
+         *
+         * @param components components to update
+         */
+        private PendingComponentsUpdater ( final List<Component> components )
         {
-            tooltipsCache.put ( component, new ArrayList<WebCustomTooltip> () );
+            super ();
+            this.components = components;
         }
 
-        // Updating cache
-        tooltipsCache.get ( component ).add ( tooltip );
+        @Override
+        public void run ()
+        {
+            final int end = Math.min ( index + UPDATE_BATCH_SIZE, components.size () );
+            for ( ; index < end; index++ )
+            {
+                final Component component = components.get ( index );
+                components.set ( index, null );
+                if ( registry.isPending ( component ) )
+                {
+                    updateComponent ( component );
+                }
+            }
+            if ( index < components.size () )
+            {
+                SwingUtilities.invokeLater ( this );
+            }
+        }
     }
 
     /**
@@ -1357,7 +1380,7 @@ public final class LanguageManager implements LanguageConstants
 
     public static String combineWithContainerKeys ( final Component component, final String key )
     {
-        final String cachedKey = componentKeysCache.get ( component );
+        final String cachedKey = registry.getCachedKey ( component );
         return cachedKey != null ? cachedKey : combineWithContainerKeysImpl ( component, key );
     }
 
@@ -1378,7 +1401,10 @@ public final class LanguageManager implements LanguageConstants
             }
         }
         final String cachedKey = sb.toString ();
-        componentKeysCache.put ( component, cachedKey );
+        if ( component != null )
+        {
+            registry.setCachedKey ( component, cachedKey );
+        }
         return cachedKey;
     }
 
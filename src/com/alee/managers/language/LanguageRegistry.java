@@ -0,0 +1,593 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.alee.managers.language;
+
+import com.alee.managers.language.updaters.LanguageUpdater;
+import com.alee.managers.tooltip.WebCustomTooltip;
+
+import javax.swing.event.AncestorListener;
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of language-related components data used by LanguageManager.
+ * It keeps component language keys, data, calculated keys, custom updaters and tooltips in a single weak entry per component.
+ * <p/>
+ * Entries are spread across several weak maps each guarded by its own lock, so concurrent operations on different components rarely
+ * block each other. Registry also maintains a reverse index from language keys to components which is used to find components
+ * affected by dictionary changes without iterating through all registered components. Index lookups are lock-free.
+ *
+ * @author Mikle Garin
+ */
+
+final class LanguageRegistry
+{
+    /**
+     * Amount of registry stripes.
+     * Must be a power of two.
+     */
+    private static final int STRIPES = 16;
+
+    /**
+     * Registry stripes.
+     */
+    private final Stripe[] stripes;
+
+    /**
+     * Reverse index from language keys to components using them.
+     * Both component keys and their calculated keys (combined with container keys) are indexed.
+     */
+    private final ConcurrentMap<String, Set<Component>> index = new ConcurrentHashMap<String, Set<Component>> ();
+
+    /**
+     * Constructs new registry.
+     */
+    public LanguageRegistry ()
+    {
+        super ();
+        stripes = new Stripe[ STRIPES ];
+        for ( int i = 0; i < STRIPES; i++ )
+        {
+            stripes[ i ] = new Stripe ();
+        }
+    }
+
+    /**
+     * Registers component with the specified key and data.
+     * Previously set data is kept if null data is specified.
+     *
+     * @param component component to register
+     * @param key       component language key
+     * @param data      component language data
+     */
+    public void register ( final Component component, final String key, final Object[] data )
+    {
+        final Stripe stripe = getStripe ( component );
+        synchronized ( stripe )
+        {
+            final Entry entry = stripe.getOrCreate ( component );
+            reindex ( component, entry.key, entry.cachedKey, key, entry.cachedKey );
+            entry.key = key;
+            if ( data != null )
+            {
+                entry.data = data;
+            }
+        }
+    }
+
+    /**
+     * Unregisters component and returns its ancestor listener if it had one.
+     * Calculated key, custom updater and tooltips are kept for the component.
+     *
+     * @param component component to unregister
+     * @return unregistered component ancestor listener
+     */
+    public AncestorListener unregister ( final Component component )
+    {
+        final Stripe stripe = getStripe ( component );
+        synchronized ( stripe )
+        {
+            final Entry entry = stripe.entries.get ( component );
+            if ( entry != null )
+            {
+                final AncestorListener listener = entry.listener;
+                reindex ( component, entry.key, entry.cachedKey, null, null );
+                entry.key = null;
+                entry.data = null;
+                entry.listener = null;
+                entry.pending = false;
+                return listener;
+            }
+            else
+            {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Returns whether the specified component is registered or not.
+     *
+     * @param component component to check
+     * @return true if the specified component is registered, false otherwise
+     */
+    public boolean isRegistered ( final Component component )
+    {
+        return getKey ( component ) != null;
+    }
+
+    /**
+     * Returns registered component language key.
+     *
+     * @param component component to process
+     * @return registered component language key
+     */
+    public String getKey ( final Component component )
+    {
+        final Stripe stripe = getStripe ( component );
+        synchronized ( stripe )
+        {
+            final Entry entry = stripe.entries.get ( component );
+            return entry != null ? entry.key : null;
+        }
+    }
+
+    /**
+     * Returns actual component language data.
+     * If specified data is not null it replaces previously stored data.
+     *
+     * @param component component to process
+     * @param data      new component language data or null to use stored one
+     * @return actual component language data
+     */
+    public Object[] updateData ( final Component component, final Object[] data )
+    {
+        final Stripe stripe = getStripe ( component );
+        synchronized ( stripe )
+        {
+            if ( data != null )
+            {
+                stripe.getOrCreate ( component ).data = data;
+                return data;
+            }
+            else
+            {
+                final Entry entry = stripe.entries.get ( component );
+                return entry != null ? entry.data : null;
+            }
+        }
+    }
+
+    /**
+     * Returns component ancestor listener replaced by the specified one.
+     *
+     * @param component component to process
+     * @param listener  new component ancestor listener
+     * @return component ancestor listener replaced by the specified one
+     */
+    public AncestorListener setListener ( final Component component, final AncestorListener listener )
+    {
+        final Stripe stripe = getStripe ( component );
+        synchronized ( stripe )
+        {
+            final Entry entry = stripe.getOrCreate ( component );
+            final AncestorListener old = entry.listener;
+            entry.listener = listener;
+            return old;
+        }
+    }
+
+    /**
+     * Returns component key calculated with container keys.
+     *
+     * @param component component to process
+     * @return component key calculated with container keys
+     */
+    public String getCachedKey ( final Component component )
+    {
+        final Stripe stripe = getStripe ( component );
+        synchronized ( stripe )
+        {
+            final Entry entry = stripe.entries.get ( component );
+            return entry != null ? entry.cachedKey : null;
+        }
+    }
+
+    /**
+     * Sets component key calculated with container keys.
+     *
+     * @param component component to process
+     * @param cachedKey component key calculated with container keys
+     */
+    public void setCachedKey ( final Component component, final String cachedKey )
+    {
+        final Stripe stripe = getStripe ( component );
+        synchronized ( stripe )
+        {
+            final Entry entry = stripe.getOrCreate ( component );
+            reindex ( component, entry.key, entry.cachedKey, entry.key, cachedKey );
+            entry.cachedKey = cachedKey;
+        }
+    }
+
+    /**
+     * Returns component-specific language updater.
+     *
+     * @param component component to process
+     * @return component-specific language updater
+     */
+    public LanguageUpdater<?> getUpdater ( final Component component )
+    {
+        final Stripe stripe = getStripe ( component );
+        synchronized ( stripe )
+        {
+            final Entry entry = stripe.entries.get ( component );
+            return entry != null ? entry.updater : null;
+        }
+    }
+
+    /**
+     * Sets component-specific language updater.
+     *
+     * @param component component to process
+     * @param updater   component-specific language updater
+     */
+    public void setUpdater ( final Component component, final LanguageUpdater<?> updater )
+    {
+        final Stripe stripe = getStripe ( component );
+        synchronized ( stripe )
+        {
+            if ( updater != null )
+            {
+                stripe.getOrCreate ( component ).updater = updater;
+            }
+            else
+            {
+                final Entry entry = stripe.entries.get ( component );
+                if ( entry != null )
+                {
+                    entry.updater = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Caches custom tooltip added for the component.
+     *
+     * @param component component to process
+     * @param tooltip   custom tooltip
+     */
+    public void addTooltip ( final Component component, final WebCustomTooltip tooltip )
+    {
+        final Stripe stripe = getStripe ( component );
+        synchronized ( stripe )
+        {
+            final Entry entry = stripe.getOrCreate ( component );
+            if ( entry.tooltips == null )
+            {
+                entry.tooltips = new ArrayList<WebCustomTooltip> ( 1 );
+            }
+            entry.tooltips.add ( tooltip );
+        }
+    }
+
+    /**
+     * Returns and clears custom tooltips cached for the component.
+     * Returns null if component had no tooltips cached yet.
+     *
+     * @param component component to process
+     * @return custom tooltips cached for the component
+     */
+    public List<WebCustomTooltip> removeTooltips ( final Component component )
+    {
+        final Stripe stripe = getStripe ( component );
+        synchronized ( stripe )
+        {
+            final Entry entry = stripe.entries.get ( component );
+            if ( entry != null && entry.tooltips != null )
+            {
+                final List<WebCustomTooltip> tooltips = new ArrayList<WebCustomTooltip> ( entry.tooltips );
+                entry.tooltips.clear ();
+                return tooltips;
+            }
+            else
+            {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Returns whether registered component awaits language update or not.
+     *
+     * @param component component to check
+     * @return true if registered component awaits language update, false otherwise
+     */
+    public boolean isPending ( final Component component )
+    {
+        final Stripe stripe = getStripe ( component );
+        synchronized ( stripe )
+        {
+            final Entry entry = stripe.entries.get ( component );
+            return entry != null && entry.pending;
+        }
+    }
+
+    /**
+     * Sets whether registered component awaits language update or not.
+     *
+     * @param component component to process
+     * @param pending   whether registered component awaits language update or not
+     */
+    public void setPending ( final Component component, final boolean pending )
+    {
+        final Stripe stripe = getStripe ( component );
+        synchronized ( stripe )
+        {
+            final Entry entry = stripe.entries.get ( component );
+            if ( entry != null && entry.key != null )
+            {
+                entry.pending = pending;
+            }
+        }
+    }
+
+    /**
+     * Returns all registered components.
+     *
+     * @return all registered components
+     */
+    public List<Component> getComponents ()
+    {
+        final List<Component> components = new ArrayList<Component> ();
+        for ( final Stripe stripe : stripes )
+        {
+            synchronized ( stripe )
+            {
+                for ( final Map.Entry<Component, Entry> entry : stripe.entries.entrySet () )
+                {
+                    final Component component = entry.getKey ();
+                    if ( component != null && entry.getValue ().key != null )
+                    {
+                        components.add ( component );
+                    }
+                }
+            }
+        }
+        return components;
+    }
+
+    /**
+     * Returns registered components which use any of the specified keys.
+     * Each component is returned only once even if it uses several of the specified keys.
+     *
+     * @param keys language keys
+     * @return registered components which use any of the specified keys
+     */
+    public List<Component> getComponents ( final Collection<String> keys )
+    {
+        final Set<Component> found = Collections.newSetFromMap ( new IdentityHashMap<Component, Boolean> () );
+        final List<Component> components = new ArrayList<Component> ();
+        for ( final String key : keys )
+        {
+            final Set<Component> indexed = key != null ? index.get ( key ) : null;
+            if ( indexed != null )
+            {
+                synchronized ( indexed )
+                {
+                    for ( final Component component : indexed )
+                    {
+                        if ( component != null && found.add ( component ) )
+                        {
+                            components.add ( component );
+                        }
+                    }
+                }
+            }
+        }
+        return components;
+    }
+
+    /**
+     * Updates reverse index after component keys change.
+     *
+     * @param component    component to update index for
+     * @param oldKey       old component language key
+     * @param oldCachedKey old component calculated key
+     * @param newKey       new component language key
+     * @param newCachedKey new component calculated key
+     */
+    private void reindex ( final Component component, final String oldKey, final String oldCachedKey, final String newKey,
+                           final String newCachedKey )
+    {
+        // Only registered components are indexed
+        final String oldCached = oldKey != null ? oldCachedKey : null;
+        final String newCached = newKey != null ? newCachedKey : null;
+
+        // Removing outdated index records
+        if ( oldKey != null && !oldKey.equals ( newKey ) && !oldKey.equals ( newCached ) )
+        {
+            removeIndex ( oldKey, component );
+        }
+        if ( oldCached != null && !oldCached.equals ( newKey ) && !oldCached.equals ( newCached ) )
+        {
+            removeIndex ( oldCached, component );
+        }
+
+        // Adding new index records
+        if ( newKey != null )
+        {
+            addIndex ( newKey, component );
+        }
+        if ( newCached != null )
+        {
+            addIndex ( newCached, component );
+        }
+    }
+
+    /**
+     * Adds component into index under the specified key.
+     *
+     * @param key       language key
+     * @param component component to add
+     */
+    private void addIndex ( final String key, final Component component )
+    {
+        while ( true )
+        {
+            Set<Component> indexed = index.get ( key );
+            if ( indexed == null )
+            {
+                final Set<Component> created = createIndexSet ();
+                indexed = index.putIfAbsent ( key, created );
+                if ( indexed == null )
+                {
+                    indexed = created;
+                }
+            }
+            synchronized ( indexed )
+            {
+                // Set might have been removed from index as empty in the meantime
+                if ( index.get ( key ) == indexed )
+                {
+                    indexed.add ( component );
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes component from index under the specified key.
+     *
+     * @param key       language key
+     * @param component component to remove
+     */
+    private void removeIndex ( final String key, final Component component )
+    {
+        final Set<Component> indexed = index.get ( key );
+        if ( indexed != null )
+        {
+            synchronized ( indexed )
+            {
+                indexed.remove ( component );
+                if ( indexed.isEmpty () )
+                {
+                    index.remove ( key, indexed );
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns new weak components set for the index.
+     *
+     * @return new weak components set for the index
+     */
+    private static Set<Component> createIndexSet ()
+    {
+        return Collections.synchronizedSet ( Collections.newSetFromMap ( new WeakHashMap<Component, Boolean> ( 4 ) ) );
+    }
+
+    /**
+     * Returns stripe for the specified component.
+     *
+     * @param component component
+     * @return stripe for the specified component
+     */
+    private Stripe getStripe ( final Component component )
+    {
+        final int hash = System.identityHashCode ( component );
+        return stripes[ ( hash ^ ( hash >>> 16 ) ) & ( STRIPES - 1 ) ];
+    }
+
+    /**
+     * Registry stripe.
+     * Stripe itself is used as a lock for its entries.
+     */
+    private static final class Stripe
+    {
+        /**
+         * Components entries.
+         */
+        private final Map<Component, Entry> entries = new WeakHashMap<Component, Entry> ();
+
+        /**
+         * Returns existing or new entry for the specified component.
+         *
+         * @param component component
+         * @return existing or new entry for the specified component
+         */
+        private Entry getOrCreate ( final Component component )
+        {
+            Entry entry = entries.get ( component );
+            if ( entry == null )
+            {
+                entry = new Entry ();
+                entries.put ( component, entry );
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * Component language data.
+     * Modified only under its stripe lock.
+     */
+    private static final class Entry
+    {
+        /**
+         * Registered component language key.
+         * Null if component is not registered.
+         */
+        private String key;
+
+        /**
+         * Object data provided with component language key.
+         */
+        private Object[] data;
+
+        /**
+         * Component key calculated with container keys.
+         */
+        private String cachedKey;
+
+        /**
+         * Component ancestor listener used to update calculated key.
+         */
+        private AncestorListener listener;
+
+        /**
+         * Component-specific language updater.
+         */
+        private LanguageUpdater<?> updater;
+
+        /**
+         * Component custom WebLaF tooltips.
+         */
+        private List<WebCustomTooltip> tooltips;
+
+        /**
+         * Whether component awaits language update or not.
+         */
+        private boolean pending;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.managers.profiler;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * This class contains information about single Event Dispatch Thread stall detected by EdtWatchdog.
+ * It includes stall duration, Event Dispatch Thread stack traces sampled while it was stalled and the WebLaF manager and listener which
+ * were most likely involved in it.
+ *
+ * @author Mikle Garin
+ * @see com.alee.managers.profiler.EdtWatchdog
+ */
+
+public final class EdtStall
+{
+    /**
+     * Stall start time.
+     */
+    private final long time;
+
+    /**
+     * Stall duration in milliseconds.
+     */
+    private final long duration;
+
+    /**
+     * Name of the WebLaF manager or class involved in stall or null if it is unknown.
+     */
+    private final String source;
+
+    /**
+     * Description of listener involved in stall or null if it is unknown.
+     */
+    private final String listener;
+
+    /**
+     * Event Dispatch Thread stack traces sampled during the stall.
+     */
+    private final List<StackTraceElement[]> samples;
+
+    /**
+     * Constructs new EDT stall information.
+     *
+     * @param time     stall start time
+     * @param duration stall duration in milliseconds
+     * @param source   name of the WebLaF manager or class involved in stall
+     * @param listener description of listener involved in stall
+     * @param samples  Event Dispatch Thread stack traces sampled during the stall
+     */
+    public EdtStall ( final long time, final long duration, final String source, final String listener,
+                      final List<StackTraceElement[]> samples )
+    {
+        super ();
+        this.time = time;
+        this.duration = duration;
+        this.source = source;
+        this.listener = listener;
+        this.samples = Collections.unmodifiableList ( samples );
+    }
+
+    /**
+     * Returns stall start time.
+     *
+     * @return stall start time
+     */
+    public long getTime ()
+    {
+        return time;
+    }
+
+    /**
+     * Returns stall duration in milliseconds.
+     *
+     * @return stall duration in milliseconds
+     */
+    public long getDuration ()
+    {
+        return duration;
+    }
+
+    /**
+     * Returns name of the WebLaF manager or class involved in stall or null if it is unknown.
+     *
+     * @return name of the WebLaF manager or class involved in stall
+     */
+    public String getSource ()
+    {
+        return source;
+    }
+
+    /**
+     * Returns description of listener involved in stall or null if it is unknown.
+     *
+     * @return description of listener involved in stall
+     */
+    public String getListener ()
+    {
+        return listener;
+    }
+
+    /**
+     * Returns Event Dispatch Thread stack traces sampled during the stall.
+     *
+     * @return Event Dispatch Thread stack traces sampled during the stall
+     */
+    public List<StackTraceElement[]> getSamples ()
+    {
+        return samples;
+    }
+
+    /**
+     * Returns readable stall stack trace.
+     * The first sampled stack trace is returned since it is the closest one to the event that caused the stall.
+     *
+     * @return readable stall stack trace
+     */
+    public String getStackTrace ()
+    {
+        final StringBuilder sb = new StringBuilder ();
+        if ( samples.size () > 0 )
+        {
+            for ( final StackTraceElement element : samples.get ( 0 ) )
+            {
+                sb.append ( "\tat " ).append ( element ).append ( "\n" );
+            }
+        }
+        return sb.toString ();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString ()
+    {
+        return String.format ( "%tF %<tT: duration=%dms, source=%s, listener=%s, samples=%d", new Date ( time ), duration, source, listener,
+                samples.size () );
+    }
+}
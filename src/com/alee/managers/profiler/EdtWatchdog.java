@@ -0,0 +1,598 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.managers.profiler;
+
+import com.alee.laf.WebLookAndFeel;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import javax.swing.*;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This manager watches Event Dispatch Thread for stalls and records where they happened.
+ * <p>
+ * Background watchdog thread periodically posts a probe into the event queue and if probe is not processed within the threshold time
+ * Event Dispatch Thread is considered to be stalled. While stall lasts watchdog samples Event Dispatch Thread stack traces.
+ * Since probe waits behind all queued events a stall might also be caused by many short events, sampled stack traces help to tell that.
+ * <p>
+ * WebLaF managers mark user callbacks they invoke using {@link #enter(String, Object)} and {@link #exit(Trace)} methods, so each stall is
+ * attributed to the manager and the listener which were running on Event Dispatch Thread. If stall happened outside of any marked call
+ * it is attributed to the top-most WebLaF class found in sampled stack trace instead.
+ * <p>
+ * Detected stalls are kept in a bounded ring buffer available through this class API and through JMX under {@link #OBJECT_NAME} name.
+ * Watchdog is disabled by default, it can be enabled through {@link com.alee.laf.WebLookAndFeel#PROPERTY_EDT_WATCHDOG} system property
+ * or this class API. Management bean is only registered once watchdog is enabled, since platform MBean server startup is rather
+ * expensive.
+ *
+ * @author Mikle Garin
+ * @see com.alee.managers.profiler.EdtStall
+ * @see com.alee.managers.profiler.EdtWatchdogMBean
+ */
+
+public final class EdtWatchdog
+{
+    /**
+     * JMX object name under which watchdog management bean is registered.
+     */
+    public static final String OBJECT_NAME = "com.alee:type=EdtWatchdog";
+
+    /**
+     * Default stall threshold in milliseconds.
+     */
+    public static final long DEFAULT_THRESHOLD = 200;
+
+    /**
+     * Default sampling interval in milliseconds.
+     */
+    public static final long DEFAULT_INTERVAL = 50;
+
+    /**
+     * Default amount of stalls kept in history.
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * Maximum amount of stack traces sampled during a single stall.
+     */
+    public static final int MAX_SAMPLES = 20;
+
+    /**
+     * Package prefix used to find WebLaF classes in sampled stack traces.
+     */
+    private static final String LIBRARY_PACKAGE = "com.alee.";
+
+    /**
+     * Watchdog thread, null if watchdog is disabled.
+     */
+    private static volatile Thread watchdog = null;
+
+    /**
+     * Stall threshold in milliseconds.
+     */
+    private static volatile long threshold = DEFAULT_THRESHOLD;
+
+    /**
+     * Sampling interval in milliseconds.
+     */
+    private static volatile long interval = DEFAULT_INTERVAL;
+
+    /**
+     * Last known Event Dispatch Thread.
+     * It is updated by each processed probe, so it stays actual even if Event Dispatch Thread gets replaced.
+     */
+    private static volatile Thread edt = null;
+
+    /**
+     * Currently running marked call on Event Dispatch Thread.
+     */
+    private static volatile Trace current = null;
+
+    /**
+     * Stalls history lock.
+     */
+    private static final Object historyLock = new Object ();
+
+    /**
+     * Stalls history ring buffer.
+     */
+    private static EdtStall[] history = new EdtStall[ DEFAULT_CAPACITY ];
+
+    /**
+     * Index at which next stall will be placed into history.
+     */
+    private static int next = 0;
+
+    /**
+     * Amount of stalls in history.
+     */
+    private static int size = 0;
+
+    /**
+     * Total amount of detected stalls.
+     */
+    private static long stallCount = 0;
+
+    /**
+     * Whether manager is initialized or not.
+     */
+    private static boolean initialized = false;
+
+    /**
+     * Whether management bean is registered or not.
+     */
+    private static boolean registered = false;
+
+    /**
+     * Initializes manager if it wasn't already initialized.
+     */
+    public static synchronized void initialize ()
+    {
+        if ( !initialized )
+        {
+            initialized = true;
+
+            // Default settings
+            if ( Boolean.getBoolean ( WebLookAndFeel.PROPERTY_EDT_WATCHDOG ) )
+            {
+                setEnabled ( true );
+            }
+        }
+    }
+
+    /**
+     * Registers management bean if it wasn't already registered.
+     */
+    private static synchronized void registerBean ()
+    {
+        if ( !registered )
+        {
+            registered = true;
+            try
+            {
+                final MBeanServer server = ManagementFactory.getPlatformMBeanServer ();
+                final ObjectName name = new ObjectName ( OBJECT_NAME );
+                if ( !server.isRegistered ( name ) )
+                {
+                    server.registerMBean ( new StandardMBean ( new EdtWatchdogBean (), EdtWatchdogMBean.class ), name );
+                }
+            }
+            catch ( final JMException e )
+            {
+                e.printStackTrace ();
+            }
+            catch ( final SecurityException e )
+            {
+                e.printStackTrace ();
+            }
+        }
+    }
+
+    /**
+     * Returns whether watchdog is enabled or not.
+     *
+     * @return true if watchdog is enabled, false otherwise
+     */
+    public static boolean isEnabled ()
+    {
+        return watchdog != null;
+    }
+
+    /**
+     * Sets whether watchdog is enabled or not.
+     * Event Dispatch Thread is located by posting a single task into the event queue in case it is not yet known.
+     *
+     * @param enabled whether watchdog is enabled or not
+     */
+    public static synchronized void setEnabled ( final boolean enabled )
+    {
+        if ( enabled && watchdog == null )
+        {
+            registerBean ();
+            if ( edt == null )
+            {
+                SwingUtilities.invokeLater ( new Runnable ()
+                {
+                    @Override
+                    public void run ()
+                    {
+                        edt = Thread.currentThread ();
+                    }
+                } );
+            }
+            watchdog = new Thread ( new Watchdog (), "EdtWatchdog" );
+            watchdog.setDaemon ( true );
+            watchdog.start ();
+        }
+        else if ( !enabled && watchdog != null )
+        {
+            watchdog.interrupt ();
+            watchdog = null;
+        }
+    }
+
+    /**
+     * Returns stall threshold in milliseconds.
+     *
+     * @return stall threshold in milliseconds
+     */
+    public static long getThreshold ()
+    {
+        return threshold;
+    }
+
+    /**
+     * Sets stall threshold in milliseconds.
+     *
+     * @param threshold stall threshold in milliseconds
+     */
+    public static void setThreshold ( final long threshold )
+    {
+        EdtWatchdog.threshold = Math.max ( 1, threshold );
+    }
+
+    /**
+     * Returns sampling interval in milliseconds.
+     *
+     * @return sampling interval in milliseconds
+     */
+    public static long getInterval ()
+    {
+        return interval;
+    }
+
+    /**
+     * Sets sampling interval in milliseconds.
+     *
+     * @param interval sampling interval in milliseconds
+     */
+    public static void setInterval ( final long interval )
+    {
+        EdtWatchdog.interval = Math.max ( 1, interval );
+    }
+
+    /**
+     * Returns maximum amount of stalls kept in history.
+     *
+     * @return maximum amount of stalls kept in history
+     */
+    public static int getCapacity ()
+    {
+        synchronized ( historyLock )
+        {
+            return history.length;
+        }
+    }
+
+    /**
+     * Sets maximum amount of stalls kept in history.
+     * Latest stalls are kept if history is shrinked.
+     *
+     * @param capacity maximum amount of stalls kept in history
+     */
+    public static void setCapacity ( final int capacity )
+    {
+        synchronized ( historyLock )
+        {
+            final List<EdtStall> stalls = getStalls ();
+            history = new EdtStall[ Math.max ( 1, capacity ) ];
+            next = 0;
+            size = 0;
+            for ( int i = Math.max ( 0, stalls.size () - history.length ); i < stalls.size (); i++ )
+            {
+                addToHistory ( stalls.get ( i ) );
+            }
+        }
+    }
+
+    /**
+     * Returns stalls history ordered from the oldest to the latest one.
+     *
+     * @return stalls history
+     */
+    public static List<EdtStall> getStalls ()
+    {
+        synchronized ( historyLock )
+        {
+            final List<EdtStall> stalls = new ArrayList<EdtStall> ( size );
+            for ( int i = 0; i < size; i++ )
+            {
+                stalls.add ( history[ ( next - size + i + history.length ) % history.length ] );
+            }
+            return stalls;
+        }
+    }
+
+    /**
+     * Returns total amount of detected stalls, including those which are no longer kept in history.
+     *
+     * @return total amount of detected stalls
+     */
+    public static long getStallCount ()
+    {
+        synchronized ( historyLock )
+        {
+            return stallCount;
+        }
+    }
+
+    /**
+     * Clears stalls history.
+     */
+    public static void clear ()
+    {
+        synchronized ( historyLock )
+        {
+            for ( int i = 0; i < history.length; i++ )
+            {
+                history[ i ] = null;
+            }
+            next = 0;
+            size = 0;
+            stallCount = 0;
+        }
+    }
+
+    /**
+     * Adds stall into history.
+     *
+     * @param stall detected stall
+     */
+    private static void addStall ( final EdtStall stall )
+    {
+        synchronized ( historyLock )
+        {
+            addToHistory ( stall );
+            stallCount++;
+        }
+    }
+
+    /**
+     * Adds stall into history ring buffer, the oldest stall is dropped if buffer is full.
+     * Should only be called under history lock.
+     *
+     * @param stall stall to add
+     */
+    private static void addToHistory ( final EdtStall stall )
+    {
+        history[ next ] = stall;
+        next = ( next + 1 ) % history.length;
+        size = Math.min ( size + 1, history.length );
+    }
+
+    /**
+     * Marks start of the callback call performed by WebLaF manager.
+     * Returned trace should be passed into {@link #exit(Trace)} method when call is finished, preferably within finally block.
+     * Calls are only marked on Event Dispatch Thread while watchdog is enabled, otherwise this method simply returns null.
+     *
+     * @param source   name of the WebLaF manager or class performing the call
+     * @param listener called listener
+     * @return call trace or null if call is not marked
+     */
+    public static Trace enter ( final String source, final Object listener )
+    {
+        if ( watchdog != null && SwingUtilities.isEventDispatchThread () )
+        {
+            final Trace trace = new Trace ( source, listener, current );
+            current = trace;
+            return trace;
+        }
+        return null;
+    }
+
+    /**
+     * Marks end of the callback call performed by WebLaF manager.
+     *
+     * @param trace call trace provided by {@link #enter(String, Object)} method, might be null
+     */
+    public static void exit ( final Trace trace )
+    {
+        if ( trace != null )
+        {
+            current = trace.parent;
+        }
+    }
+
+    /**
+     * Returns last known Event Dispatch Thread.
+     * Returns null if it is not known yet or if it has died and the new one hasn't processed any probe yet, stall cannot be sampled then.
+     *
+     * @return last known Event Dispatch Thread or null if it is not known
+     */
+    private static Thread getEdt ()
+    {
+        final Thread thread = edt;
+        return thread != null && thread.isAlive () ? thread : null;
+    }
+
+    /**
+     * Returns attribution for the specified stack trace sample.
+     * Currently marked call is used if there is one, otherwise attribution is the top-most WebLaF class in the stack trace and the call
+     * it was performing outside of WebLaF.
+     *
+     * @param trace marked call at the moment of sampling
+     * @param stack sampled stack trace
+     * @return source and listener attribution
+     */
+    private static String[] getAttribution ( final Trace trace, final StackTraceElement[] stack )
+    {
+        if ( trace != null )
+        {
+            return new String[]{ trace.source, trace.listener };
+        }
+        for ( int i = 0; i < stack.length; i++ )
+        {
+            final String className = stack[ i ].getClassName ();
+            if ( className.startsWith ( LIBRARY_PACKAGE ) )
+            {
+                final String source = className.substring ( className.lastIndexOf ( '.' ) + 1 );
+                final StackTraceElement callee = i > 0 ? stack[ i - 1 ] : null;
+                return new String[]{ source, callee != null ? callee.getClassName () + "." + callee.getMethodName () : null };
+            }
+        }
+        return new String[]{ null, null };
+    }
+
+    /**
+     * Marked callback call.
+     */
+    public static final class Trace
+    {
+        /**
+         * Name of the WebLaF manager or class performing the call.
+         */
+        private final String source;
+
+        /**
+         * Called listener class name.
+         */
+        private final String listener;
+
+        /**
+         * Marked call within which this call is performed.
+         */
+        private final Trace parent;
+
+        /**
+         * Constructs new call trace.
+         *
+         * @param source   name of the WebLaF manager or class performing the call
+         * @param listener called listener
+         * @param parent   marked call within which this call is performed
+         */
+        private Trace ( final String source, final Object listener, final Trace parent )
+        {
+            super ();
+            this.source = source;
+            this.listener = listener != null ? listener.getClass ().getName () : null;
+            this.parent = parent;
+        }
+    }
+
+    /**
+     * Event queue probe.
+     */
+    private static final class Probe implements Runnable
+    {
+        /**
+         * Time at which probe was posted.
+         */
+        private final long posted = System.nanoTime ();
+
+        /**
+         * Time at which probe was processed or 0 if it is still waiting in the queue.
+         */
+        private volatile long processed = 0;
+
+        @Override
+        public void run ()
+        {
+            edt = Thread.currentThread ();
+            processed = Math.max ( 1, System.nanoTime () );
+        }
+    }
+
+    /**
+     * Watchdog thread task.
+     */
+    private static final class Watchdog implements Runnable
+    {
+        @Override
+        public void run ()
+        {
+            Probe probe = null;
+            long stallStart = 0;
+            List<StackTraceElement[]> samples = null;
+            Map<String, Integer> attributions = null;
+            String[] top = null;
+            int topCount = 0;
+
+            while ( watchdog == Thread.currentThread () )
+            {
+                try
+                {
+                    Thread.sleep ( interval );
+                }
+                catch ( final InterruptedException e )
+                {
+                    break;
+                }
+
+                if ( probe == null )
+                {
+                    // Posting new probe
+                    probe = new Probe ();
+                    SwingUtilities.invokeLater ( probe );
+                }
+                else if ( probe.processed != 0 )
+                {
+                    // Recording finished stall
+                    if ( samples != null )
+                    {
+                        final long duration = ( probe.processed - probe.posted ) / 1000000;
+                        addStall ( new EdtStall ( stallStart, duration, top[ 0 ], top[ 1 ], samples ) );
+                        samples = null;
+                        attributions = null;
+                        top = null;
+                        topCount = 0;
+                    }
+                    probe = null;
+                }
+                else if ( System.nanoTime () - probe.posted >= threshold * 1000000 )
+                {
+                    // Sampling stalled thread
+                    if ( samples == null )
+                    {
+                        stallStart = System.currentTimeMillis () - ( System.nanoTime () - probe.posted ) / 1000000;
+                        samples = new ArrayList<StackTraceElement[]> ( MAX_SAMPLES );
+                        attributions = new HashMap<String, Integer> ();
+                    }
+                    final Thread thread = getEdt ();
+                    if ( thread != null && samples.size () < MAX_SAMPLES )
+                    {
+                        final Trace trace = current;
+                        final StackTraceElement[] stack = thread.getStackTrace ();
+                        samples.add ( stack );
+
+                        // Choosing the most frequent attribution
+                        final String[] attribution = getAttribution ( trace, stack );
+                        final String key = attribution[ 0 ] + "#" + attribution[ 1 ];
+                        final Integer count = attributions.get ( key );
+                        final int newCount = count != null ? count + 1 : 1;
+                        attributions.put ( key, newCount );
+                        if ( newCount > topCount )
+                        {
+                            top = attribution;
+                            topCount = newCount;
+                        }
+                    }
+                    else if ( top == null )
+                    {
+                        top = new String[]{ null, null };
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.managers.profiler;
+
+import java.util.List;
+
+/**
+ * EdtWatchdog management bean implementation which simply redirects all calls into EdtWatchdog.
+ *
+ * @author Mikle Garin
+ * @see com.alee.managers.profiler.EdtWatchdog
+ */
+
+final class EdtWatchdogBean implements EdtWatchdogMBean
+{
+    @Override
+    public boolean isEnabled ()
+    {
+        return EdtWatchdog.isEnabled ();
+    }
+
+    @Override
+    public void setEnabled ( final boolean enabled )
+    {
+        EdtWatchdog.setEnabled ( enabled );
+    }
+
+    @Override
+    public long getThreshold ()
+    {
+        return EdtWatchdog.getThreshold ();
+    }
+
+    @Override
+    public void setThreshold ( final long threshold )
+    {
+        EdtWatchdog.setThreshold ( threshold );
+    }
+
+    @Override
+    public long getInterval ()
+    {
+        return EdtWatchdog.getInterval ();
+    }
+
+    @Override
+    public void setInterval ( final long interval )
+    {
+        EdtWatchdog.setInterval ( interval );
+    }
+
+    @Override
+    public int getCapacity ()
+    {
+        return EdtWatchdog.getCapacity ();
+    }
+
+    @Override
+    public void setCapacity ( final int capacity )
+    {
+        EdtWatchdog.setCapacity ( capacity );
+    }
+
+    @Override
+    public long getStallCount ()
+    {
+        return EdtWatchdog.getStallCount ();
+    }
+
+    @Override
+    public String[] getStalls ()
+    {
+        final List<EdtStall> stalls = EdtWatchdog.getStalls ();
+        final String[] descriptions = new String[ stalls.size () ];
+        for ( int i = 0; i < stalls.size (); i++ )
+        {
+            descriptions[ i ] = stalls.get ( i ).toString ();
+        }
+        return descriptions;
+    }
+
+    @Override
+    public String getStackTrace ( final int index )
+    {
+        final List<EdtStall> stalls = EdtWatchdog.getStalls ();
+        return index >= 0 && index < stalls.size () ? stalls.get ( index ).getStackTrace () : null;
+    }
+
+    @Override
+    public void clear ()
+    {
+        EdtWatchdog.clear ();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.managers.profiler;
+
+/**
+ * JMX management interface for EdtWatchdog.
+ * It is registered under {@link com.alee.managers.profiler.EdtWatchdog#OBJECT_NAME} name in platform MBean server.
+ * All times are provided in milliseconds.
+ *
+ * @author Mikle Garin
+ * @see com.alee.managers.profiler.EdtWatchdog
+ */
+
+public interface EdtWatchdogMBean
+{
+    /**
+     * Returns whether watchdog is enabled or not.
+     *
+     * @return true if watchdog is enabled, false otherwise
+     */
+    public boolean isEnabled ();
+
+    /**
+     * Sets whether watchdog is enabled or not.
+     *
+     * @param enabled whether watchdog is enabled or not
+     */
+    public void setEnabled ( boolean enabled );
+
+    /**
+     * Returns stall threshold.
+     *
+     * @return stall threshold
+     */
+    public long getThreshold ();
+
+    /**
+     * Sets stall threshold.
+     *
+     * @param threshold stall threshold
+     */
+    public void setThreshold ( long threshold );
+
+    /**
+     * Returns sampling interval.
+     *
+     * @return sampling interval
+     */
+    public long getInterval ();
+
+    /**
+     * Sets sampling interval.
+     *
+     * @param interval sampling interval
+     */
+    public void setInterval ( long interval );
+
+    /**
+     * Returns maximum amount of stalls kept in history.
+     *
+     * @return maximum amount of stalls kept in history
+     */
+    public int getCapacity ();
+
+    /**
+     * Sets maximum amount of stalls kept in history.
+     *
+     * @param capacity maximum amount of stalls kept in history
+     */
+    public void setCapacity ( int capacity );
+
+    /**
+     * Returns total amount of detected stalls.
+     *
+     * @return total amount of detected stalls
+     */
+    public long getStallCount ();
+
+    /**
+     * Returns short descriptions of stalls kept in history ordered from the oldest to the latest one.
+     *
+     * @return short descriptions of stalls kept in history
+     */
+    public String[] getStalls ();
+
+    /**
+     * Returns stack trace of the stall at the specified history index.
+     *
+     * @param index stall index in history
+     * @return stack trace of the stall at the specified history index
+     */
+    public String getStackTrace ( int index );
+
+    /**
+     * Clears stalls history.
+     */
+    public void clear ();
+}
@@ -0,0 +1,488 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.managers.profiler;
+
+import com.alee.laf.WebLookAndFeel;
+import com.alee.utils.DebugUtils;
+import com.alee.utils.SwingUtils;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import javax.swing.*;
+import javax.swing.plaf.ComponentUI;
+import java.awt.*;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * This manager measures painting time of WebLookAndFeel UI delegates.
+ * Statistics are gathered separately for each UI class and for each painted component and are available through this class API and
+ * through JMX under {@link #OBJECT_NAME} name, so expensive styles can be found in running application without attaching a profiler.
+ * <p>
+ * Profiling is disabled by default and costs only a single flag check per paint operation in that case.
+ * It can be enabled through {@link com.alee.laf.WebLookAndFeel#PROPERTY_PAINT_PROFILER} system property or this class API.
+ * Management bean is only registered once profiling or overlay is enabled, since platform MBean server startup is rather expensive.
+ * Overlay mode additionally highlights components which average painting time gets close to {@link #getHotThreshold()}.
+ *
+ * @author Mikle Garin
+ * @see com.alee.managers.profiler.PaintStatistics
+ * @see com.alee.managers.profiler.PaintProfilerMBean
+ */
+
+public final class PaintProfiler
+{
+    /**
+     * JMX object name under which profiler management bean is registered.
+     */
+    public static final String OBJECT_NAME = "com.alee:type=PaintProfiler";
+
+    /**
+     * Default average painting time at which component is considered to be hot, 1 millisecond.
+     */
+    public static final long DEFAULT_HOT_THRESHOLD = 1000000;
+
+    /**
+     * Client property key under which component painting statistics are stored.
+     */
+    private static final String STATISTICS_KEY = "PaintProfiler.statistics";
+
+    /**
+     * Value returned by {@link #start()} when profiling is disabled.
+     */
+    private static final long NOT_PROFILED = Long.MIN_VALUE;
+
+    /**
+     * Whether paint profiling is enabled or not.
+     */
+    private static volatile boolean enabled = false;
+
+    /**
+     * Whether hot components overlay is enabled or not.
+     */
+    private static volatile boolean overlayEnabled = false;
+
+    /**
+     * Average painting time at which component is considered to be hot.
+     */
+    private static volatile long hotThreshold = DEFAULT_HOT_THRESHOLD;
+
+    /**
+     * Painting statistics for each UI class.
+     */
+    private static final ConcurrentMap<Class<? extends ComponentUI>, PaintStatistics> classStatistics =
+            new ConcurrentHashMap<Class<? extends ComponentUI>, PaintStatistics> ();
+
+    /**
+     * Painting statistics for each component.
+     * Statistics are stored in component client property and are only added here once to be available for reports, so painting
+     * doesn't require any global locks. Components are referenced weakly so their statistics are dropped along with them.
+     * This map is modified from painting thread and read from JMX threads, so it is synchronized.
+     */
+    private static final Map<JComponent, PaintStatistics> componentStatistics = new WeakHashMap<JComponent, PaintStatistics> ();
+
+    /**
+     * Whether manager is initialized or not.
+     */
+    private static boolean initialized = false;
+
+    /**
+     * Whether management bean is registered or not.
+     */
+    private static boolean registered = false;
+
+    /**
+     * Initializes manager if it wasn't already initialized.
+     */
+    public static synchronized void initialize ()
+    {
+        if ( !initialized )
+        {
+            initialized = true;
+
+            // Default settings
+            enabled = enabled || Boolean.getBoolean ( WebLookAndFeel.PROPERTY_PAINT_PROFILER );
+            overlayEnabled = overlayEnabled || Boolean.getBoolean ( WebLookAndFeel.PROPERTY_PAINT_PROFILER_OVERLAY );
+
+            // Management bean
+            if ( enabled || overlayEnabled )
+            {
+                registerBean ();
+            }
+        }
+    }
+
+    /**
+     * Registers management bean if it wasn't already registered.
+     */
+    private static synchronized void registerBean ()
+    {
+        if ( !registered )
+        {
+            registered = true;
+            try
+            {
+                final MBeanServer server = ManagementFactory.getPlatformMBeanServer ();
+                final ObjectName name = new ObjectName ( OBJECT_NAME );
+                if ( !server.isRegistered ( name ) )
+                {
+                    server.registerMBean ( new StandardMBean ( new PaintProfilerBean (), PaintProfilerMBean.class ), name );
+                }
+            }
+            catch ( final JMException e )
+            {
+                e.printStackTrace ();
+            }
+            catch ( final SecurityException e )
+            {
+                e.printStackTrace ();
+            }
+        }
+    }
+
+    /**
+     * Returns whether paint profiling is enabled or not.
+     *
+     * @return true if paint profiling is enabled, false otherwise
+     */
+    public static boolean isEnabled ()
+    {
+        return enabled;
+    }
+
+    /**
+     * Sets whether paint profiling is enabled or not.
+     *
+     * @param enabled whether paint profiling is enabled or not
+     */
+    public static void setEnabled ( final boolean enabled )
+    {
+        PaintProfiler.enabled = enabled;
+        if ( enabled )
+        {
+            registerBean ();
+        }
+    }
+
+    /**
+     * Returns whether hot components overlay is enabled or not.
+     *
+     * @return true if hot components overlay is enabled, false otherwise
+     */
+    public static boolean isOverlayEnabled ()
+    {
+        return overlayEnabled;
+    }
+
+    /**
+     * Sets whether hot components overlay is enabled or not.
+     * Overlay is only painted while paint profiling is enabled.
+     *
+     * @param enabled whether hot components overlay is enabled or not
+     */
+    public static void setOverlayEnabled ( final boolean enabled )
+    {
+        PaintProfiler.overlayEnabled = enabled;
+        if ( enabled )
+        {
+            registerBean ();
+        }
+    }
+
+    /**
+     * Returns average painting time in nanoseconds at which component is considered to be hot.
+     *
+     * @return average painting time in nanoseconds at which component is considered to be hot
+     */
+    public static long getHotThreshold ()
+    {
+        return hotThreshold;
+    }
+
+    /**
+     * Sets average painting time in nanoseconds at which component is considered to be hot.
+     *
+     * @param threshold average painting time in nanoseconds at which component is considered to be hot
+     */
+    public static void setHotThreshold ( final long threshold )
+    {
+        PaintProfiler.hotThreshold = Math.max ( 1, threshold );
+    }
+
+    /**
+     * Starts measuring single paint operation.
+     * Returned value should be passed into {@link #finish(javax.swing.plaf.ComponentUI, javax.swing.JComponent, java.awt.Graphics, long)}
+     * method when paint operation is finished.
+     *
+     * @return paint operation start time
+     */
+    public static long start ()
+    {
+        return enabled ? System.nanoTime () : NOT_PROFILED;
+    }
+
+    /**
+     * Finishes measuring single paint operation and paints hot component overlay if it is enabled.
+     *
+     * @param ui    painted UI delegate
+     * @param c     painted component
+     * @param g     graphics
+     * @param start paint operation start time provided by {@link #start()} method
+     */
+    public static void finish ( final ComponentUI ui, final JComponent c, final Graphics g, final long start )
+    {
+        if ( start != NOT_PROFILED )
+        {
+            final long time = System.nanoTime () - start;
+            final Rectangle clip = g.getClipBounds ();
+            final long area = clip != null ? ( long ) clip.width * clip.height : ( long ) c.getWidth () * c.getHeight ();
+
+            // Recording UI class statistics
+            final Class<? extends ComponentUI> uiClass = ui.getClass ();
+            PaintStatistics statistics = classStatistics.get ( uiClass );
+            if ( statistics == null )
+            {
+                statistics = new PaintStatistics ();
+                final PaintStatistics existing = classStatistics.putIfAbsent ( uiClass, statistics );
+                statistics = existing != null ? existing : statistics;
+            }
+            statistics.record ( time, area );
+
+            // Recording component statistics
+            final PaintStatistics instanceStatistics = getOrCreateStatistics ( c );
+            instanceStatistics.record ( time, area );
+
+            // Highlighting hot component
+            if ( overlayEnabled )
+            {
+                final long average = instanceStatistics.getAverageTime ();
+                final float heat = Math.min ( 1f, ( float ) average / hotThreshold );
+                DebugUtils.paintHeatDebugInfo ( ( Graphics2D ) g, c, heat );
+                DebugUtils.paintTimeDebugInfo ( ( Graphics2D ) g, average );
+            }
+        }
+    }
+
+    /**
+     * Returns painting statistics for the specified component, creates them if they don't exist yet.
+     *
+     * @param c component
+     * @return painting statistics for the specified component
+     */
+    private static PaintStatistics getOrCreateStatistics ( final JComponent c )
+    {
+        PaintStatistics statistics = ( PaintStatistics ) c.getClientProperty ( STATISTICS_KEY );
+        if ( statistics == null )
+        {
+            statistics = new PaintStatistics ();
+            c.putClientProperty ( STATISTICS_KEY, statistics );
+            synchronized ( componentStatistics )
+            {
+                componentStatistics.put ( c, statistics );
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Returns painting statistics for the specified UI class or null if it wasn't profiled yet.
+     *
+     * @param uiClass UI class
+     * @return painting statistics for the specified UI class
+     */
+    public static PaintStatistics getStatistics ( final Class<? extends ComponentUI> uiClass )
+    {
+        return classStatistics.get ( uiClass );
+    }
+
+    /**
+     * Returns painting statistics for the specified component or null if it wasn't profiled yet.
+     *
+     * @param component component
+     * @return painting statistics for the specified component
+     */
+    public static PaintStatistics getStatistics ( final JComponent component )
+    {
+        return ( PaintStatistics ) component.getClientProperty ( STATISTICS_KEY );
+    }
+
+    /**
+     * Returns copy of painting statistics map for all profiled UI classes.
+     *
+     * @return copy of painting statistics map for all profiled UI classes
+     */
+    public static Map<Class<? extends ComponentUI>, PaintStatistics> getClassStatistics ()
+    {
+        return new HashMap<Class<? extends ComponentUI>, PaintStatistics> ( classStatistics );
+    }
+
+    /**
+     * Returns copy of painting statistics map for all profiled components.
+     * Returned map is a HashMap instead of WeakHashMap used in manager and will keep strong references to components.
+     *
+     * @return copy of painting statistics map for all profiled components
+     */
+    public static Map<JComponent, PaintStatistics> getComponentStatistics ()
+    {
+        synchronized ( componentStatistics )
+        {
+            return new HashMap<JComponent, PaintStatistics> ( componentStatistics );
+        }
+    }
+
+    /**
+     * Returns total amount of profiled paint operations.
+     *
+     * @return total amount of profiled paint operations
+     */
+    public static long getPaintCount ()
+    {
+        long count = 0;
+        for ( final PaintStatistics statistics : classStatistics.values () )
+        {
+            count += statistics.getCount ();
+        }
+        return count;
+    }
+
+    /**
+     * Returns total profiled painting time in nanoseconds.
+     *
+     * @return total profiled painting time in nanoseconds
+     */
+    public static long getPaintTime ()
+    {
+        long time = 0;
+        for ( final PaintStatistics statistics : classStatistics.values () )
+        {
+            time += statistics.getTime ();
+        }
+        return time;
+    }
+
+    /**
+     * Resets all gathered statistics.
+     * Component statistics are removed in EDT since they are stored in components client properties.
+     */
+    public static void reset ()
+    {
+        classStatistics.clear ();
+        SwingUtils.invokeLater ( new Runnable ()
+        {
+            @Override
+            public void run ()
+            {
+                final List<JComponent> components;
+                synchronized ( componentStatistics )
+                {
+                    components = new ArrayList<JComponent> ( componentStatistics.keySet () );
+                    componentStatistics.clear ();
+                }
+                for ( final JComponent component : components )
+                {
+                    component.putClientProperty ( STATISTICS_KEY, null );
+                }
+            }
+        } );
+    }
+
+    /**
+     * Returns readable painting statistics for each profiled UI class sorted by total painting time.
+     *
+     * @return readable painting statistics for each profiled UI class
+     */
+    public static List<String> getClassReport ()
+    {
+        final List<Map.Entry<Class<? extends ComponentUI>, PaintStatistics>> entries =
+                new ArrayList<Map.Entry<Class<? extends ComponentUI>, PaintStatistics>> ( getClassStatistics ().entrySet () );
+        Collections.sort ( entries, new StatisticsComparator<Class<? extends ComponentUI>> () );
+        final List<String> report = new ArrayList<String> ( entries.size () );
+        for ( final Map.Entry<Class<? extends ComponentUI>, PaintStatistics> entry : entries )
+        {
+            report.add ( getReport ( entry.getKey ().getName (), entry.getValue () ) );
+        }
+        return report;
+    }
+
+    /**
+     * Returns readable painting statistics for the specified amount of components with the longest total painting time.
+     *
+     * @param amount maximum amount of components
+     * @return readable painting statistics for the specified amount of components with the longest total painting time
+     */
+    public static List<String> getHotComponentsReport ( final int amount )
+    {
+        final List<Map.Entry<JComponent, PaintStatistics>> entries =
+                new ArrayList<Map.Entry<JComponent, PaintStatistics>> ( getComponentStatistics ().entrySet () );
+        Collections.sort ( entries, new StatisticsComparator<JComponent> () );
+        final List<String> report = new ArrayList<String> ( Math.min ( amount, entries.size () ) );
+        for ( int i = 0; i < amount && i < entries.size (); i++ )
+        {
+            final JComponent component = entries.get ( i ).getKey ();
+            final String name = component.getClass ().getName () + "@" + Integer.toHexString ( System.identityHashCode ( component ) ) +
+                    ( component.getName () != null ? " [" + component.getName () + "]" : "" );
+            report.add ( getReport ( name, entries.get ( i ).getValue () ) );
+        }
+        return report;
+    }
+
+    /**
+     * Returns readable painting statistics.
+     *
+     * @param name       statistics name
+     * @param statistics painting statistics
+     * @return readable painting statistics
+     */
+    private static String getReport ( final String name, final PaintStatistics statistics )
+    {
+        return String.format ( "%s: count=%d, total=%.2fms, avg=%.3fms, p90=%.3fms, max=%.3fms, avgClip=%dpx", name,
+                statistics.getCount (), toMillis ( statistics.getTime () ), toMillis ( statistics.getAverageTime () ),
+                toMillis ( statistics.getPercentile ( 0.9 ) ), toMillis ( statistics.getMaxTime () ), statistics.getAverageClipArea () );
+    }
+
+    /**
+     * Returns nanoseconds converted into milliseconds.
+     *
+     * @param nanoTime time in nanoseconds
+     * @return time in milliseconds
+     */
+    private static double toMillis ( final long nanoTime )
+    {
+        return nanoTime / 1000000d;
+    }
+
+    /**
+     * Comparator that sorts statistics entries by total painting time in descending order.
+     *
+     * @param <K> statistics key type
+     */
+    private static class StatisticsComparator<K> implements Comparator<Map.Entry<K, PaintStatistics>>
+    {
+        @Override
+        public int compare ( final Map.Entry<K, PaintStatistics> e1, final Map.Entry<K, PaintStatistics> e2 )
+        {
+            final long t1 = e1.getValue ().getTime ();
+            final long t2 = e2.getValue ().getTime ();
+            return t1 < t2 ? 1 : t1 > t2 ? -1 : 0;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.managers.profiler;
+
+import java.util.List;
+
+/**
+ * PaintProfiler management bean implementation which simply redirects all calls into PaintProfiler.
+ *
+ * @author Mikle Garin
+ * @see com.alee.managers.profiler.PaintProfiler
+ */
+
+final class PaintProfilerBean implements PaintProfilerMBean
+{
+    @Override
+    public boolean isEnabled ()
+    {
+        return PaintProfiler.isEnabled ();
+    }
+
+    @Override
+    public void setEnabled ( final boolean enabled )
+    {
+        PaintProfiler.setEnabled ( enabled );
+    }
+
+    @Override
+    public boolean isOverlayEnabled ()
+    {
+        return PaintProfiler.isOverlayEnabled ();
+    }
+
+    @Override
+    public void setOverlayEnabled ( final boolean enabled )
+    {
+        PaintProfiler.setOverlayEnabled ( enabled );
+    }
+
+    @Override
+    public long getHotThreshold ()
+    {
+        return PaintProfiler.getHotThreshold ();
+    }
+
+    @Override
+    public void setHotThreshold ( final long threshold )
+    {
+        PaintProfiler.setHotThreshold ( threshold );
+    }
+
+    @Override
+    public long getPaintCount ()
+    {
+        return PaintProfiler.getPaintCount ();
+    }
+
+    @Override
+    public long getPaintTime ()
+    {
+        return PaintProfiler.getPaintTime ();
+    }
+
+    @Override
+    public String[] getClassStatistics ()
+    {
+        final List<String> report = PaintProfiler.getClassReport ();
+        return report.toArray ( new String[ report.size () ] );
+    }
+
+    @Override
+    public String[] getHotComponents ( final int amount )
+    {
+        final List<String> report = PaintProfiler.getHotComponentsReport ( amount );
+        return report.toArray ( new String[ report.size () ] );
+    }
+
+    @Override
+    public void reset ()
+    {
+        PaintProfiler.reset ();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.managers.profiler;
+
+/**
+ * JMX management interface for PaintProfiler.
+ * It is registered under {@link com.alee.managers.profiler.PaintProfiler#OBJECT_NAME} name in platform MBean server.
+ * All times are provided in nanoseconds.
+ *
+ * @author Mikle Garin
+ * @see com.alee.managers.profiler.PaintProfiler
+ */
+
+public interface PaintProfilerMBean
+{
+    /**
+     * Returns whether paint profiling is enabled or not.
+     *
+     * @return true if paint profiling is enabled, false otherwise
+     */
+    public boolean isEnabled ();
+
+    /**
+     * Sets whether paint profiling is enabled or not.
+     *
+     * @param enabled whether paint profiling is enabled or not
+     */
+    public void setEnabled ( boolean enabled );
+
+    /**
+     * Returns whether hot components overlay is enabled or not.
+     *
+     * @return true if hot components overlay is enabled, false otherwise
+     */
+    public boolean isOverlayEnabled ();
+
+    /**
+     * Sets whether hot components overlay is enabled or not.
+     *
+     * @param enabled whether hot components overlay is enabled or not
+     */
+    public void setOverlayEnabled ( boolean enabled );
+
+    /**
+     * Returns average painting time at which component is considered to be hot.
+     *
+     * @return average painting time at which component is considered to be hot
+     */
+    public long getHotThreshold ();
+
+    /**
+     * Sets average painting time at which component is considered to be hot.
+     *
+     * @param threshold average painting time at which component is considered to be hot
+     */
+    public void setHotThreshold ( long threshold );
+
+    /**
+     * Returns total amount of profiled paint operations.
+     *
+     * @return total amount of profiled paint operations
+     */
+    public long getPaintCount ();
+
+    /**
+     * Returns total profiled painting time.
+     *
+     * @return total profiled painting time
+     */
+    public long getPaintTime ();
+
+    /**
+     * Returns painting statistics for each profiled UI class sorted by total painting time.
+     *
+     * @return painting statistics for each profiled UI class
+     */
+    public String[] getClassStatistics ();
+
+    /**
+     * Returns painting statistics for the specified amount of components with the longest total painting time.
+     *
+     * @param amount maximum amount of components
+     * @return painting statistics for the specified amount of components with the longest total painting time
+     */
+    public String[] getHotComponents ( int amount );
+
+    /**
+     * Resets all gathered statistics.
+     */
+    public void reset ();
+}
@@ -0,0 +1,233 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.managers.profiler;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class contains painting statistics gathered by PaintProfiler for a single UI class or component.
+ * All values are updated without locking so statistics can be safely read from any thread while it is being recorded.
+ * Painting times are also collected into histogram with exponentially growing buckets to estimate painting time percentiles.
+ *
+ * @author Mikle Garin
+ * @see com.alee.managers.profiler.PaintProfiler
+ */
+
+public final class PaintStatistics
+{
+    /**
+     * Amount of histogram buckets.
+     * First bucket contains times shorter than 2 microseconds, each next bucket covers twice longer times range.
+     * Last bucket contains all times longer than ~0.5 second.
+     */
+    public static final int BUCKETS = 20;
+
+    /**
+     * Paint operations count.
+     */
+    private final AtomicLong count = new AtomicLong ( 0 );
+
+    /**
+     * Total painting time in nanoseconds.
+     */
+    private final AtomicLong time = new AtomicLong ( 0 );
+
+    /**
+     * Longest painting time in nanoseconds.
+     */
+    private final AtomicLong maxTime = new AtomicLong ( 0 );
+
+    /**
+     * Total painted clip area in pixels.
+     */
+    private final AtomicLong clipArea = new AtomicLong ( 0 );
+
+    /**
+     * Painting times histogram.
+     */
+    private final AtomicLongArray histogram = new AtomicLongArray ( BUCKETS );
+
+    /**
+     * Records single paint operation.
+     *
+     * @param nanoTime painting time in nanoseconds
+     * @param area     painted clip area in pixels
+     */
+    public void record ( final long nanoTime, final long area )
+    {
+        count.incrementAndGet ();
+        time.addAndGet ( nanoTime );
+        clipArea.addAndGet ( area );
+        histogram.incrementAndGet ( getBucket ( nanoTime ) );
+
+        long max = maxTime.get ();
+        while ( nanoTime > max && !maxTime.compareAndSet ( max, nanoTime ) )
+        {
+            max = maxTime.get ();
+        }
+    }
+
+    /**
+     * Resets all statistics.
+     * Paint operations recorded at the same time might be partially lost.
+     */
+    public void reset ()
+    {
+        count.set ( 0 );
+        time.set ( 0 );
+        maxTime.set ( 0 );
+        clipArea.set ( 0 );
+        for ( int i = 0; i < BUCKETS; i++ )
+        {
+            histogram.set ( i, 0 );
+        }
+    }
+
+    /**
+     * Returns paint operations count.
+     *
+     * @return paint operations count
+     */
+    public long getCount ()
+    {
+        return count.get ();
+    }
+
+    /**
+     * Returns total painting time in nanoseconds.
+     *
+     * @return total painting time in nanoseconds
+     */
+    public long getTime ()
+    {
+        return time.get ();
+    }
+
+    /**
+     * Returns average painting time in nanoseconds.
+     *
+     * @return average painting time in nanoseconds
+     */
+    public long getAverageTime ()
+    {
+        final long c = count.get ();
+        return c > 0 ? time.get () / c : 0;
+    }
+
+    /**
+     * Returns longest painting time in nanoseconds.
+     *
+     * @return longest painting time in nanoseconds
+     */
+    public long getMaxTime ()
+    {
+        return maxTime.get ();
+    }
+
+    /**
+     * Returns total painted clip area in pixels.
+     *
+     * @return total painted clip area in pixels
+     */
+    public long getClipArea ()
+    {
+        return clipArea.get ();
+    }
+
+    /**
+     * Returns average painted clip area in pixels.
+     *
+     * @return average painted clip area in pixels
+     */
+    public long getAverageClipArea ()
+    {
+        final long c = count.get ();
+        return c > 0 ? clipArea.get () / c : 0;
+    }
+
+    /**
+     * Returns copy of painting times histogram.
+     *
+     * @return copy of painting times histogram
+     */
+    public long[] getHistogram ()
+    {
+        final long[] copy = new long[ BUCKETS ];
+        for ( int i = 0; i < BUCKETS; i++ )
+        {
+            copy[ i ] = histogram.get ( i );
+        }
+        return copy;
+    }
+
+    /**
+     * Returns estimated painting time percentile in nanoseconds.
+     * Returned value is the upper bound of histogram bucket which contains the percentile, so it is never lower than the actual one.
+     *
+     * @param percentile percentile, value between 0 and 1
+     * @return estimated painting time percentile in nanoseconds
+     */
+    public long getPercentile ( final double percentile )
+    {
+        final long[] buckets = getHistogram ();
+        long total = 0;
+        for ( final long bucket : buckets )
+        {
+            total += bucket;
+        }
+        if ( total == 0 )
+        {
+            return 0;
+        }
+        final long target = Math.max ( 1, ( long ) Math.ceil ( total * percentile ) );
+        long passed = 0;
+        for ( int i = 0; i < BUCKETS - 1; i++ )
+        {
+            passed += buckets[ i ];
+            if ( passed >= target )
+            {
+                return getBucketLimit ( i );
+            }
+        }
+        return maxTime.get ();
+    }
+
+    /**
+     * Returns histogram bucket index for the specified painting time.
+     *
+     * @param nanoTime painting time in nanoseconds
+     * @return histogram bucket index for the specified painting time
+     */
+    public static int getBucket ( final long nanoTime )
+    {
+        final long micros = nanoTime / 1000;
+        return micros < 2 ? 0 : Math.min ( BUCKETS - 1, 63 - Long.numberOfLeadingZeros ( micros ) );
+    }
+
+    /**
+     * Returns exclusive upper limit of the specified histogram bucket in nanoseconds.
+     *
+     * @param bucket histogram bucket index
+     * @return exclusive upper limit of the specified histogram bucket in nanoseconds
+     */
+    public static long getBucketLimit ( final int bucket )
+    {
+        return bucket < BUCKETS - 1 ? ( 2L << bucket ) * 1000 : Long.MAX_VALUE;
+    }
+}
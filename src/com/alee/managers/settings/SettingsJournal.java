@@ -0,0 +1,509 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.alee.managers.settings;
+
+import com.alee.utils.XmlUtils;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.CRC32;
+
+/**
+ * This class provides journal persistence for SettingsGroup.
+ * <p/>
+ * Each group is stored in two files: a snapshot containing all group values and an append-only journal containing values changed since
+ * the snapshot was written. Both files consist of checksummed records, each record keeps single value serialized into XML. Journal is
+ * compacted into a new snapshot once it grows larger than the snapshot itself. Snapshot is replaced atomically and incomplete or
+ * damaged records at the journal tail left by an interrupted write are dropped on load.
+ * <p/>
+ * Each snapshot has a generation number which is also written into the header of the journal started after it. Journal is only
+ * replayed over the snapshot with the same generation, so a journal left by a crash right after compaction cannot revert values stored
+ * in the newer snapshot. Appended records are synced to disk before append returns.
+ *
+ * @author Mikle Garin
+ * @see SettingsPersistence#journal
+ */
+
+public final class SettingsJournal
+{
+    /**
+     * Files header marker.
+     * Header is followed by snapshot generation.
+     */
+    private static final int MAGIC = 0x57534a32;
+
+    /**
+     * Generation returned for missing or damaged file header.
+     */
+    private static final long NO_GENERATION = -1;
+
+    /**
+     * Record type for group ID.
+     */
+    private static final byte ID_RECORD = 0;
+
+    /**
+     * Record type for changed value.
+     */
+    private static final byte SET_RECORD = 1;
+
+    /**
+     * Record type for removed value.
+     */
+    private static final byte REMOVE_RECORD = 2;
+
+    /**
+     * Journal size below which it is never compacted.
+     */
+    private static final long MINIMUM_COMPACT_SIZE = 64 * 1024;
+
+    /**
+     * Snapshot files extension.
+     */
+    public static final String SNAPSHOT_EXTENSION = ".snapshot";
+
+    /**
+     * Journal files extension.
+     */
+    public static final String JOURNAL_EXTENSION = ".journal";
+
+    /**
+     * Group files locks.
+     * Operations on the same group files are performed under the same lock, operations on different groups are independent.
+     */
+    private static final ConcurrentMap<String, Object> locks = new ConcurrentHashMap<String, Object> ();
+
+    /**
+     * Returns lock for the specified group files.
+     *
+     * @param dir   group directory
+     * @param group group name
+     * @return lock for the specified group files
+     */
+    private static Object getLock ( final File dir, final String group )
+    {
+        final String path = getSnapshotFile ( dir, group ).getAbsolutePath ();
+        final Object lock = new Object ();
+        final Object existing = locks.putIfAbsent ( path, lock );
+        return existing != null ? existing : lock;
+    }
+
+    /**
+     * Returns snapshot file for the specified group.
+     *
+     * @param dir   group directory
+     * @param group group name
+     * @return snapshot file for the specified group
+     */
+    public static File getSnapshotFile ( final File dir, final String group )
+    {
+        return new File ( dir, group + SNAPSHOT_EXTENSION );
+    }
+
+    /**
+     * Returns journal file for the specified group.
+     *
+     * @param dir   group directory
+     * @param group group name
+     * @return journal file for the specified group
+     */
+    public static File getJournalFile ( final File dir, final String group )
+    {
+        return new File ( dir, group + JOURNAL_EXTENSION );
+    }
+
+    /**
+     * Returns whether snapshot or journal exists for the specified group.
+     *
+     * @param dir   group directory
+     * @param group group name
+     * @return true if snapshot or journal exists for the specified group, false otherwise
+     */
+    public static boolean exists ( final File dir, final String group )
+    {
+        return getSnapshotFile ( dir, group ).isFile () || getJournalFile ( dir, group ).isFile ();
+    }
+
+    /**
+     * Loads settings group from its snapshot and journal into the specified group.
+     *
+     * @param dir           group directory
+     * @param settingsGroup settings group to load values into
+     * @return true if all records were read, false if damaged journal tail was dropped
+     * @throws IOException if snapshot cannot be read
+     */
+    public static boolean load ( final File dir, final SettingsGroup settingsGroup ) throws IOException
+    {
+        final String group = settingsGroup.getName ();
+        synchronized ( getLock ( dir, group ) )
+        {
+            // Snapshot is always written completely, so any damage there is an error
+            final File snapshot = getSnapshotFile ( dir, group );
+            long generation = 0;
+            if ( snapshot.isFile () )
+            {
+                generation = readGeneration ( snapshot );
+                if ( generation == NO_GENERATION || read ( snapshot, settingsGroup ) != snapshot.length () )
+                {
+                    throw new IOException ( "Damaged settings snapshot: " + snapshot.getAbsolutePath () );
+                }
+            }
+
+            // Journal tail might be torn by interrupted write
+            final File journal = getJournalFile ( dir, group );
+            if ( journal.isFile () && journal.length () > 0 )
+            {
+                final long journalGeneration = readGeneration ( journal );
+                if ( journalGeneration != generation )
+                {
+                    // Journal was written for another snapshot, it is either outdated or its header is damaged
+                    truncate ( journal, 0 );
+                    return journalGeneration != NO_GENERATION;
+                }
+                final long valid = read ( journal, settingsGroup );
+                if ( valid != journal.length () )
+                {
+                    truncate ( journal, valid );
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Appends specified keys current values to the group journal.
+     * Journal is compacted into a new snapshot if it gets too large.
+     *
+     * @param dir           group directory
+     * @param settingsGroup settings group
+     * @param keys          changed keys
+     * @throws IOException if journal cannot be written
+     */
+    public static void append ( final File dir, final SettingsGroup settingsGroup, final Collection<String> keys ) throws IOException
+    {
+        final String group = settingsGroup.getName ();
+        synchronized ( getLock ( dir, group ) )
+        {
+            appendImpl ( dir, settingsGroup, keys );
+        }
+    }
+
+    /**
+     * Appends specified keys current values to the group journal.
+     * Should only be called under the group lock.
+     *
+     * @param dir           group directory
+     * @param settingsGroup settings group
+     * @param keys          changed keys
+     * @throws IOException if journal cannot be written
+     */
+    private static void appendImpl ( final File dir, final SettingsGroup settingsGroup, final Collection<String> keys )
+            throws IOException
+    {
+        final String group = settingsGroup.getName ();
+        final File journal = getJournalFile ( dir, group );
+        final File snapshot = getSnapshotFile ( dir, group );
+
+        // Serializing records first so that serialization failures don't leave partial data
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream ();
+        final DataOutputStream out = new DataOutputStream ( bytes );
+        if ( !journal.exists () || journal.length () == 0 )
+        {
+            // New journal belongs to the current snapshot generation
+            out.writeInt ( MAGIC );
+            out.writeLong ( snapshot.isFile () ? Math.max ( 0, readGeneration ( snapshot ) ) : 0 );
+        }
+        final Map<String, Object> settings = settingsGroup.getSettings ();
+        for ( final String key : keys )
+        {
+            if ( settings.containsKey ( key ) )
+            {
+                writeRecord ( out, SET_RECORD, key, XmlUtils.toXML ( settings.get ( key ) ) );
+            }
+            else
+            {
+                writeRecord ( out, REMOVE_RECORD, key, null );
+            }
+        }
+        out.flush ();
+
+        final FileOutputStream fos = new FileOutputStream ( journal, true );
+        try
+        {
+            fos.write ( bytes.toByteArray () );
+            fos.getFD ().sync ();
+        }
+        finally
+        {
+            fos.close ();
+        }
+
+        // Compacting journal when it outgrows the snapshot
+        if ( journal.length () > Math.max ( MINIMUM_COMPACT_SIZE, snapshot.length () ) )
+        {
+            compactImpl ( dir, settingsGroup );
+        }
+    }
+
+    /**
+     * Writes all group values into a new snapshot and clears the journal.
+     *
+     * @param dir           group directory
+     * @param settingsGroup settings group
+     * @throws IOException if snapshot cannot be written
+     */
+    public static void compact ( final File dir, final SettingsGroup settingsGroup ) throws IOException
+    {
+        synchronized ( getLock ( dir, settingsGroup.getName () ) )
+        {
+            compactImpl ( dir, settingsGroup );
+        }
+    }
+
+    /**
+     * Writes all group values into a new snapshot and clears the journal.
+     * Should only be called under the group lock.
+     *
+     * @param dir           group directory
+     * @param settingsGroup settings group
+     * @throws IOException if snapshot cannot be written
+     */
+    private static void compactImpl ( final File dir, final SettingsGroup settingsGroup ) throws IOException
+    {
+        final String group = settingsGroup.getName ();
+        final File snapshot = getSnapshotFile ( dir, group );
+        final File temp = new File ( dir, group + SNAPSHOT_EXTENSION + ".tmp" );
+
+        // New snapshot generation, journal of the current generation becomes outdated as soon as snapshot is replaced
+        final long generation = ( snapshot.isFile () ? Math.max ( 0, readGeneration ( snapshot ) ) : 0 ) + 1;
+
+        // Writing new snapshot into temporary file
+        final FileOutputStream fos = new FileOutputStream ( temp );
+        try
+        {
+            final DataOutputStream out = new DataOutputStream ( new BufferedOutputStream ( fos ) );
+            out.writeInt ( MAGIC );
+            out.writeLong ( generation );
+            if ( settingsGroup.getId () != null )
+            {
+                writeRecord ( out, ID_RECORD, settingsGroup.getId (), null );
+            }
+            for ( final Map.Entry<String, Object> entry : settingsGroup.getSettings ().entrySet () )
+            {
+                writeRecord ( out, SET_RECORD, entry.getKey (), XmlUtils.toXML ( entry.getValue () ) );
+            }
+            out.flush ();
+            fos.getFD ().sync ();
+        }
+        finally
+        {
+            fos.close ();
+        }
+
+        // Replacing snapshot atomically and clearing journal
+        // Crash between these steps leaves outdated journal which is ignored on load due to generation mismatch
+        try
+        {
+            Files.move ( temp.toPath (), snapshot.toPath (), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+        }
+        catch ( IOException e )
+        {
+            Files.move ( temp.toPath (), snapshot.toPath (), StandardCopyOption.REPLACE_EXISTING );
+        }
+        final File journal = getJournalFile ( dir, group );
+        if ( journal.exists () )
+        {
+            new FileOutputStream ( journal ).close ();
+        }
+    }
+
+    /**
+     * Reads records from the specified file into settings group and returns length of the valid data.
+     *
+     * @param file          file to read
+     * @param settingsGroup settings group to read values into
+     * @return length of the valid data
+     * @throws IOException if file cannot be read
+     */
+    private static long read ( final File file, final SettingsGroup settingsGroup ) throws IOException
+    {
+        final DataInputStream in = new DataInputStream ( new BufferedInputStream ( new FileInputStream ( file ) ) );
+        try
+        {
+            long valid = 0;
+            if ( file.length () < 4 )
+            {
+                return 0;
+            }
+            final int magic = in.readInt ();
+            if ( magic == MAGIC && file.length () >= 12 )
+            {
+                in.readLong ();
+                valid += 12;
+            }
+            else
+            {
+                return 0;
+            }
+
+            final CRC32 crc = new CRC32 ();
+            while ( true )
+            {
+                // Reading record frame
+                final int length;
+                final long checksum;
+                final byte[] payload;
+                try
+                {
+                    length = in.readInt ();
+                    checksum = in.readInt () & 0xFFFFFFFFL;
+                    if ( length <= 0 || valid + 8 + length > file.length () )
+                    {
+                        return valid;
+                    }
+                    payload = new byte[ length ];
+                    in.readFully ( payload );
+                }
+                catch ( EOFException e )
+                {
+                    return valid;
+                }
+                crc.reset ();
+                crc.update ( payload );
+                if ( crc.getValue () != checksum )
+                {
+                    return valid;
+                }
+
+                // Applying record
+                final DataInputStream record = new DataInputStream ( new ByteArrayInputStream ( payload ) );
+                final byte type = record.readByte ();
+                final String key = record.readUTF ();
+                if ( type == ID_RECORD )
+                {
+                    settingsGroup.setId ( key );
+                }
+                else if ( type == SET_RECORD )
+                {
+                    final byte[] value = new byte[ record.readInt () ];
+                    record.readFully ( value );
+                    settingsGroup.put ( key, XmlUtils.fromXML ( new String ( value, "UTF-8" ) ) );
+                }
+                else if ( type == REMOVE_RECORD )
+                {
+                    settingsGroup.getSettings ().remove ( key );
+                }
+                valid += 8 + length;
+            }
+        }
+        finally
+        {
+            in.close ();
+        }
+    }
+
+    /**
+     * Returns generation written in the specified file header or {@link #NO_GENERATION} if header is missing or damaged.
+     *
+     * @param file snapshot or journal file
+     * @return generation written in the specified file header
+     * @throws IOException if file cannot be read
+     */
+    private static long readGeneration ( final File file ) throws IOException
+    {
+        final long length = file.length ();
+        if ( length < 4 )
+        {
+            return NO_GENERATION;
+        }
+        final DataInputStream in = new DataInputStream ( new FileInputStream ( file ) );
+        try
+        {
+            final int magic = in.readInt ();
+            if ( magic == MAGIC && length >= 12 )
+            {
+                return in.readLong ();
+            }
+            else
+            {
+                return NO_GENERATION;
+            }
+        }
+        finally
+        {
+            in.close ();
+        }
+    }
+
+    /**
+     * Truncates specified file to the specified length.
+     *
+     * @param file   file to truncate
+     * @param length new file length
+     * @throws IOException if file cannot be truncated
+     */
+    private static void truncate ( final File file, final long length ) throws IOException
+    {
+        final RandomAccessFile raf = new RandomAccessFile ( file, "rw" );
+        try
+        {
+            raf.setLength ( length );
+        }
+        finally
+        {
+            raf.close ();
+        }
+    }
+
+    /**
+     * Writes single checksummed record.
+     *
+     * @param out   output stream
+     * @param type  record type
+     * @param key   record key
+     * @param value record value XML, might be null
+     * @throws IOException if record cannot be written
+     */
+    private static void writeRecord ( final DataOutputStream out, final byte type, final String key, final String value )
+            throws IOException
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream ();
+        final DataOutputStream record = new DataOutputStream ( bytes );
+        record.writeByte ( type );
+        record.writeUTF ( key );
+        if ( value != null )
+        {
+            final byte[] data = value.getBytes ( "UTF-8" );
+            record.writeInt ( data.length );
+            record.write ( data );
+        }
+        record.flush ();
+
+        final byte[] payload = bytes.toByteArray ();
+        final CRC32 crc = new CRC32 ();
+        crc.update ( payload );
+        out.writeInt ( payload.length );
+        out.writeInt ( ( int ) crc.getValue () );
+        out.write ( payload );
+    }
+}
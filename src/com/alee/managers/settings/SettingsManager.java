@@ -17,6 +17,7 @@
 
 package com.alee.managers.settings;
 
+import com.alee.managers.profiler.EdtWatchdog;
 import com.alee.utils.CollectionUtils;
 import com.alee.utils.FileUtils;
 import com.alee.utils.ReflectUtils;
@@ -27,10 +28,8 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.*;
 import java.util.List;
-import java.util.Map;
 
 /**
  * This manager allows you to quickly and easily save any serializable data into settings files using simple XML format.
@@ -133,9 +132,14 @@ public final class SettingsManager
     private static WebTimer groupSaveScheduler = null;
 
     /**
-     * Delayed settings groups to save.
+     * Delayed settings groups to save and their changed keys.
      */
-    private static List<String> groupsToSaveOnChange = new ArrayList<String> ();
+    private static Map<String, Set<String>> groupsToSaveOnChange = new LinkedHashMap<String, Set<String>> ();
+
+    /**
+     * Settings groups persistence mode.
+     */
+    private static SettingsPersistence persistence = SettingsPersistence.xml;
 
     /**
      * Whether should display settings load and save exceptions or not.
@@ -899,7 +903,7 @@ public final class SettingsManager
         // Save group if needed
         if ( saveOnChange )
         {
-            delayedSaveSettingsGroup ( group );
+            delayedSaveSettingsGroup ( group, key );
         }
 
         // Inform about changes
@@ -936,9 +940,29 @@ public final class SettingsManager
     {
         SettingsGroup settingsGroup = null;
 
-        // Settings group file           
+        // Settings group file
         final File dir = new File ( getGroupFileLocation ( group ) );
-        if ( dir.exists () && dir.isDirectory () )
+        if ( persistence == SettingsPersistence.journal && dir.isDirectory () && SettingsJournal.exists ( dir, group ) )
+        {
+            // Reading SettingsGroup snapshot and journal
+            final SettingsGroup loaded = new SettingsGroup ( null, group );
+            try
+            {
+                final boolean complete = SettingsJournal.load ( dir, loaded );
+                settingsGroup = loaded;
+                groupState.put ( group, new SettingsGroupState ( complete ? ReadState.ok : ReadState.restored ) );
+            }
+            catch ( Throwable e )
+            {
+                if ( displayExceptions )
+                {
+                    System.err.println ( ERROR_PREFIX + "Unable to load settings group \"" + group + "\" due to unexpected exception:" );
+                    e.printStackTrace ();
+                }
+                groupState.put ( group, new SettingsGroupState ( ReadState.failed, e ) );
+            }
+        }
+        else if ( dir.exists () && dir.isDirectory () )
         {
             final File file = new File ( dir, group + settingsFilesExtension );
             final File dumpFile = new File ( dir, file.getName () + backupFilesExtension );
@@ -1057,7 +1081,12 @@ public final class SettingsManager
                 final File dir = new File ( getGroupFileLocation ( group ) );
 
                 // Ensure group settings directory exists and perform save
-                if ( FileUtils.ensureDirectoryExists ( dir ) )
+                if ( persistence == SettingsPersistence.journal && FileUtils.ensureDirectoryExists ( dir ) )
+                {
+                    // Writing new snapshot
+                    SettingsJournal.compact ( dir, settingsGroup );
+                }
+                else if ( FileUtils.ensureDirectoryExists ( dir ) )
                 {
                     // Settings file
                     final File file = new File ( dir, group + settingsFilesExtension );
@@ -1096,12 +1125,85 @@ public final class SettingsManager
         }
     }
 
+    /**
+     * Saves changes made in the specified settings group keys.
+     * In journal persistence mode only the specified keys are appended to the group journal, otherwise whole group is saved.
+     *
+     * @param group settings group name
+     * @param keys  changed keys
+     */
+    public static void saveSettingsGroupChanges ( final String group, final Collection<String> keys )
+    {
+        if ( persistence != SettingsPersistence.journal )
+        {
+            saveSettingsGroup ( group );
+        }
+        else if ( allowSave )
+        {
+            final SettingsGroup settingsGroup = getSettingsGroup ( group );
+            try
+            {
+                final File dir = new File ( getGroupFileLocation ( group ) );
+                if ( !FileUtils.ensureDirectoryExists ( dir ) )
+                {
+                    throw new RuntimeException ( "Cannot create settings directory: " + dir.getAbsolutePath () );
+                }
+                if ( SettingsJournal.exists ( dir, group ) )
+                {
+                    SettingsJournal.append ( dir, settingsGroup, keys );
+                }
+                else
+                {
+                    // First save in journal mode writes whole group snapshot
+                    SettingsJournal.compact ( dir, settingsGroup );
+                }
+            }
+            catch ( Throwable e )
+            {
+                if ( displayExceptions )
+                {
+                    System.err.println ( ERROR_PREFIX + "Unable to save settings group \"" + group +
+                            "\" changes due to unexpected exception:" );
+                    e.printStackTrace ();
+                }
+            }
+        }
+    }
+
+    /**
+     * Exports settings group with the specified name into XML file.
+     *
+     * @param group settings group name
+     * @param file  XML file to export settings group into
+     */
+    public static void exportSettingsGroup ( final String group, final File file )
+    {
+        XmlUtils.toXML ( getSettingsGroup ( group ), file );
+    }
+
+    /**
+     * Imports settings group from XML file, replacing loaded settings group with the same name, and saves it.
+     * Settings group imported this way has the name it was exported with.
+     *
+     * @param file XML file to import settings group from
+     * @return imported settings group
+     */
+    public static SettingsGroup importSettingsGroup ( final File file )
+    {
+        final SettingsGroup settingsGroup = XmlUtils.fromXML ( file );
+        groups.put ( settingsGroup.getName (), settingsGroup );
+        groupState.put ( settingsGroup.getName (), new SettingsGroupState ( ReadState.ok ) );
+        saveSettingsGroup ( settingsGroup );
+        return settingsGroup;
+    }
+
     /**
      * Delays settings group save or performs it immediately according to settings manager configuration.
      *
      * @param group name of the settings group to save
+     * @param key   changed key
      */
-    private static void delayedSaveSettingsGroup ( final String group )
+    private static void delayedSaveSettingsGroup ( final String group, final String key )
     {
         // Determining when we should save changes into file system
         if ( saveOnChangeDelay > 0 )
@@ -1109,11 +1211,14 @@ public final class SettingsManager
             // Delaying save
             synchronized ( saveOnChangeLock )
             {
-                // Adding group for delayed save
-                if ( !groupsToSaveOnChange.contains ( group ) )
+                // Adding group and its changed key for delayed save
+                Set<String> keys = groupsToSaveOnChange.get ( group );
+                if ( keys == null )
                 {
-                    groupsToSaveOnChange.add ( group );
+                    keys = new LinkedHashSet<String> ();
+                    groupsToSaveOnChange.put ( group, keys );
                 }
+                keys.add ( key );
 
                 // Launching scheduler if it is not yet launched
                 if ( groupSaveScheduler == null || !groupSaveScheduler.isRunning () )
@@ -1127,9 +1232,9 @@ public final class SettingsManager
                             {
                                 synchronized ( saveOnChangeLock )
                                 {
-                                    for ( final String group : groupsToSaveOnChange )
+                                    for ( final Map.Entry<String, Set<String>> entry : groupsToSaveOnChange.entrySet () )
                                     {
-                                        saveSettingsGroup ( group );
+                                        saveSettingsGroupChanges ( entry.getKey (), entry.getValue () );
                                     }
                                     groupsToSaveOnChange.clear ();
                                 }
@@ -1148,7 +1253,7 @@ public final class SettingsManager
         else
         {
             // Saving right away
-            saveSettingsGroup ( group );
+            saveSettingsGroupChanges ( group, Collections.singleton ( key ) );
         }
     }
 
@@ -1396,6 +1501,28 @@ public final class SettingsManager
         }
     }
 
+    /**
+     * Returns settings groups persistence mode.
+     *
+     * @return settings groups persistence mode
+     */
+    public static SettingsPersistence getPersistence ()
+    {
+        return persistence;
+    }
+
+    /**
+     * Sets settings groups persistence mode.
+     * In journal mode settings groups previously saved as XML files are read from those files and written as journal snapshots on the
+     * next save. XML format is still available through settings group export and import methods.
+     *
+     * @param persistence settings groups persistence mode
+     */
+    public static void setPersistence ( final SettingsPersistence persistence )
+    {
+        SettingsManager.persistence = persistence;
+    }
+
     /**
      * Returns whether should save settings right after any changes made or not.
      *
@@ -1588,7 +1715,15 @@ public final class SettingsManager
             {
                 for ( final SettingsListener listener : CollectionUtils.copy ( settingsListeners.get ( group ).get ( key ) ) )
                 {
-                    listener.settingsChanged ( group, key, newValue );
+                    final EdtWatchdog.Trace trace = EdtWatchdog.enter ( "SettingsManager", listener );
+                    try
+                    {
+                        listener.settingsChanged ( group, key, newValue );
+                    }
+                    finally
+                    {
+                        EdtWatchdog.exit ( trace );
+                    }
                 }
             }
         }
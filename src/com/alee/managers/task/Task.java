@@ -0,0 +1,491 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.alee.managers.task;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * This class represents single background task executed within one of TaskManager groups.
+ * <p/>
+ * Task is also a handle to its own execution: it can be cancelled, its state and progress can be checked and its result can be awaited.
+ * Tasks with higher priority are executed first, tasks with equal priority are executed in submission order. Tasks with the same
+ * non-null identifier are considered identical, so only one of them might be waiting in a group at a time.
+ *
+ * @param <R> task result type
+ * @author Mikle Garin
+ * @see com.alee.managers.task.TaskManager
+ * @see com.alee.managers.task.TaskGroup
+ */
+
+public abstract class Task<R> implements Comparable<Task<?>>
+{
+    /**
+     * Low task priority.
+     */
+    public static final int LOW_PRIORITY = -10;
+
+    /**
+     * Normal task priority.
+     */
+    public static final int NORMAL_PRIORITY = 0;
+
+    /**
+     * High task priority.
+     */
+    public static final int HIGH_PRIORITY = 10;
+
+    /**
+     * Task state lock.
+     */
+    protected final Object lock = new Object ();
+
+    /**
+     * Task identifier used to merge identical tasks, might be null.
+     */
+    protected final Object id;
+
+    /**
+     * Task priority.
+     */
+    protected volatile int priority;
+
+    /**
+     * Task listeners.
+     */
+    protected final List<TaskListener<R>> listeners = new ArrayList<TaskListener<R>> ( 1 );
+
+    /**
+     * Task completion latch.
+     */
+    protected final CountDownLatch done = new CountDownLatch ( 1 );
+
+    /**
+     * Task state.
+     */
+    protected volatile TaskState state = TaskState.created;
+
+    /**
+     * Task progress from 0 to 1.
+     */
+    protected volatile float progress = 0f;
+
+    /**
+     * Whether progress update is scheduled on the event dispatch thread or not.
+     */
+    protected boolean progressUpdateScheduled = false;
+
+    /**
+     * Whether task was cancelled or not.
+     */
+    protected volatile boolean cancelled = false;
+
+    /**
+     * Task result.
+     */
+    protected R result;
+
+    /**
+     * Task failure cause.
+     */
+    protected Throwable failure;
+
+    /**
+     * Group this task was submitted into.
+     */
+    protected TaskGroup group;
+
+    /**
+     * Submission sequence number within the group.
+     */
+    protected volatile long sequence;
+
+    /**
+     * Thread running this task.
+     */
+    protected Thread thread;
+
+    /**
+     * Task submission, start and finish times in nanoseconds.
+     */
+    protected long submitTime;
+    protected long startTime;
+    protected long finishTime;
+
+    /**
+     * Constructs new task with normal priority.
+     */
+    public Task ()
+    {
+        this ( null, NORMAL_PRIORITY );
+    }
+
+    /**
+     * Constructs new task.
+     *
+     * @param id       task identifier used to merge identical tasks, might be null
+     * @param priority task priority
+     */
+    public Task ( final Object id, final int priority )
+    {
+        super ();
+        this.id = id;
+        this.priority = priority;
+    }
+
+    /**
+     * Performs task work and returns its result.
+     * This method is called from the task group thread.
+     *
+     * @return task result
+     * @throws Exception if task has failed
+     */
+    protected abstract R execute () throws Exception;
+
+    /**
+     * Returns task identifier used to merge identical tasks.
+     *
+     * @return task identifier used to merge identical tasks
+     */
+    public Object getId ()
+    {
+        return id;
+    }
+
+    /**
+     * Returns task priority.
+     *
+     * @return task priority
+     */
+    public int getPriority ()
+    {
+        return priority;
+    }
+
+    /**
+     * Sets task priority.
+     * Priority of the waiting task is applied immediately.
+     *
+     * @param priority task priority
+     */
+    public void setPriority ( final int priority )
+    {
+        final TaskGroup group = getGroup ();
+        if ( group != null )
+        {
+            group.reprioritize ( this, priority );
+        }
+        else
+        {
+            this.priority = priority;
+        }
+    }
+
+    /**
+     * Returns group this task was submitted into.
+     *
+     * @return group this task was submitted into
+     */
+    public TaskGroup getGroup ()
+    {
+        synchronized ( lock )
+        {
+            return group;
+        }
+    }
+
+    /**
+     * Returns task state.
+     *
+     * @return task state
+     */
+    public TaskState getState ()
+    {
+        return state;
+    }
+
+    /**
+     * Returns whether task is finished or not.
+     *
+     * @return true if task is finished, false otherwise
+     */
+    public boolean isDone ()
+    {
+        return state == TaskState.completed || state == TaskState.failed || state == TaskState.cancelled;
+    }
+
+    /**
+     * Returns whether task was cancelled or not.
+     * Long-running tasks should check this flag periodically and stop their work once it is set.
+     *
+     * @return true if task was cancelled, false otherwise
+     */
+    public boolean isCancelled ()
+    {
+        return cancelled;
+    }
+
+    /**
+     * Cancels this task without interrupting it if it is running already.
+     *
+     * @return true if task was cancelled, false if it has finished already
+     */
+    public boolean cancel ()
+    {
+        return cancel ( false );
+    }
+
+    /**
+     * Cancels this task.
+     *
+     * @param interrupt whether running task thread should be interrupted or not
+     * @return true if task was cancelled, false if it has finished already
+     */
+    public boolean cancel ( final boolean interrupt )
+    {
+        final TaskGroup group = getGroup ();
+        if ( group != null )
+        {
+            return group.cancel ( this, interrupt );
+        }
+        else
+        {
+            synchronized ( lock )
+            {
+                if ( state != TaskState.created )
+                {
+                    return false;
+                }
+                cancelled = true;
+                state = TaskState.cancelled;
+            }
+            done.countDown ();
+            return true;
+        }
+    }
+
+    /**
+     * Returns task progress from 0 to 1.
+     *
+     * @return task progress from 0 to 1
+     */
+    public float getProgress ()
+    {
+        return progress;
+    }
+
+    /**
+     * Sets task progress and informs listeners about it on the event dispatch thread.
+     * Frequent progress updates are coalesced into a single event.
+     *
+     * @param progress task progress from 0 to 1
+     */
+    protected void setProgress ( final float progress )
+    {
+        this.progress = Math.max ( 0f, Math.min ( progress, 1f ) );
+        synchronized ( lock )
+        {
+            if ( progressUpdateScheduled || listeners.isEmpty () )
+            {
+                return;
+            }
+            progressUpdateScheduled = true;
+        }
+        SwingUtilities.invokeLater ( new Runnable ()
+        {
+            @Override
+            public void run ()
+            {
+                synchronized ( lock )
+                {
+                    progressUpdateScheduled = false;
+                }
+                for ( final TaskListener<R> listener : getListeners () )
+                {
+                    listener.progressChanged ( Task.this, Task.this.progress );
+                }
+            }
+        } );
+    }
+
+    /**
+     * Returns task result, waiting for task to finish if needed.
+     *
+     * @return task result
+     * @throws InterruptedException if current thread was interrupted while waiting
+     * @throws ExecutionException   if task has failed or was cancelled
+     */
+    public R get () throws InterruptedException, ExecutionException
+    {
+        done.await ();
+        synchronized ( lock )
+        {
+            if ( state == TaskState.completed )
+            {
+                return result;
+            }
+            else if ( state == TaskState.cancelled )
+            {
+                throw new ExecutionException ( "Task was cancelled", null );
+            }
+            else
+            {
+                throw new ExecutionException ( failure );
+            }
+        }
+    }
+
+    /**
+     * Returns time task has spent waiting in queue in milliseconds.
+     *
+     * @return time task has spent waiting in queue in milliseconds
+     */
+    public long getWaitTime ()
+    {
+        synchronized ( lock )
+        {
+            return submitTime == 0 ? 0 : ( ( startTime != 0 ? startTime : finishTime != 0 ? finishTime : System.nanoTime () ) -
+                    submitTime ) / 1000000;
+        }
+    }
+
+    /**
+     * Returns time task has spent running in milliseconds.
+     *
+     * @return time task has spent running in milliseconds
+     */
+    public long getRunTime ()
+    {
+        synchronized ( lock )
+        {
+            return startTime == 0 ? 0 : ( ( finishTime != 0 ? finishTime : System.nanoTime () ) - startTime ) / 1000000;
+        }
+    }
+
+    /**
+     * Adds task listener.
+     *
+     * @param listener task listener to add
+     */
+    public void addTaskListener ( final TaskListener<R> listener )
+    {
+        synchronized ( lock )
+        {
+            listeners.add ( listener );
+        }
+    }
+
+    /**
+     * Removes task listener.
+     *
+     * @param listener task listener to remove
+     */
+    public void removeTaskListener ( final TaskListener<R> listener )
+    {
+        synchronized ( lock )
+        {
+            listeners.remove ( listener );
+        }
+    }
+
+    /**
+     * Returns task listeners copy.
+     *
+     * @return task listeners copy
+     */
+    protected List<TaskListener<R>> getListeners ()
+    {
+        synchronized ( lock )
+        {
+            return new ArrayList<TaskListener<R>> ( listeners );
+        }
+    }
+
+    /**
+     * Informs listeners about task outcome on the event dispatch thread.
+     */
+    protected void fireFinished ()
+    {
+        final List<TaskListener<R>> listeners = getListeners ();
+        if ( listeners.isEmpty () )
+        {
+            return;
+        }
+        SwingUtilities.invokeLater ( new Runnable ()
+        {
+            @Override
+            public void run ()
+            {
+                final TaskState state;
+                final R result;
+                final Throwable failure;
+                synchronized ( lock )
+                {
+                    state = Task.this.state;
+                    result = Task.this.result;
+                    failure = Task.this.failure;
+                }
+                for ( final TaskListener<R> listener : listeners )
+                {
+                    if ( state == TaskState.completed )
+                    {
+                        listener.completed ( Task.this, result );
+                    }
+                    else if ( state == TaskState.failed )
+                    {
+                        listener.failed ( Task.this, failure );
+                    }
+                    else
+                    {
+                        listener.cancelled ( Task.this );
+                    }
+                }
+            }
+        } );
+    }
+
+    /**
+     * Compares tasks execution order.
+     * Tasks with higher priority go first, tasks with equal priority go in submission order.
+     * This method might be overridden to provide custom ordering for tasks within a group.
+     *
+     * @param task task to compare with
+     * @return negative value if this task should be executed before the specified one, positive value otherwise
+     */
+    @Override
+    public int compareTo ( final Task<?> task )
+    {
+        final int p1 = priority;
+        final int p2 = task.priority;
+        if ( p1 != p2 )
+        {
+            return p1 > p2 ? -1 : 1;
+        }
+        final long s1 = sequence;
+        final long s2 = task.sequence;
+        return s1 < s2 ? -1 : s1 > s2 ? 1 : 0;
+    }
+
+    @Override
+    public String toString ()
+    {
+        return getClass ().getSimpleName () + ( id != null ? " [" + id + "]" : "" ) + " " + state;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.alee.managers.task;
+
+/**
+ * This listener class provides empty implementations of task events.
+ *
+ * @param <R> task result type
+ * @author Mikle Garin
+ * @see com.alee.managers.task.TaskListener
+ */
+
+public abstract class TaskAdapter<R> implements TaskListener<R>
+{
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void progressChanged ( final Task<R> task, final float progress )
+    {
+        // Do nothing by default
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void completed ( final Task<R> task, final R result )
+    {
+        // Do nothing by default
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void failed ( final Task<R> task, final Throwable cause )
+    {
+        // Do nothing by default
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void cancelled ( final Task<R> task )
+    {
+        // Do nothing by default
+    }
+}
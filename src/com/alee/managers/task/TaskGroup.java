@@ -0,0 +1,663 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.alee.managers.task;
+
+import com.alee.utils.ThreadUtils;
+
+import java.util.*;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class represents named group of tasks executed on a bounded thread pool.
+ * <p/>
+ * Waiting tasks are ordered by their priority, identical waiting tasks are merged and waiting or running tasks can be cancelled.
+ * Group keeps metrics for its tasks: queue depth, active tasks, finished tasks counts and time tasks spent waiting and running.
+ * Group threads are created only when needed and terminate after a short idle time.
+ *
+ * @author Mikle Garin
+ * @see com.alee.managers.task.TaskManager
+ * @see com.alee.managers.task.Task
+ */
+
+public final class TaskGroup
+{
+    /**
+     * Idle group threads keep alive time in seconds.
+     */
+    private static final long KEEP_ALIVE_TIME = 30;
+
+    /**
+     * Group state lock.
+     */
+    private final Object lock = new Object ();
+
+    /**
+     * Group name.
+     */
+    private final String name;
+
+    /**
+     * Group executor.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Maximum threads amount, 0 if it is not limited.
+     */
+    private int threadsAmount;
+
+    /**
+     * Waiting tasks runners.
+     */
+    private final Map<Task<?>, TaskRunner> waiting = new IdentityHashMap<Task<?>, TaskRunner> ();
+
+    /**
+     * Waiting tasks mapped by their identifiers.
+     */
+    private final Map<Object, Task<?>> waitingById = new HashMap<Object, Task<?>> ();
+
+    /**
+     * Whether group was shut down or not.
+     */
+    private boolean shutdown = false;
+
+    /**
+     * Tasks submission sequence.
+     */
+    private long sequence = 0;
+
+    /**
+     * Running tasks count.
+     */
+    private int active = 0;
+
+    /**
+     * Group statistics.
+     */
+    private long submittedCount = 0;
+    private long mergedCount = 0;
+    private long completedCount = 0;
+    private long failedCount = 0;
+    private long cancelledCount = 0;
+    private long startedCount = 0;
+    private long totalWaitTime = 0;
+    private long maximumWaitTime = 0;
+    private long finishedCount = 0;
+    private long totalRunTime = 0;
+    private long maximumRunTime = 0;
+
+    /**
+     * Constructs new task group.
+     *
+     * @param name          group name
+     * @param threadsAmount maximum threads amount, 0 to disable limit
+     */
+    protected TaskGroup ( final String name, final int threadsAmount )
+    {
+        super ();
+        this.name = name;
+        this.threadsAmount = Math.max ( 0, threadsAmount );
+        final int threads = getPoolSize ( this.threadsAmount );
+        executor = new ThreadPoolExecutor ( threads, threads, KEEP_ALIVE_TIME, TimeUnit.SECONDS, new PriorityBlockingQueue<Runnable> (),
+                ThreadUtils.createThreadFactory ( "TaskManager-" + name, true ) );
+        executor.allowCoreThreadTimeOut ( true );
+    }
+
+    /**
+     * Returns group name.
+     *
+     * @return group name
+     */
+    public String getName ()
+    {
+        return name;
+    }
+
+    /**
+     * Returns maximum threads amount, 0 if it is not limited.
+     *
+     * @return maximum threads amount, 0 if it is not limited
+     */
+    public int getThreadsAmount ()
+    {
+        synchronized ( lock )
+        {
+            return threadsAmount;
+        }
+    }
+
+    /**
+     * Sets maximum threads amount.
+     * Running tasks are not affected, new limit is applied as soon as running tasks finish.
+     *
+     * @param threadsAmount maximum threads amount, 0 to disable limit
+     */
+    public void setThreadsAmount ( final int threadsAmount )
+    {
+        synchronized ( lock )
+        {
+            this.threadsAmount = Math.max ( 0, threadsAmount );
+            final int threads = getPoolSize ( this.threadsAmount );
+            if ( threads > executor.getMaximumPoolSize () )
+            {
+                executor.setMaximumPoolSize ( threads );
+                executor.setCorePoolSize ( threads );
+            }
+            else
+            {
+                executor.setCorePoolSize ( threads );
+                executor.setMaximumPoolSize ( threads );
+            }
+        }
+    }
+
+    /**
+     * Returns executor pool size for the specified threads amount.
+     *
+     * @param threadsAmount maximum threads amount, 0 if it is not limited
+     * @return executor pool size for the specified threads amount
+     */
+    private static int getPoolSize ( final int threadsAmount )
+    {
+        return threadsAmount > 0 ? threadsAmount : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Submits task for execution and returns it.
+     * If an identical task is already waiting in this group, that task is returned instead and specified task listeners are moved to it.
+     *
+     * @param task task to submit
+     * @param <R>  task result type
+     * @return submitted task or identical task which is already waiting
+     */
+    public <R> Task<R> submit ( final Task<R> task )
+    {
+        synchronized ( lock )
+        {
+            // Merging identical tasks
+            final Object id = task.getId ();
+            if ( id != null )
+            {
+                // Tasks with equal identifiers are expected to produce the same result type
+                @SuppressWarnings ( "unchecked" )
+                final Task<R> existing = ( Task<R> ) waitingById.get ( id );
+                if ( existing != null )
+                {
+                    for ( final TaskListener<R> listener : task.getListeners () )
+                    {
+                        existing.addTaskListener ( listener );
+                    }
+                    mergedCount++;
+                    return existing;
+                }
+            }
+
+            synchronized ( task.lock )
+            {
+                if ( task.state != TaskState.created )
+                {
+                    throw new IllegalArgumentException ( "Task was already submitted: " + task );
+                }
+                task.group = this;
+                task.sequence = sequence++;
+                task.submitTime = System.nanoTime ();
+                task.state = TaskState.waiting;
+            }
+            submittedCount++;
+
+            if ( shutdown )
+            {
+                // Group is not accepting tasks anymore
+                cancel ( task, false );
+                return task;
+            }
+
+            final TaskRunner runner = new TaskRunner ( task );
+            waiting.put ( task, runner );
+            if ( id != null )
+            {
+                waitingById.put ( id, task );
+            }
+            executor.execute ( runner );
+            return task;
+        }
+    }
+
+    /**
+     * Submits runnable for execution and returns its task.
+     *
+     * @param runnable runnable to execute
+     * @return runnable task
+     */
+    public Task<Object> execute ( final Runnable runnable )
+    {
+        return submit ( new Task<Object> ()
+        {
+            @Override
+            protected Object execute ()
+            {
+                runnable.run ();
+                return null;
+            }
+        } );
+    }
+
+    /**
+     * Cancels specified task.
+     *
+     * @param task      task to cancel
+     * @param interrupt whether running task thread should be interrupted or not
+     * @return true if task was cancelled, false if it has finished already
+     */
+    protected boolean cancel ( final Task<?> task, final boolean interrupt )
+    {
+        synchronized ( lock )
+        {
+            synchronized ( task.lock )
+            {
+                if ( task.group != this || task.isDone () )
+                {
+                    return false;
+                }
+                task.cancelled = true;
+                if ( task.state == TaskState.running )
+                {
+                    // Running task will be marked as cancelled once it finishes
+                    if ( interrupt && task.thread != null )
+                    {
+                        task.thread.interrupt ();
+                    }
+                    return true;
+                }
+                task.state = TaskState.cancelled;
+                task.finishTime = System.nanoTime ();
+            }
+            removeWaiting ( task );
+            cancelledCount++;
+        }
+        task.done.countDown ();
+        task.fireFinished ();
+        return true;
+    }
+
+    /**
+     * Changes priority of the specified task.
+     *
+     * @param task     task to change priority for
+     * @param priority new task priority
+     */
+    protected void reprioritize ( final Task<?> task, final int priority )
+    {
+        synchronized ( lock )
+        {
+            final TaskRunner runner = waiting.get ( task );
+            if ( runner != null && executor.remove ( runner ) )
+            {
+                // Waiting task have to be requeued to keep queue order consistent
+                task.priority = priority;
+                executor.execute ( runner );
+            }
+            else
+            {
+                task.priority = priority;
+            }
+        }
+    }
+
+    /**
+     * Removes task from waiting tasks.
+     *
+     * @param task task to remove
+     */
+    private void removeWaiting ( final Task<?> task )
+    {
+        final TaskRunner runner = waiting.remove ( task );
+        if ( runner != null )
+        {
+            executor.remove ( runner );
+        }
+        final Object id = task.getId ();
+        if ( id != null && waitingById.get ( id ) == task )
+        {
+            waitingById.remove ( id );
+        }
+    }
+
+    /**
+     * Runs specified task.
+     *
+     * @param task task to run
+     * @param <R>  task result type
+     */
+    private <R> void run ( final Task<R> task )
+    {
+        // Starting task
+        synchronized ( lock )
+        {
+            if ( task.state != TaskState.waiting )
+            {
+                return;
+            }
+            removeWaiting ( task );
+            synchronized ( task.lock )
+            {
+                task.state = TaskState.running;
+                task.thread = Thread.currentThread ();
+                task.startTime = System.nanoTime ();
+            }
+            final long waitTime = task.startTime - task.submitTime;
+            totalWaitTime += waitTime;
+            maximumWaitTime = Math.max ( maximumWaitTime, waitTime );
+            startedCount++;
+            active++;
+        }
+
+        // Executing task
+        R result = null;
+        Throwable failure = null;
+        try
+        {
+            result = task.execute ();
+        }
+        catch ( Throwable e )
+        {
+            failure = e;
+        }
+
+        // Finishing task
+        synchronized ( lock )
+        {
+            synchronized ( task.lock )
+            {
+                task.thread = null;
+                task.finishTime = System.nanoTime ();
+                if ( task.cancelled )
+                {
+                    task.state = TaskState.cancelled;
+                    cancelledCount++;
+                }
+                else if ( failure != null )
+                {
+                    task.failure = failure;
+                    task.state = TaskState.failed;
+                    failedCount++;
+                }
+                else
+                {
+                    task.result = result;
+                    task.state = TaskState.completed;
+                    completedCount++;
+                }
+            }
+            final long runTime = task.finishTime - task.startTime;
+            totalRunTime += runTime;
+            maximumRunTime = Math.max ( maximumRunTime, runTime );
+            finishedCount++;
+            active--;
+        }
+
+        // Clearing interrupted flag left by cancellation
+        Thread.interrupted ();
+
+        task.done.countDown ();
+        task.fireFinished ();
+    }
+
+    /**
+     * Cancels all waiting tasks and stops accepting new ones.
+     * Running tasks are allowed to finish.
+     */
+    protected void shutdown ()
+    {
+        final List<Task<?>> tasks;
+        synchronized ( lock )
+        {
+            shutdown = true;
+            tasks = new ArrayList<Task<?>> ( waiting.keySet () );
+        }
+        for ( final Task<?> task : tasks )
+        {
+            cancel ( task, false );
+        }
+        executor.shutdown ();
+    }
+
+    /**
+     * Returns whether group was shut down or not.
+     *
+     * @return true if group was shut down, false otherwise
+     */
+    public boolean isShutdown ()
+    {
+        synchronized ( lock )
+        {
+            return shutdown;
+        }
+    }
+
+    /**
+     * Returns amount of tasks waiting in queue.
+     *
+     * @return amount of tasks waiting in queue
+     */
+    public int getQueueDepth ()
+    {
+        synchronized ( lock )
+        {
+            return waiting.size ();
+        }
+    }
+
+    /**
+     * Returns amount of running tasks.
+     *
+     * @return amount of running tasks
+     */
+    public int getActiveCount ()
+    {
+        synchronized ( lock )
+        {
+            return active;
+        }
+    }
+
+    /**
+     * Returns amount of submitted tasks.
+     *
+     * @return amount of submitted tasks
+     */
+    public long getSubmittedCount ()
+    {
+        synchronized ( lock )
+        {
+            return submittedCount;
+        }
+    }
+
+    /**
+     * Returns amount of tasks merged into identical waiting tasks.
+     *
+     * @return amount of tasks merged into identical waiting tasks
+     */
+    public long getMergedCount ()
+    {
+        synchronized ( lock )
+        {
+            return mergedCount;
+        }
+    }
+
+    /**
+     * Returns amount of successfully completed tasks.
+     *
+     * @return amount of successfully completed tasks
+     */
+    public long getCompletedCount ()
+    {
+        synchronized ( lock )
+        {
+            return completedCount;
+        }
+    }
+
+    /**
+     * Returns amount of failed tasks.
+     *
+     * @return amount of failed tasks
+     */
+    public long getFailedCount ()
+    {
+        synchronized ( lock )
+        {
+            return failedCount;
+        }
+    }
+
+    /**
+     * Returns amount of cancelled tasks.
+     *
+     * @return amount of cancelled tasks
+     */
+    public long getCancelledCount ()
+    {
+        synchronized ( lock )
+        {
+            return cancelledCount;
+        }
+    }
+
+    /**
+     * Returns average time tasks spent waiting in queue in milliseconds.
+     *
+     * @return average time tasks spent waiting in queue in milliseconds
+     */
+    public double getAverageWaitTime ()
+    {
+        synchronized ( lock )
+        {
+            return startedCount > 0 ? totalWaitTime / 1000000.0 / startedCount : 0;
+        }
+    }
+
+    /**
+     * Returns maximum time task spent waiting in queue in milliseconds.
+     *
+     * @return maximum time task spent waiting in queue in milliseconds
+     */
+    public double getMaximumWaitTime ()
+    {
+        synchronized ( lock )
+        {
+            return maximumWaitTime / 1000000.0;
+        }
+    }
+
+    /**
+     * Returns average task run time in milliseconds.
+     *
+     * @return average task run time in milliseconds
+     */
+    public double getAverageRunTime ()
+    {
+        synchronized ( lock )
+        {
+            return finishedCount > 0 ? totalRunTime / 1000000.0 / finishedCount : 0;
+        }
+    }
+
+    /**
+     * Returns maximum task run time in milliseconds.
+     *
+     * @return maximum task run time in milliseconds
+     */
+    public double getMaximumRunTime ()
+    {
+        synchronized ( lock )
+        {
+            return maximumRunTime / 1000000.0;
+        }
+    }
+
+    /**
+     * Resets group statistics.
+     */
+    public void resetStatistics ()
+    {
+        synchronized ( lock )
+        {
+            submittedCount = 0;
+            mergedCount = 0;
+            completedCount = 0;
+            failedCount = 0;
+            cancelledCount = 0;
+            startedCount = 0;
+            totalWaitTime = 0;
+            maximumWaitTime = 0;
+            finishedCount = 0;
+            totalRunTime = 0;
+            maximumRunTime = 0;
+        }
+    }
+
+    @Override
+    public String toString ()
+    {
+        synchronized ( lock )
+        {
+            return name + " [queue: " + waiting.size () + ", active: " + active + ", completed: " + completedCount + ", failed: " +
+                    failedCount + ", cancelled: " + cancelledCount + ", merged: " + mergedCount + ", avg wait: " +
+                    String.format ( "%.2f", getAverageWaitTime () ) + "ms, avg run: " + String.format ( "%.2f", getAverageRunTime () ) +
+                    "ms]";
+        }
+    }
+
+    /**
+     * Executor runnable ordered by its task.
+     */
+    private final class TaskRunner implements Runnable, Comparable<TaskRunner>
+    {
+        /**
+         * Task to run.
+         */
+        private final Task<?> task;
+
+        /**
+         * Constructs new task runner.
+         *
+         * @param task task to run
+         */
+        private TaskRunner ( final Task<?> task )
+        {
+            super ();
+            this.task = task;
+        }
+
+        @Override
+        public void run ()
+        {
+            TaskGroup.this.run ( task );
+        }
+
+        @Override
+        public int compareTo ( final TaskRunner runner )
+        {
+            return task.compareTo ( runner.task );
+        }
+    }
+}
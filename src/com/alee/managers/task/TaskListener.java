@@ -0,0 +1,63 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.alee.managers.task;
+
+import java.util.EventListener;
+
+/**
+ * This interface allows you to track task progress and its outcome.
+ * All listener methods are called on the event dispatch thread.
+ *
+ * @param <R> task result type
+ * @author Mikle Garin
+ * @see com.alee.managers.task.Task
+ * @see com.alee.managers.task.TaskAdapter
+ */
+
+public interface TaskListener<R> extends EventListener
+{
+    /**
+     * Informs that task progress has changed.
+     *
+     * @param task     task
+     * @param progress task progress from 0 to 1
+     */
+    public void progressChanged ( Task<R> task, float progress );
+
+    /**
+     * Informs that task has completed successfully.
+     *
+     * @param task   task
+     * @param result task result
+     */
+    public void completed ( Task<R> task, R result );
+
+    /**
+     * Informs that task has failed with an exception.
+     *
+     * @param task  task
+     * @param cause failure cause
+     */
+    public void failed ( Task<R> task, Throwable cause );
+
+    /**
+     * Informs that task was cancelled.
+     *
+     * @param task task
+     */
+    public void cancelled ( Task<R> task );
+}
@@ -14,14 +14,178 @@
  * You should have received a copy of the GNU General Public License
  * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
  */
-
 package com.alee.managers.task;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
+ * This manager is the library's shared background tasks execution engine.
+ * <p/>
+ * Tasks are executed within named groups, each group has its own bounded thread pool, priority queue and metrics. Groups are created on
+ * first use with default threads amount or can be registered in advance with a specific threads amount. Task progress and outcome are
+ * reported to task listeners on the event dispatch thread.
+ *
  * @author Mikle Garin
+ * @see com.alee.managers.task.Task
+ * @see com.alee.managers.task.TaskGroup
  */
 
 public final class TaskManager
 {
-    // todo
-}
\ No newline at end of file
+    /**
+     * Default group name.
+     */
+    public static final String DEFAULT_GROUP = "default";
+
+    /**
+     * Default group threads amount.
+     */
+    public static final int DEFAULT_THREADS_AMOUNT = Math.max ( 2, Runtime.getRuntime ().availableProcessors () );
+
+    /**
+     * Registered groups.
+     */
+    private static final Map<String, TaskGroup> groups = new LinkedHashMap<String, TaskGroup> ();
+
+    /**
+     * Registers group with the specified threads amount or updates threads amount of existing group.
+     *
+     * @param name          group name
+     * @param threadsAmount maximum group threads amount, 0 to disable limit
+     * @return registered group
+     */
+    public static TaskGroup registerGroup ( final String name, final int threadsAmount )
+    {
+        synchronized ( groups )
+        {
+            TaskGroup group = groups.get ( name );
+            if ( group == null )
+            {
+                group = new TaskGroup ( name, threadsAmount );
+                groups.put ( name, group );
+            }
+            else
+            {
+                group.setThreadsAmount ( threadsAmount );
+            }
+            return group;
+        }
+    }
+
+    /**
+     * Unregisters group, cancelling all its waiting tasks.
+     * Running tasks are allowed to finish.
+     *
+     * @param name group name
+     */
+    public static void unregisterGroup ( final String name )
+    {
+        final TaskGroup group;
+        synchronized ( groups )
+        {
+            group = groups.remove ( name );
+        }
+        if ( group != null )
+        {
+            group.shutdown ();
+        }
+    }
+
+    /**
+     * Returns whether group with the specified name is registered or not.
+     *
+     * @param name group name
+     * @return true if group with the specified name is registered, false otherwise
+     */
+    public static boolean isGroupRegistered ( final String name )
+    {
+        synchronized ( groups )
+        {
+            return groups.containsKey ( name );
+        }
+    }
+
+    /**
+     * Returns group with the specified name, registering it with default threads amount if needed.
+     *
+     * @param name group name
+     * @return group with the specified name
+     */
+    public static TaskGroup getGroup ( final String name )
+    {
+        synchronized ( groups )
+        {
+            TaskGroup group = groups.get ( name );
+            if ( group == null )
+            {
+                group = new TaskGroup ( name, DEFAULT_THREADS_AMOUNT );
+                groups.put ( name, group );
+            }
+            return group;
+        }
+    }
+
+    /**
+     * Returns all registered groups.
+     *
+     * @return all registered groups
+     */
+    public static List<TaskGroup> getGroups ()
+    {
+        synchronized ( groups )
+        {
+            return new ArrayList<TaskGroup> ( groups.values () );
+        }
+    }
+
+    /**
+     * Submits task into default group.
+     *
+     * @param task task to submit
+     * @param <R>  task result type
+     * @return submitted task or identical task which is already waiting
+     */
+    public static <R> Task<R> submit ( final Task<R> task )
+    {
+        return submit ( DEFAULT_GROUP, task );
+    }
+
+    /**
+     * Submits task into the specified group.
+     *
+     * @param group group name
+     * @param task  task to submit
+     * @param <R>   task result type
+     * @return submitted task or identical task which is already waiting
+     */
+    public static <R> Task<R> submit ( final String group, final Task<R> task )
+    {
+        return getGroup ( group ).submit ( task );
+    }
+
+    /**
+     * Executes runnable in default group.
+     *
+     * @param runnable runnable to execute
+     * @return runnable task
+     */
+    public static Task<Object> execute ( final Runnable runnable )
+    {
+        return execute ( DEFAULT_GROUP, runnable );
+    }
+
+    /**
+     * Executes runnable in the specified group.
+     *
+     * @param group    group name
+     * @param runnable runnable to execute
+     * @return runnable task
+     */
+    public static Task<Object> execute ( final String group, final Runnable runnable )
+    {
+        return getGroup ( group ).execute ( runnable );
+    }
+}
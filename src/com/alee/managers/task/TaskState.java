@@ -0,0 +1,57 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.alee.managers.task;
+
+/**
+ * This enumeration represents task states.
+ *
+ * @author Mikle Garin
+ * @see com.alee.managers.task.Task
+ */
+
+public enum TaskState
+{
+    /**
+     * Task was created but not submitted yet.
+     */
+    created,
+
+    /**
+     * Task is waiting in group queue.
+     */
+    waiting,
+
+    /**
+     * Task is running.
+     */
+    running,
+
+    /**
+     * Task has completed successfully.
+     */
+    completed,
+
+    /**
+     * Task has failed with an exception.
+     */
+    failed,
+
+    /**
+     * Task was cancelled.
+     */
+    cancelled
+}
@@ -20,21 +20,21 @@ package com.alee.managers.tooltip;
 import com.alee.laf.WebFonts;
 import com.alee.laf.label.WebLabel;
 import com.alee.managers.hotkey.HotkeyManager;
+import com.alee.utils.AnimationManager;
 import com.alee.utils.CollectionUtils;
 import com.alee.utils.LafUtils;
 import com.alee.utils.SwingUtils;
 import com.alee.utils.TextUtils;
 import com.alee.utils.laf.ShapeProvider;
 import com.alee.utils.swing.AncestorAdapter;
+import com.alee.utils.swing.Animation;
+import com.alee.utils.swing.AnimationAdapter;
 import com.alee.utils.swing.FadeStateType;
-import com.alee.utils.swing.WebTimer;
 
 import javax.swing.*;
 import javax.swing.event.AncestorEvent;
 import javax.swing.event.AncestorListener;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.awt.geom.Area;
 import java.awt.geom.GeneralPath;
 import java.awt.geom.RoundRectangle2D;
@@ -88,7 +88,7 @@ public class WebCustomTooltip extends JComponent implements ShapeProvider
     // Animation variables
     private FadeStateType fadeStateType;
     private float fade = 0;
-    private WebTimer fadeTimer;
+    private Animation fadeAnimation;
 
     // Component listeners
     private AncestorListener ancestorListener;
@@ -186,12 +186,11 @@ public class WebCustomTooltip extends JComponent implements ShapeProvider
         setLayout ( new BorderLayout ( 6, 6 ) );
         add ( tooltip, BorderLayout.CENTER );
 
-        // Fade in-out timer
-        fadeTimer = new WebTimer ( "WebCustomTooltip.fade", 1000 / fadeFps );
-        fadeTimer.addActionListener ( new ActionListener ()
+        // Fade in-out animation
+        fadeAnimation = new AnimationAdapter ( this, 1000 / fadeFps )
         {
             @Override
-            public void actionPerformed ( final ActionEvent e )
+            public boolean step ()
             {
                 final float roundsCount = fadeTime / ( 1000f / fadeFps );
                 final float fadeSpeed = 1f / roundsCount;
@@ -200,12 +199,12 @@ public class WebCustomTooltip extends JComponent implements ShapeProvider
                     if ( fade < 1f )
                     {
                         fade = Math.min ( fade + fadeSpeed, 1f );
-                        WebCustomTooltip.this.repaint ();
+                        return true;
                     }
                     else
                     {
                         fireTooltipFullyShown ();
-                        fadeTimer.stop ();
+                        return false;
                     }
                 }
                 else if ( fadeStateType.equals ( FadeStateType.fadeOut ) )
@@ -213,22 +212,45 @@ public class WebCustomTooltip extends JComponent implements ShapeProvider
                     if ( fade > 0 )
                     {
                         fade = Math.max ( fade - fadeSpeed, 0f );
-                        WebCustomTooltip.this.repaint ();
+                        return true;
                     }
                     else
                     {
-                        final JComponent parent = ( JComponent ) WebCustomTooltip.this.getParent ();
-                        if ( parent != null )
-                        {
-                            final Rectangle b = WebCustomTooltip.this.getBounds ();
-                            parent.remove ( WebCustomTooltip.this );
-                            parent.repaint ( b );
-                        }
-                        fadeTimer.stop ();
+                        removeFromParent ();
+                        return false;
                     }
                 }
+                return false;
             }
-        } );
+
+            @Override
+            public void complete ()
+            {
+                if ( fadeStateType.equals ( FadeStateType.fadeIn ) )
+                {
+                    fade = 1f;
+                }
+                else if ( fadeStateType.equals ( FadeStateType.fadeOut ) )
+                {
+                    fade = 0f;
+                    removeFromParent ();
+                }
+            }
+
+            /**
+             * Removes tooltip from its parent container.
+             */
+            private void removeFromParent ()
+            {
+                final JComponent parent = ( JComponent ) WebCustomTooltip.this.getParent ();
+                if ( parent != null )
+                {
+                    final Rectangle b = WebCustomTooltip.this.getBounds ();
+                    parent.remove ( WebCustomTooltip.this );
+                    parent.repaint ( b );
+                }
+            }
+        };
         addAncestorListener ( new AncestorListener ()
         {
             @Override
@@ -244,7 +266,10 @@ public class WebCustomTooltip extends JComponent implements ShapeProvider
                 // Starting fade-in animation
                 fade = 0;
                 fadeStateType = FadeStateType.fadeIn;
-                fadeTimer.start ();
+                if ( !AnimationManager.isRegistered ( fadeAnimation ) )
+                {
+                    AnimationManager.register ( fadeAnimation );
+                }
 
                 // Informing listeners that tooltip was shown
                 fireTooltipShown ();
@@ -349,9 +374,9 @@ public class WebCustomTooltip extends JComponent implements ShapeProvider
         }
 
         fadeStateType = FadeStateType.fadeOut;
-        if ( !fadeTimer.isRunning () )
+        if ( !AnimationManager.isRegistered ( fadeAnimation ) )
         {
-            fadeTimer.start ();
+            AnimationManager.register ( fadeAnimation );
         }
     }
 
@@ -0,0 +1,400 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.alee.utils;
+
+import com.alee.laf.StyleConstants;
+import com.alee.utils.swing.Animation;
+import com.alee.utils.swing.WebTimer;
+
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This manager provides a single frame pulse for all registered animations.
+ * On each frame all animations are advanced in one pass from the Event Dispatch Thread, their dirty regions are merged per component
+ * and repainted together so that Swing can paint all animated components within a single repaint batch.
+ * <p/>
+ * Animations with components which are no longer showing are dropped and instantly completed.
+ * Pulse timer is only running while there is at least one registered animation.
+ *
+ * @author Mikle Garin
+ * @see com.alee.utils.swing.Animation
+ */
+public final class AnimationManager
+{
+    /**
+     * Maximum amount of steps performed for a single animation within one frame.
+     * Larger delays are simply dropped to avoid animation jumps after long EDT stalls.
+     */
+    public static int maxStepsPerFrame = 4;
+
+    /**
+     * Delay between frames in milliseconds.
+     */
+    private static long frameDelay = StyleConstants.fastAnimationDelay;
+
+    /**
+     * Registered animations.
+     */
+    private static final Map<Animation, AnimationData> animations = new LinkedHashMap<Animation, AnimationData> ();
+
+    /**
+     * Animations lock.
+     */
+    private static final Object lock = new Object ();
+
+    /**
+     * Reusable list of animations processed within a single frame.
+     * It is only accessed from the Event Dispatch Thread.
+     */
+    private static final List<AnimationData> frameAnimations = new ArrayList<AnimationData> ();
+
+    /**
+     * Reusable map of merged dirty regions.
+     * It is only accessed from the Event Dispatch Thread.
+     */
+    private static final Map<Component, Rectangle> dirtyRegions = new IdentityHashMap<Component, Rectangle> ();
+
+    /**
+     * Frame pulse timer.
+     */
+    private static WebTimer pulse = null;
+
+    /**
+     * Amount of performed frames.
+     */
+    private static long framesCount = 0;
+
+    /**
+     * Amount of dropped animations.
+     */
+    private static long droppedCount = 0;
+
+    /**
+     * Registers animation and starts frame pulse if it is not running yet.
+     * Registering already registered animation restarts its step timing.
+     *
+     * @param animation animation to register
+     */
+    public static void register ( final Animation animation )
+    {
+        synchronized ( lock )
+        {
+            animations.put ( animation, new AnimationData ( animation ) );
+            if ( pulse == null )
+            {
+                pulse = new WebTimer ( "AnimationManager.pulse", frameDelay, new ActionListener ()
+                {
+                    @Override
+                    public void actionPerformed ( final ActionEvent e )
+                    {
+                        performFrame ();
+                    }
+                } );
+            }
+            if ( !pulse.isRunning () )
+            {
+                pulse.setDelay ( frameDelay );
+                pulse.start ();
+            }
+        }
+    }
+
+    /**
+     * Unregisters animation.
+     * Animation won't be completed, it will simply stop at its current state.
+     *
+     * @param animation animation to unregister
+     */
+    public static void unregister ( final Animation animation )
+    {
+        if ( animation != null )
+        {
+            synchronized ( lock )
+            {
+                final AnimationData data = animations.remove ( animation );
+                if ( data != null )
+                {
+                    data.removed = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether the specified animation is registered or not.
+     *
+     * @param animation animation to check
+     * @return true if the specified animation is registered, false otherwise
+     */
+    public static boolean isRegistered ( final Animation animation )
+    {
+        if ( animation != null )
+        {
+            synchronized ( lock )
+            {
+                return animations.containsKey ( animation );
+            }
+        }
+        else
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Returns amount of registered animations.
+     *
+     * @return amount of registered animations
+     */
+    public static int getAnimationsCount ()
+    {
+        synchronized ( lock )
+        {
+            return animations.size ();
+        }
+    }
+
+    /**
+     * Returns amount of performed frames.
+     *
+     * @return amount of performed frames
+     */
+    public static long getFramesCount ()
+    {
+        synchronized ( lock )
+        {
+            return framesCount;
+        }
+    }
+
+    /**
+     * Returns amount of animations dropped because their components were not showing.
+     *
+     * @return amount of animations dropped because their components were not showing
+     */
+    public static long getDroppedCount ()
+    {
+        synchronized ( lock )
+        {
+            return droppedCount;
+        }
+    }
+
+    /**
+     * Returns delay between frames in milliseconds.
+     *
+     * @return delay between frames in milliseconds
+     */
+    public static long getFrameDelay ()
+    {
+        synchronized ( lock )
+        {
+            return frameDelay;
+        }
+    }
+
+    /**
+     * Sets delay between frames in milliseconds.
+     *
+     * @param delay delay between frames in milliseconds
+     */
+    public static void setFrameDelay ( final long delay )
+    {
+        if ( delay <= 0 )
+        {
+            throw new IllegalArgumentException ( "Invalid frame delay: " + delay );
+        }
+        synchronized ( lock )
+        {
+            frameDelay = delay;
+            if ( pulse != null )
+            {
+                pulse.setDelay ( delay );
+            }
+        }
+    }
+
+    /**
+     * Performs single frame.
+     * This method is always called from the Event Dispatch Thread.
+     */
+    private static void performFrame ()
+    {
+        // Collecting animations for this frame
+        synchronized ( lock )
+        {
+            if ( animations.size () == 0 )
+            {
+                pulse.stop ();
+                return;
+            }
+            frameAnimations.addAll ( animations.values () );
+            framesCount++;
+        }
+
+        // Advancing animations
+        final long time = System.currentTimeMillis ();
+        for ( final AnimationData data : frameAnimations )
+        {
+            // Skipping animations removed during this frame
+            if ( data.removed )
+            {
+                continue;
+            }
+
+            // Dropping animations with invisible components
+            final Animation animation = data.animation;
+            final Component component = animation.getComponent ();
+            if ( component == null || !component.isShowing () )
+            {
+                remove ( data, true );
+                animation.complete ();
+                continue;
+            }
+
+            // Performing steps which time has come
+            final long delay = Math.max ( 1, animation.getDelay () );
+            data.elapsed += time - data.lastTime;
+            data.lastTime = time;
+            int steps = 0;
+            boolean active = true;
+            while ( active && data.elapsed >= delay && !data.removed )
+            {
+                active = animation.step ();
+                data.elapsed -= delay;
+                steps++;
+                if ( steps >= maxStepsPerFrame )
+                {
+                    data.elapsed = Math.min ( data.elapsed, delay );
+                    break;
+                }
+            }
+            if ( !active )
+            {
+                remove ( data, false );
+            }
+
+            // Merging dirty regions
+            if ( steps > 0 )
+            {
+                mergeDirtyRegion ( component, animation.getDirtyRegion () );
+            }
+        }
+        frameAnimations.clear ();
+
+        // Repainting all dirty regions at once
+        for ( final Map.Entry<Component, Rectangle> entry : dirtyRegions.entrySet () )
+        {
+            final Rectangle region = entry.getValue ();
+            entry.getKey ().repaint ( region.x, region.y, region.width, region.height );
+        }
+        dirtyRegions.clear ();
+    }
+
+    /**
+     * Removes animation data.
+     *
+     * @param data    animation data
+     * @param dropped whether animation was dropped or not
+     */
+    private static void remove ( final AnimationData data, final boolean dropped )
+    {
+        synchronized ( lock )
+        {
+            data.removed = true;
+            if ( animations.get ( data.animation ) == data )
+            {
+                animations.remove ( data.animation );
+            }
+            if ( dropped )
+            {
+                droppedCount++;
+            }
+        }
+    }
+
+    /**
+     * Merges dirty region into the regions which will be repainted at the end of this frame.
+     *
+     * @param component animated component
+     * @param region    dirty region
+     */
+    private static void mergeDirtyRegion ( final Component component, final Rectangle region )
+    {
+        final Rectangle bounds = region != null ? region : new Rectangle ( 0, 0, component.getWidth (), component.getHeight () );
+        if ( bounds.isEmpty () )
+        {
+            return;
+        }
+        final Rectangle merged = dirtyRegions.get ( component );
+        if ( merged != null )
+        {
+            merged.add ( bounds );
+        }
+        else
+        {
+            dirtyRegions.put ( component, new Rectangle ( bounds ) );
+        }
+    }
+
+    /**
+     * Registered animation data.
+     */
+    private static final class AnimationData
+    {
+        /**
+         * Animation.
+         */
+        private final Animation animation;
+
+        /**
+         * Last time animation was processed.
+         */
+        private long lastTime;
+
+        /**
+         * Time passed since last performed step.
+         */
+        private long elapsed;
+
+        /**
+         * Whether animation was removed or not.
+         */
+        private volatile boolean removed;
+
+        /**
+         * Constructs new animation data.
+         *
+         * @param animation animation
+         */
+        private AnimationData ( final Animation animation )
+        {
+            super ();
+            this.animation = animation;
+            this.lastTime = System.currentTimeMillis ();
+            this.elapsed = 0;
+            this.removed = false;
+        }
+    }
+}
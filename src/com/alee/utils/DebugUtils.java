@@ -78,7 +78,19 @@ public final class DebugUtils
      */
     private static void paintDebugInfoImpl ( Graphics2D g2d )
     {
-        double ms = TimeUtils.getPassedNanoTime () / 1000000f;
+        paintTimeDebugInfo ( g2d, TimeUtils.getPassedNanoTime () );
+    }
+
+    /**
+     * Paints specified time debug information.
+     * Unlike other time debug methods this one paints information even if debug mode is disabled.
+     *
+     * @param g2d      graphics
+     * @param nanoTime time in nanoseconds
+     */
+    public static void paintTimeDebugInfo ( Graphics2D g2d, long nanoTime )
+    {
+        double ms = nanoTime / 1000000f;
         String micro = "" + StyleConstants.DEBUG_FORMAT.format ( ms );
         Rectangle cb = g2d.getClip ().getBounds ();
         Font font = g2d.getFont ();
@@ -100,6 +112,24 @@ public final class DebugUtils
         g2d.setFont ( font );
     }
 
+    /**
+     * Paints heat debug information.
+     * This will fill visible part of the component with red color which opacity depends on the specified heat.
+     *
+     * @param g2d  graphics
+     * @param c    component
+     * @param heat component heat, value between 0 and 1
+     */
+    public static void paintHeatDebugInfo ( Graphics2D g2d, JComponent c, float heat )
+    {
+        if ( heat > 0f )
+        {
+            Rectangle vr = c.getVisibleRect ();
+            g2d.setPaint ( new Color ( 255, 0, 0, Math.round ( 160 * Math.min ( heat, 1f ) ) ) );
+            g2d.fillRect ( vr.x, vr.y, vr.width, vr.height );
+        }
+    }
+
     /**
      * Paints border debug information.
      * This will display border bounds within the component.
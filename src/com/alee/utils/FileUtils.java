@@ -24,6 +24,8 @@ import com.alee.laf.GlobalConstants;
 import com.alee.laf.StyleConstants;
 import com.alee.managers.language.LanguageManager;
 import com.alee.managers.proxy.ProxyManager;
+import com.alee.utils.cache.FileAttributesCache;
+import com.alee.utils.file.FileAttributes;
 import com.alee.utils.file.FileDescription;
 import com.alee.utils.file.FileDownloadListener;
 
@@ -43,9 +45,10 @@ import java.util.*;
 /**
  * This class provides a set of utilities to work with files, file names and their extensions.
  * <p>
- * Note that methods which request information about files from the system has their own caches to improve performance.
+ * Note that methods which request information about files from the system share one file attributes cache to improve performance.
  * If you will need to clear that cache simply call the corresponding clearCache method, for example:
  * For method "isHidden" you will need to call "clearIsHiddenCache" and all cached values will be resetted.
+ * Since all those methods share one cache, clearing values of any method clears cached attributes of the file entirely.
  *
  * @author Mikle Garin
  */
@@ -103,61 +106,6 @@ public final class FileUtils
             { '/', '\n', '\r', '\t', '\0', '\f', '\"', '`', '!', '?', '*', '\\', '<', '>', '|', ':', ';', '.', ',', '%', '$', '@', '#', '^',
                     '{', '}', '[', ']', ']' };
 
-    /**
-     * Cache for "isDrive" method result.
-     */
-    private static Map<String, Boolean> isDriveCache = new HashMap<String, Boolean> ();
-
-    /**
-     * Cache for "isComputer" method result.
-     */
-    private static Map<String, Boolean> isComputerCache = new HashMap<String, Boolean> ();
-
-    /**
-     * Cache for "isCdDrive" method result.
-     */
-    private static Map<String, Boolean> isCdDriveCache = new HashMap<String, Boolean> ();
-
-    /**
-     * Cache for "isFile" method result.
-     */
-    private static Map<String, Boolean> isFileCache = new HashMap<String, Boolean> ();
-
-    /**
-     * Cache for "isDirectory" method result.
-     */
-    private static Map<String, Boolean> isDirectoryCache = new HashMap<String, Boolean> ();
-
-    /**
-     * Cache for "isHidden" method result.
-     */
-    private static Map<String, Boolean> isHiddenCache = new HashMap<String, Boolean> ();
-
-    /**
-     * Cache for "getDisplayFileName" method result.
-     */
-    private static Map<String, String> displayFileNameCache = new HashMap<String, String> ();
-
-    /**
-     * Cache for "getFileDescription" method result.
-     */
-    private static Map<String, FileDescription> fileDescriptionCache = new HashMap<String, FileDescription> ();
-
-    /**
-     * Cache for "getFileTypeDescription" method result.
-     */
-    private static Map<String, String> fileTypeDescriptionCache = new HashMap<String, String> ();
-
-    /**
-     * Cache for "getDisplayFileCreationDate" method result.
-     */
-    private static Map<String, String> displayFileCreationDateCache = new HashMap<String, String> ();
-
-    /**
-     * Cache for "getDisplayFileModificationDate" method result.
-     */
-    private static Map<String, String> displayFileModificationDateCache = new HashMap<String, String> ();
-
     /**
      * File extension icons cache lock.
      */
@@ -203,17 +151,7 @@ public final class FileUtils
      */
     public static void clearFileCaches ( final String path )
     {
-        clearDisplayFileNameCache ( path );
-        clearIsHiddenCache ( path );
-        clearIsFileCache ( path );
-        clearIsDirectoryCache ( path );
-        clearIsComputerCache ( path );
-        clearIsDriveCache ( path );
-        clearIsCdDriveCache ( path );
-        clearFileDescriptionCache ( path );
-        clearFileTypeDescriptionCache ( path );
-        clearDisplayFileCreationDateCache ( path );
-        clearDisplayFileModificationDateCache ( path );
+        FileAttributesCache.clear ( path );
     }
 
     /**
@@ -380,6 +318,7 @@ public final class FileUtils
 
     /**
      * Returns directory files array or empty array (instead of null) if no files present.
+     * Attributes of all listed files are cached in the same pass over the file system.
      *
      * @param directory  directory to look into
      * @param fileFilter file filter
@@ -387,7 +326,7 @@ public final class FileUtils
      */
     public static File[] listFiles ( final File directory, final FileFilter fileFilter )
     {
-        final File[] files = directory.listFiles ( fileFilter );
+        final File[] files = FileAttributesCache.listFiles ( directory, fileFilter );
         return files != null ? files : new File[ 0 ];
     }
 
@@ -1093,7 +1032,7 @@ public final class FileUtils
         final String name = getDisplayFileName ( file );
 
         // File or image size
-        final String size = file.isFile () ? getDisplayFileSize ( file ) + ( fileSize != null ? " (" + fileSize + ")" : "" ) : null;
+        final String size = isFile ( file ) ? getDisplayFileSize ( file ) + ( fileSize != null ? " (" + fileSize + ")" : "" ) : null;
 
         // File type description
         final String description = getFileTypeDescription ( file );
@@ -1113,8 +1052,7 @@ public final class FileUtils
      */
     public static String getDisplayFileSize ( final File file )
     {
-        // todo Cache this value
-        return getFileSizeString ( file.length () );
+        return getFileSizeString ( FileAttributesCache.get ( file ).getLength () );
     }
 
     /**
@@ -1126,8 +1064,7 @@ public final class FileUtils
      */
     public static String getDisplayFileSize ( final File file, final int digits )
     {
-        // todo Cache this value
-        return getFileSizeString ( file.length (), digits );
+        return getFileSizeString ( FileAttributesCache.get ( file ).getLength (), digits );
     }
 
     /**
@@ -2040,7 +1977,7 @@ public final class FileUtils
      */
     public static void clearIsDriveCache ()
     {
-        isDriveCache.clear ();
+        FileAttributesCache.clear ();
     }
 
     /**
@@ -2048,7 +1985,7 @@ public final class FileUtils
      */
     public static void clearIsDriveCache ( final String absolutePath )
     {
-        isDriveCache.remove ( absolutePath );
+        FileAttributesCache.clear ( absolutePath );
     }
 
     /**
@@ -2059,17 +1996,14 @@ public final class FileUtils
      */
     public static boolean isDrive ( final File file )
     {
-        final String absolutePath = file.getAbsolutePath ();
-        if ( isDriveCache.containsKey ( absolutePath ) )
+        final FileAttributes attributes = FileAttributesCache.get ( file );
+        Boolean isDrive = attributes.getDrive ();
+        if ( isDrive == null )
         {
-            return isDriveCache.get ( absolutePath );
-        }
-        else
-        {
-            final boolean isDrive = fsv.isDrive ( file );
-            isDriveCache.put ( absolutePath, isDrive );
-            return isDrive;
+            isDrive = fsv.isDrive ( file );
+            attributes.setDrive ( isDrive );
         }
+        return isDrive;
     }
 
     /**
@@ -2077,7 +2011,7 @@ public final class FileUtils
      */
     public static void clearIsComputerCache ()
     {
-        isComputerCache.clear ();
+        FileAttributesCache.clear ();
     }
 
     /**
@@ -2085,7 +2019,7 @@ public final class FileUtils
      */
     public static void clearIsComputerCache ( final String absolutePath )
     {
-        isComputerCache.remove ( absolutePath );
+        FileAttributesCache.clear ( absolutePath );
     }
 
     /**
@@ -2096,17 +2030,14 @@ public final class FileUtils
      */
     public static boolean isComputer ( final File file )
     {
-        final String absolutePath = file.getAbsolutePath ();
-        if ( isComputerCache.containsKey ( absolutePath ) )
-        {
-            return isComputerCache.get ( absolutePath );
-        }
-        else
+        final FileAttributes attributes = FileAttributesCache.get ( file );
+        Boolean isComputer = attributes.getComputer ();
+        if ( isComputer == null )
         {
-            final boolean isComputer = fsv.isComputerNode ( file );
-            isComputerCache.put ( absolutePath, isComputer );
-            return isComputer;
+            isComputer = fsv.isComputerNode ( file );
+            attributes.setComputer ( isComputer );
         }
+        return isComputer;
     }
 
     /**
@@ -2114,7 +2045,7 @@ public final class FileUtils
      */
     public static void clearIsCdDriveCache ()
     {
-        isCdDriveCache.clear ();
+        FileAttributesCache.clear ();
     }
 
     /**
@@ -2122,7 +2053,7 @@ public final class FileUtils
      */
     public static void clearIsCdDriveCache ( final String absolutePath )
     {
-        isCdDriveCache.remove ( absolutePath );
+        FileAttributesCache.clear ( absolutePath );
     }
 
     /**
@@ -2135,14 +2066,10 @@ public final class FileUtils
      */
     public static boolean isCdDrive ( final File file )
     {
-        final String absolutePath = file.getAbsolutePath ();
-        if ( isCdDriveCache.containsKey ( absolutePath ) )
+        final FileAttributes attributes = FileAttributesCache.get ( file );
+        Boolean isCdDrive = attributes.getCdDrive ();
+        if ( isCdDrive == null )
         {
-            return isCdDriveCache.get ( absolutePath );
-        }
-        else
-        {
-            final boolean isCdDrive;
             if ( file.getParent () == null )
             {
                 final String sysDes = getFileTypeDescription ( file );
@@ -2162,9 +2089,9 @@ public final class FileUtils
             {
                 isCdDrive = false;
             }
-            isCdDriveCache.put ( absolutePath, isCdDrive );
-            return isCdDrive;
+            attributes.setCdDrive ( isCdDrive );
         }
+        return isCdDrive;
     }
 
     /**
@@ -2172,7 +2099,7 @@ public final class FileUtils
      */
     public static void clearIsFileCache ()
     {
-        isFileCache.clear ();
+        FileAttributesCache.clear ();
     }
 
     /**
@@ -2180,7 +2107,7 @@ public final class FileUtils
      */
     public static void clearIsFileCache ( final String absolutePath )
     {
-        isFileCache.remove ( absolutePath );
+        FileAttributesCache.clear ( absolutePath );
     }
 
     /**
@@ -2191,20 +2118,7 @@ public final class FileUtils
      */
     public static boolean isFile ( final File file )
     {
-        if ( file == null )
-        {
-            return false;
-        }
-        else if ( isFileCache.containsKey ( file.getAbsolutePath () ) )
-        {
-            return isFileCache.get ( file.getAbsolutePath () );
-        }
-        else
-        {
-            final boolean isFile = file.isFile ();
-            isFileCache.put ( file.getAbsolutePath (), isFile );
-            return isFile;
-        }
+        return file != null && FileAttributesCache.get ( file ).isFile ();
     }
 
     /**
@@ -2212,7 +2126,7 @@ public final class FileUtils
      */
     public static void clearIsDirectoryCache ()
     {
-        isDirectoryCache.clear ();
+        FileAttributesCache.clear ();
     }
 
     /**
@@ -2220,7 +2134,7 @@ public final class FileUtils
      */
     public static void clearIsDirectoryCache ( final String absolutePath )
     {
-        isDirectoryCache.remove ( absolutePath );
+        FileAttributesCache.clear ( absolutePath );
     }
 
     /**
@@ -2231,20 +2145,7 @@ public final class FileUtils
      */
     public static boolean isDirectory ( final File file )
     {
-        if ( file == null )
-        {
-            return false;
-        }
-        else if ( isDirectoryCache.containsKey ( file.getAbsolutePath () ) )
-        {
-            return isDirectoryCache.get ( file.getAbsolutePath () );
-        }
-        else
-        {
-            final boolean isDirectory = file.isDirectory ();
-            isDirectoryCache.put ( file.getAbsolutePath (), isDirectory );
-            return isDirectory;
-        }
+        return file != null && FileAttributesCache.get ( file ).isDirectory ();
     }
 
     /**
@@ -2252,7 +2153,7 @@ public final class FileUtils
      */
     public static void clearIsHiddenCache ()
     {
-        isHiddenCache.clear ();
+        FileAttributesCache.clear ();
     }
 
     /**
@@ -2260,7 +2161,7 @@ public final class FileUtils
      */
     public static void clearIsHiddenCache ( final String absolutePath )
     {
-        isHiddenCache.remove ( absolutePath );
+        FileAttributesCache.clear ( absolutePath );
     }
 
     /**
@@ -2269,23 +2170,9 @@ public final class FileUtils
      * @param file file to process
      * @return true if the specified file is hidden, false otherwise
      */
-    public static boolean isHidden ( File file )
+    public static boolean isHidden ( final File file )
     {
-        if ( file == null )
-        {
-            return false;
-        }
-        else if ( isHiddenCache.containsKey ( file.getAbsolutePath () ) )
-        {
-            return isHiddenCache.get ( file.getAbsolutePath () );
-        }
-        else
-        {
-            file = file.getAbsoluteFile ();
-            final boolean isHidden = file.getParentFile () != null && file.isHidden ();
-            isHiddenCache.put ( file.getAbsolutePath (), isHidden );
-            return isHidden;
-        }
+        return file != null && FileAttributesCache.get ( file ).isHidden ();
     }
 
     /**
@@ -2293,7 +2180,7 @@ public final class FileUtils
      */
     public static void clearFileDescriptionCache ()
     {
-        fileDescriptionCache.clear ();
+        FileAttributesCache.clear ();
     }
 
     /**
@@ -2301,7 +2188,7 @@ public final class FileUtils
      */
     public static void clearFileDescriptionCache ( final String absolutePath )
     {
-        fileDescriptionCache.remove ( absolutePath );
+        FileAttributesCache.clear ( absolutePath );
     }
 
     /**
@@ -2313,16 +2200,14 @@ public final class FileUtils
      */
     public static FileDescription getFileDescription ( final File file, final String fileSize )
     {
-        if ( fileDescriptionCache.containsKey ( file.getAbsolutePath () ) )
+        final FileAttributes attributes = FileAttributesCache.get ( file );
+        FileDescription fileDescription = attributes.getDescription ();
+        if ( fileDescription == null )
         {
-            return fileDescriptionCache.get ( file.getAbsolutePath () );
-        }
-        else
-        {
-            final FileDescription fileDescription = createFileDescription ( file, fileSize );
-            fileDescriptionCache.put ( file.getAbsolutePath (), fileDescription );
-            return fileDescription;
+            fileDescription = createFileDescription ( file, fileSize );
+            attributes.setDescription ( fileDescription );
         }
+        return fileDescription;
     }
 
     /**
@@ -2330,7 +2215,7 @@ public final class FileUtils
      */
     public static void clearDisplayFileNameCache ()
     {
-        displayFileNameCache.clear ();
+        FileAttributesCache.clear ();
     }
 
     /**
@@ -2338,7 +2223,7 @@ public final class FileUtils
      */
     public static void clearDisplayFileNameCache ( final String absolutePath )
     {
-        displayFileNameCache.remove ( absolutePath );
+        FileAttributesCache.clear ( absolutePath );
     }
 
     /**
@@ -2349,21 +2234,18 @@ public final class FileUtils
      */
     public static String getDisplayFileName ( final File file )
     {
-        final String absolutePath = file.getAbsolutePath ();
-        if ( displayFileNameCache.containsKey ( absolutePath ) )
-        {
-            return displayFileNameCache.get ( absolutePath );
-        }
-        else
+        final FileAttributes attributes = FileAttributesCache.get ( file );
+        String name = attributes.getDisplayName ();
+        if ( name == null )
         {
-            String name = fsv.getSystemDisplayName ( file );
+            name = fsv.getSystemDisplayName ( file );
             if ( name == null || name.trim ().equals ( "" ) )
             {
                 name = getFileTypeDescription ( file );
             }
-            displayFileNameCache.put ( absolutePath, name );
-            return name;
+            attributes.setDisplayName ( name );
         }
+        return name;
     }
 
     /**
@@ -2371,7 +2253,7 @@ public final class FileUtils
      */
     public static void clearDisplayFileCreationDateCache ()
     {
-        displayFileCreationDateCache.clear ();
+        FileAttributesCache.clear ();
     }
 
     /**
@@ -2379,28 +2261,25 @@ public final class FileUtils
      */
     public static void clearDisplayFileCreationDateCache ( final String absolutePath )
     {
-        displayFileCreationDateCache.remove ( absolutePath );
+        FileAttributesCache.clear ( absolutePath );
     }
 
     /**
-     * Returns file modification date to display.
+     * Returns file creation date to display.
      *
      * @param file file to process
-     * @return file modification date to display
+     * @return file creation date to display
      */
     public static String getDisplayFileCreationDate ( final File file )
     {
-        final String absolutePath = file.getAbsolutePath ();
-        if ( displayFileCreationDateCache.containsKey ( absolutePath ) )
+        final FileAttributes attributes = FileAttributesCache.get ( file );
+        String date = attributes.getDisplayCreationDate ();
+        if ( date == null )
         {
-            return displayFileCreationDateCache.get ( absolutePath );
-        }
-        else
-        {
-            final String date = sdf.format ( new Date ( file.lastModified () ) );
-            displayFileCreationDateCache.put ( absolutePath, date );
-            return date;
+            date = formatDate ( attributes.getCreationTime () );
+            attributes.setDisplayCreationDate ( date );
         }
+        return date;
     }
 
     /**
@@ -2408,7 +2287,7 @@ public final class FileUtils
      */
     public static void clearDisplayFileModificationDateCache ()
     {
-        displayFileModificationDateCache.clear ();
+        FileAttributesCache.clear ();
     }
 
     /**
@@ -2416,7 +2295,7 @@ public final class FileUtils
      */
     public static void clearDisplayFileModificationDateCache ( final String absolutePath )
     {
-        displayFileModificationDateCache.remove ( absolutePath );
+        FileAttributesCache.clear ( absolutePath );
     }
 
     /**
@@ -2427,16 +2306,27 @@ public final class FileUtils
      */
     public static String getDisplayFileModificationDate ( final File file )
     {
-        final String absolutePath = file.getAbsolutePath ();
-        if ( displayFileModificationDateCache.containsKey ( absolutePath ) )
+        final FileAttributes attributes = FileAttributesCache.get ( file );
+        String date = attributes.getDisplayModificationDate ();
+        if ( date == null )
         {
-            return displayFileModificationDateCache.get ( absolutePath );
+            date = formatDate ( attributes.getLastModified () );
+            attributes.setDisplayModificationDate ( date );
         }
-        else
+        return date;
+    }
+
+    /**
+     * Returns date formatted for display.
+     *
+     * @param time time to format
+     * @return date formatted for display
+     */
+    private static String formatDate ( final long time )
+    {
+        synchronized ( sdf )
         {
-            final String date = sdf.format ( new Date ( file.lastModified () ) );
-            displayFileModificationDateCache.put ( absolutePath, date );
-            return date;
+            return sdf.format ( new Date ( time ) );
         }
     }
 
@@ -2445,7 +2335,7 @@ public final class FileUtils
      */
     public static void clearFileTypeDescriptionCache ()
     {
-        fileTypeDescriptionCache.clear ();
+        FileAttributesCache.clear ();
     }
 
     /**
@@ -2453,7 +2343,7 @@ public final class FileUtils
      */
     public static void clearFileTypeDescriptionCache ( final String absolutePath )
     {
-        fileTypeDescriptionCache.remove ( absolutePath );
+        FileAttributesCache.clear ( absolutePath );
     }
 
     /**
@@ -2470,17 +2360,16 @@ public final class FileUtils
         }
         else
         {
-            final String absolutePath = file.getAbsolutePath ();
-            if ( fileTypeDescriptionCache.containsKey ( absolutePath ) )
-            {
-                return fileTypeDescriptionCache.get ( absolutePath );
-            }
-            else
+            final FileAttributes attributes = FileAttributesCache.get ( file );
+            String description = attributes.getTypeDescription ();
+            if ( description == null )
             {
-                final String description = fsv.getSystemTypeDescription ( file );
-                fileTypeDescriptionCache.put ( absolutePath, description );
-                return description;
+                // Missing description is kept as empty one to avoid requesting it again
+                final String sysDes = fsv.getSystemTypeDescription ( file );
+                description = sysDes != null ? sysDes : "";
+                attributes.setTypeDescription ( description );
             }
+            return description;
         }
     }
 
@@ -49,7 +49,22 @@ public final class ImageFilterUtils
     public static BufferedImage applyBoxBlurFilter ( final BufferedImage src, final BufferedImage dst, final int hRadius, final int vRadius,
                                                      final int iterations )
     {
-        return new BoxBlurFilter ( hRadius, vRadius, iterations ).filter ( src, dst );
+        return applyBoxBlurFilter ( src, dst, hRadius, vRadius, iterations, false );
+    }
+
+    public static BufferedImage applyBoxBlurFilter ( final Image src, final Image dst, final int hRadius, final int vRadius,
+                                                     final int iterations, final boolean parallel )
+    {
+        return applyBoxBlurFilter ( ImageUtils.getBufferedImage ( src ), ImageUtils.getBufferedImage ( dst ), hRadius, vRadius,
+                iterations, parallel );
+    }
+
+    public static BufferedImage applyBoxBlurFilter ( final BufferedImage src, final BufferedImage dst, final int hRadius, final int vRadius,
+                                                     final int iterations, final boolean parallel )
+    {
+        final BoxBlurFilter filter = new BoxBlurFilter ( hRadius, vRadius, iterations );
+        filter.setParallel ( parallel );
+        return filter.filter ( src, dst );
     }
 
     /**
@@ -79,7 +94,20 @@ public final class ImageFilterUtils
 
     public static BufferedImage applyGaussianFilter ( final BufferedImage src, final BufferedImage dst, final float radius )
     {
-        return new GaussianFilter ( radius ).filter ( src, dst );
+        return applyGaussianFilter ( src, dst, radius, false );
+    }
+
+    public static BufferedImage applyGaussianFilter ( final Image src, final Image dst, final float radius, final boolean parallel )
+    {
+        return applyGaussianFilter ( ImageUtils.getBufferedImage ( src ), ImageUtils.getBufferedImage ( dst ), radius, parallel );
+    }
+
+    public static BufferedImage applyGaussianFilter ( final BufferedImage src, final BufferedImage dst, final float radius,
+                                                      final boolean parallel )
+    {
+        final GaussianFilter filter = new GaussianFilter ( radius );
+        filter.setParallel ( parallel );
+        return filter.filter ( src, dst );
     }
 
     /**
@@ -144,6 +172,19 @@ public final class ImageFilterUtils
 
     public static BufferedImage applyOpacityFilter ( final BufferedImage src, final BufferedImage dst, final int opacity )
     {
-        return new OpacityFilter ( opacity ).filter ( src, dst );
+        return applyOpacityFilter ( src, dst, opacity, false );
+    }
+
+    public static BufferedImage applyOpacityFilter ( final Image src, final Image dst, final int opacity, final boolean parallel )
+    {
+        return applyOpacityFilter ( ImageUtils.getBufferedImage ( src ), ImageUtils.getBufferedImage ( dst ), opacity, parallel );
+    }
+
+    public static BufferedImage applyOpacityFilter ( final BufferedImage src, final BufferedImage dst, final int opacity,
+                                                     final boolean parallel )
+    {
+        final OpacityFilter filter = new OpacityFilter ( opacity );
+        filter.setParallel ( parallel );
+        return filter.filter ( src, dst );
     }
 }
@@ -20,6 +20,8 @@ package com.alee.utils;
 import com.alee.graphics.filters.ShadowFilter;
 import com.alee.laf.GlobalConstants;
 import com.alee.laf.StyleConstants;
+import com.alee.utils.cache.EvictionPolicy;
+import com.alee.utils.cache.ImageCache;
 import com.mortennobel.imagescaling.ResampleOp;
 
 import javax.imageio.ImageIO;
@@ -33,9 +35,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * User: mgarin Date: 05.07.11 Time: 13:22
@@ -271,7 +271,11 @@ public final class ImageUtils
      * Merges few images into single one
      */
 
-    private static Map<String, ImageIcon> mergedIconsCache = new HashMap<String, ImageIcon> ();
+    /**
+     * Merged icons cache.
+     */
+    private static final ImageCache<ImageIcon> mergedIconsCache =
+            new ImageCache<ImageIcon> ( "mergedIcons", 16 * 1024 * 1024, EvictionPolicy.leastRecentlyUsed, false );
 
     public static void clearMergedIconsCache ()
     {
@@ -286,9 +290,10 @@ public final class ImageUtils
     public static ImageIcon mergeIcons ( final String key, final List<ImageIcon> icons )
     {
         // Icon is cached already
-        if ( key != null && mergedIconsCache.containsKey ( key ) )
+        final ImageIcon cached = key != null ? mergedIconsCache.get ( key ) : null;
+        if ( cached != null )
         {
-            return mergedIconsCache.get ( key );
+            return cached;
         }
 
         // No icons given
@@ -326,9 +331,10 @@ public final class ImageUtils
     public static ImageIcon mergeIcons ( final String key, final ImageIcon... icons )
     {
         // Icon is cached already
-        if ( key != null && mergedIconsCache.containsKey ( key ) )
+        final ImageIcon cached = key != null ? mergedIconsCache.get ( key ) : null;
+        if ( cached != null )
         {
-            return mergedIconsCache.get ( key );
+            return cached;
         }
 
         // No icons given
@@ -358,7 +364,11 @@ public final class ImageUtils
         return icon;
     }
 
-    private static Map<String, BufferedImage> mergedImagesCache = new HashMap<String, BufferedImage> ();
+    /**
+     * Merged images cache.
+     */
+    private static final ImageCache<BufferedImage> mergedImagesCache =
+            new ImageCache<BufferedImage> ( "mergedImages", 16 * 1024 * 1024, EvictionPolicy.leastRecentlyUsed, false );
 
     public static void clearMergedImagesCache ()
     {
@@ -373,9 +383,10 @@ public final class ImageUtils
     public static BufferedImage mergeImages ( final String key, final Image... images )
     {
         // Image is cached already
-        if ( key != null && mergedImagesCache.containsKey ( key ) )
+        final BufferedImage cached = key != null ? mergedImagesCache.get ( key ) : null;
+        if ( cached != null )
         {
-            return mergedImagesCache.get ( key );
+            return cached;
         }
 
         // No images given
@@ -726,20 +737,12 @@ public final class ImageUtils
 
     public static ImageIcon createThumbnailIcon ( final String src, final int size )
     {
-        // Retrieving image to create thumbnail from
-        final ImageIcon icon = getImageIcon ( src );
-        if ( icon != null )
+        if ( src != null && !src.trim ().equals ( "" ) )
         {
-            // Creating and caching thumbnail
-            final ImageIcon imageIcon = createPreviewIcon ( icon.getImage (), size );
-
-            // Saving image size
-            if ( imageIcon != null )
-            {
-                imageIcon.setDescription ( icon.getIconWidth () + "x" + icon.getIconHeight () );
-            }
-
-            return imageIcon;
+            // Reading subsampled image or its embedded thumbnail without caching full-size image
+            // Thumbnail description contains original image size read from the image header
+            final File file = new File ( src );
+            return file.exists () ? ThumbnailUtils.createThumbnailIcon ( file, size ) : new ImageIcon ();
         }
         else
         {
@@ -851,11 +854,16 @@ public final class ImageUtils
      * Image read methods
      */
 
-    private static Map<String, ImageIcon> iconsCache = new HashMap<String, ImageIcon> ();
+    /**
+     * Loaded icons cache.
+     * Icons are softly referenced so that they can be reclaimed under memory pressure before the limit is reached.
+     */
+    private static final ImageCache<ImageIcon> iconsCache =
+            new ImageCache<ImageIcon> ( "icons", 64 * 1024 * 1024, EvictionPolicy.leastFrequentlyUsed, true );
 
     public static boolean isImageCached ( final String src )
     {
-        return iconsCache.containsKey ( src ) && iconsCache.get ( src ) != null;
+        return iconsCache.contains ( src );
     }
 
     public static void setImageCache ( final String src, final ImageIcon imageIcon )
@@ -870,13 +878,10 @@ public final class ImageUtils
 
     public static void clearImageCache ( final String src )
     {
-        if ( iconsCache.size () > 0 && iconsCache.containsKey ( src ) )
+        final ImageIcon imageIcon = iconsCache.remove ( src );
+        if ( imageIcon != null && imageIcon.getImage () != null )
         {
-            if ( iconsCache.get ( src ) != null && iconsCache.get ( src ).getImage () != null )
-            {
-                iconsCache.get ( src ).getImage ().flush ();
-            }
-            iconsCache.remove ( src );
+            imageIcon.getImage ().flush ();
         }
     }
 
@@ -899,30 +904,16 @@ public final class ImageUtils
     {
         if ( src != null && !src.trim ().equals ( "" ) )
         {
-            final ImageIcon imageIcon;
-            if ( useCache && iconsCache.containsKey ( src ) )
-            {
-                imageIcon = iconsCache.get ( src );
-                if ( imageIcon != null )
-                {
-                    return imageIcon;
-                }
-                else
-                {
-                    // todo This might cause performance issues
-                    iconsCache.remove ( src );
-                    return getImageIcon ( src, useCache );
-                }
-            }
-            else
+            ImageIcon imageIcon = useCache ? iconsCache.get ( src ) : null;
+            if ( imageIcon == null )
             {
                 imageIcon = createImageIcon ( src );
                 if ( useCache )
                 {
                     iconsCache.put ( src, imageIcon );
                 }
-                return imageIcon;
             }
+            return imageIcon;
         }
         else
         {
@@ -959,30 +950,16 @@ public final class ImageUtils
         if ( resource != null )
         {
             final String key = resource.toString ();
-            final ImageIcon imageIcon;
-            if ( useCache && iconsCache.containsKey ( key ) )
-            {
-                imageIcon = iconsCache.get ( key );
-                if ( imageIcon != null )
-                {
-                    return imageIcon;
-                }
-                else
-                {
-                    // todo This might cause performance issues
-                    iconsCache.remove ( key );
-                    return getImageIcon ( key, useCache );
-                }
-            }
-            else
+            ImageIcon imageIcon = useCache ? iconsCache.get ( key ) : null;
+            if ( imageIcon == null )
             {
                 imageIcon = new ImageIcon ( resource );
                 if ( useCache )
                 {
                     iconsCache.put ( key, imageIcon );
                 }
-                return imageIcon;
             }
+            return imageIcon;
         }
         else
         {
@@ -1105,35 +1082,39 @@ public final class ImageUtils
      * Scaled preview creation
      */
 
-    private static final Map<String, ImageIcon> sizedPreviewCache = new HashMap<String, ImageIcon> ();
+    /**
+     * Sized image previews cache.
+     */
+    private static final ImageCache<ImageIcon> sizedPreviewCache =
+            new ImageCache<ImageIcon> ( "sizedPreviews", 32 * 1024 * 1024, EvictionPolicy.leastRecentlyUsed, true );
 
     public static ImageIcon getSizedImagePreview ( final String src, final int length, final boolean drawBorder )
     {
-        if ( sizedPreviewCache.containsKey ( length + IMAGE_CACHE_SEPARATOR + src ) )
-        {
-            return sizedPreviewCache.get ( length + IMAGE_CACHE_SEPARATOR + src );
-        }
-        else
+        final String key = length + IMAGE_CACHE_SEPARATOR + src;
+        ImageIcon sized = sizedPreviewCache.get ( key );
+        if ( sized == null )
         {
             final ImageIcon icon = createThumbnailIcon ( src, length );
-            final ImageIcon sized = createSizedImagePreview ( icon, length, drawBorder );
-            sizedPreviewCache.put ( length + IMAGE_CACHE_SEPARATOR + src, sized );
-            return sized;
+            sized = createSizedImagePreview ( icon, length, drawBorder );
+            sizedPreviewCache.put ( key, sized );
         }
+        return sized;
     }
 
     public static ImageIcon getSizedImagePreview ( final String id, final ImageIcon icon, final int length, final boolean drawBorder )
     {
-        if ( sizedPreviewCache.containsKey ( id ) )
-        {
-            return sizedPreviewCache.get ( id );
-        }
-        else
+        ImageIcon sized = sizedPreviewCache.get ( id );
+        if ( sized == null )
         {
-            final ImageIcon sized = createSizedImagePreview ( icon, length, drawBorder );
+            sized = createSizedImagePreview ( icon, length, drawBorder );
             sizedPreviewCache.put ( id, sized );
-            return sized;
         }
+        return sized;
+    }
+
+    public static void clearSizedPreviewCache ()
+    {
+        sizedPreviewCache.clear ();
     }
 
     public static ImageIcon createSizedImagePreview ( final ImageIcon icon, int length, final boolean drawBorder )
@@ -1168,24 +1149,31 @@ public final class ImageUtils
      * Creates disabled image copy
      */
 
-    private static Map<String, ImageIcon> grayscaleCache = new HashMap<String, ImageIcon> ();
+    /**
+     * Disabled icon copies cache.
+     */
+    private static final ImageCache<ImageIcon> grayscaleCache =
+            new ImageCache<ImageIcon> ( "disabledCopies", 16 * 1024 * 1024, EvictionPolicy.leastFrequentlyUsed, false );
 
     public static void clearDisabledCopyCache ( final String id )
     {
         grayscaleCache.remove ( id );
     }
 
+    public static void clearDisabledCopiesCache ()
+    {
+        grayscaleCache.clear ();
+    }
+
     public static ImageIcon getDisabledCopy ( final String key, final ImageIcon imageIcon )
     {
-        if ( grayscaleCache.containsKey ( key ) )
-        {
-            return grayscaleCache.get ( key );
-        }
-        else
+        ImageIcon disabled = grayscaleCache.get ( key );
+        if ( disabled == null )
         {
-            grayscaleCache.put ( key, createDisabledCopy ( imageIcon ) );
-            return grayscaleCache.get ( key );
+            disabled = createDisabledCopy ( imageIcon );
+            grayscaleCache.put ( key, disabled );
         }
+        return disabled;
     }
 
     public static ImageIcon createDisabledCopy ( final ImageIcon imageIcon )
@@ -1229,19 +1217,31 @@ public final class ImageUtils
      * Creating partially transparent ImageIcon
      */
 
-    private static Map<String, ImageIcon> trasparentCache = new HashMap<String, ImageIcon> ();
+    /**
+     * Transparent icon copies cache.
+     */
+    private static final ImageCache<ImageIcon> trasparentCache =
+            new ImageCache<ImageIcon> ( "transparentCopies", 16 * 1024 * 1024, EvictionPolicy.leastFrequentlyUsed, false );
+
+    public static void clearTransparentCopyCache ( final String id )
+    {
+        trasparentCache.remove ( id );
+    }
+
+    public static void clearTransparentCopiesCache ()
+    {
+        trasparentCache.clear ();
+    }
 
     public static ImageIcon getTransparentCopy ( final String id, final ImageIcon imageIcon, final float trasparency )
     {
-        if ( trasparentCache.containsKey ( id ) )
-        {
-            return trasparentCache.get ( id );
-        }
-        else
+        ImageIcon transparent = trasparentCache.get ( id );
+        if ( transparent == null )
         {
-            trasparentCache.put ( id, createTransparentCopy ( imageIcon, trasparency ) );
-            return trasparentCache.get ( id );
+            transparent = createTransparentCopy ( imageIcon, trasparency );
+            trasparentCache.put ( id, transparent );
         }
+        return transparent;
     }
 
     public static ImageIcon createTransparentCopy ( final ImageIcon imageIcon, final float trasparency )
@@ -933,10 +933,37 @@ public final class LafUtils
         drawShade ( g2d, shape, StyleConstants.shadeType, shadeColor, width, clip, round );
     }
 
-    public static void drawShade ( final Graphics2D g2d, final Shape shape, final ShadeType shadeType, final Color shadeColor, int width,
-                                   final Shape clip, final boolean round )
+    public static void drawShade ( final Graphics2D g2d, final Shape shape, final ShadeType shadeType, final Color shadeColor,
+                                   final int width, final Shape clip, final boolean round )
+    {
+        // Ignoring shade with width less than 2
+        if ( width <= 1 )
+        {
+            return;
+        }
+
+        // Painting cached shade image if possible
+        if ( !ShadeCache.paintShade ( g2d, shape, shadeType, shadeColor, width, clip, round ) )
+        {
+            drawUncachedShade ( g2d, shape, shadeType, shadeColor, width, clip, round );
+        }
+    }
+
+    /**
+     * Draws shade without using ShadeCache.
+     *
+     * @param g2d        graphics context
+     * @param shape      shade shape
+     * @param shadeType  shade type
+     * @param shadeColor shade color, null to use current graphics paint
+     * @param width      shade width
+     * @param clip       shade clip, null to clip out shade shape
+     * @param round      whether shade corners are round or not
+     */
+    public static void drawUncachedShade ( final Graphics2D g2d, final Shape shape, final ShadeType shadeType, final Color shadeColor,
+                                           int width, final Shape clip, final boolean round )
     {
-        // Ignoring shade with width less than 2 
+        // Ignoring shade with width less than 2
         if ( width <= 1 )
         {
             return;
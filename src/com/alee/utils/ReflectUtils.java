@@ -24,6 +24,7 @@ import com.alee.utils.reflection.JarStructure;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -32,7 +33,11 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.security.CodeSource;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -45,6 +50,24 @@ import java.util.zip.ZipInputStream;
 
 public final class ReflectUtils
 {
+    /**
+     * Marker for cached negative method resolution results.
+     */
+    private static final Object NO_METHOD = new Object ();
+
+    /**
+     * Resolved methods by method names and argument types cached for each class.
+     * ClassValue stores cached methods along with the class itself so class loaders are not held by this cache.
+     */
+    private static final ClassValue<Map<MethodKey, Object>> methodsCache = new ClassValue<Map<MethodKey, Object>> ()
+    {
+        @Override
+        protected Map<MethodKey, Object> computeValue ( final Class<?> type )
+        {
+            return new ConcurrentHashMap<MethodKey, Object> ( 4 );
+        }
+    };
+
     /**
      * Returns class for the specified canonical name.
      *
@@ -686,7 +709,9 @@ public final class ReflectUtils
     {
         try
         {
-            return callStaticMethod ( theClass, methodName, arguments );
+            // Missing method is checked without exception creation since it is quite expensive
+            final Method method = resolveMethod ( theClass, methodName, getClassTypes ( arguments ) );
+            return method != null ? ( T ) method.invoke ( null, arguments ) : null;
         }
         catch ( final Throwable e )
         {
@@ -709,45 +734,7 @@ public final class ReflectUtils
     public static <T> T callStaticMethod ( final Class theClass, final String methodName, final Object... arguments )
             throws NoSuchMethodException, InvocationTargetException, IllegalAccessException
     {
-        // todo Methods priority check (by super types)
-        // todo For now some method with [Object] arg might be used instead of method with [String]
-        if ( arguments.length == 0 )
-        {
-            // Calling simple method w/o arguments
-            return ( T ) theClass.getMethod ( methodName ).invoke ( null );
-        }
-        else
-        {
-            // Searching for more complex method
-            final Class[] types = getClassTypes ( arguments );
-            for ( final Method method : theClass.getMethods () )
-            {
-                // Checking method name
-                if ( method.getName ().equals ( methodName ) )
-                {
-                    // Checking method arguments count
-                    final Class<?>[] mt = method.getParameterTypes ();
-                    if ( mt.length == types.length )
-                    {
-                        // Checking that arguments fit
-                        boolean fits = true;
-                        for ( int i = 0; i < mt.length; i++ )
-                        {
-                            if ( !isAssignable ( mt[ i ], types[ i ] ) )
-                            {
-                                fits = false;
-                                break;
-                            }
-                        }
-                        if ( fits )
-                        {
-                            return ( T ) method.invoke ( null, arguments );
-                        }
-                    }
-                }
-            }
-            throw new NoSuchMethodException ( theClass.getName () + "." + methodName + argumentTypesToString ( types ) );
-        }
+        return ( T ) getMethod ( theClass, methodName, getClassTypes ( arguments ) ).invoke ( null, arguments );
     }
 
     /**
@@ -846,7 +833,9 @@ public final class ReflectUtils
     {
         try
         {
-            return callMethod ( object, methodName, arguments );
+            // Missing method is checked without exception creation since it is quite expensive
+            final Method method = resolveMethod ( object.getClass (), methodName, getClassTypes ( arguments ) );
+            return method != null ? ( T ) method.invoke ( object, arguments ) : null;
         }
         catch ( final Throwable e )
         {
@@ -867,19 +856,100 @@ public final class ReflectUtils
      */
     public static <T> T callMethod ( final Object object, final String methodName, final Object... arguments )
             throws NoSuchMethodException, InvocationTargetException, IllegalAccessException
+    {
+        return ( T ) getMethod ( object.getClass (), methodName, getClassTypes ( arguments ) ).invoke ( object, arguments );
+    }
+
+    /**
+     * Returns public method which can be called with arguments of the specified types.
+     * Resolved methods are cached along with negative results so repeated lookups do not scan class methods again.
+     *
+     * @param theClass   class to process
+     * @param methodName method name
+     * @param types      argument types, null type fits any non-primitive parameter
+     * @return public method which can be called with arguments of the specified types
+     * @throws NoSuchMethodException
+     */
+    public static Method getMethod ( final Class theClass, final String methodName, final Class... types ) throws NoSuchMethodException
+    {
+        final Method method = resolveMethod ( theClass, methodName, types );
+        if ( method == null )
+        {
+            throw new NoSuchMethodException ( theClass.getName () + "." + methodName + argumentTypesToString ( types ) );
+        }
+        return method;
+    }
+
+    /**
+     * Returns cached or newly resolved public method which can be called with arguments of the specified types.
+     * Returns null if there is no such method, that result is also cached.
+     *
+     * @param theClass   class to process
+     * @param methodName method name
+     * @param types      argument types
+     * @return public method which can be called with arguments of the specified types or null if there is no such method
+     */
+    private static Method resolveMethod ( final Class theClass, final String methodName, final Class[] types )
+    {
+        final Map<MethodKey, Object> cache = methodsCache.get ( theClass );
+        final MethodKey key = new MethodKey ( methodName, types );
+        Object method = cache.get ( key );
+        if ( method == null )
+        {
+            method = findMethod ( theClass, methodName, types );
+
+            // Cached key references argument types weakly so that classes from other class loaders are not held by it
+            removeClearedKeys ( cache );
+            cache.put ( key.weak (), method != null ? method : NO_METHOD );
+        }
+        return method != NO_METHOD ? ( Method ) method : null;
+    }
+
+    /**
+     * Removes cached methods which keys have lost their argument types.
+     *
+     * @param cache methods cache
+     */
+    private static void removeClearedKeys ( final Map<MethodKey, Object> cache )
+    {
+        final Iterator<MethodKey> iterator = cache.keySet ().iterator ();
+        while ( iterator.hasNext () )
+        {
+            if ( iterator.next ().isCleared () )
+            {
+                iterator.remove ();
+            }
+        }
+    }
+
+    /**
+     * Returns public method which can be called with arguments of the specified types or null if there is no such method.
+     *
+     * @param theClass   class to process
+     * @param methodName method name
+     * @param types      argument types
+     * @return public method which can be called with arguments of the specified types or null if there is no such method
+     */
+    private static Method findMethod ( final Class theClass, final String methodName, final Class[] types )
     {
         // todo Methods priority check (by super types)
         // todo For now some method with [Object] arg might be used instead of method with [String]
-        if ( arguments.length == 0 )
+        if ( types.length == 0 )
         {
-            // Calling simple method w/o arguments
-            return ( T ) object.getClass ().getMethod ( methodName ).invoke ( object );
+            // Simple method w/o arguments
+            try
+            {
+                return theClass.getMethod ( methodName );
+            }
+            catch ( final NoSuchMethodException e )
+            {
+                return null;
+            }
         }
         else
         {
             // Searching for more complex method
-            final Class[] types = getClassTypes ( arguments );
-            for ( final Method method : object.getClass ().getMethods () )
+            for ( final Method method : theClass.getMethods () )
             {
                 // Checking method name
                 if ( method.getName ().equals ( methodName ) )
@@ -900,12 +970,12 @@ public final class ReflectUtils
                         }
                         if ( fits )
                         {
-                            return ( T ) method.invoke ( object, arguments );
+                            return method;
                         }
                     }
                 }
             }
-            throw new NoSuchMethodException ( object.getClass ().getName () + "." + methodName + argumentTypesToString ( types ) );
+            return null;
         }
     }
 
@@ -1071,4 +1141,136 @@ public final class ReflectUtils
             return containsInClassOrSuperclassName ( theClass.getSuperclass (), text );
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Method resolution cache key.
+     * Lookup keys reference argument types directly, keys stored in cache reference them weakly.
+     */
+    private static final class MethodKey
+    {
+        /**
+         * Method name.
+         */
+        private final String name;
+
+        /**
+         * Argument types or weak references to them.
+         */
+        private final Object[] types;
+
+        /**
+         * Cached hash code.
+         */
+        private final int hash;
+
+        /**
+         * Constructs new method resolution cache key.
+         *
+         * @param name  method name
+         * @param types argument types
+         */
+        public MethodKey ( final String name, final Class<?>[] types )
+        {
+            this ( name, types, 31 * name.hashCode () + Arrays.hashCode ( types ) );
+        }
+
+        /**
+         * Constructs new method resolution cache key.
+         *
+         * @param name  method name
+         * @param types argument types or weak references to them
+         * @param hash  hash code
+         */
+        private MethodKey ( final String name, final Object[] types, final int hash )
+        {
+            super ();
+            this.name = name;
+            this.types = types;
+            this.hash = hash;
+        }
+
+        /**
+         * Returns equal key which references argument types weakly.
+         *
+         * @return equal key which references argument types weakly
+         */
+        public MethodKey weak ()
+        {
+            final Object[] weakTypes = new Object[ types.length ];
+            for ( int i = 0; i < types.length; i++ )
+            {
+                weakTypes[ i ] = types[ i ] != null ? new WeakReference<Object> ( types[ i ] ) : null;
+            }
+            return new MethodKey ( name, weakTypes, hash );
+        }
+
+        /**
+         * Returns whether any of the weakly referenced argument types was garbage collected or not.
+         *
+         * @return true if any of the weakly referenced argument types was garbage collected, false otherwise
+         */
+        public boolean isCleared ()
+        {
+            for ( final Object type : types )
+            {
+                if ( type instanceof WeakReference && ( ( WeakReference<?> ) type ).get () == null )
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Returns argument type at the specified index.
+         *
+         * @param index argument index
+         * @return argument type at the specified index
+         */
+        private Object getType ( final int index )
+        {
+            final Object type = types[ index ];
+            return type instanceof WeakReference ? ( ( WeakReference<?> ) type ).get () : type;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals ( final Object obj )
+        {
+            if ( obj == this )
+            {
+                return true;
+            }
+            if ( !( obj instanceof MethodKey ) )
+            {
+                return false;
+            }
+            final MethodKey key = ( MethodKey ) obj;
+            if ( hash != key.hash || !name.equals ( key.name ) || types.length != key.types.length )
+            {
+                return false;
+            }
+            for ( int i = 0; i < types.length; i++ )
+            {
+                // Cleared weak reference is never equal to anything
+                final Object type = getType ( i );
+                if ( type != key.getType ( i ) || type == null && types[ i ] != null )
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode ()
+        {
+            return hash;
+        }
+    }
+}
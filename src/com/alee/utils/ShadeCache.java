@@ -0,0 +1,641 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.alee.utils;
+
+import com.alee.laf.StyleConstants;
+import com.alee.utils.laf.ShadeType;
+import com.alee.utils.ninepatch.NinePatchIcon;
+
+import java.awt.*;
+import java.awt.geom.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class caches rasterized shades painted by LafUtils.drawShade methods.
+ * <p/>
+ * Each shade is rasterized only once per shape geometry, shade type, color, width and clip mode and is reused afterwards by any
+ * component with the same size and style. Rectangular and round rectangular shades are stored as small stretchable nine-patch
+ * images so they can be reused for any shape size, other shades are stored as images of the shade size.
+ * <p/>
+ * Cache is bounded by the total amount of memory used by cached images and evicts least recently used shades first.
+ * Shades which cannot be reproduced from an image exactly (for example painted with transformed graphics or custom composite) are
+ * never cached and are painted directly.
+ *
+ * @author Mikle Garin
+ * @see com.alee.utils.LafUtils#drawShade(java.awt.Graphics2D, java.awt.Shape, com.alee.utils.laf.ShadeType, java.awt.Color, int,
+ * java.awt.Shape, boolean)
+ */
+
+public final class ShadeCache
+{
+    /**
+     * Whether shades caching is enabled or not.
+     */
+    private static boolean enabled = true;
+
+    /**
+     * Maximum total size of cached shade images in bytes.
+     */
+    private static long maximumSize = 16 * 1024 * 1024;
+
+    /**
+     * Cached shades in access order.
+     */
+    private static final LinkedHashMap<ShadeKey, CachedShade> cache = new LinkedHashMap<ShadeKey, CachedShade> ( 16, 0.75f, true );
+
+    /**
+     * Total size of cached shade images in bytes.
+     */
+    private static long size = 0;
+
+    /**
+     * Cache hits count.
+     */
+    private static long hits = 0;
+
+    /**
+     * Cache misses count.
+     */
+    private static long misses = 0;
+
+    /**
+     * Cache evictions count.
+     */
+    private static long evictions = 0;
+
+    /**
+     * Returns whether shades caching is enabled or not.
+     *
+     * @return true if shades caching is enabled, false otherwise
+     */
+    public static synchronized boolean isEnabled ()
+    {
+        return enabled;
+    }
+
+    /**
+     * Sets whether shades caching is enabled or not.
+     * Disabling caching also clears the cache.
+     *
+     * @param enabled whether shades caching is enabled or not
+     */
+    public static synchronized void setEnabled ( final boolean enabled )
+    {
+        ShadeCache.enabled = enabled;
+        if ( !enabled )
+        {
+            clearCache ();
+        }
+    }
+
+    /**
+     * Returns maximum total size of cached shade images in bytes.
+     *
+     * @return maximum total size of cached shade images in bytes
+     */
+    public static synchronized long getMaximumSize ()
+    {
+        return maximumSize;
+    }
+
+    /**
+     * Sets maximum total size of cached shade images in bytes.
+     *
+     * @param maximumSize maximum total size of cached shade images in bytes
+     */
+    public static synchronized void setMaximumSize ( final long maximumSize )
+    {
+        ShadeCache.maximumSize = maximumSize;
+        evict ();
+    }
+
+    /**
+     * Returns total size of cached shade images in bytes.
+     *
+     * @return total size of cached shade images in bytes
+     */
+    public static synchronized long getSize ()
+    {
+        return size;
+    }
+
+    /**
+     * Returns amount of cached shades.
+     *
+     * @return amount of cached shades
+     */
+    public static synchronized int getShadesCount ()
+    {
+        return cache.size ();
+    }
+
+    /**
+     * Returns cache hits count.
+     *
+     * @return cache hits count
+     */
+    public static synchronized long getHits ()
+    {
+        return hits;
+    }
+
+    /**
+     * Returns cache misses count.
+     *
+     * @return cache misses count
+     */
+    public static synchronized long getMisses ()
+    {
+        return misses;
+    }
+
+    /**
+     * Returns cache evictions count.
+     *
+     * @return cache evictions count
+     */
+    public static synchronized long getEvictions ()
+    {
+        return evictions;
+    }
+
+    /**
+     * Clears shades cache.
+     */
+    public static synchronized void clearCache ()
+    {
+        for ( final CachedShade shade : cache.values () )
+        {
+            shade.image.flush ();
+        }
+        cache.clear ();
+        size = 0;
+    }
+
+    /**
+     * Resets cache statistics.
+     */
+    public static synchronized void resetStatistics ()
+    {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    /**
+     * Paints shade using cached image and returns true if shade was painted, false if it cannot be painted using cache.
+     * Parameters are the same as LafUtils.drawShade method parameters.
+     *
+     * @param g2d        graphics context
+     * @param shape      shade shape
+     * @param shadeType  shade type
+     * @param shadeColor shade color
+     * @param width      shade width
+     * @param clip       shade clip
+     * @param round      whether shade corners are round or not
+     * @return true if shade was painted, false if it cannot be painted using cache
+     */
+    public static boolean paintShade ( final Graphics2D g2d, final Shape shape, final ShadeType shadeType, final Color shadeColor,
+                                       final int width, final Shape clip, final boolean round )
+    {
+        if ( !isEnabled () )
+        {
+            return false;
+        }
+
+        // Only integer translation transform can be reproduced by image
+        final AffineTransform transform = g2d.getTransform ();
+        if ( ( transform.getType () & ~AffineTransform.TYPE_TRANSLATION ) != 0 || transform.getTranslateX () != Math.rint (
+                transform.getTranslateX () ) || transform.getTranslateY () != Math.rint ( transform.getTranslateY () ) )
+        {
+            return false;
+        }
+
+        // Only plain source-over composite can be reproduced by image
+        final Composite composite = g2d.getComposite ();
+        if ( !( composite instanceof AlphaComposite ) || ( ( AlphaComposite ) composite ).getRule () != AlphaComposite.SRC_OVER )
+        {
+            return false;
+        }
+
+        // Only solid colors are supported
+        final Paint paint = shadeColor != null ? shadeColor : g2d.getPaint ();
+        if ( !( paint instanceof Color ) )
+        {
+            return false;
+        }
+
+        // Shade bounds
+        final Rectangle2D bounds = shape.getBounds2D ();
+        if ( bounds.isEmpty () )
+        {
+            return false;
+        }
+        final int padding = width + 2;
+        final int x = ( int ) Math.floor ( bounds.getX () );
+        final int y = ( int ) Math.floor ( bounds.getY () );
+
+        // Shade key
+        final boolean subtract = clip == null && g2d.getClip () != null;
+        final float alpha = ( ( AlphaComposite ) composite ).getAlpha ();
+        final float simpleTransparency = shadeType == ShadeType.simple ? StyleConstants.simpleShadeTransparency : 1f;
+        final Object antialias = g2d.getRenderingHint ( RenderingHints.KEY_ANTIALIASING );
+        final Object strokeControl = g2d.getRenderingHint ( RenderingHints.KEY_STROKE_CONTROL );
+        final RectangularShape template = clip == null ? createTemplate ( shape, bounds ) : null;
+        final double[] geometry = template != null ? getGeometry ( template, x, y, null ) : getGeometry ( shape, x, y, clip );
+        final ShadeKey key = new ShadeKey ( template != null, geometry, shadeType, ( ( Color ) paint ).getRGB (), width, round, subtract,
+                alpha, simpleTransparency, antialias, strokeControl );
+
+        // Retrieving cached shade
+        CachedShade shade;
+        synchronized ( ShadeCache.class )
+        {
+            shade = cache.get ( key );
+            if ( shade != null )
+            {
+                hits++;
+            }
+            else
+            {
+                misses++;
+            }
+        }
+        if ( shade == null )
+        {
+            final Shape cachedShape = template != null ? template : shape;
+            final Rectangle2D cachedBounds = cachedShape.getBounds2D ();
+            final int imageWidth = ( int ) Math.ceil ( cachedBounds.getMaxX () ) - x + padding * 2;
+            final int imageHeight = ( int ) Math.ceil ( cachedBounds.getMaxY () ) - y + padding * 2;
+            final long imageSize = ( long ) imageWidth * imageHeight * 4;
+            if ( imageSize > getMaximumSize () / 4 )
+            {
+                // Shade is too large to be cached
+                return false;
+            }
+
+            // Rasterizing shade
+            final BufferedImage image = new BufferedImage ( imageWidth, imageHeight, BufferedImage.TYPE_INT_ARGB );
+            final Graphics2D ig = image.createGraphics ();
+            ig.setRenderingHint ( RenderingHints.KEY_ANTIALIASING, antialias );
+            ig.setRenderingHint ( RenderingHints.KEY_STROKE_CONTROL, strokeControl );
+            ig.setComposite ( composite );
+            ig.setPaint ( paint );
+            ig.translate ( padding - x, padding - y );
+            if ( subtract )
+            {
+                ig.setClip ( x - padding, y - padding, imageWidth, imageHeight );
+            }
+            LafUtils.drawUncachedShade ( ig, cachedShape, shadeType, null, width, clip, round );
+            ig.dispose ();
+
+            // Caching shade
+            shade = new CachedShade ( image, template != null ? createNinePatchIcon ( image, template, x, y, padding ) : null,
+                    imageSize );
+            synchronized ( ShadeCache.class )
+            {
+                final CachedShade old = cache.put ( key, shade );
+                if ( old != null )
+                {
+                    size -= old.size;
+                }
+                size += shade.size;
+                evict ();
+            }
+        }
+
+        // Painting shade
+        g2d.setComposite ( AlphaComposite.SrcOver );
+        if ( shade.icon != null )
+        {
+            final int w = shade.image.getWidth () + ( int ) Math.round ( bounds.getWidth () - template.getWidth () );
+            final int h = shade.image.getHeight () + ( int ) Math.round ( bounds.getHeight () - template.getHeight () );
+            shade.icon.paintIcon ( g2d, x - padding, y - padding, w, h );
+        }
+        else
+        {
+            g2d.drawImage ( shade.image, x - padding, y - padding, null );
+        }
+        g2d.setComposite ( composite );
+        return true;
+    }
+
+    /**
+     * Returns smallest shape which can be stretched into the specified shape without affecting its shade.
+     * Returns null if there is no such shape.
+     *
+     * @param shape  shade shape
+     * @param bounds shade shape bounds
+     * @return smallest shape which can be stretched into the specified shape without affecting its shade
+     */
+    private static RectangularShape createTemplate ( final Shape shape, final Rectangle2D bounds )
+    {
+        final double arcWidth;
+        final double arcHeight;
+        if ( shape instanceof RoundRectangle2D )
+        {
+            arcWidth = ( ( RoundRectangle2D ) shape ).getArcWidth ();
+            arcHeight = ( ( RoundRectangle2D ) shape ).getArcHeight ();
+        }
+        else if ( shape instanceof Rectangle2D )
+        {
+            arcWidth = 0;
+            arcHeight = 0;
+        }
+        else
+        {
+            return null;
+        }
+
+        // Template keeps fractional parts of the original shape to produce exactly the same corners
+        // Three middle pixels of each side are guaranteed to be straight so the middle one can be stretched
+        final double width = bounds.getWidth () - Math.floor ( bounds.getWidth () ) + getTemplateCorner ( arcWidth ) * 2 + 3;
+        final double height = bounds.getHeight () - Math.floor ( bounds.getHeight () ) + getTemplateCorner ( arcHeight ) * 2 + 3;
+        if ( width > bounds.getWidth () || height > bounds.getHeight () )
+        {
+            return null;
+        }
+        if ( arcWidth > 0 || arcHeight > 0 )
+        {
+            return new RoundRectangle2D.Double ( bounds.getX (), bounds.getY (), width, height, arcWidth, arcHeight );
+        }
+        else
+        {
+            return new Rectangle2D.Double ( bounds.getX (), bounds.getY (), width, height );
+        }
+    }
+
+    /**
+     * Returns template corner size for the specified arc size.
+     *
+     * @param arc arc size
+     * @return template corner size for the specified arc size
+     */
+    private static int getTemplateCorner ( final double arc )
+    {
+        return ( int ) Math.ceil ( arc / 2 ) + 2;
+    }
+
+    /**
+     * Returns nine-patch icon for the specified template shade image.
+     *
+     * @param image    template shade image
+     * @param template template shape
+     * @param x        shade image X coordinate
+     * @param y        shade image Y coordinate
+     * @param padding  shade image padding
+     * @return nine-patch icon for the specified template shade image
+     */
+    private static NinePatchIcon createNinePatchIcon ( final BufferedImage image, final RectangularShape template, final int x,
+                                                       final int y, final int padding )
+    {
+        final double arcWidth = template instanceof RoundRectangle2D ? ( ( RoundRectangle2D ) template ).getArcWidth () : 0;
+        final double arcHeight = template instanceof RoundRectangle2D ? ( ( RoundRectangle2D ) template ).getArcHeight () : 0;
+        final int stretchX = padding + getTemplateCorner ( arcWidth ) + 1;
+        final int stretchY = padding + getTemplateCorner ( arcHeight ) + 1;
+        final NinePatchIcon icon = NinePatchIcon.create ( image );
+        icon.addHorizontalStretch ( 0, stretchX - 1, true );
+        icon.addHorizontalStretch ( stretchX, stretchX, false );
+        icon.addHorizontalStretch ( stretchX + 1, image.getWidth () - 1, true );
+        icon.addVerticalStretch ( 0, stretchY - 1, true );
+        icon.addVerticalStretch ( stretchY, stretchY, false );
+        icon.addVerticalStretch ( stretchY + 1, image.getHeight () - 1, true );
+        return icon;
+    }
+
+    /**
+     * Returns shade geometry relative to the specified origin.
+     * Geometry includes shape path and optional clip path separated by NaN value.
+     *
+     * @param shape shade shape
+     * @param x     origin X coordinate
+     * @param y     origin Y coordinate
+     * @param clip  shade clip
+     * @return shade geometry relative to the specified origin
+     */
+    private static double[] getGeometry ( final Shape shape, final int x, final int y, final Shape clip )
+    {
+        double[] geometry = new double[ 64 ];
+        int length = 0;
+        final double[] coords = new double[ 6 ];
+        for ( int i = 0; i < ( clip != null ? 2 : 1 ); i++ )
+        {
+            if ( i > 0 )
+            {
+                geometry[ length++ ] = Double.NaN;
+            }
+            final PathIterator iterator = ( i == 0 ? shape : clip ).getPathIterator ( null );
+            geometry[ length++ ] = iterator.getWindingRule ();
+            while ( !iterator.isDone () )
+            {
+                final int type = iterator.currentSegment ( coords );
+                final int points = type == PathIterator.SEG_CUBICTO ? 3 : type == PathIterator.SEG_QUADTO ? 2 :
+                        type == PathIterator.SEG_CLOSE ? 0 : 1;
+                if ( length + 1 + points * 2 > geometry.length )
+                {
+                    geometry = Arrays.copyOf ( geometry, geometry.length * 2 );
+                }
+                geometry[ length++ ] = type;
+                for ( int p = 0; p < points; p++ )
+                {
+                    geometry[ length++ ] = coords[ p * 2 ] - x;
+                    geometry[ length++ ] = coords[ p * 2 + 1 ] - y;
+                }
+                iterator.next ();
+            }
+        }
+        return Arrays.copyOf ( geometry, length );
+    }
+
+    /**
+     * Evicts least recently used shades until cache fits into its maximum size.
+     */
+    private static void evict ()
+    {
+        final Iterator<Map.Entry<ShadeKey, CachedShade>> iterator = cache.entrySet ().iterator ();
+        while ( size > maximumSize && iterator.hasNext () )
+        {
+            final CachedShade shade = iterator.next ().getValue ();
+            iterator.remove ();
+            size -= shade.size;
+            evictions++;
+        }
+    }
+
+    /**
+     * Shade cache key.
+     */
+    private static final class ShadeKey
+    {
+        /**
+         * Whether shade is stored as nine-patch icon or not.
+         */
+        private final boolean ninePatch;
+
+        /**
+         * Shade geometry relative to the shade origin.
+         */
+        private final double[] geometry;
+
+        /**
+         * Shade type.
+         */
+        private final ShadeType shadeType;
+
+        /**
+         * Shade color.
+         */
+        private final int color;
+
+        /**
+         * Shade width.
+         */
+        private final int width;
+
+        /**
+         * Whether shade corners are round or not.
+         */
+        private final boolean round;
+
+        /**
+         * Whether shade shape is subtracted from the shade or not.
+         */
+        private final boolean subtract;
+
+        /**
+         * Graphics composite alpha.
+         */
+        private final float alpha;
+
+        /**
+         * Simple shade transparency.
+         */
+        private final float simpleTransparency;
+
+        /**
+         * Antialias rendering hint value.
+         */
+        private final Object antialias;
+
+        /**
+         * Stroke control rendering hint value.
+         */
+        private final Object strokeControl;
+
+        /**
+         * Cached hash code.
+         */
+        private final int hashCode;
+
+        /**
+         * Constructs new shade key.
+         */
+        private ShadeKey ( final boolean ninePatch, final double[] geometry, final ShadeType shadeType, final int color, final int width,
+                           final boolean round, final boolean subtract, final float alpha, final float simpleTransparency,
+                           final Object antialias, final Object strokeControl )
+        {
+            super ();
+            this.ninePatch = ninePatch;
+            this.geometry = geometry;
+            this.shadeType = shadeType;
+            this.color = color;
+            this.width = width;
+            this.round = round;
+            this.subtract = subtract;
+            this.alpha = alpha;
+            this.simpleTransparency = simpleTransparency;
+            this.antialias = antialias;
+            this.strokeControl = strokeControl;
+
+            int hash = Arrays.hashCode ( geometry );
+            hash = 31 * hash + ( ninePatch ? 1 : 0 );
+            hash = 31 * hash + shadeType.hashCode ();
+            hash = 31 * hash + color;
+            hash = 31 * hash + width;
+            hash = 31 * hash + ( round ? 1 : 0 );
+            hash = 31 * hash + ( subtract ? 1 : 0 );
+            hash = 31 * hash + Float.floatToIntBits ( alpha );
+            hash = 31 * hash + Float.floatToIntBits ( simpleTransparency );
+            hash = 31 * hash + ( antialias != null ? antialias.hashCode () : 0 );
+            hash = 31 * hash + ( strokeControl != null ? strokeControl.hashCode () : 0 );
+            this.hashCode = hash;
+        }
+
+        @Override
+        public boolean equals ( final Object obj )
+        {
+            if ( obj == this )
+            {
+                return true;
+            }
+            if ( !( obj instanceof ShadeKey ) )
+            {
+                return false;
+            }
+            final ShadeKey other = ( ShadeKey ) obj;
+            return hashCode == other.hashCode && ninePatch == other.ninePatch && shadeType == other.shadeType && color == other.color &&
+                    width == other.width && round == other.round && subtract == other.subtract && alpha == other.alpha &&
+                    simpleTransparency == other.simpleTransparency && antialias == other.antialias &&
+                    strokeControl == other.strokeControl && Arrays.equals ( geometry, other.geometry );
+        }
+
+        @Override
+        public int hashCode ()
+        {
+            return hashCode;
+        }
+    }
+
+    /**
+     * Cached shade.
+     */
+    private static final class CachedShade
+    {
+        /**
+         * Shade image.
+         */
+        private final BufferedImage image;
+
+        /**
+         * Nine-patch icon for stretchable shades, null for other shades.
+         */
+        private final NinePatchIcon icon;
+
+        /**
+         * Shade image size in bytes.
+         */
+        private final long size;
+
+        /**
+         * Constructs new cached shade.
+         *
+         * @param image shade image
+         * @param icon  nine-patch icon for stretchable shades
+         * @param size  shade image size in bytes
+         */
+        private CachedShade ( final BufferedImage image, final NinePatchIcon icon, final long size )
+        {
+            super ();
+            this.image = image;
+            this.icon = icon;
+            this.size = size;
+        }
+    }
+}
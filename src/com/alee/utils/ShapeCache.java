@@ -20,6 +20,7 @@ package com.alee.utils;
 import com.alee.utils.swing.DataProvider;
 
 import java.awt.*;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.WeakHashMap;
@@ -27,76 +28,453 @@ import java.util.WeakHashMap;
 /**
  * This utility class can be used to implement shape caching withing any painter or component.
  * This might be useful to improve component painting performance in case it uses complex shapes.
+ * <p>
+ * Shapes are cached per component and shape ID along with a key built from the settings used to create the shape.
+ * Painters should keep a single {@link com.alee.utils.ShapeCache.Key} instance and refill it on each paint, that way cache lookups
+ * do not allocate anything unless shape has to be created again:
+ * <code>
+ * Shape shape = ShapeCache.getShape ( component, "border", shapeKey.reset ().add ( round ).add ( width ).add ( height ) );
+ * if ( shape == null )
+ * {
+ * shape = createBorderShape ( component );
+ * ShapeCache.putShape ( component, "border", shapeKey, shape );
+ * }
+ * </code>
  *
  * @author Mikle Garin
  */
 
 public class ShapeCache
 {
+    /**
+     * Cached shapes by shape IDs by components.
+     */
     private static final Map<Component, Map<String, CachedShape>> shapeCache = new WeakHashMap<Component, Map<String, CachedShape>> ( 10 );
 
+    /**
+     * Reusable key for settings passed as objects.
+     */
+    private static final Key settingsKey = new Key ();
+
+    /**
+     * Amount of cache hits.
+     */
+    private static long hits = 0;
+
+    /**
+     * Amount of cache misses.
+     */
+    private static long misses = 0;
+
+    /**
+     * Returns cached shape or creates and caches a new one if there is no cached shape or it was cached with different settings.
+     * Settings are compared with the cached ones one by one using their equals method.
+     *
+     * @param component     component for which shape is cached
+     * @param shapeId       shape ID
+     * @param shapeProvider shape provider
+     * @param settings      settings used to create the shape
+     * @param <T>           shape type
+     * @return cached or newly created shape
+     */
     public static <T extends Shape> T getShape ( final Component component, final String shapeId, final DataProvider<T> shapeProvider,
                                                  final Object... settings )
     {
-        final String settingsKey = combineSettingsKey ( settings );
-        Map<String, CachedShape> cacheById = shapeCache.get ( component );
-        if ( cacheById == null )
+        synchronized ( shapeCache )
         {
-            // Shape is not yet cached
-            final Shape shape = shapeProvider.provide ();
-            cacheById = new HashMap<String, CachedShape> ( 1 );
-            cacheById.put ( shapeId, new CachedShape ( settingsKey, shape ) );
-            shapeCache.put ( component, cacheById );
-            return ( T ) shape;
+            settingsKey.reset ();
+            for ( final Object setting : settings )
+            {
+                settingsKey.add ( setting );
+            }
+            return getShape ( component, shapeId, settingsKey, shapeProvider );
         }
-        else
+    }
+
+    /**
+     * Returns cached shape or creates and caches a new one if there is no cached shape or it was cached with a different key.
+     *
+     * @param component     component for which shape is cached
+     * @param shapeId       shape ID
+     * @param key           key built from settings used to create the shape
+     * @param shapeProvider shape provider
+     * @param <T>           shape type
+     * @return cached or newly created shape
+     */
+    public static <T extends Shape> T getShape ( final Component component, final String shapeId, final Key key,
+                                                 final DataProvider<T> shapeProvider )
+    {
+        T shape = getShape ( component, shapeId, key );
+        if ( shape == null )
+        {
+            shape = shapeProvider.provide ();
+            putShape ( component, shapeId, key, shape );
+        }
+        return shape;
+    }
+
+    /**
+     * Returns cached shape or null if there is no cached shape or it was cached with a different key.
+     * This method doesn't allocate any objects.
+     *
+     * @param component component for which shape is cached
+     * @param shapeId   shape ID
+     * @param key       key built from settings used to create the shape
+     * @param <T>       shape type
+     * @return cached shape or null if there is no cached shape or it was cached with a different key
+     */
+    public static <T extends Shape> T getShape ( final Component component, final String shapeId, final Key key )
+    {
+        synchronized ( shapeCache )
         {
-            final CachedShape cachedShape = cacheById.get ( shapeId );
-            if ( cachedShape == null || !cachedShape.getKey ().equals ( settingsKey ) )
+            final Map<String, CachedShape> cacheById = shapeCache.get ( component );
+            final CachedShape cachedShape = cacheById != null ? cacheById.get ( shapeId ) : null;
+            if ( cachedShape != null && cachedShape.key.equals ( key ) )
             {
-                // Shape is not yet cached or cache entry is outdated
-                final Shape shape = shapeProvider.provide ();
-                cacheById.put ( shapeId, new CachedShape ( settingsKey, shape ) );
-                return ( T ) shape;
+                hits++;
+                return ( T ) cachedShape.shape;
             }
             else
             {
-                // Returning cached shape
-                return ( T ) cachedShape.getShape ();
+                misses++;
+                return null;
             }
         }
     }
 
-    private static String combineSettingsKey ( final Object... settings )
+    /**
+     * Caches shape created with the specified key.
+     * A copy of the key is stored so the specified key can be reused.
+     *
+     * @param component component for which shape is cached
+     * @param shapeId   shape ID
+     * @param key       key built from settings used to create the shape
+     * @param shape     shape to cache
+     */
+    public static void putShape ( final Component component, final String shapeId, final Key key, final Shape shape )
     {
-        final StringBuilder stringBuilder = new StringBuilder ();
-        for ( final Object object : settings )
+        synchronized ( shapeCache )
         {
-            stringBuilder.append ( object.toString () );
+            Map<String, CachedShape> cacheById = shapeCache.get ( component );
+            if ( cacheById == null )
+            {
+                cacheById = new HashMap<String, CachedShape> ( 1 );
+                shapeCache.put ( component, cacheById );
+            }
+            cacheById.put ( shapeId, new CachedShape ( key.copy (), shape ) );
+        }
+    }
+
+    /**
+     * Removes all shapes cached for the specified component.
+     *
+     * @param component component to remove cached shapes for
+     */
+    public static void clearCache ( final Component component )
+    {
+        synchronized ( shapeCache )
+        {
+            shapeCache.remove ( component );
         }
-        return stringBuilder.toString ();
     }
 
+    /**
+     * Removes all cached shapes.
+     */
+    public static void clearCache ()
+    {
+        synchronized ( shapeCache )
+        {
+            shapeCache.clear ();
+        }
+    }
+
+    /**
+     * Returns amount of cache hits.
+     *
+     * @return amount of cache hits
+     */
+    public static long getHitCount ()
+    {
+        synchronized ( shapeCache )
+        {
+            return hits;
+        }
+    }
+
+    /**
+     * Returns amount of cache misses.
+     *
+     * @return amount of cache misses
+     */
+    public static long getMissCount ()
+    {
+        synchronized ( shapeCache )
+        {
+            return misses;
+        }
+    }
+
+    /**
+     * Returns cache hit rate from 0 to 1.
+     *
+     * @return cache hit rate from 0 to 1
+     */
+    public static double getHitRate ()
+    {
+        synchronized ( shapeCache )
+        {
+            final long requests = hits + misses;
+            return requests > 0 ? ( double ) hits / requests : 0;
+        }
+    }
+
+    /**
+     * Resets cache hits and misses statistics.
+     */
+    public static void resetStatistics ()
+    {
+        synchronized ( shapeCache )
+        {
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    /**
+     * Cached shape along with the key it was created for.
+     */
     private static class CachedShape
     {
-        private final String key;
+        /**
+         * Key shape was created for.
+         */
+        private final Key key;
+
+        /**
+         * Cached shape.
+         */
         private final Shape shape;
 
-        public CachedShape ( final String key, final Shape shape )
+        /**
+         * Constructs new cached shape.
+         *
+         * @param key   key shape was created for
+         * @param shape cached shape
+         */
+        public CachedShape ( final Key key, final Shape shape )
         {
             super ();
             this.key = key;
             this.shape = shape;
         }
+    }
+
+    /**
+     * Reusable shape key built from settings used to create the shape.
+     * Primitive settings are stored as they are without boxing, other settings are compared using their equals method.
+     * Keys are compared setting by setting, so settings should always be added in the same order.
+     */
+    public static final class Key
+    {
+        /**
+         * Primitive settings values.
+         */
+        private long[] values;
+
+        /**
+         * Amount of primitive settings values.
+         */
+        private int valuesCount;
+
+        /**
+         * Object settings values.
+         */
+        private Object[] objects;
 
-        private String getKey ()
+        /**
+         * Amount of object settings values.
+         */
+        private int objectsCount;
+
+        /**
+         * Constructs new empty key.
+         */
+        public Key ()
+        {
+            this ( 8, 2 );
+        }
+
+        /**
+         * Constructs new empty key with the specified capacities.
+         *
+         * @param valuesCapacity  primitive settings capacity
+         * @param objectsCapacity object settings capacity
+         */
+        private Key ( final int valuesCapacity, final int objectsCapacity )
+        {
+            super ();
+            this.values = new long[ valuesCapacity ];
+            this.objects = new Object[ objectsCapacity ];
+        }
+
+        /**
+         * Removes all settings from this key.
+         *
+         * @return this key
+         */
+        public Key reset ()
+        {
+            valuesCount = 0;
+            Arrays.fill ( objects, 0, objectsCount, null );
+            objectsCount = 0;
+            return this;
+        }
+
+        /**
+         * Adds int setting.
+         *
+         * @param value setting value
+         * @return this key
+         */
+        public Key add ( final int value )
+        {
+            return add ( ( long ) value );
+        }
+
+        /**
+         * Adds long setting.
+         *
+         * @param value setting value
+         * @return this key
+         */
+        public Key add ( final long value )
+        {
+            if ( valuesCount == values.length )
+            {
+                values = Arrays.copyOf ( values, values.length * 2 );
+            }
+            values[ valuesCount++ ] = value;
+            return this;
+        }
+
+        /**
+         * Adds float setting.
+         *
+         * @param value setting value
+         * @return this key
+         */
+        public Key add ( final float value )
+        {
+            return add ( ( long ) Float.floatToIntBits ( value ) );
+        }
+
+        /**
+         * Adds double setting.
+         *
+         * @param value setting value
+         * @return this key
+         */
+        public Key add ( final double value )
+        {
+            return add ( Double.doubleToLongBits ( value ) );
+        }
+
+        /**
+         * Adds boolean setting.
+         *
+         * @param value setting value
+         * @return this key
+         */
+        public Key add ( final boolean value )
         {
-            return key;
+            return add ( value ? 1L : 0L );
         }
 
-        private Shape getShape ()
+        /**
+         * Adds object setting which is compared using its equals method.
+         * Settings like colors or enum constants should be added this way.
+         *
+         * @param value setting value
+         * @return this key
+         */
+        public Key add ( final Object value )
         {
-            return shape;
+            if ( objectsCount == objects.length )
+            {
+                objects = Arrays.copyOf ( objects, objects.length * 2 );
+            }
+            objects[ objectsCount++ ] = value;
+            return this;
+        }
+
+        /**
+         * Returns a copy of this key.
+         *
+         * @return a copy of this key
+         */
+        public Key copy ()
+        {
+            final Key copy = new Key ( valuesCount, objectsCount );
+            System.arraycopy ( values, 0, copy.values, 0, valuesCount );
+            copy.valuesCount = valuesCount;
+            System.arraycopy ( objects, 0, copy.objects, 0, objectsCount );
+            copy.objectsCount = objectsCount;
+            return copy;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals ( final Object obj )
+        {
+            if ( obj == this )
+            {
+                return true;
+            }
+            if ( !( obj instanceof Key ) )
+            {
+                return false;
+            }
+            final Key key = ( Key ) obj;
+            if ( key.valuesCount != valuesCount || key.objectsCount != objectsCount )
+            {
+                return false;
+            }
+            for ( int i = 0; i < valuesCount; i++ )
+            {
+                if ( key.values[ i ] != values[ i ] )
+                {
+                    return false;
+                }
+            }
+            for ( int i = 0; i < objectsCount; i++ )
+            {
+                if ( !CompareUtils.equals ( key.objects[ i ], objects[ i ] ) )
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode ()
+        {
+            int hash = 1;
+            for ( int i = 0; i < valuesCount; i++ )
+            {
+                hash = 31 * hash + ( int ) ( values[ i ] ^ values[ i ] >>> 32 );
+            }
+            for ( int i = 0; i < objectsCount; i++ )
+            {
+                hash = 31 * hash + ( objects[ i ] != null ? objects[ i ].hashCode () : 0 );
+            }
+            return hash;
         }
     }
-}
\ No newline at end of file
+}
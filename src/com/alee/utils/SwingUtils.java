@@ -1630,6 +1630,7 @@ public final class SwingUtils
 
     /**
      * Returns system shortcut modifier.
+     * In headless environment toolkit cannot provide it, so Meta is used on Mac OS and Ctrl on other systems.
      *
      * @return system shortcut modifier
      */
@@ -1637,7 +1638,14 @@ public final class SwingUtils
     {
         if ( systemShortcutModifier == null )
         {
-            systemShortcutModifier = Toolkit.getDefaultToolkit ().getMenuShortcutKeyMask ();
+            if ( GraphicsEnvironment.isHeadless () )
+            {
+                systemShortcutModifier = SystemUtils.isMac () ? InputEvent.META_MASK : InputEvent.CTRL_MASK;
+            }
+            else
+            {
+                systemShortcutModifier = Toolkit.getDefaultToolkit ().getMenuShortcutKeyMask ();
+            }
         }
         return systemShortcutModifier;
     }
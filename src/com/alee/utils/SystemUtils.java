@@ -23,6 +23,7 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.datatransfer.*;
 import java.awt.event.KeyEvent;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.lang.management.ManagementFactory;
 import java.security.AccessController;
@@ -65,6 +66,11 @@ public final class SystemUtils
      */
     private static JavaVersion javaVersion;
 
+    /**
+     * Offscreen graphics configuration used in headless environment.
+     */
+    private static GraphicsConfiguration headlessConfiguration;
+
     private static final String osName;
     private static final String shortOsName;
 
@@ -459,12 +465,24 @@ public final class SystemUtils
 
     /**
      * Returns default GraphicsConfiguration for main screen.
+     * In headless environment returns configuration of an offscreen image instead, since there are no screen devices.
      *
      * @return mail scren GraphicsConfiguration
      */
     public static GraphicsConfiguration getGraphicsConfiguration ()
     {
-        return getGraphicsEnvironment ().getDefaultScreenDevice ().getDefaultConfiguration ();
+        final GraphicsEnvironment environment = getGraphicsEnvironment ();
+        if ( environment.isHeadlessInstance () )
+        {
+            if ( headlessConfiguration == null )
+            {
+                final Graphics2D g2d = new BufferedImage ( 1, 1, BufferedImage.TYPE_INT_ARGB ).createGraphics ();
+                headlessConfiguration = g2d.getDeviceConfiguration ();
+                g2d.dispose ();
+            }
+            return headlessConfiguration;
+        }
+        return environment.getDefaultScreenDevice ().getDefaultConfiguration ();
     }
 
     /**
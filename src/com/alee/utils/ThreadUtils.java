@@ -17,6 +17,9 @@
 
 package com.alee.utils;
 
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * This class provides a set of utilities to work with threads.
  *
@@ -41,4 +44,31 @@ public final class ThreadUtils
             //
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns thread factory that creates threads with the specified name prefix.
+     * Each created thread name will be suffixed with its unique number within the factory.
+     *
+     * @param name   threads name prefix
+     * @param daemon whether created threads should be daemon or not
+     * @return thread factory that creates threads with the specified name prefix
+     */
+    public static ThreadFactory createThreadFactory ( final String name, final boolean daemon )
+    {
+        return new ThreadFactory ()
+        {
+            /**
+             * Created threads counter.
+             */
+            private final AtomicInteger counter = new AtomicInteger ( 0 );
+
+            @Override
+            public Thread newThread ( final Runnable runnable )
+            {
+                final Thread thread = new Thread ( runnable, name + "-" + counter.incrementAndGet () );
+                thread.setDaemon ( daemon );
+                return thread;
+            }
+        };
+    }
+}
@@ -0,0 +1,518 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.alee.utils;
+
+import com.alee.utils.cache.ThumbnailDiskCache;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * This class provides methods to read image thumbnails without decoding full-size images.
+ * <p/>
+ * Thumbnails are read in the following order: embedded image thumbnail (EXIF or JFIF) if it is large enough, then source image decoded
+ * with source subsampling so that only about twice the thumbnail size is decoded. Full-size images are never decoded (unless they are
+ * small enough already) and never cached. Original image dimensions are always taken from the image header.
+ *
+ * @author Mikle Garin
+ * @see com.alee.utils.ImageUtils#createThumbnailIcon(String, int)
+ * @see com.alee.utils.cache.ThumbnailDiskCache
+ */
+
+public final class ThumbnailUtils
+{
+    /**
+     * JPEG start of image marker.
+     */
+    private static final int SOI_MARKER = 0xFFD8;
+
+    /**
+     * JPEG start of scan marker.
+     */
+    private static final int SOS_MARKER = 0xFFDA;
+
+    /**
+     * JPEG APP1 marker used by EXIF data.
+     */
+    private static final int APP1_MARKER = 0xFFE1;
+
+    /**
+     * EXIF thumbnail offset tag.
+     */
+    private static final int EXIF_THUMBNAIL_OFFSET_TAG = 0x0201;
+
+    /**
+     * EXIF thumbnail length tag.
+     */
+    private static final int EXIF_THUMBNAIL_LENGTH_TAG = 0x0202;
+
+    /**
+     * Decoded image size relative to thumbnail size.
+     */
+    private static int oversampling = 2;
+
+    /**
+     * Whether embedded thumbnails should be used or not.
+     */
+    private static boolean useEmbeddedThumbnails = true;
+
+    /**
+     * Returns decoded image size relative to thumbnail size.
+     *
+     * @return decoded image size relative to thumbnail size
+     */
+    public static int getOversampling ()
+    {
+        return oversampling;
+    }
+
+    /**
+     * Sets decoded image size relative to thumbnail size.
+     * Larger value gives better thumbnail quality but requires more memory to decode the image.
+     *
+     * @param oversampling decoded image size relative to thumbnail size
+     */
+    public static void setOversampling ( final int oversampling )
+    {
+        ThumbnailUtils.oversampling = Math.max ( 1, oversampling );
+    }
+
+    /**
+     * Returns whether embedded thumbnails should be used or not.
+     *
+     * @return true if embedded thumbnails should be used, false otherwise
+     */
+    public static boolean isUseEmbeddedThumbnails ()
+    {
+        return useEmbeddedThumbnails;
+    }
+
+    /**
+     * Sets whether embedded thumbnails should be used or not.
+     *
+     * @param useEmbeddedThumbnails whether embedded thumbnails should be used or not
+     */
+    public static void setUseEmbeddedThumbnails ( final boolean useEmbeddedThumbnails )
+    {
+        ThumbnailUtils.useEmbeddedThumbnails = useEmbeddedThumbnails;
+    }
+
+    /**
+     * Returns image size read from the image header or null if it cannot be read.
+     *
+     * @param file image file
+     * @return image size read from the image header or null if it cannot be read
+     */
+    public static Dimension getImageSize ( final File file )
+    {
+        ImageInputStream stream = null;
+        ImageReader reader = null;
+        try
+        {
+            stream = ImageIO.createImageInputStream ( file );
+            reader = getReader ( stream );
+            return reader != null ? new Dimension ( reader.getWidth ( 0 ), reader.getHeight ( 0 ) ) : null;
+        }
+        catch ( Throwable e )
+        {
+            return null;
+        }
+        finally
+        {
+            dispose ( reader, stream );
+        }
+    }
+
+    /**
+     * Returns thumbnail icon for the specified image file.
+     * Thumbnail is taken from the disk cache if it is enabled and stored there otherwise.
+     * Thumbnail icon description contains original image size in "WIDTHxHEIGHT" form.
+     *
+     * @param file image file
+     * @param size maximum thumbnail width and height
+     * @return thumbnail icon for the specified image file, empty icon if it cannot be read
+     */
+    public static ImageIcon createThumbnailIcon ( final File file, final int size )
+    {
+        final ImageIcon cached = ThumbnailDiskCache.get ( file, size );
+        if ( cached != null )
+        {
+            return cached;
+        }
+        final ImageIcon thumbnail = readThumbnailIcon ( file, size );
+        ThumbnailDiskCache.put ( file, size, thumbnail );
+        return thumbnail;
+    }
+
+    /**
+     * Returns thumbnail icon read from the specified image file.
+     *
+     * @param file image file
+     * @param size maximum thumbnail width and height
+     * @return thumbnail icon read from the specified image file, empty icon if it cannot be read
+     */
+    public static ImageIcon readThumbnailIcon ( final File file, final int size )
+    {
+        ImageInputStream stream = null;
+        ImageReader reader = null;
+        try
+        {
+            stream = ImageIO.createImageInputStream ( file );
+            final byte[] exif = useEmbeddedThumbnails ? readExifData ( stream ) : null;
+            reader = getReader ( stream );
+            if ( reader == null )
+            {
+                return new ImageIcon ();
+            }
+
+            // Original image size from the image header
+            final int width = reader.getWidth ( 0 );
+            final int height = reader.getHeight ( 0 );
+
+            // Embedded thumbnail or subsampled image
+            BufferedImage image = useEmbeddedThumbnails ? readEmbeddedThumbnail ( reader, exif, width, height, size ) : null;
+            if ( image == null )
+            {
+                image = readSubsampled ( reader, width, height, size );
+            }
+
+            final ImageIcon icon = new ImageIcon ( ImageUtils.createPreviewImage ( image, size ) );
+            icon.setDescription ( width + "x" + height );
+            return icon;
+        }
+        catch ( Throwable e )
+        {
+            return new ImageIcon ();
+        }
+        finally
+        {
+            dispose ( reader, stream );
+        }
+    }
+
+    /**
+     * Returns image decoded with source subsampling so that its larger side is not much bigger than the specified size.
+     *
+     * @param reader image reader
+     * @param width  original image width
+     * @param height original image height
+     * @param size   maximum thumbnail width and height
+     * @return subsampled image
+     * @throws IOException if image cannot be read
+     */
+    private static BufferedImage readSubsampled ( final ImageReader reader, final int width, final int height, final int size )
+            throws IOException
+    {
+        final int subsampling = Math.max ( 1, Math.max ( width, height ) / Math.max ( 1, size * oversampling ) );
+        final ImageReadParam param = reader.getDefaultReadParam ();
+        if ( subsampling > 1 )
+        {
+            param.setSourceSubsampling ( subsampling, subsampling, 0, 0 );
+        }
+        return reader.read ( 0, param );
+    }
+
+    /**
+     * Returns embedded image thumbnail if it exists, has the same orientation as the image and is large enough.
+     *
+     * @param reader image reader
+     * @param exif   EXIF data or null if image doesn't have it
+     * @param width  original image width
+     * @param height original image height
+     * @param size   maximum thumbnail width and height
+     * @return embedded image thumbnail or null if there is no suitable one
+     */
+    private static BufferedImage readEmbeddedThumbnail ( final ImageReader reader, final byte[] exif, final int width, final int height,
+                                                         final int size )
+    {
+        // EXIF thumbnail stored in JPEG APP1 segment
+        if ( exif != null )
+        {
+            try
+            {
+                final BufferedImage thumbnail = readExifThumbnail ( exif );
+                if ( thumbnail != null && isSuitable ( thumbnail.getWidth (), thumbnail.getHeight (), width, height, size ) )
+                {
+                    return thumbnail;
+                }
+            }
+            catch ( Throwable e )
+            {
+                // Ignore malformed EXIF data
+            }
+        }
+
+        // Thumbnails supported by the image reader, for example JFIF ones
+        try
+        {
+            if ( reader.readerSupportsThumbnails () )
+            {
+                final int thumbnails = reader.getNumThumbnails ( 0 );
+                for ( int i = 0; i < thumbnails; i++ )
+                {
+                    if ( isSuitable ( reader.getThumbnailWidth ( 0, i ), reader.getThumbnailHeight ( 0, i ), width, height, size ) )
+                    {
+                        return reader.readThumbnail ( 0, i );
+                    }
+                }
+            }
+        }
+        catch ( Throwable e )
+        {
+            // Ignore unsupported or malformed thumbnails
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns whether embedded thumbnail can be used instead of the image or not.
+     *
+     * @param tw     thumbnail width
+     * @param th     thumbnail height
+     * @param width  original image width
+     * @param height original image height
+     * @param size   maximum thumbnail width and height
+     * @return true if embedded thumbnail can be used instead of the image, false otherwise
+     */
+    private static boolean isSuitable ( final int tw, final int th, final int width, final int height, final int size )
+    {
+        // Thumbnail should not be smaller than requested size unless image itself is
+        if ( Math.max ( tw, th ) < Math.min ( size, Math.max ( width, height ) ) )
+        {
+            return false;
+        }
+
+        // Thumbnail should keep image proportions, otherwise it is letterboxed or rotated
+        final float imageRatio = ( float ) width / height;
+        final float thumbnailRatio = ( float ) tw / th;
+        return Math.abs ( imageRatio - thumbnailRatio ) <= imageRatio * 0.05f;
+    }
+
+    /**
+     * Returns EXIF data from JPEG image APP1 segment or null if it doesn't exist.
+     * Only JPEG header segments are read, stream position is restored afterwards.
+     *
+     * @param stream image input stream
+     * @return EXIF data from JPEG image APP1 segment or null if it doesn't exist
+     */
+    private static byte[] readExifData ( final ImageInputStream stream )
+    {
+        if ( stream == null )
+        {
+            return null;
+        }
+        stream.mark ();
+        try
+        {
+            if ( stream.readUnsignedShort () != SOI_MARKER )
+            {
+                return null;
+            }
+            while ( true )
+            {
+                final int marker = stream.readUnsignedShort ();
+                if ( ( marker & 0xFF00 ) != 0xFF00 || marker == SOS_MARKER )
+                {
+                    return null;
+                }
+                final int length = stream.readUnsignedShort () - 2;
+                if ( length < 0 )
+                {
+                    return null;
+                }
+                if ( marker == APP1_MARKER && length > 14 )
+                {
+                    final byte[] data = new byte[ length ];
+                    stream.readFully ( data );
+                    if ( data[ 0 ] == 'E' && data[ 1 ] == 'x' && data[ 2 ] == 'i' && data[ 3 ] == 'f' )
+                    {
+                        return data;
+                    }
+                }
+                else
+                {
+                    stream.skipBytes ( length );
+                }
+            }
+        }
+        catch ( Throwable e )
+        {
+            return null;
+        }
+        finally
+        {
+            try
+            {
+                stream.reset ();
+            }
+            catch ( IOException e )
+            {
+                // Ignore stream reset exceptions
+            }
+        }
+    }
+
+    /**
+     * Returns thumbnail stored in EXIF data IFD1 or null if it doesn't exist.
+     *
+     * @param exif EXIF data starting with "Exif" header
+     * @return thumbnail stored in EXIF data IFD1 or null if it doesn't exist
+     * @throws IOException if thumbnail cannot be decoded
+     */
+    private static BufferedImage readExifThumbnail ( final byte[] exif ) throws IOException
+    {
+        // TIFF header follows 6 bytes of "Exif\0\0" header
+        final int tiff = 6;
+        final boolean le = exif[ tiff ] == 'I' && exif[ tiff + 1 ] == 'I';
+
+        // Skipping IFD0 to get IFD1 offset
+        final int ifd0 = tiff + readInt ( exif, tiff + 4, le );
+        if ( ifd0 + 2 > exif.length )
+        {
+            return null;
+        }
+        final int ifd0Entries = readShort ( exif, ifd0, le );
+        final int next = ifd0 + 2 + ifd0Entries * 12;
+        if ( next + 4 > exif.length )
+        {
+            return null;
+        }
+        final int ifd1Offset = readInt ( exif, next, le );
+        if ( ifd1Offset == 0 )
+        {
+            return null;
+        }
+
+        // Looking for thumbnail offset and length in IFD1
+        final int ifd1 = tiff + ifd1Offset;
+        if ( ifd1 + 2 > exif.length )
+        {
+            return null;
+        }
+        final int ifd1Entries = readShort ( exif, ifd1, le );
+        int offset = -1;
+        int length = -1;
+        for ( int i = 0; i < ifd1Entries; i++ )
+        {
+            final int entry = ifd1 + 2 + i * 12;
+            if ( entry + 12 > exif.length )
+            {
+                break;
+            }
+            final int tag = readShort ( exif, entry, le );
+            if ( tag == EXIF_THUMBNAIL_OFFSET_TAG )
+            {
+                offset = readInt ( exif, entry + 8, le );
+            }
+            else if ( tag == EXIF_THUMBNAIL_LENGTH_TAG )
+            {
+                length = readInt ( exif, entry + 8, le );
+            }
+        }
+        if ( offset <= 0 || length <= 0 || tiff + offset + length > exif.length )
+        {
+            return null;
+        }
+        return ImageIO.read ( new ByteArrayInputStream ( exif, tiff + offset, length ) );
+    }
+
+    /**
+     * Returns unsigned short value read from the data.
+     *
+     * @param data   data
+     * @param offset value offset
+     * @param le     whether data uses little-endian byte order or not
+     * @return unsigned short value read from the data
+     */
+    private static int readShort ( final byte[] data, final int offset, final boolean le )
+    {
+        final int b0 = data[ offset ] & 0xFF;
+        final int b1 = data[ offset + 1 ] & 0xFF;
+        return le ? b1 << 8 | b0 : b0 << 8 | b1;
+    }
+
+    /**
+     * Returns int value read from the data.
+     *
+     * @param data   data
+     * @param offset value offset
+     * @param le     whether data uses little-endian byte order or not
+     * @return int value read from the data
+     */
+    private static int readInt ( final byte[] data, final int offset, final boolean le )
+    {
+        final int s0 = readShort ( data, offset, le );
+        final int s1 = readShort ( data, offset + 2, le );
+        return le ? s1 << 16 | s0 : s0 << 16 | s1;
+    }
+
+    /**
+     * Returns image reader for the specified stream with its input set or null if there is no suitable reader.
+     *
+     * @param stream image input stream
+     * @return image reader for the specified stream with its input set or null if there is no suitable reader
+     */
+    private static ImageReader getReader ( final ImageInputStream stream )
+    {
+        if ( stream != null )
+        {
+            final Iterator<ImageReader> readers = ImageIO.getImageReaders ( stream );
+            if ( readers.hasNext () )
+            {
+                final ImageReader reader = readers.next ();
+                reader.setInput ( stream, true, false );
+                return reader;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Disposes image reader and closes image input stream.
+     *
+     * @param reader image reader
+     * @param stream image input stream
+     */
+    private static void dispose ( final ImageReader reader, final ImageInputStream stream )
+    {
+        if ( reader != null )
+        {
+            reader.dispose ();
+        }
+        if ( stream != null )
+        {
+            try
+            {
+                stream.close ();
+            }
+            catch ( IOException e )
+            {
+                // Ignore stream closing exceptions
+            }
+        }
+    }
+}
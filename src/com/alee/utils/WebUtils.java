@@ -17,6 +17,8 @@
 
 package com.alee.utils;
 
+import com.alee.managers.task.TaskManager;
+
 import java.awt.*;
 import java.io.File;
 import java.io.IOException;
@@ -135,7 +137,7 @@ public final class WebUtils
      */
     public static void shareOnTwitter ( final String address )
     {
-        new Thread ( new Runnable ()
+        TaskManager.execute ( new Runnable ()
         {
             @Override
             public void run ()
@@ -149,7 +151,7 @@ public final class WebUtils
                     //
                 }
             }
-        } ).start ();
+        } );
     }
 
     /**
@@ -159,7 +161,7 @@ public final class WebUtils
      */
     public static void shareOnVk ( final String address )
     {
-        new Thread ( new Runnable ()
+        TaskManager.execute ( new Runnable ()
         {
             @Override
             public void run ()
@@ -173,7 +175,7 @@ public final class WebUtils
                     //
                 }
             }
-        } ).start ();
+        } );
     }
 
     /**
@@ -183,7 +185,7 @@ public final class WebUtils
      */
     public static void shareOnFb ( final String address )
     {
-        new Thread ( new Runnable ()
+        TaskManager.execute ( new Runnable ()
         {
             @Override
             public void run ()
@@ -197,7 +199,7 @@ public final class WebUtils
                     //
                 }
             }
-        } ).start ();
+        } );
     }
 
     /**
@@ -0,0 +1,536 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.utils.cache;
+
+import com.alee.utils.SystemUtils;
+import com.alee.utils.file.FileAttributes;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.DosFileAttributes;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class provides thread-safe cache of file attributes shared by all FileUtils methods that request information about files.
+ * <p/>
+ * Cache entries are keyed by file absolute path and all basic attributes of a single entry are read with one file system call. Entries
+ * for directory children are filled in bulk while listing that directory with {@link #listFiles(java.io.File, java.io.FileFilter)}, so
+ * browsing a directory costs a single pass over the file system.
+ * <p/>
+ * Cache size is bounded, least recently used entries are dropped first. Entries older than the time to live are re-read on the next
+ * request; values computed for an entry, like display name or type description, are kept if file modification time and size haven't
+ * changed.
+ *
+ * @author Mikle Garin
+ * @see com.alee.utils.FileUtils
+ */
+
+public final class FileAttributesCache
+{
+    /**
+     * Cache entries in access order.
+     */
+    private static final LinkedHashMap<String, FileAttributes> entries = new LinkedHashMap<String, FileAttributes> ( 256, 0.75f, true )
+    {
+        @Override
+        protected boolean removeEldestEntry ( final Map.Entry<String, FileAttributes> eldest )
+        {
+            if ( size () > maximumSize )
+            {
+                evictions++;
+                return true;
+            }
+            return false;
+        }
+    };
+
+    /**
+     * Maximum amount of cached entries.
+     */
+    private static int maximumSize = 65536;
+
+    /**
+     * Time in milliseconds after which cached entry gets checked against the file system again.
+     */
+    private static long timeToLive = 10000;
+
+    /**
+     * Cache hits count.
+     */
+    private static long hits = 0;
+
+    /**
+     * Cache misses count.
+     */
+    private static long misses = 0;
+
+    /**
+     * Cache evictions count.
+     */
+    private static long evictions = 0;
+
+    /**
+     * File system reads count.
+     */
+    private static long reads = 0;
+
+    /**
+     * Returns maximum amount of cached entries.
+     *
+     * @return maximum amount of cached entries
+     */
+    public static int getMaximumSize ()
+    {
+        synchronized ( entries )
+        {
+            return maximumSize;
+        }
+    }
+
+    /**
+     * Sets maximum amount of cached entries.
+     * Excessive least recently used entries are dropped right away.
+     *
+     * @param maximumSize maximum amount of cached entries
+     */
+    public static void setMaximumSize ( final int maximumSize )
+    {
+        synchronized ( entries )
+        {
+            FileAttributesCache.maximumSize = maximumSize;
+            final int excessive = entries.size () - maximumSize;
+            if ( excessive > 0 )
+            {
+                final List<String> keys = new ArrayList<String> ( entries.keySet () ).subList ( 0, excessive );
+                entries.keySet ().removeAll ( keys );
+                evictions += excessive;
+            }
+        }
+    }
+
+    /**
+     * Returns time in milliseconds after which cached entry gets checked against the file system again.
+     *
+     * @return time in milliseconds after which cached entry gets checked against the file system again
+     */
+    public static long getTimeToLive ()
+    {
+        synchronized ( entries )
+        {
+            return timeToLive;
+        }
+    }
+
+    /**
+     * Sets time in milliseconds after which cached entry gets checked against the file system again.
+     *
+     * @param timeToLive time in milliseconds after which cached entry gets checked against the file system again
+     */
+    public static void setTimeToLive ( final long timeToLive )
+    {
+        synchronized ( entries )
+        {
+            FileAttributesCache.timeToLive = timeToLive;
+        }
+    }
+
+    /**
+     * Returns attributes for the specified file.
+     * Attributes are read from the file system if there is no valid cached entry for that file.
+     *
+     * @param file file to process
+     * @return attributes for the specified file
+     */
+    public static FileAttributes get ( final File file )
+    {
+        final String path = file.getAbsolutePath ();
+        final FileAttributes cached;
+        synchronized ( entries )
+        {
+            cached = entries.get ( path );
+            if ( cached != null && System.currentTimeMillis () - cached.getReadTime () < timeToLive )
+            {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+        final FileAttributes attributes = read ( file, path );
+        return put ( attributes, cached );
+    }
+
+    /**
+     * Reads attributes of the file under the specified path from the file system and caches them.
+     * This method is useful for caching attributes of files obtained through custom directory listing.
+     *
+     * @param path file path
+     * @return attributes of the file under the specified path
+     */
+    public static FileAttributes load ( final Path path )
+    {
+        final String absolutePath = path.toAbsolutePath ().toString ();
+        final FileAttributes old;
+        synchronized ( entries )
+        {
+            old = entries.get ( absolutePath );
+        }
+        return put ( read ( path, absolutePath ), old );
+    }
+
+    /**
+     * Returns files and directories under the specified directory accepted by the file filter.
+     * Attributes of all listed files are read in the same pass and cached.
+     *
+     * @param directory  directory to look into
+     * @param fileFilter file filter, might be null
+     * @return files and directories under the specified directory or null if directory cannot be listed
+     */
+    public static File[] listFiles ( final File directory, final FileFilter fileFilter )
+    {
+        final Path dir = toPath ( directory );
+        if ( dir == null )
+        {
+            return directory.listFiles ( fileFilter );
+        }
+        final List<File> files = new ArrayList<File> ();
+        final List<FileAttributes> read = new ArrayList<FileAttributes> ();
+        try
+        {
+            final DirectoryStream<Path> stream = Files.newDirectoryStream ( dir );
+            try
+            {
+                for ( final Path path : stream )
+                {
+                    final File file = path.toFile ();
+                    files.add ( file );
+                    read.add ( read ( path, file.getAbsolutePath () ) );
+                }
+            }
+            finally
+            {
+                stream.close ();
+            }
+        }
+        catch ( final NotDirectoryException e )
+        {
+            return null;
+        }
+        catch ( final NoSuchFileException e )
+        {
+            return null;
+        }
+        catch ( final Throwable e )
+        {
+            return directory.listFiles ( fileFilter );
+        }
+
+        // Caching attributes before filtering since file filters usually request them
+        synchronized ( entries )
+        {
+            for ( final FileAttributes attributes : read )
+            {
+                final FileAttributes old = entries.put ( attributes.getPath (), attributes );
+                if ( old != null && old.isSameFile ( attributes ) )
+                {
+                    attributes.inherit ( old );
+                }
+            }
+        }
+
+        // Filtering files
+        if ( fileFilter != null )
+        {
+            final List<File> accepted = new ArrayList<File> ( files.size () );
+            for ( final File file : files )
+            {
+                if ( fileFilter.accept ( file ) )
+                {
+                    accepted.add ( file );
+                }
+            }
+            return accepted.toArray ( new File[ accepted.size () ] );
+        }
+        else
+        {
+            return files.toArray ( new File[ files.size () ] );
+        }
+    }
+
+    /**
+     * Removes cached attributes of the specified file.
+     *
+     * @param file file to remove cached attributes for
+     */
+    public static void clear ( final File file )
+    {
+        clear ( file.getAbsolutePath () );
+    }
+
+    /**
+     * Removes cached attributes of the file under the specified path.
+     *
+     * @param path absolute file path
+     */
+    public static void clear ( final String path )
+    {
+        synchronized ( entries )
+        {
+            entries.remove ( path );
+        }
+    }
+
+    /**
+     * Removes cached attributes of all files located directly under the specified directory.
+     *
+     * @param directory directory to remove cached children attributes for
+     */
+    public static void clearChildren ( final File directory )
+    {
+        final String path = directory.getAbsolutePath ();
+        synchronized ( entries )
+        {
+            final Iterator<String> iterator = entries.keySet ().iterator ();
+            while ( iterator.hasNext () )
+            {
+                final String parent = new File ( iterator.next () ).getParent ();
+                if ( parent != null && parent.equals ( path ) )
+                {
+                    iterator.remove ();
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all cached attributes.
+     */
+    public static void clear ()
+    {
+        synchronized ( entries )
+        {
+            entries.clear ();
+        }
+    }
+
+    /**
+     * Returns amount of cached entries.
+     *
+     * @return amount of cached entries
+     */
+    public static int size ()
+    {
+        synchronized ( entries )
+        {
+            return entries.size ();
+        }
+    }
+
+    /**
+     * Returns cache hits count.
+     *
+     * @return cache hits count
+     */
+    public static long getHits ()
+    {
+        synchronized ( entries )
+        {
+            return hits;
+        }
+    }
+
+    /**
+     * Returns cache misses count.
+     *
+     * @return cache misses count
+     */
+    public static long getMisses ()
+    {
+        synchronized ( entries )
+        {
+            return misses;
+        }
+    }
+
+    /**
+     * Returns cache evictions count.
+     *
+     * @return cache evictions count
+     */
+    public static long getEvictions ()
+    {
+        synchronized ( entries )
+        {
+            return evictions;
+        }
+    }
+
+    /**
+     * Returns amount of file attributes reads from the file system.
+     *
+     * @return amount of file attributes reads from the file system
+     */
+    public static long getReads ()
+    {
+        synchronized ( entries )
+        {
+            return reads;
+        }
+    }
+
+    /**
+     * Resets cache statistics.
+     */
+    public static void resetStatistics ()
+    {
+        synchronized ( entries )
+        {
+            hits = 0;
+            misses = 0;
+            evictions = 0;
+            reads = 0;
+        }
+    }
+
+    /**
+     * Caches read attributes and returns them.
+     * Values computed for the old entry are taken over if file didn't change.
+     *
+     * @param attributes read attributes
+     * @param old        old entry for the same file, might be null
+     * @return cached attributes
+     */
+    private static FileAttributes put ( final FileAttributes attributes, final FileAttributes old )
+    {
+        if ( old != null && old.isSameFile ( attributes ) )
+        {
+            attributes.inherit ( old );
+        }
+        synchronized ( entries )
+        {
+            entries.put ( attributes.getPath (), attributes );
+        }
+        return attributes;
+    }
+
+    /**
+     * Reads attributes of the specified file from the file system.
+     *
+     * @param file file to process
+     * @param path file absolute path
+     * @return attributes of the specified file
+     */
+    private static FileAttributes read ( final File file, final String path )
+    {
+        final Path nioPath = toPath ( file );
+        if ( nioPath != null )
+        {
+            return read ( nioPath, path );
+        }
+        else
+        {
+            countRead ();
+            return new FileAttributes ( file );
+        }
+    }
+
+    /**
+     * Reads attributes of the file under the specified path with a single file system call.
+     *
+     * @param nioPath file system path
+     * @param path    file absolute path
+     * @return attributes of the file under the specified path
+     */
+    private static FileAttributes read ( final Path nioPath, final String path )
+    {
+        countRead ();
+        try
+        {
+            final boolean windows = SystemUtils.isWindows ();
+            final BasicFileAttributes attributes;
+            if ( windows )
+            {
+                attributes = Files.readAttributes ( nioPath, DosFileAttributes.class );
+            }
+            else
+            {
+                attributes = Files.readAttributes ( nioPath, BasicFileAttributes.class );
+            }
+
+            // Roots are never considered hidden, just like in FileUtils.isHidden method
+            final Path name = nioPath.getFileName ();
+            final boolean hidden = nioPath.getParent () != null &&
+                    ( windows ? ( ( DosFileAttributes ) attributes ).isHidden () : name != null && name.toString ().startsWith ( "." ) );
+
+            final long lastModified = attributes.lastModifiedTime ().toMillis ();
+            final long creationTime = attributes.creationTime () != null ? attributes.creationTime ().toMillis () : lastModified;
+            return new FileAttributes ( path, true, attributes.isRegularFile (), attributes.isDirectory (), hidden,
+                    attributes.isDirectory () ? 0 : attributes.size (), lastModified, creationTime );
+        }
+        catch ( final NoSuchFileException e )
+        {
+            return new FileAttributes ( path, false, false, false, false, 0, 0, 0 );
+        }
+        catch ( final IOException e )
+        {
+            // Some files cannot be read this way (for example due to access restrictions)
+            return new FileAttributes ( new File ( path ) );
+        }
+    }
+
+    /**
+     * Increments file system reads count.
+     */
+    private static void countRead ()
+    {
+        synchronized ( entries )
+        {
+            reads++;
+        }
+    }
+
+    /**
+     * Returns file system path for the specified file or null if that file cannot be represented as a file system path.
+     * For example some system folders provided by FileSystemView cannot be.
+     *
+     * @param file file to process
+     * @return file system path for the specified file or null if that file cannot be represented as a file system path
+     */
+    public static Path toPath ( final File file )
+    {
+        if ( file.getClass () != File.class )
+        {
+            // Custom File implementations like ShellFolder might not be backed by real file system
+            return null;
+        }
+        try
+        {
+            return file.toPath ();
+        }
+        catch ( final InvalidPathException e )
+        {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,730 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.alee.utils.cache;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Thread-safe image cache namespace bounded by the estimated amount of memory used by cached images.
+ * <p/>
+ * Each namespace has its own memory limit and eviction policy and can optionally keep its values through soft references so that they
+ * can be reclaimed by garbage collector before the limit is reached. Namespaces are registered globally so that statistics for all of
+ * them can be retrieved in one place.
+ *
+ * @param <V> cached value type
+ * @author Mikle Garin
+ */
+
+public final class ImageCache<V>
+{
+    /**
+     * Estimated memory used by a single cache entry in addition to its value.
+     */
+    private static final long ENTRY_OVERHEAD = 64;
+
+    /**
+     * Amount of cache hits per cached entry after which usage frequencies of all entries are halved.
+     * This lets entries which were frequently used long ago to be evicted once they are no longer used.
+     */
+    private static final int AGING_PERIOD = 8;
+
+    /**
+     * Registered cache namespaces.
+     */
+    private static final Map<String, ImageCache> namespaces = new LinkedHashMap<String, ImageCache> ();
+
+    /**
+     * Namespace name.
+     */
+    private final String name;
+
+    /**
+     * Eviction policy.
+     */
+    private final EvictionPolicy policy;
+
+    /**
+     * Whether values are kept through soft references or not.
+     */
+    private final boolean soft;
+
+    /**
+     * Cache entries in access order.
+     */
+    private final LinkedHashMap<String, Entry<V>> entries = new LinkedHashMap<String, Entry<V>> ( 16, 0.75f, true );
+
+    /**
+     * Cache entries grouped by usage frequency, each group is kept in access order.
+     * Only used by {@link EvictionPolicy#leastFrequentlyUsed} policy.
+     */
+    private final TreeMap<Long, LinkedHashSet<Entry<V>>> frequencies = new TreeMap<Long, LinkedHashSet<Entry<V>>> ();
+
+    /**
+     * Last added entry.
+     */
+    private Entry<V> newest = null;
+
+    /**
+     * Cache hits count since last usage frequencies aging.
+     */
+    private long agingHits = 0;
+
+    /**
+     * Queue of cleared soft references.
+     */
+    private final ReferenceQueue<V> queue = new ReferenceQueue<V> ();
+
+    /**
+     * Maximum estimated memory used by cached values in bytes.
+     */
+    private long maximumBytes;
+
+    /**
+     * Estimated memory used by cached values in bytes.
+     */
+    private long bytes = 0;
+
+    /**
+     * Cache hits count.
+     */
+    private long hits = 0;
+
+    /**
+     * Cache misses count.
+     */
+    private long misses = 0;
+
+    /**
+     * Cache evictions count.
+     */
+    private long evictions = 0;
+
+    /**
+     * Values reclaimed by garbage collector count.
+     */
+    private long reclaimed = 0;
+
+    /**
+     * Constructs and registers new cache namespace.
+     *
+     * @param name         namespace name
+     * @param maximumBytes maximum estimated memory used by cached values in bytes
+     * @param policy       eviction policy
+     * @param soft         whether values should be kept through soft references or not
+     */
+    public ImageCache ( final String name, final long maximumBytes, final EvictionPolicy policy, final boolean soft )
+    {
+        super ();
+        this.name = name;
+        this.maximumBytes = maximumBytes;
+        this.policy = policy;
+        this.soft = soft;
+        synchronized ( namespaces )
+        {
+            namespaces.put ( name, this );
+        }
+    }
+
+    /**
+     * Returns all registered cache namespaces.
+     *
+     * @return all registered cache namespaces
+     */
+    public static List<ImageCache> getNamespaces ()
+    {
+        synchronized ( namespaces )
+        {
+            return new ArrayList<ImageCache> ( namespaces.values () );
+        }
+    }
+
+    /**
+     * Returns registered cache namespace with the specified name or null if it doesn't exist.
+     *
+     * @param name namespace name
+     * @return registered cache namespace with the specified name or null if it doesn't exist
+     */
+    public static ImageCache getNamespace ( final String name )
+    {
+        synchronized ( namespaces )
+        {
+            return namespaces.get ( name );
+        }
+    }
+
+    /**
+     * Returns estimated memory used by all registered namespaces in bytes.
+     *
+     * @return estimated memory used by all registered namespaces in bytes
+     */
+    public static long getTotalBytes ()
+    {
+        long total = 0;
+        for ( final ImageCache cache : getNamespaces () )
+        {
+            total += cache.getBytes ();
+        }
+        return total;
+    }
+
+    /**
+     * Clears all registered namespaces.
+     */
+    public static void clearAll ()
+    {
+        for ( final ImageCache cache : getNamespaces () )
+        {
+            cache.clear ();
+        }
+    }
+
+    /**
+     * Returns namespace name.
+     *
+     * @return namespace name
+     */
+    public String getName ()
+    {
+        return name;
+    }
+
+    /**
+     * Returns eviction policy.
+     *
+     * @return eviction policy
+     */
+    public EvictionPolicy getPolicy ()
+    {
+        return policy;
+    }
+
+    /**
+     * Returns whether values are kept through soft references or not.
+     *
+     * @return true if values are kept through soft references, false otherwise
+     */
+    public boolean isSoft ()
+    {
+        return soft;
+    }
+
+    /**
+     * Returns cached value or null if there is no value cached under the specified key.
+     *
+     * @param key value key
+     * @return cached value or null if there is no value cached under the specified key
+     */
+    public synchronized V get ( final String key )
+    {
+        purge ();
+        final Entry<V> entry = entries.get ( key );
+        final V value = entry != null ? entry.get () : null;
+        if ( value != null )
+        {
+            if ( policy == EvictionPolicy.leastFrequentlyUsed )
+            {
+                unlink ( entry );
+                entry.frequency++;
+                link ( entry );
+                age ();
+            }
+            hits++;
+        }
+        else
+        {
+            if ( entry != null )
+            {
+                // Value was reclaimed by garbage collector
+                remove ( entry );
+                reclaimed++;
+            }
+            misses++;
+        }
+        return value;
+    }
+
+    /**
+     * Returns whether value is cached under the specified key or not.
+     * This method doesn't affect statistics.
+     *
+     * @param key value key
+     * @return true if value is cached under the specified key, false otherwise
+     */
+    public synchronized boolean contains ( final String key )
+    {
+        purge ();
+        final Entry<V> entry = entries.get ( key );
+        return entry != null && entry.get () != null;
+    }
+
+    /**
+     * Caches value under the specified key.
+     * Null value removes cached value instead.
+     *
+     * @param key   value key
+     * @param value value to cache
+     */
+    public synchronized void put ( final String key, final V value )
+    {
+        purge ();
+        if ( value != null )
+        {
+            final Entry<V> entry = new Entry<V> ( key, value, estimateSize ( value ) + ENTRY_OVERHEAD, soft ? queue : null );
+            final Entry<V> old = entries.put ( key, entry );
+            if ( old != null )
+            {
+                bytes -= old.size;
+                entry.frequency = old.frequency;
+                old.removed = true;
+                unlink ( old );
+            }
+            bytes += entry.size;
+            link ( entry );
+            newest = entry;
+            evict ();
+        }
+        else
+        {
+            remove ( key );
+        }
+    }
+
+    /**
+     * Removes value cached under the specified key and returns it.
+     *
+     * @param key value key
+     * @return removed value or null if there was no value cached under the specified key
+     */
+    public synchronized V remove ( final String key )
+    {
+        purge ();
+        final Entry<V> entry = entries.get ( key );
+        if ( entry != null )
+        {
+            remove ( entry );
+            return entry.get ();
+        }
+        return null;
+    }
+
+    /**
+     * Removes all cached values.
+     */
+    public synchronized void clear ()
+    {
+        for ( final Entry<V> entry : entries.values () )
+        {
+            entry.removed = true;
+        }
+        entries.clear ();
+        frequencies.clear ();
+        newest = null;
+        agingHits = 0;
+        bytes = 0;
+        purge ();
+    }
+
+    /**
+     * Returns all cached keys.
+     *
+     * @return all cached keys
+     */
+    public synchronized List<String> getKeys ()
+    {
+        purge ();
+        return new ArrayList<String> ( entries.keySet () );
+    }
+
+    /**
+     * Returns maximum estimated memory used by cached values in bytes.
+     *
+     * @return maximum estimated memory used by cached values in bytes
+     */
+    public synchronized long getMaximumBytes ()
+    {
+        return maximumBytes;
+    }
+
+    /**
+     * Sets maximum estimated memory used by cached values in bytes.
+     *
+     * @param maximumBytes maximum estimated memory used by cached values in bytes
+     */
+    public synchronized void setMaximumBytes ( final long maximumBytes )
+    {
+        this.maximumBytes = maximumBytes;
+        evict ();
+    }
+
+    /**
+     * Returns estimated memory used by cached values in bytes.
+     *
+     * @return estimated memory used by cached values in bytes
+     */
+    public synchronized long getBytes ()
+    {
+        purge ();
+        return bytes;
+    }
+
+    /**
+     * Returns amount of cached values.
+     *
+     * @return amount of cached values
+     */
+    public synchronized int size ()
+    {
+        purge ();
+        return entries.size ();
+    }
+
+    /**
+     * Returns cache hits count.
+     *
+     * @return cache hits count
+     */
+    public synchronized long getHits ()
+    {
+        return hits;
+    }
+
+    /**
+     * Returns cache misses count.
+     *
+     * @return cache misses count
+     */
+    public synchronized long getMisses ()
+    {
+        return misses;
+    }
+
+    /**
+     * Returns cache evictions count.
+     *
+     * @return cache evictions count
+     */
+    public synchronized long getEvictions ()
+    {
+        return evictions;
+    }
+
+    /**
+     * Returns count of values reclaimed by garbage collector.
+     *
+     * @return count of values reclaimed by garbage collector
+     */
+    public synchronized long getReclaimed ()
+    {
+        purge ();
+        return reclaimed;
+    }
+
+    /**
+     * Resets cache statistics.
+     */
+    public synchronized void resetStatistics ()
+    {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+        reclaimed = 0;
+    }
+
+    /**
+     * Removes entry from the cache.
+     *
+     * @param entry entry to remove
+     */
+    private void remove ( final Entry<V> entry )
+    {
+        if ( !entry.removed )
+        {
+            entry.removed = true;
+            entries.remove ( entry.key );
+            unlink ( entry );
+            bytes -= entry.size;
+            if ( entry == newest )
+            {
+                newest = null;
+            }
+        }
+    }
+
+    /**
+     * Adds entry into its usage frequency group.
+     *
+     * @param entry entry to add
+     */
+    private void link ( final Entry<V> entry )
+    {
+        if ( policy == EvictionPolicy.leastFrequentlyUsed )
+        {
+            LinkedHashSet<Entry<V>> group = frequencies.get ( entry.frequency );
+            if ( group == null )
+            {
+                group = new LinkedHashSet<Entry<V>> ();
+                frequencies.put ( entry.frequency, group );
+            }
+            group.add ( entry );
+        }
+    }
+
+    /**
+     * Removes entry from its usage frequency group.
+     *
+     * @param entry entry to remove
+     */
+    private void unlink ( final Entry<V> entry )
+    {
+        if ( policy == EvictionPolicy.leastFrequentlyUsed )
+        {
+            final LinkedHashSet<Entry<V>> group = frequencies.get ( entry.frequency );
+            if ( group != null && group.remove ( entry ) && group.isEmpty () )
+            {
+                frequencies.remove ( entry.frequency );
+            }
+        }
+    }
+
+    /**
+     * Halves usage frequencies of all entries once enough cache hits happened since last aging.
+     * Aging costs linear time but happens rarely enough to keep amortized cost of each cache hit constant.
+     */
+    private void age ()
+    {
+        agingHits++;
+        if ( agingHits >= ( long ) entries.size () * AGING_PERIOD )
+        {
+            agingHits = 0;
+            final List<LinkedHashSet<Entry<V>>> groups = new ArrayList<LinkedHashSet<Entry<V>>> ( frequencies.values () );
+            frequencies.clear ();
+            for ( final LinkedHashSet<Entry<V>> group : groups )
+            {
+                for ( final Entry<V> entry : group )
+                {
+                    entry.frequency /= 2;
+                    link ( entry );
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns entry which should be evicted first or null if there is none.
+     * The last added entry is only returned if it is the only entry left.
+     *
+     * @return entry which should be evicted first
+     */
+    private Entry<V> getVictim ()
+    {
+        if ( policy == EvictionPolicy.leastFrequentlyUsed )
+        {
+            // Least frequently used entries, least recently used first
+            for ( final LinkedHashSet<Entry<V>> group : frequencies.values () )
+            {
+                for ( final Entry<V> entry : group )
+                {
+                    if ( entry != newest )
+                    {
+                        return entry;
+                    }
+                }
+            }
+        }
+        else
+        {
+            // Least recently used entries
+            for ( final Entry<V> entry : entries.values () )
+            {
+                if ( entry != newest )
+                {
+                    return entry;
+                }
+            }
+        }
+        return newest;
+    }
+
+    /**
+     * Removes entries which values were reclaimed by garbage collector.
+     */
+    private void purge ()
+    {
+        Object reference;
+        while ( ( reference = queue.poll () ) != null )
+        {
+            final Entry entry = ( ( ValueReference ) reference ).entry;
+            if ( !entry.removed )
+            {
+                remove ( ( Entry<V> ) entry );
+                reclaimed++;
+            }
+        }
+    }
+
+    /**
+     * Evicts entries until cache fits into its memory limit.
+     * The last added entry is never evicted unless it doesn't fit into the limit on its own.
+     */
+    private void evict ()
+    {
+        while ( bytes > maximumBytes && entries.size () > 0 )
+        {
+            remove ( getVictim () );
+            evictions++;
+        }
+    }
+
+    /**
+     * Returns estimated amount of memory used by the specified value in bytes.
+     *
+     * @param value value to estimate memory for
+     * @return estimated amount of memory used by the specified value in bytes
+     */
+    public static long estimateSize ( final Object value )
+    {
+        if ( value instanceof BufferedImage )
+        {
+            final DataBuffer buffer = ( ( BufferedImage ) value ).getRaster ().getDataBuffer ();
+            return ( long ) buffer.getSize () * buffer.getNumBanks () * DataBuffer.getDataTypeSize ( buffer.getDataType () ) / 8;
+        }
+        else if ( value instanceof ImageIcon )
+        {
+            final Image image = ( ( ImageIcon ) value ).getImage ();
+            return image != null ? estimateSize ( image ) : 0;
+        }
+        else if ( value instanceof Image )
+        {
+            final Image image = ( Image ) value;
+            return ( long ) Math.max ( 0, image.getWidth ( null ) ) * Math.max ( 0, image.getHeight ( null ) ) * 4;
+        }
+        else if ( value instanceof Icon )
+        {
+            final Icon icon = ( Icon ) value;
+            return ( long ) Math.max ( 0, icon.getIconWidth () ) * Math.max ( 0, icon.getIconHeight () ) * 4;
+        }
+        else
+        {
+            return 0;
+        }
+    }
+
+    @Override
+    public String toString ()
+    {
+        return name + " [" + size () + " values, " + getBytes () + "/" + getMaximumBytes () + " bytes, " + getHits () + " hits, " +
+                getMisses () + " misses, " + getEvictions () + " evictions]";
+    }
+
+    /**
+     * Cache entry.
+     *
+     * @param <V> cached value type
+     */
+    private static final class Entry<V>
+    {
+        /**
+         * Value key.
+         */
+        private final String key;
+
+        /**
+         * Strongly referenced value, null if value is softly referenced.
+         */
+        private final V value;
+
+        /**
+         * Softly referenced value, null if value is strongly referenced.
+         */
+        private final ValueReference<V> reference;
+
+        /**
+         * Estimated entry size in bytes.
+         */
+        private final long size;
+
+        /**
+         * Usage frequency.
+         */
+        private long frequency = 0;
+
+        /**
+         * Whether entry was removed from the cache or not.
+         */
+        private boolean removed = false;
+
+        /**
+         * Constructs new cache entry.
+         *
+         * @param key   value key
+         * @param value cached value
+         * @param size  estimated entry size in bytes
+         * @param queue soft references queue, null if value should be referenced strongly
+         */
+        private Entry ( final String key, final V value, final long size, final ReferenceQueue<V> queue )
+        {
+            super ();
+            this.key = key;
+            this.value = queue == null ? value : null;
+            this.reference = queue != null ? new ValueReference<V> ( value, queue, this ) : null;
+            this.size = size;
+        }
+
+        /**
+         * Returns cached value or null if it was reclaimed by garbage collector.
+         *
+         * @return cached value or null if it was reclaimed by garbage collector
+         */
+        private V get ()
+        {
+            return reference != null ? reference.get () : value;
+        }
+    }
+
+    /**
+     * Soft value reference which knows its cache entry.
+     *
+     * @param <V> cached value type
+     */
+    private static final class ValueReference<V> extends SoftReference<V>
+    {
+        /**
+         * Cache entry.
+         */
+        private final Entry<V> entry;
+
+        /**
+         * Constructs new soft value reference.
+         *
+         * @param value value
+         * @param queue references queue
+         * @param entry cache entry
+         */
+        private ValueReference ( final V value, final ReferenceQueue<V> queue, final Entry<V> entry )
+        {
+            super ( value, queue );
+            this.entry = entry;
+        }
+    }
+}
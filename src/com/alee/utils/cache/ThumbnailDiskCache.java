@@ -0,0 +1,976 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.alee.utils.cache;
+
+import com.alee.managers.settings.SettingsManager;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class provides persistent on-disk storage for image thumbnails.
+ * <p/>
+ * Disk cache is disabled by default and has to be enabled explicitly through {@link #setEnabled(boolean)} since it writes files into the
+ * user home directory. If cache directory cannot be created or is not writable cache silently stays inactive.
+ * <p/>
+ * Thumbnails are stored as PNG data appended to a single pack file and located through an append-only index file, both placed into the
+ * "thumbnails" folder of the SettingsManager default settings directory unless other directory is specified. Entries are keyed by file
+ * absolute path, file size, file modification time and requested thumbnail size so that changed files never get outdated thumbnails.
+ * <p/>
+ * Cache directory is used by a single process at a time: it is locked through a separate lock file and if another application already
+ * holds that lock thumbnails are simply not cached on disk.
+ * <p/>
+ * Pack file size is capped: once it exceeds the maximum size, least recently used thumbnails are dropped and pack is rewritten into a new
+ * generation file along with a new index which atomically replaces the old one, so interrupted compaction leaves previous cache intact.
+ * Any storage failure silently disables the cache until its directory is changed.
+ *
+ * @author Mikle Garin
+ * @see com.alee.utils.ThumbnailUtils
+ */
+
+public final class ThumbnailDiskCache
+{
+    /**
+     * Index file header marker.
+     */
+    private static final int INDEX_MAGIC = 0x57544331;
+
+    /**
+     * Index record type for added thumbnail.
+     */
+    private static final byte PUT_RECORD = 1;
+
+    /**
+     * Index record type for removed thumbnail.
+     */
+    private static final byte REMOVE_RECORD = 0;
+
+    /**
+     * Index file name.
+     */
+    private static final String INDEX_FILE = "thumbnails.index";
+
+    /**
+     * Temporary index file name used during compaction.
+     */
+    private static final String TEMPORARY_INDEX_FILE = "thumbnails.index.tmp";
+
+    /**
+     * Lock file name.
+     * Separate file is used since index file is replaced on compaction and lock has to outlive it.
+     */
+    private static final String LOCK_FILE = "thumbnails.lock";
+
+    /**
+     * Pack files name prefix.
+     */
+    private static final String PACK_PREFIX = "thumbnails.";
+
+    /**
+     * Pack files extension.
+     */
+    private static final String PACK_EXTENSION = ".pack";
+
+    /**
+     * Key parts separator.
+     */
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Cache lock.
+     */
+    private static final Object lock = new Object ();
+
+    /**
+     * Whether disk cache is enabled or not.
+     * It is disabled by default so that no files are written unless application asks for it.
+     */
+    private static boolean enabled = false;
+
+    /**
+     * Custom cache directory, null to use default one.
+     */
+    private static File directory = null;
+
+    /**
+     * Maximum pack file size in bytes.
+     */
+    private static long maximumSize = 64 * 1024 * 1024;
+
+    /**
+     * Whether cache files were opened or not.
+     */
+    private static boolean opened = false;
+
+    /**
+     * Whether cache storage has failed or not.
+     */
+    private static boolean failed = false;
+
+    /**
+     * Cached thumbnails in access order.
+     */
+    private static final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry> ( 16, 0.75f, true );
+
+    /**
+     * Current pack file generation.
+     */
+    private static int generation = 0;
+
+    /**
+     * Pack file.
+     */
+    private static RandomAccessFile pack = null;
+
+    /**
+     * Index file.
+     */
+    private static RandomAccessFile index = null;
+
+    /**
+     * Lock file.
+     */
+    private static RandomAccessFile lockFile = null;
+
+    /**
+     * Cache directory lock held while cache files are opened.
+     */
+    private static FileLock directoryLock = null;
+
+    /**
+     * Total size of live thumbnails data in bytes.
+     */
+    private static long liveSize = 0;
+
+    /**
+     * Cache hits count.
+     */
+    private static long hits = 0;
+
+    /**
+     * Cache misses count.
+     */
+    private static long misses = 0;
+
+    /**
+     * Returns whether disk cache is enabled or not.
+     *
+     * @return true if disk cache is enabled, false otherwise
+     */
+    public static boolean isEnabled ()
+    {
+        return enabled;
+    }
+
+    /**
+     * Sets whether disk cache is enabled or not.
+     * Enabling cache also resets previous storage failure so that cache directory is checked again.
+     *
+     * @param enabled whether disk cache is enabled or not
+     */
+    public static void setEnabled ( final boolean enabled )
+    {
+        synchronized ( lock )
+        {
+            ThumbnailDiskCache.enabled = enabled;
+            if ( enabled )
+            {
+                failed = false;
+            }
+            else
+            {
+                close ();
+            }
+        }
+    }
+
+    /**
+     * Returns cache directory.
+     *
+     * @return cache directory
+     */
+    public static File getDirectory ()
+    {
+        synchronized ( lock )
+        {
+            return directory != null ? directory : new File ( SettingsManager.getDefaultSettingsDir (), "thumbnails" );
+        }
+    }
+
+    /**
+     * Sets cache directory.
+     * Null value resets cache directory to the default one.
+     *
+     * @param directory cache directory
+     */
+    public static void setDirectory ( final File directory )
+    {
+        synchronized ( lock )
+        {
+            close ();
+            ThumbnailDiskCache.directory = directory;
+            failed = false;
+        }
+    }
+
+    /**
+     * Returns maximum pack file size in bytes.
+     *
+     * @return maximum pack file size in bytes
+     */
+    public static long getMaximumSize ()
+    {
+        return maximumSize;
+    }
+
+    /**
+     * Sets maximum pack file size in bytes.
+     *
+     * @param maximumSize maximum pack file size in bytes
+     */
+    public static void setMaximumSize ( final long maximumSize )
+    {
+        synchronized ( lock )
+        {
+            ThumbnailDiskCache.maximumSize = maximumSize;
+        }
+    }
+
+    /**
+     * Returns total size of cached thumbnails data in bytes.
+     *
+     * @return total size of cached thumbnails data in bytes
+     */
+    public static long getSize ()
+    {
+        synchronized ( lock )
+        {
+            return liveSize;
+        }
+    }
+
+    /**
+     * Returns amount of cached thumbnails.
+     *
+     * @return amount of cached thumbnails
+     */
+    public static int getThumbnailsCount ()
+    {
+        synchronized ( lock )
+        {
+            return open () ? entries.size () : 0;
+        }
+    }
+
+    /**
+     * Returns cache hits count.
+     *
+     * @return cache hits count
+     */
+    public static long getHits ()
+    {
+        synchronized ( lock )
+        {
+            return hits;
+        }
+    }
+
+    /**
+     * Returns cache misses count.
+     *
+     * @return cache misses count
+     */
+    public static long getMisses ()
+    {
+        synchronized ( lock )
+        {
+            return misses;
+        }
+    }
+
+    /**
+     * Returns cached thumbnail for the specified file and thumbnail size or null if it is not cached.
+     *
+     * @param file image file
+     * @param size thumbnail size
+     * @return cached thumbnail for the specified file and thumbnail size or null if it is not cached
+     */
+    public static ImageIcon get ( final File file, final int size )
+    {
+        final byte[] data;
+        final String description;
+        synchronized ( lock )
+        {
+            if ( !open () )
+            {
+                return null;
+            }
+            final Entry entry = entries.get ( getKey ( file, size ) );
+            if ( entry == null )
+            {
+                misses++;
+                return null;
+            }
+            data = read ( entry );
+            if ( data == null )
+            {
+                misses++;
+                return null;
+            }
+            description = entry.description;
+            hits++;
+        }
+
+        // Decoding thumbnail outside of the lock
+        try
+        {
+            final BufferedImage image = ImageIO.read ( new ByteArrayInputStream ( data ) );
+            if ( image != null )
+            {
+                final ImageIcon icon = new ImageIcon ( image );
+                icon.setDescription ( description );
+                return icon;
+            }
+        }
+        catch ( Throwable e )
+        {
+            // Damaged thumbnail data
+        }
+        remove ( file, size );
+        return null;
+    }
+
+    /**
+     * Stores thumbnail for the specified file and thumbnail size.
+     *
+     * @param file      image file
+     * @param size      thumbnail size
+     * @param thumbnail thumbnail icon
+     */
+    public static void put ( final File file, final int size, final ImageIcon thumbnail )
+    {
+        if ( !enabled || thumbnail == null || thumbnail.getImage () == null || thumbnail.getIconWidth () <= 0 ||
+                thumbnail.getIconHeight () <= 0 )
+        {
+            return;
+        }
+
+        // Encoding thumbnail outside of the lock
+        final byte[] data;
+        try
+        {
+            final BufferedImage image = new BufferedImage ( thumbnail.getIconWidth (), thumbnail.getIconHeight (),
+                    BufferedImage.TYPE_INT_ARGB );
+            final Graphics2D g2d = image.createGraphics ();
+            g2d.drawImage ( thumbnail.getImage (), 0, 0, null );
+            g2d.dispose ();
+            final ByteArrayOutputStream out = new ByteArrayOutputStream ();
+            ImageIO.write ( image, "png", out );
+            data = out.toByteArray ();
+        }
+        catch ( Throwable e )
+        {
+            return;
+        }
+
+        final String description = thumbnail.getDescription () != null ? thumbnail.getDescription () : "";
+        synchronized ( lock )
+        {
+            if ( !open () )
+            {
+                return;
+            }
+            try
+            {
+                final String key = getKey ( file, size );
+                final long offset = pack.length ();
+                pack.seek ( offset );
+                pack.write ( data );
+
+                index.seek ( index.length () );
+                index.write ( createPutRecord ( key, offset, data.length, description ) );
+
+                final Entry old = entries.put ( key, new Entry ( offset, data.length, description ) );
+                if ( old != null )
+                {
+                    liveSize -= old.length;
+                }
+                liveSize += data.length;
+
+                if ( pack.length () > maximumSize )
+                {
+                    compact ();
+                }
+            }
+            catch ( Throwable e )
+            {
+                fail ();
+            }
+        }
+    }
+
+    /**
+     * Removes cached thumbnail for the specified file and thumbnail size.
+     *
+     * @param file image file
+     * @param size thumbnail size
+     */
+    public static void remove ( final File file, final int size )
+    {
+        synchronized ( lock )
+        {
+            if ( !open () )
+            {
+                return;
+            }
+            final String key = getKey ( file, size );
+            final Entry entry = entries.remove ( key );
+            if ( entry != null )
+            {
+                liveSize -= entry.length;
+                try
+                {
+                    final ByteArrayOutputStream bytes = new ByteArrayOutputStream ();
+                    final DataOutputStream out = new DataOutputStream ( bytes );
+                    out.writeByte ( REMOVE_RECORD );
+                    out.writeUTF ( key );
+                    out.flush ();
+                    index.seek ( index.length () );
+                    index.write ( bytes.toByteArray () );
+                }
+                catch ( Throwable e )
+                {
+                    fail ();
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all cached thumbnails and cache files.
+     */
+    public static void clear ()
+    {
+        synchronized ( lock )
+        {
+            close ();
+            final File dir = getDirectory ();
+            if ( dir.exists () && lock ( dir ) )
+            {
+                // Files are only removed if they are not used by another process
+                final File[] files = dir.listFiles ();
+                if ( files != null )
+                {
+                    for ( final File file : files )
+                    {
+                        if ( isCacheFile ( file ) && !file.delete () )
+                        {
+                            file.deleteOnExit ();
+                        }
+                    }
+                }
+            }
+            closeFiles ();
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    /**
+     * Closes cache files.
+     * They will be opened again on the next cache access.
+     */
+    public static void close ()
+    {
+        synchronized ( lock )
+        {
+            closeFiles ();
+            entries.clear ();
+            liveSize = 0;
+            opened = false;
+        }
+    }
+
+    /**
+     * Returns cache key for the specified file and thumbnail size.
+     *
+     * @param file image file
+     * @param size thumbnail size
+     * @return cache key for the specified file and thumbnail size
+     */
+    private static String getKey ( final File file, final int size )
+    {
+        return file.getAbsolutePath () + SEPARATOR + file.length () + SEPARATOR + file.lastModified () + SEPARATOR + size;
+    }
+
+    /**
+     * Opens cache files if they are not opened yet and returns whether cache is operational or not.
+     *
+     * @return true if cache is operational, false otherwise
+     */
+    private static boolean open ()
+    {
+        if ( !enabled || failed )
+        {
+            return false;
+        }
+        if ( opened )
+        {
+            return true;
+        }
+        try
+        {
+            final File dir = getDirectory ();
+            if ( !dir.exists () && !dir.mkdirs () || !dir.isDirectory () || !dir.canWrite () )
+            {
+                fail ();
+                return false;
+            }
+
+            // Locking cache directory, cache is not used if another process already uses it
+            if ( !lock ( dir ) )
+            {
+                fail ();
+                return false;
+            }
+
+            // Reading or creating index
+            index = new RandomAccessFile ( new File ( dir, INDEX_FILE ), "rw" );
+            final boolean valid = index.length () >= 8 && index.readInt () == INDEX_MAGIC;
+            if ( valid )
+            {
+                generation = index.readInt ();
+            }
+            else
+            {
+                generation = 0;
+                index.setLength ( 0 );
+                index.writeInt ( INDEX_MAGIC );
+                index.writeInt ( generation );
+            }
+            pack = new RandomAccessFile ( getPackFile ( dir, generation ), "rw" );
+            if ( valid )
+            {
+                replayIndex ();
+            }
+            else
+            {
+                // Pack data is useless without index
+                pack.setLength ( 0 );
+            }
+
+            // Removing outdated pack generations
+            final File[] files = dir.listFiles ();
+            if ( files != null )
+            {
+                final File current = getPackFile ( dir, generation );
+                for ( final File file : files )
+                {
+                    if ( isCacheFile ( file ) && file.getName ().endsWith ( PACK_EXTENSION ) && !file.equals ( current ) )
+                    {
+                        file.delete ();
+                    }
+                }
+            }
+
+            opened = true;
+            return true;
+        }
+        catch ( Throwable e )
+        {
+            fail ();
+            return false;
+        }
+    }
+
+    /**
+     * Locks specified cache directory and returns whether lock was acquired or not.
+     *
+     * @param dir cache directory
+     * @return true if cache directory lock was acquired, false otherwise
+     */
+    private static boolean lock ( final File dir )
+    {
+        try
+        {
+            lockFile = new RandomAccessFile ( new File ( dir, LOCK_FILE ), "rw" );
+            directoryLock = lockFile.getChannel ().tryLock ();
+        }
+        catch ( OverlappingFileLockException e )
+        {
+            // Directory is already locked within this JVM
+            directoryLock = null;
+        }
+        catch ( IOException e )
+        {
+            // File system doesn't support locking
+            directoryLock = null;
+        }
+        if ( directoryLock == null && lockFile != null )
+        {
+            try
+            {
+                lockFile.close ();
+            }
+            catch ( IOException e )
+            {
+                // Ignore closing exceptions
+            }
+            lockFile = null;
+        }
+        return directoryLock != null;
+    }
+
+    /**
+     * Reads index records into memory.
+     * Incomplete trailing record left by interrupted write is truncated.
+     *
+     * @throws IOException if index cannot be read
+     */
+    private static void replayIndex () throws IOException
+    {
+        entries.clear ();
+        liveSize = 0;
+
+        final long packLength = pack.length ();
+        final byte[] bytes = new byte[ ( int ) ( index.length () - 8 ) ];
+        index.seek ( 8 );
+        index.readFully ( bytes );
+
+        final DataInputStream in = new DataInputStream ( new ByteArrayInputStream ( bytes ) );
+        long valid = 0;
+        try
+        {
+            while ( valid < bytes.length )
+            {
+                final byte type = in.readByte ();
+                final String key = in.readUTF ();
+                if ( type == PUT_RECORD )
+                {
+                    final long offset = in.readLong ();
+                    final int length = in.readInt ();
+                    final String description = in.readUTF ();
+                    if ( offset >= 0 && length > 0 && offset + length <= packLength )
+                    {
+                        final Entry old = entries.put ( key, new Entry ( offset, length, description ) );
+                        if ( old != null )
+                        {
+                            liveSize -= old.length;
+                        }
+                        liveSize += length;
+                    }
+                }
+                else
+                {
+                    final Entry old = entries.remove ( key );
+                    if ( old != null )
+                    {
+                        liveSize -= old.length;
+                    }
+                }
+                valid = bytes.length - in.available ();
+            }
+        }
+        catch ( EOFException e )
+        {
+            // Truncating incomplete record
+            index.setLength ( 8 + valid );
+        }
+    }
+
+    /**
+     * Returns thumbnail data read from pack file or null if it cannot be read.
+     * Positional channel reads are used so that pack file position is not affected.
+     *
+     * @param entry thumbnail entry
+     * @return thumbnail data read from pack file or null if it cannot be read
+     */
+    private static byte[] read ( final Entry entry )
+    {
+        try
+        {
+            final byte[] data = new byte[ entry.length ];
+            final ByteBuffer buffer = ByteBuffer.wrap ( data );
+            final FileChannel channel = pack.getChannel ();
+            while ( buffer.hasRemaining () )
+            {
+                if ( channel.read ( buffer, entry.offset + buffer.position () ) < 0 )
+                {
+                    throw new EOFException ( "Thumbnail data is out of pack file bounds" );
+                }
+            }
+            return data;
+        }
+        catch ( Throwable e )
+        {
+            fail ();
+            return null;
+        }
+    }
+
+    /**
+     * Rewrites most recently used thumbnails into a new pack generation so that it takes no more than three quarters of the maximum size.
+     *
+     * @throws IOException if cache files cannot be rewritten
+     */
+    private static void compact () throws IOException
+    {
+        // Collecting most recently used entries which fit into the size limit
+        final long limit = maximumSize * 3 / 4;
+        final List<Map.Entry<String, Entry>> all = new ArrayList<Map.Entry<String, Entry>> ( entries.entrySet () );
+        final List<Map.Entry<String, Entry>> kept = new ArrayList<Map.Entry<String, Entry>> ();
+        long keptSize = 0;
+        for ( int i = all.size () - 1; i >= 0; i-- )
+        {
+            final Map.Entry<String, Entry> entry = all.get ( i );
+            if ( keptSize + entry.getValue ().length > limit )
+            {
+                break;
+            }
+            keptSize += entry.getValue ().length;
+            kept.add ( 0, entry );
+        }
+
+        // Writing new pack generation
+        final File dir = getDirectory ();
+        final int newGeneration = generation + 1;
+        final File newPackFile = getPackFile ( dir, newGeneration );
+        final File indexFile = new File ( dir, INDEX_FILE );
+        final File temporaryIndexFile = new File ( dir, TEMPORARY_INDEX_FILE );
+        final RandomAccessFile newPack = new RandomAccessFile ( newPackFile, "rw" );
+        final ByteArrayOutputStream newIndex = new ByteArrayOutputStream ();
+        final DataOutputStream indexOut = new DataOutputStream ( newIndex );
+        indexOut.writeInt ( INDEX_MAGIC );
+        indexOut.writeInt ( newGeneration );
+        final LinkedHashMap<String, Entry> newEntries = new LinkedHashMap<String, Entry> ( 16, 0.75f, true );
+        boolean replaced = false;
+        try
+        {
+            newPack.setLength ( 0 );
+            for ( final Map.Entry<String, Entry> entry : kept )
+            {
+                final Entry old = entry.getValue ();
+                final long offset = newPack.length ();
+                pack.getChannel ().transferTo ( old.offset, old.length, newPack.getChannel () );
+                indexOut.write ( createPutRecord ( entry.getKey (), offset, old.length, old.description ) );
+                newEntries.put ( entry.getKey (), new Entry ( offset, old.length, old.description ) );
+            }
+            indexOut.flush ();
+            newPack.getChannel ().force ( true );
+
+            // Writing new index into temporary file
+            final RandomAccessFile temporaryIndex = new RandomAccessFile ( temporaryIndexFile, "rw" );
+            try
+            {
+                temporaryIndex.setLength ( 0 );
+                temporaryIndex.write ( newIndex.toByteArray () );
+                temporaryIndex.getChannel ().force ( true );
+            }
+            finally
+            {
+                temporaryIndex.close ();
+            }
+
+            // Atomically replacing index, old pack generation stays valid until this point
+            index.close ();
+            index = null;
+            Files.move ( temporaryIndexFile.toPath (), indexFile.toPath (), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE );
+            replaced = true;
+        }
+        finally
+        {
+            if ( !replaced )
+            {
+                // Old index and pack generation are still valid, only new generation files are removed
+                newPack.close ();
+                newPackFile.delete ();
+                temporaryIndexFile.delete ();
+            }
+        }
+        index = new RandomAccessFile ( indexFile, "rw" );
+
+        // Switching to the new pack
+        final File oldPackFile = getPackFile ( dir, generation );
+        pack.close ();
+        if ( !oldPackFile.delete () )
+        {
+            // It will be removed on next open
+            oldPackFile.deleteOnExit ();
+        }
+        pack = newPack;
+        generation = newGeneration;
+        entries.clear ();
+        entries.putAll ( newEntries );
+        liveSize = keptSize;
+    }
+
+    /**
+     * Returns index record for the added thumbnail.
+     *
+     * @param key         thumbnail key
+     * @param offset      thumbnail data offset in pack file
+     * @param length      thumbnail data length
+     * @param description thumbnail description
+     * @return index record for the added thumbnail
+     * @throws IOException if record cannot be created
+     */
+    private static byte[] createPutRecord ( final String key, final long offset, final int length, final String description )
+            throws IOException
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream ();
+        final DataOutputStream out = new DataOutputStream ( bytes );
+        out.writeByte ( PUT_RECORD );
+        out.writeUTF ( key );
+        out.writeLong ( offset );
+        out.writeInt ( length );
+        out.writeUTF ( description );
+        out.flush ();
+        return bytes.toByteArray ();
+    }
+
+    /**
+     * Returns pack file for the specified generation.
+     *
+     * @param dir        cache directory
+     * @param generation pack generation
+     * @return pack file for the specified generation
+     */
+    private static File getPackFile ( final File dir, final int generation )
+    {
+        return new File ( dir, PACK_PREFIX + generation + PACK_EXTENSION );
+    }
+
+    /**
+     * Returns whether specified file is one of cache files or not.
+     *
+     * @param file file to check
+     * @return true if specified file is one of cache files, false otherwise
+     */
+    private static boolean isCacheFile ( final File file )
+    {
+        final String name = file.getName ();
+        return name.equals ( INDEX_FILE ) || name.equals ( TEMPORARY_INDEX_FILE ) ||
+                name.startsWith ( PACK_PREFIX ) && name.endsWith ( PACK_EXTENSION );
+    }
+
+    /**
+     * Disables cache storage after failure.
+     */
+    private static void fail ()
+    {
+        failed = true;
+        closeFiles ();
+        entries.clear ();
+        liveSize = 0;
+        opened = false;
+    }
+
+    /**
+     * Closes cache files quietly.
+     */
+    private static void closeFiles ()
+    {
+        if ( pack != null )
+        {
+            try
+            {
+                pack.close ();
+            }
+            catch ( IOException e )
+            {
+                // Ignore closing exceptions
+            }
+            pack = null;
+        }
+        if ( index != null )
+        {
+            try
+            {
+                index.close ();
+            }
+            catch ( IOException e )
+            {
+                // Ignore closing exceptions
+            }
+            index = null;
+        }
+        if ( lockFile != null )
+        {
+            try
+            {
+                // Closing lock file also releases directory lock
+                lockFile.close ();
+            }
+            catch ( IOException e )
+            {
+                // Ignore closing exceptions
+            }
+            lockFile = null;
+            directoryLock = null;
+        }
+    }
+
+    /**
+     * Cached thumbnail location.
+     */
+    private static final class Entry
+    {
+        /**
+         * Thumbnail data offset in pack file.
+         */
+        private final long offset;
+
+        /**
+         * Thumbnail data length.
+         */
+        private final int length;
+
+        /**
+         * Thumbnail description.
+         */
+        private final String description;
+
+        /**
+         * Constructs new thumbnail location.
+         *
+         * @param offset      thumbnail data offset in pack file
+         * @param length      thumbnail data length
+         * @param description thumbnail description
+         */
+        private Entry ( final long offset, final int length, final String description )
+        {
+            super ();
+            this.offset = offset;
+            this.length = length;
+            this.description = description;
+        }
+    }
+}
@@ -0,0 +1,438 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.alee.utils.file;
+
+import java.io.File;
+
+/**
+ * This class represents cached attributes of a single file.
+ * <p/>
+ * Basic attributes are read from the file system all at once when this object is created. Other values are computed on first request and
+ * kept until the file changes, see {@link com.alee.utils.cache.FileAttributesCache} for details.
+ *
+ * @author Mikle Garin
+ * @see com.alee.utils.cache.FileAttributesCache
+ */
+
+public final class FileAttributes
+{
+    /**
+     * File absolute path.
+     */
+    private final String path;
+
+    /**
+     * Whether file exists or not.
+     */
+    private final boolean exists;
+
+    /**
+     * Whether file is a normal file or not.
+     */
+    private final boolean file;
+
+    /**
+     * Whether file is a directory or not.
+     */
+    private final boolean directory;
+
+    /**
+     * Whether file is hidden or not.
+     */
+    private final boolean hidden;
+
+    /**
+     * File size in bytes.
+     */
+    private final long length;
+
+    /**
+     * File modification time.
+     */
+    private final long lastModified;
+
+    /**
+     * File creation time.
+     */
+    private final long creationTime;
+
+    /**
+     * Time when these attributes were read from the file system.
+     */
+    private final long readTime;
+
+    /**
+     * Whether file is a system hard drive or not.
+     */
+    private volatile Boolean drive;
+
+    /**
+     * Whether file is a "My computer" node or not.
+     */
+    private volatile Boolean computer;
+
+    /**
+     * Whether file is a CD/DVD/Bluray drive or not.
+     */
+    private volatile Boolean cdDrive;
+
+    /**
+     * File name to display.
+     */
+    private volatile String displayName;
+
+    /**
+     * File type description.
+     */
+    private volatile String typeDescription;
+
+    /**
+     * Complete file description.
+     */
+    private volatile FileDescription description;
+
+    /**
+     * File creation date to display.
+     */
+    private volatile String displayCreationDate;
+
+    /**
+     * File modification date to display.
+     */
+    private volatile String displayModificationDate;
+
+    /**
+     * Constructs file attributes with the specified values.
+     *
+     * @param path         file absolute path
+     * @param exists       whether file exists or not
+     * @param file         whether file is a normal file or not
+     * @param directory    whether file is a directory or not
+     * @param hidden       whether file is hidden or not
+     * @param length       file size in bytes
+     * @param lastModified file modification time
+     * @param creationTime file creation time
+     */
+    public FileAttributes ( final String path, final boolean exists, final boolean file, final boolean directory, final boolean hidden,
+                            final long length, final long lastModified, final long creationTime )
+    {
+        super ();
+        this.path = path;
+        this.exists = exists;
+        this.file = file;
+        this.directory = directory;
+        this.hidden = hidden;
+        this.length = length;
+        this.lastModified = lastModified;
+        this.creationTime = creationTime;
+        this.readTime = System.currentTimeMillis ();
+    }
+
+    /**
+     * Constructs file attributes using java.io.File methods.
+     * This is a fallback for files which cannot be represented as a file system path, like some system folders.
+     *
+     * @param file file to process
+     */
+    public FileAttributes ( final File file )
+    {
+        this ( file.getAbsolutePath (), file.exists (), file.isFile (), file.isDirectory (),
+                file.getParentFile () != null && file.isHidden (), file.length (), file.lastModified (), file.lastModified () );
+    }
+
+    /**
+     * Returns file absolute path.
+     *
+     * @return file absolute path
+     */
+    public String getPath ()
+    {
+        return path;
+    }
+
+    /**
+     * Returns whether file exists or not.
+     *
+     * @return true if file exists, false otherwise
+     */
+    public boolean exists ()
+    {
+        return exists;
+    }
+
+    /**
+     * Returns whether file is a normal file or not.
+     *
+     * @return true if file is a normal file, false otherwise
+     */
+    public boolean isFile ()
+    {
+        return file;
+    }
+
+    /**
+     * Returns whether file is a directory or not.
+     *
+     * @return true if file is a directory, false otherwise
+     */
+    public boolean isDirectory ()
+    {
+        return directory;
+    }
+
+    /**
+     * Returns whether file is hidden or not.
+     *
+     * @return true if file is hidden, false otherwise
+     */
+    public boolean isHidden ()
+    {
+        return hidden;
+    }
+
+    /**
+     * Returns file size in bytes.
+     *
+     * @return file size in bytes
+     */
+    public long getLength ()
+    {
+        return length;
+    }
+
+    /**
+     * Returns file modification time.
+     *
+     * @return file modification time
+     */
+    public long getLastModified ()
+    {
+        return lastModified;
+    }
+
+    /**
+     * Returns file creation time.
+     * Returns modification time on file systems which do not keep creation time.
+     *
+     * @return file creation time
+     */
+    public long getCreationTime ()
+    {
+        return creationTime;
+    }
+
+    /**
+     * Returns time when these attributes were read from the file system.
+     *
+     * @return time when these attributes were read from the file system
+     */
+    public long getReadTime ()
+    {
+        return readTime;
+    }
+
+    /**
+     * Returns whether file is a system hard drive or not.
+     *
+     * @return true if file is a system hard drive, false otherwise, null if it wasn't computed yet
+     */
+    public Boolean getDrive ()
+    {
+        return drive;
+    }
+
+    /**
+     * Sets whether file is a system hard drive or not.
+     *
+     * @param drive whether file is a system hard drive or not
+     */
+    public void setDrive ( final Boolean drive )
+    {
+        this.drive = drive;
+    }
+
+    /**
+     * Returns whether file is a "My computer" node or not.
+     *
+     * @return true if file is a "My computer" node, false otherwise, null if it wasn't computed yet
+     */
+    public Boolean getComputer ()
+    {
+        return computer;
+    }
+
+    /**
+     * Sets whether file is a "My computer" node or not.
+     *
+     * @param computer whether file is a "My computer" node or not
+     */
+    public void setComputer ( final Boolean computer )
+    {
+        this.computer = computer;
+    }
+
+    /**
+     * Returns whether file is a CD/DVD/Bluray drive or not.
+     *
+     * @return true if file is a CD/DVD/Bluray drive, false otherwise, null if it wasn't computed yet
+     */
+    public Boolean getCdDrive ()
+    {
+        return cdDrive;
+    }
+
+    /**
+     * Sets whether file is a CD/DVD/Bluray drive or not.
+     *
+     * @param cdDrive whether file is a CD/DVD/Bluray drive or not
+     */
+    public void setCdDrive ( final Boolean cdDrive )
+    {
+        this.cdDrive = cdDrive;
+    }
+
+    /**
+     * Returns file name to display.
+     *
+     * @return file name to display or null if it wasn't computed yet
+     */
+    public String getDisplayName ()
+    {
+        return displayName;
+    }
+
+    /**
+     * Sets file name to display.
+     *
+     * @param displayName file name to display
+     */
+    public void setDisplayName ( final String displayName )
+    {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Returns file type description.
+     *
+     * @return file type description or null if it wasn't computed yet
+     */
+    public String getTypeDescription ()
+    {
+        return typeDescription;
+    }
+
+    /**
+     * Sets file type description.
+     *
+     * @param typeDescription file type description
+     */
+    public void setTypeDescription ( final String typeDescription )
+    {
+        this.typeDescription = typeDescription;
+    }
+
+    /**
+     * Returns complete file description.
+     *
+     * @return complete file description or null if it wasn't computed yet
+     */
+    public FileDescription getDescription ()
+    {
+        return description;
+    }
+
+    /**
+     * Sets complete file description.
+     *
+     * @param description complete file description
+     */
+    public void setDescription ( final FileDescription description )
+    {
+        this.description = description;
+    }
+
+    /**
+     * Returns file creation date to display.
+     *
+     * @return file creation date to display or null if it wasn't computed yet
+     */
+    public String getDisplayCreationDate ()
+    {
+        return displayCreationDate;
+    }
+
+    /**
+     * Sets file creation date to display.
+     *
+     * @param displayCreationDate file creation date to display
+     */
+    public void setDisplayCreationDate ( final String displayCreationDate )
+    {
+        this.displayCreationDate = displayCreationDate;
+    }
+
+    /**
+     * Returns file modification date to display.
+     *
+     * @return file modification date to display or null if it wasn't computed yet
+     */
+    public String getDisplayModificationDate ()
+    {
+        return displayModificationDate;
+    }
+
+    /**
+     * Sets file modification date to display.
+     *
+     * @param displayModificationDate file modification date to display
+     */
+    public void setDisplayModificationDate ( final String displayModificationDate )
+    {
+        this.displayModificationDate = displayModificationDate;
+    }
+
+    /**
+     * Returns whether the specified attributes describe the same unchanged file or not.
+     *
+     * @param other attributes to compare with
+     * @return true if the specified attributes describe the same unchanged file, false otherwise
+     */
+    public boolean isSameFile ( final FileAttributes other )
+    {
+        return other.exists == exists && other.file == file && other.directory == directory && other.hidden == hidden &&
+                other.length == length && other.lastModified == lastModified;
+    }
+
+    /**
+     * Takes over computed values from the specified attributes of the same unchanged file.
+     * Values already computed in this object are kept.
+     *
+     * @param other attributes to take computed values from
+     */
+    public void inherit ( final FileAttributes other )
+    {
+        drive = drive != null ? drive : other.drive;
+        computer = computer != null ? computer : other.computer;
+        cdDrive = cdDrive != null ? cdDrive : other.cdDrive;
+        displayName = displayName != null ? displayName : other.displayName;
+        typeDescription = typeDescription != null ? typeDescription : other.typeDescription;
+        description = description != null ? description : other.description;
+        displayCreationDate = displayCreationDate != null ? displayCreationDate : other.displayCreationDate;
+        displayModificationDate = displayModificationDate != null ? displayModificationDate : other.displayModificationDate;
+    }
+}
@@ -23,9 +23,12 @@ import com.alee.utils.NinePatchUtils;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * This class allows you to create and use nine-patch icons within Swing applications.
@@ -94,6 +97,58 @@ public class NinePatchIcon implements Icon
      */
     protected Integer cachedHeight1;
 
+    /**
+     * Maximum amount of cached stretch plans for each axis.
+     */
+    protected static final int STRETCH_PLANS_CACHE_SIZE = 8;
+
+    /**
+     * Length of pre-expanded tiles used to fill stretchable areas.
+     */
+    protected static final int TILE_LENGTH = 256;
+
+    /**
+     * Maximum amount of cached rendered icon images.
+     */
+    protected static final int RENDER_CACHE_SIZE = 4;
+
+    /**
+     * Stretch intervals data for which cached stretch plans and tiles were calculated.
+     * It is checked on each paint since intervals might be modified directly, for example by nine-patch editor.
+     */
+    protected int[] cachedStretchData;
+
+    /**
+     * Cached horizontal stretch plans by icon width.
+     */
+    protected Map<Integer, StretchPlan> horizontalPlans;
+
+    /**
+     * Cached vertical stretch plans by icon height.
+     */
+    protected Map<Integer, StretchPlan> verticalPlans;
+
+    /**
+     * Pre-expanded tiles for image parts by vertical and horizontal interval indices.
+     * Image part itself is used as a tile for image parts which cannot be tiled, those are scaled instead.
+     */
+    protected BufferedImage[][] tiles;
+
+    /**
+     * Whether or not rendered icon images should be cached for each painted size.
+     */
+    protected boolean renderCacheEnabled = false;
+
+    /**
+     * Maximum area of rendered icon image which can be cached.
+     */
+    protected int renderCacheMaximumArea = 512 * 512;
+
+    /**
+     * Cached rendered icon images by their sizes.
+     */
+    protected Map<Dimension, Image> renderCache;
+
     /**
      * Constructs new NinePatchIcon using the nine-patch image from the specified URL.
      *
@@ -493,56 +548,457 @@ public class NinePatchIcon implements Icon
      */
     public void paintIcon ( Graphics2D g2d, int x, int y, int width, int height )
     {
+        // Dropping cached data if stretch intervals were modified
+        validateCachedData ();
+
         final int componentWidth = Math.max ( width, getIconWidth () );
         final int componentHeight = Math.max ( height, getIconHeight () );
-        final int fixedPixelsX = getFixedPixelsWidth ( false );
-        final int unfixedX = componentWidth - fixedPixelsX;
-        final int fixedPixelsY = getFixedPixelsHeight ( false );
-        final int unfixedY = componentHeight - fixedPixelsY;
+        if ( renderCacheEnabled && componentWidth * componentHeight <= renderCacheMaximumArea )
+        {
+            paintCachedIcon ( g2d, x, y, componentWidth, componentHeight );
+        }
+        else
+        {
+            paintIconImpl ( g2d, x, y, componentWidth, componentHeight );
+        }
+    }
 
-        int currentY = y;
-        for ( NinePatchInterval intervalY : verticalStretch )
+    /**
+     * Paints icon at the specified bounds using compiled stretch plans.
+     * Fixed image parts are copied as they are, stretchable image parts are filled with pre-expanded tiles if their pixels do not
+     * change along the stretched axis and scaled otherwise.
+     *
+     * @param g2d    graphics context
+     * @param x      location X coordinate
+     * @param y      location Y coordinate
+     * @param width  icon width
+     * @param height icon height
+     */
+    protected void paintIconImpl ( Graphics2D g2d, int x, int y, int width, int height )
+    {
+        final StretchPlan horizontal = getStretchPlan ( true, width );
+        final StretchPlan vertical = getStretchPlan ( false, height );
+        for ( int row = 0; row < vertical.size (); row++ )
         {
-            // Percent part height
-            int intervalHeight = intervalY.getEnd () - intervalY.getStart () + 1;
-            int finalHeight;
-            if ( intervalY.isPixel () )
+            final int dy = y + vertical.dstStart[ row ];
+            final int dh = vertical.dstLength[ row ];
+            final int sy = vertical.srcStart[ row ];
+            final int sh = vertical.srcLength[ row ];
+            if ( dh <= 0 )
             {
-                finalHeight = intervalHeight;
+                continue;
             }
-            else
+            for ( int column = 0; column < horizontal.size (); column++ )
             {
-                float percents = ( float ) intervalHeight / ( rawImage.getHeight () - fixedPixelsY );
-                finalHeight = Math.round ( percents * unfixedY );
+                final int dx = x + horizontal.dstStart[ column ];
+                final int dw = horizontal.dstLength[ column ];
+                final int sx = horizontal.srcStart[ column ];
+                final int sw = horizontal.srcLength[ column ];
+                if ( dw <= 0 )
+                {
+                    continue;
+                }
+                if ( dw == sw && dh == sh )
+                {
+                    // Fixed image part copy
+                    g2d.drawImage ( rawImage, dx, dy, dx + dw, dy + dh, sx, sy, sx + sw, sy + sh, null );
+                }
+                else
+                {
+                    final BufferedImage tile = getTile ( row, column );
+                    if ( tile != null )
+                    {
+                        // Stretchable image part filled with tiles
+                        final int tw = tile.getWidth ();
+                        final int th = tile.getHeight ();
+                        for ( int ty = 0; ty < dh; ty += th )
+                        {
+                            final int ch = Math.min ( th, dh - ty );
+                            for ( int tx = 0; tx < dw; tx += tw )
+                            {
+                                final int cw = Math.min ( tw, dw - tx );
+                                g2d.drawImage ( tile, dx + tx, dy + ty, dx + tx + cw, dy + ty + ch, 0, 0, cw, ch, null );
+                            }
+                        }
+                    }
+                    else
+                    {
+                        // Stretchable image part which has to be scaled
+                        g2d.drawImage ( rawImage, dx, dy, dx + dw, dy + dh, sx, sy, sx + sw, sy + sh, null );
+                    }
+                }
             }
+        }
+    }
 
-            int currentX = x;
-            for ( NinePatchInterval intervalX : horizontalStretch )
+    /**
+     * Paints icon at the specified bounds using cached rendered icon image.
+     * Volatile images are used where available, compatible buffered images are used otherwise.
+     *
+     * @param g2d    graphics context
+     * @param x      location X coordinate
+     * @param y      location Y coordinate
+     * @param width  icon width
+     * @param height icon height
+     */
+    protected void paintCachedIcon ( Graphics2D g2d, int x, int y, int width, int height )
+    {
+        if ( renderCache == null )
+        {
+            renderCache = createCache ( RENDER_CACHE_SIZE );
+        }
+        final GraphicsConfiguration gc = g2d.getDeviceConfiguration ();
+        final Dimension size = new Dimension ( width, height );
+        Image image = renderCache.get ( size );
+        if ( image instanceof VolatileImage )
+        {
+            final VolatileImage volatileImage = ( VolatileImage ) image;
+            int attempts = 0;
+            do
             {
-                // Percent part width
-                int intervalWidth = intervalX.getEnd () - intervalX.getStart () + 1;
-                int finalWidth;
-                if ( intervalX.isPixel () )
+                final int state = volatileImage.validate ( gc );
+                if ( state == VolatileImage.IMAGE_INCOMPATIBLE )
                 {
-                    finalWidth = intervalWidth;
+                    image = null;
+                    break;
                 }
-                else
+                else if ( state == VolatileImage.IMAGE_RESTORED )
                 {
-                    float percents = ( float ) intervalWidth / ( rawImage.getWidth () - fixedPixelsX );
-                    finalWidth = Math.round ( percents * unfixedX );
+                    renderIcon ( volatileImage, width, height );
                 }
+                g2d.drawImage ( volatileImage, x, y, null );
+            }
+            while ( volatileImage.contentsLost () && ++attempts < 3 );
+            if ( image != null )
+            {
+                return;
+            }
+        }
+        else if ( image != null )
+        {
+            g2d.drawImage ( image, x, y, null );
+            return;
+        }
 
-                // Drawing image part
-                g2d.drawImage ( rawImage, currentX, currentY, currentX + finalWidth, currentY + finalHeight, intervalX.getStart (),
-                        intervalY.getStart (), intervalX.getStart () + intervalWidth, intervalY.getStart () + intervalHeight, null );
+        // Rendering new icon image
+        image = createRenderImage ( gc, width, height );
+        if ( image != null )
+        {
+            renderIcon ( image, width, height );
+            renderCache.put ( size, image );
+            g2d.drawImage ( image, x, y, null );
+        }
+        else
+        {
+            paintIconImpl ( g2d, x, y, width, height );
+        }
+    }
 
-                // Icrementing current X
-                currentX += finalWidth;
+    /**
+     * Returns newly created image for icon rendering or null if it cannot be created.
+     *
+     * @param gc     graphics configuration
+     * @param width  image width
+     * @param height image height
+     * @return newly created image for icon rendering or null if it cannot be created
+     */
+    protected Image createRenderImage ( GraphicsConfiguration gc, int width, int height )
+    {
+        if ( gc != null )
+        {
+            try
+            {
+                final VolatileImage image = gc.createCompatibleVolatileImage ( width, height, Transparency.TRANSLUCENT );
+                if ( image != null )
+                {
+                    return image;
+                }
+            }
+            catch ( final Throwable e )
+            {
+                // Volatile images are not supported, compatible image is used instead
             }
+        }
+        return ImageUtils.createCompatibleImage ( width, height, Transparency.TRANSLUCENT );
+    }
+
+    /**
+     * Renders icon into the specified image.
+     *
+     * @param image  image to render icon into
+     * @param width  icon width
+     * @param height icon height
+     */
+    protected void renderIcon ( Image image, int width, int height )
+    {
+        final Graphics2D g2d = ( Graphics2D ) image.getGraphics ();
+        g2d.setComposite ( AlphaComposite.Clear );
+        g2d.fillRect ( 0, 0, width, height );
+        g2d.setComposite ( AlphaComposite.SrcOver );
+        paintIconImpl ( g2d, 0, 0, width, height );
+        g2d.dispose ();
+    }
 
-            // Icrementing current Y
-            currentY += finalHeight;
+    /**
+     * Returns stretch plan for the specified axis and length.
+     *
+     * @param horizontal whether should return horizontal or vertical stretch plan
+     * @param length     icon width or height
+     * @return stretch plan for the specified axis and length
+     */
+    protected StretchPlan getStretchPlan ( boolean horizontal, int length )
+    {
+        Map<Integer, StretchPlan> plans = horizontal ? horizontalPlans : verticalPlans;
+        if ( plans == null )
+        {
+            plans = createCache ( STRETCH_PLANS_CACHE_SIZE );
+            if ( horizontal )
+            {
+                horizontalPlans = plans;
+            }
+            else
+            {
+                verticalPlans = plans;
+            }
         }
+        StretchPlan plan = plans.get ( length );
+        if ( plan == null )
+        {
+            plan = horizontal ? new StretchPlan ( horizontalStretch, rawImage.getWidth (), getFixedPixelsWidth ( false ), length ) :
+                    new StretchPlan ( verticalStretch, rawImage.getHeight (), getFixedPixelsHeight ( false ), length );
+            plans.put ( length, plan );
+        }
+        return plan;
+    }
+
+    /**
+     * Returns pre-expanded tile for the image part at the specified vertical and horizontal intervals or null if it cannot be tiled.
+     * Image part can be tiled only if its pixels do not change along each stretchable axis.
+     *
+     * @param row    vertical interval index
+     * @param column horizontal interval index
+     * @return pre-expanded tile for the image part at the specified intervals or null if it cannot be tiled
+     */
+    protected BufferedImage getTile ( int row, int column )
+    {
+        if ( tiles == null )
+        {
+            tiles = new BufferedImage[ verticalStretch.size () ][ horizontalStretch.size () ];
+        }
+        BufferedImage tile = tiles[ row ][ column ];
+        if ( tile == null )
+        {
+            tile = createTile ( verticalStretch.get ( row ), horizontalStretch.get ( column ) );
+            tiles[ row ][ column ] = tile;
+        }
+        return tile != rawImage ? tile : null;
+    }
+
+    /**
+     * Returns newly created pre-expanded tile for the image part at the specified intervals.
+     * Raw image is returned instead if that image part cannot be tiled.
+     *
+     * @param intervalY vertical interval
+     * @param intervalX horizontal interval
+     * @return newly created pre-expanded tile for the image part at the specified intervals
+     */
+    protected BufferedImage createTile ( NinePatchInterval intervalY, NinePatchInterval intervalX )
+    {
+        final int sx = intervalX.getStart ();
+        final int sy = intervalY.getStart ();
+        final int sw = intervalX.getEnd () - sx + 1;
+        final int sh = intervalY.getEnd () - sy + 1;
+        if ( sx < 0 || sy < 0 || sw <= 0 || sh <= 0 || sx + sw > rawImage.getWidth () || sy + sh > rawImage.getHeight () )
+        {
+            // Intervals outside of the image bounds are painted as they are
+            return rawImage;
+        }
+        final int[] pixels = rawImage.getRGB ( sx, sy, sw, sh, null, 0, sw );
+        if ( !intervalX.isPixel () && !isUniform ( pixels, sw, sh, true ) ||
+                !intervalY.isPixel () && !isUniform ( pixels, sw, sh, false ) )
+        {
+            return rawImage;
+        }
+        final int tw = intervalX.isPixel () ? sw : Math.max ( TILE_LENGTH, sw );
+        final int th = intervalY.isPixel () ? sh : Math.max ( TILE_LENGTH, sh );
+        final BufferedImage tile = ImageUtils.createCompatibleImage ( rawImage, tw, th );
+        final Graphics2D g2d = tile.createGraphics ();
+        g2d.setComposite ( AlphaComposite.Src );
+        g2d.drawImage ( rawImage, 0, 0, tw, th, sx, sy, sx + sw, sy + sh, null );
+        g2d.dispose ();
+        return tile;
+    }
+
+    /**
+     * Returns whether pixels do not change along the specified axis or not.
+     *
+     * @param pixels     image part pixels
+     * @param width      image part width
+     * @param height     image part height
+     * @param horizontal whether should check horizontal or vertical axis
+     * @return true if pixels do not change along the specified axis, false otherwise
+     */
+    protected boolean isUniform ( int[] pixels, int width, int height, boolean horizontal )
+    {
+        for ( int y = 0; y < height; y++ )
+        {
+            for ( int x = 0; x < width; x++ )
+            {
+                final int pixel = pixels[ y * width + x ];
+                final int base = horizontal ? pixels[ y * width ] : pixels[ x ];
+                if ( pixel != base )
+                {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Clears cached stretch plans, tiles and rendered icon images if stretch intervals were modified since they were calculated.
+     */
+    protected void validateCachedData ()
+    {
+        int index = 0;
+        boolean changed = cachedStretchData == null ||
+                cachedStretchData.length != ( horizontalStretch.size () + verticalStretch.size () ) * 3 + 1;
+        if ( !changed )
+        {
+            for ( NinePatchInterval interval : horizontalStretch )
+            {
+                changed |= isIntervalChanged ( interval, index );
+                index += 3;
+            }
+            for ( NinePatchInterval interval : verticalStretch )
+            {
+                changed |= isIntervalChanged ( interval, index );
+                index += 3;
+            }
+        }
+        if ( changed )
+        {
+            cachedWidth0 = null;
+            cachedWidth1 = null;
+            cachedHeight0 = null;
+            cachedHeight1 = null;
+            clearCachedPaintData ();
+
+            cachedStretchData = new int[ ( horizontalStretch.size () + verticalStretch.size () ) * 3 + 1 ];
+            cachedStretchData[ cachedStretchData.length - 1 ] = horizontalStretch.size ();
+            index = 0;
+            for ( NinePatchInterval interval : horizontalStretch )
+            {
+                storeInterval ( interval, index );
+                index += 3;
+            }
+            for ( NinePatchInterval interval : verticalStretch )
+            {
+                storeInterval ( interval, index );
+                index += 3;
+            }
+        }
+    }
+
+    /**
+     * Returns whether the specified interval differs from the stored one or not.
+     *
+     * @param interval interval to check
+     * @param index    stored interval data index
+     * @return true if the specified interval differs from the stored one, false otherwise
+     */
+    protected boolean isIntervalChanged ( NinePatchInterval interval, int index )
+    {
+        return cachedStretchData[ index ] != interval.getStart () || cachedStretchData[ index + 1 ] != interval.getEnd () ||
+                cachedStretchData[ index + 2 ] != ( interval.isPixel () ? 1 : 0 );
+    }
+
+    /**
+     * Stores the specified interval data.
+     *
+     * @param interval interval to store
+     * @param index    stored interval data index
+     */
+    protected void storeInterval ( NinePatchInterval interval, int index )
+    {
+        cachedStretchData[ index ] = interval.getStart ();
+        cachedStretchData[ index + 1 ] = interval.getEnd ();
+        cachedStretchData[ index + 2 ] = interval.isPixel () ? 1 : 0;
+    }
+
+    /**
+     * Clears cached stretch plans, tiles and rendered icon images.
+     */
+    protected void clearCachedPaintData ()
+    {
+        cachedStretchData = null;
+        horizontalPlans = null;
+        verticalPlans = null;
+        tiles = null;
+        renderCache = null;
+    }
+
+    /**
+     * Returns whether or not rendered icon images are cached for each painted size.
+     *
+     * @return true if rendered icon images are cached for each painted size, false otherwise
+     */
+    public boolean isRenderCacheEnabled ()
+    {
+        return renderCacheEnabled;
+    }
+
+    /**
+     * Sets whether or not rendered icon images should be cached for each painted size.
+     * Only a few latest sizes are cached so this is useful for icons which are painted with the same size most of the time.
+     *
+     * @param enabled whether or not rendered icon images should be cached for each painted size
+     */
+    public void setRenderCacheEnabled ( boolean enabled )
+    {
+        this.renderCacheEnabled = enabled;
+        renderCache = null;
+    }
+
+    /**
+     * Returns maximum area of rendered icon image which can be cached.
+     *
+     * @return maximum area of rendered icon image which can be cached
+     */
+    public int getRenderCacheMaximumArea ()
+    {
+        return renderCacheMaximumArea;
+    }
+
+    /**
+     * Sets maximum area of rendered icon image which can be cached.
+     * Icon is painted directly when painted area is larger.
+     *
+     * @param area maximum area of rendered icon image which can be cached
+     */
+    public void setRenderCacheMaximumArea ( int area )
+    {
+        this.renderCacheMaximumArea = area;
+    }
+
+    /**
+     * Returns newly created cache which keeps only the specified amount of recently used entries.
+     *
+     * @param maxSize maximum cache size
+     * @param <K>  key type
+     * @param <V>  value type
+     * @return newly created cache which keeps only the specified amount of recently used entries
+     */
+    protected static <K, V> Map<K, V> createCache ( final int maxSize )
+    {
+        return new LinkedHashMap<K, V> ( maxSize * 2, 0.75f, true )
+        {
+            @Override
+            protected boolean removeEldestEntry ( final Map.Entry<K, V> eldest )
+            {
+                return size () > maxSize;
+            }
+        };
     }
 
     /**
@@ -601,6 +1057,7 @@ public class NinePatchIcon implements Icon
     {
         cachedWidth0 = null;
         cachedWidth1 = null;
+        clearCachedPaintData ();
     }
 
     /**
@@ -659,6 +1116,7 @@ public class NinePatchIcon implements Icon
     {
         cachedHeight0 = null;
         cachedHeight1 = null;
+        clearCachedPaintData ();
     }
 
     /**
@@ -698,4 +1156,82 @@ public class NinePatchIcon implements Icon
     {
         return new Dimension ( getRawImage ().getWidth (), getRawImage ().getHeight () );
     }
+
+    /**
+     * Compiled stretch plan for a single axis and icon length.
+     * Contains source and destination parts for each stretch interval.
+     */
+    protected static class StretchPlan
+    {
+        /**
+         * Source parts starts.
+         */
+        protected final int[] srcStart;
+
+        /**
+         * Source parts lengths.
+         */
+        protected final int[] srcLength;
+
+        /**
+         * Destination parts starts relative to icon location.
+         */
+        protected final int[] dstStart;
+
+        /**
+         * Destination parts lengths.
+         */
+        protected final int[] dstLength;
+
+        /**
+         * Constructs new stretch plan.
+         *
+         * @param intervals   stretch intervals
+         * @param rawLength   raw image width or height
+         * @param fixedLength fixed pixels width or height
+         * @param length      icon width or height
+         */
+        public StretchPlan ( List<NinePatchInterval> intervals, int rawLength, int fixedLength, int length )
+        {
+            super ();
+            final int count = intervals.size ();
+            srcStart = new int[ count ];
+            srcLength = new int[ count ];
+            dstStart = new int[ count ];
+            dstLength = new int[ count ];
+
+            final int unfixed = length - fixedLength;
+            int current = 0;
+            for ( int i = 0; i < count; i++ )
+            {
+                final NinePatchInterval interval = intervals.get ( i );
+                final int intervalLength = interval.getEnd () - interval.getStart () + 1;
+                final int finalLength;
+                if ( interval.isPixel () )
+                {
+                    finalLength = intervalLength;
+                }
+                else
+                {
+                    final float percents = ( float ) intervalLength / ( rawLength - fixedLength );
+                    finalLength = Math.round ( percents * unfixed );
+                }
+                srcStart[ i ] = interval.getStart ();
+                srcLength[ i ] = intervalLength;
+                dstStart[ i ] = current;
+                dstLength[ i ] = finalLength;
+                current += finalLength;
+            }
+        }
+
+        /**
+         * Returns amount of parts.
+         *
+         * @return amount of parts
+         */
+        public int size ()
+        {
+            return srcStart.length;
+        }
+    }
 }
@@ -0,0 +1,67 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.alee.utils.swing;
+
+import java.awt.*;
+
+/**
+ * This interface represents a single component animation driven by AnimationManager frame pulse.
+ *
+ * @author Mikle Garin
+ * @see com.alee.utils.AnimationManager
+ * @see com.alee.utils.swing.AnimationAdapter
+ */
+public interface Animation
+{
+    /**
+     * Returns animated component.
+     * Animation is dropped when this component is not showing and its dirty region is repainted after each performed step.
+     *
+     * @return animated component
+     */
+    public Component getComponent ();
+
+    /**
+     * Returns delay between animation steps in milliseconds.
+     * Steps are always performed on frame pulse, so actual step might be delayed until the next frame or performed a few times per frame.
+     *
+     * @return delay between animation steps in milliseconds
+     */
+    public long getDelay ();
+
+    /**
+     * Performs single animation step.
+     * This method is always called from the Event Dispatch Thread.
+     *
+     * @return true if animation should continue, false if it has finished
+     */
+    public boolean step ();
+
+    /**
+     * Returns animated component area which should be repainted after performed steps.
+     * Null means that the whole component should be repainted, empty rectangle means that nothing should be repainted.
+     *
+     * @return animated component area which should be repainted after performed steps
+     */
+    public Rectangle getDirtyRegion ();
+
+    /**
+     * Instantly moves animation into its final state.
+     * This method is called when animation is dropped because its component is no longer showing.
+     */
+    public void complete ();
+}
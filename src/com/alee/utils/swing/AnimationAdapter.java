@@ -0,0 +1,74 @@
+/*
+ * This file is part of WebLookAndFeel library.
+ *
+ * WebLookAndFeel library is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * WebLookAndFeel library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with WebLookAndFeel library.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.alee.utils.swing;
+
+import java.awt.*;
+
+/**
+ * Base animation implementation which repaints the whole animated component after each step and does nothing on completion.
+ *
+ * @author Mikle Garin
+ */
+public abstract class AnimationAdapter implements Animation
+{
+    /**
+     * Animated component.
+     */
+    protected final Component component;
+
+    /**
+     * Delay between animation steps in milliseconds.
+     */
+    protected final long delay;
+
+    /**
+     * Constructs new animation for the specified component.
+     *
+     * @param component animated component
+     * @param delay     delay between animation steps in milliseconds
+     */
+    public AnimationAdapter ( final Component component, final long delay )
+    {
+        super ();
+        this.component = component;
+        this.delay = delay;
+    }
+
+    @Override
+    public Component getComponent ()
+    {
+        return component;
+    }
+
+    @Override
+    public long getDelay ()
+    {
+        return delay;
+    }
+
+    @Override
+    public Rectangle getDirtyRegion ()
+    {
+        return null;
+    }
+
+    @Override
+    public void complete ()
+    {
+        //
+    }
+}
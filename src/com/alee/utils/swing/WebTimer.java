@@ -18,20 +18,31 @@
 package com.alee.utils.swing;
 
 import com.alee.utils.CollectionUtils;
-import com.alee.utils.SwingUtils;
+import com.alee.utils.ThreadUtils;
 import com.alee.utils.TimeUtils;
 
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import javax.swing.*;
 import java.util.ArrayList;
-import java.util.Hashtable;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * This timer is a small extension for standart javax.swing.Timer. Instead of running in a single queue it creates separate Threads for
- * each timer and does not affect event-dispatching thread, until events are dispatched. This basically means that you can use any number
- * of Timer instances and you can run them alltogether without having any issues.
+ * This timer is a small extension for standart javax.swing.Timer. Instead of running in a single queue it schedules cycles of all timers
+ * on a shared bounded scheduler and does not affect event-dispatching thread, until events are dispatched. This basically means that you
+ * can use any number of Timer instances and you can run them alltogether without having any issues or spawning lots of threads.
+ * <p/>
+ * Scheduler threads never run listeners and never wait for them. Cycles of timers which use Event Dispatch Thread are performed in
+ * Event Dispatch Thread and schedule their next cycle from there. Cycles of other timers are performed on a separate unbounded pool of
+ * worker threads, so a slow or blocking listener only occupies its own worker thread and doesn't delay any other timers.
  * <p/>
  * Also this Timer implementation offers a variety of additional features and improvements which standard timer doesn't have (for example
  * you can dispatch events in a separate non-EDT thread and as a result avoid using EDT at all where it is not necessary).
@@ -54,24 +65,53 @@ public class WebTimer
     public static String defaultThreadName = "WebTimer";
 
     /**
-     * Timer event listeners list.
+     * Shared scheduler threads name.
      */
-    private final List<ActionListener> listeners = new ArrayList<ActionListener> ( 1 );
+    public static final String schedulerThreadName = "WebTimer-scheduler";
+
+    /**
+     * Shared worker threads name.
+     */
+    public static final String workerThreadName = "WebTimer-worker";
+
+    /**
+     * Lock for shared scheduler creation and configuration.
+     */
+    private static final Object schedulerLock = new Object ();
 
     /**
-     * Unique (within one timer instance) ID of currently running thread.
+     * Shared scheduler running cycles of all timers.
+     * It is created lazily when the first timer starts.
      */
-    private int id = 0;
+    private static ScheduledThreadPoolExecutor scheduler = null;
 
     /**
-     * ID of previously executed thread.
+     * Shared worker threads pool performing cycles of timers which do not use Event Dispatch Thread.
+     * It is created lazily when the first such cycle is performed, idle threads are terminated after a while.
      */
-    private int lastId;
+    private static ExecutorService workers = null;
 
     /**
-     * Map of marks for currently active threads.
+     * Maximum amount of shared scheduler threads.
+     * Scheduler threads only pass timer cycles to Event Dispatch Thread or worker threads, so this amount doesn't limit the amount of
+     * running timers.
      */
-    private final Map<Integer, Boolean> running = new Hashtable<Integer, Boolean> ();
+    private static int schedulerThreadsAmount = Math.max ( 2, Runtime.getRuntime ().availableProcessors () );
+
+    /**
+     * Amount of currently running timers.
+     */
+    private static final AtomicInteger activeTimers = new AtomicInteger ( 0 );
+
+    /**
+     * Total amount of timer starts.
+     */
+    private static final AtomicLong startedTimers = new AtomicLong ( 0 );
+
+    /**
+     * Timer event listeners list.
+     */
+    private final List<ActionListener> listeners = new ArrayList<ActionListener> ( 1 );
 
     /**
      * Last timer cycle start time.
@@ -84,9 +124,9 @@ public class WebTimer
     private long sleepTime = 0;
 
     /**
-     * Last timer thread.
+     * Current timer execution.
      */
-    private Thread exec = null;
+    private Execution execution = null;
 
     /**
      * Delay between timer cycles in milliseconds.
@@ -104,7 +144,7 @@ public class WebTimer
     private boolean repeats = true;
 
     /**
-     * Whether each action should be fired from a separate invoke and wait call or not.
+     * Whether each action should be fired from a separate Event Dispatch Thread call or not.
      * This might be useful if you are going to use multiply action listeners and make some interface changes on each action.
      */
     private boolean coalesce = true;
@@ -404,9 +444,9 @@ public class WebTimer
     }
 
     /**
-     * Returns whether each action should be fired from a separate invoke and wait call or not.
+     * Returns whether each action should be fired from a separate Event Dispatch Thread call or not.
      *
-     * @return true if each action should be fired from a separate invoke and wait call, false otherwise
+     * @return true if each action should be fired from a separate Event Dispatch Thread call, false otherwise
      */
     public boolean isCoalesce ()
     {
@@ -414,9 +454,9 @@ public class WebTimer
     }
 
     /**
-     * Sets whether each action should be fired from a separate invoke and wait call or not.
+     * Sets whether each action should be fired from a separate Event Dispatch Thread call or not.
      *
-     * @param coalesce whether each action should be fired from a separate invoke and wait call or not
+     * @param coalesce whether each action should be fired from a separate Event Dispatch Thread call or not
      */
     public void setCoalesce ( final boolean coalesce )
     {
@@ -502,10 +542,6 @@ public class WebTimer
     public void setName ( final String name )
     {
         this.name = name;
-        if ( exec != null )
-        {
-            exec.setName ( name );
-        }
     }
 
     /**
@@ -561,11 +597,11 @@ public class WebTimer
      */
     public synchronized boolean isRunning ()
     {
-        return exec != null && exec.isAlive ();
+        return execution != null && !execution.isFinished ();
     }
 
     /**
-     * Starts timer execution thread.
+     * Starts timer execution on the shared scheduler.
      */
     private synchronized void startExec ()
     {
@@ -575,136 +611,349 @@ public class WebTimer
             return;
         }
 
-        // Saving current thread unique id
-        lastId = id;
-        id++;
+        // Scheduling first cycle
+        execution = new Execution ();
+        activeTimers.incrementAndGet ();
+        startedTimers.incrementAndGet ();
+        final long actualInitialDelay = getInitialDelay () < 0 ? getDelay () : getInitialDelay ();
+        execution.schedule ( actualInitialDelay );
+    }
 
-        // Starting new cycling thread
-        final int currentId = lastId;
-        exec = new Thread ( new Runnable ()
+    /**
+     * Stops timer execution.
+     */
+    private void stopExec ()
+    {
+        final Execution exec;
+        synchronized ( this )
+        {
+            exec = execution;
+            execution = null;
+        }
+        if ( exec != null )
+        {
+            exec.stop ();
+        }
+    }
+
+    /**
+     * Single timer execution.
+     * It is bound to a single start-stop timer session and schedules each of its cycles as a separate task on the shared scheduler.
+     * Scheduled task only passes the cycle to Event Dispatch Thread or worker thread, so scheduler threads never wait for listeners.
+     */
+    private final class Execution implements Runnable
+    {
+        /**
+         * Whether this execution is still allowed to fire events or not.
+         */
+        private volatile boolean alive = true;
+
+        /**
+         * Whether this execution has finished or not.
+         */
+        private boolean finished = false;
+
+        /**
+         * Next cycle number.
+         * Negative value means that initial delay has not passed yet.
+         */
+        private int cycle = -1;
+
+        /**
+         * Scheduled cycle future.
+         */
+        private ScheduledFuture<?> future = null;
+
+        /**
+         * Thread running current cycle, null if no cycle is running at the moment.
+         */
+        private Thread thread = null;
+
+        /**
+         * Task performing single cycle.
+         */
+        private final Runnable cycleTask = new Runnable ()
+        {
+            @Override
+            public void run ()
+            {
+                performCycle ();
+            }
+        };
+
+        /**
+         * Task finishing single cycle after separately dispatched events.
+         */
+        private final Runnable completionTask = new Runnable ()
         {
             @Override
             public void run ()
             {
-                // Adding a live thread into map
-                setAlive ( currentId, true );
+                completeCycle ();
+            }
+        };
+
+        /**
+         * Schedules next cycle.
+         *
+         * @param delay delay before next cycle in milliseconds
+         */
+        private synchronized void schedule ( final long delay )
+        {
+            if ( alive )
+            {
+                sleepStart = System.currentTimeMillis ();
+                sleepTime = delay;
+                future = getScheduler ().schedule ( this, delay, TimeUnit.MILLISECONDS );
+            }
+            else
+            {
+                finish ();
+            }
+        }
+
+        /**
+         * Passes scheduled cycle to Event Dispatch Thread or worker thread.
+         */
+        @Override
+        public void run ()
+        {
+            synchronized ( this )
+            {
+                if ( !alive )
+                {
+                    finish ();
+                    return;
+                }
+            }
+            if ( useEventDispatchThread )
+            {
+                SwingUtilities.invokeLater ( cycleTask );
+            }
+            else
+            {
+                getWorkers ().execute ( cycleTask );
+            }
+        }
 
-                try
+        /**
+         * Performs single cycle and schedules the next one if needed.
+         */
+        private void performCycle ()
+        {
+            synchronized ( this )
+            {
+                if ( !alive )
                 {
-                    // Initial delay
-                    final long actualInitialDelay = getInitialDelay () < 0 ? getDelay () : getInitialDelay ();
-                    if ( actualInitialDelay > 0 )
+                    finish ();
+                    return;
+                }
+                thread = Thread.currentThread ();
+            }
+
+            // Using timer name for the worker thread while cycle is running
+            final boolean edt = SwingUtilities.isEventDispatchThread ();
+            final String threadName = thread.getName ();
+            if ( !edt && name != null )
+            {
+                thread.setName ( name );
+            }
+            boolean scheduleNext = false;
+            boolean dispatched = false;
+            try
+            {
+                if ( startCycle () )
+                {
+                    if ( edt && !coalesce && listeners.size () > 1 )
                     {
-                        sleepStart = System.currentTimeMillis ();
-                        sleepTime = actualInitialDelay;
-                        Thread.sleep ( actualInitialDelay );
+                        // Cycle is completed after separately dispatched events
+                        fireSeparateEvents ( this );
+                        SwingUtilities.invokeLater ( completionTask );
+                        dispatched = true;
                     }
-
-                    // Checking if we sould stop execution
-                    if ( shouldContinue ( -1, currentId ) )
+                    else
                     {
-                        // Starting cycles execution
-                        if ( repeats )
-                        {
-                            // Repeated events
-                            int cycle = 0;
-                            while ( shouldContinue ( cycle, currentId ) )
-                            {
-                                // Firing events
-                                fireEvent ();
-
-                                // Incrementing cycles count
-                                cycle++;
-
-                                // Checking if we sould stop execution due to changes through events
-                                if ( !shouldContinue ( cycle, currentId ) )
-                                {
-                                    break;
-                                }
-
-                                // Waiting for next execution
-                                if ( getDelay () > 0 )
-                                {
-                                    final long currentDelay = getDelay ();
-                                    sleepStart = System.currentTimeMillis ();
-                                    sleepTime = currentDelay;
-                                    Thread.sleep ( currentDelay );
-                                }
-                            }
-                        }
-                        else
-                        {
-                            // Single event
-                            fireEvent ();
-                        }
+                        fireEvent ( this );
+                        scheduleNext = endCycle ();
                     }
                 }
-                catch ( InterruptedException e )
+            }
+            catch ( final Throwable e )
+            {
+                // Listener failure stops the timer just like it did with separate timer threads
+                e.printStackTrace ();
+            }
+            finally
+            {
+                if ( !edt )
+                {
+                    thread.setName ( threadName );
+                }
+                synchronized ( this )
                 {
-                    // Execution interrupted
+                    thread = null;
+                    if ( !dispatched )
+                    {
+                        proceed ( scheduleNext );
+                    }
                 }
+            }
+        }
 
-                // Removing finished thread from map
-                cleanUp ( currentId );
+        /**
+         * Completes cycle which events were dispatched separately and schedules the next one if needed.
+         */
+        private void completeCycle ()
+        {
+            boolean scheduleNext = false;
+            try
+            {
+                scheduleNext = endCycle ();
             }
-        }, name );
-        exec.start ();
-    }
+            finally
+            {
+                synchronized ( this )
+                {
+                    proceed ( scheduleNext );
+                }
+            }
+        }
 
-    /**
-     * Returns whether thread with specified ID should continue execution or not.
-     *
-     * @param cycle cycle number
-     * @param id    thread ID
-     * @return true if thread with specified ID should continue execution, false otherwise
-     */
-    private boolean shouldContinue ( final int cycle, final int id )
-    {
-        return running.get ( id ) && !Thread.currentThread ().isInterrupted () && ( cyclesLimit <= 0 || cyclesLimit > cycle );
-    }
+        /**
+         * Schedules next cycle or finishes this execution.
+         * Should only be called under this execution lock.
+         *
+         * @param scheduleNext whether next cycle should be scheduled or not
+         */
+        private void proceed ( final boolean scheduleNext )
+        {
+            if ( scheduleNext )
+            {
+                schedule ( getDelay () );
+            }
+            else
+            {
+                finish ();
+            }
+        }
 
-    /**
-     * Sets whether thread under specified ID is alive or not.
-     *
-     * @param id    thread ID
-     * @param alive whether thread is alive or not
-     */
-    private void setAlive ( final int id, final boolean alive )
-    {
-        running.put ( id, alive );
-    }
+        /**
+         * Starts single timer cycle.
+         *
+         * @return true if cycle events should be fired, false if execution should be finished
+         */
+        private boolean startCycle ()
+        {
+            // Checking if we sould stop execution after initial delay
+            if ( cycle < 0 )
+            {
+                if ( !shouldContinue ( -1 ) )
+                {
+                    return false;
+                }
+                if ( !repeats )
+                {
+                    // Single event
+                    return true;
+                }
+                cycle = 0;
+            }
 
-    /**
-     * Cleans thread ID cache.
-     *
-     * @param id thread ID
-     */
-    private void cleanUp ( final int id )
-    {
-        running.remove ( id );
-    }
+            // Repeated events
+            return shouldContinue ( cycle );
+        }
 
-    /**
-     * Stops timer execution.
-     */
-    private synchronized void stopExec ()
-    {
-        if ( exec != null )
+        /**
+         * Ends single timer cycle after its events were fired.
+         *
+         * @return true if next cycle should be scheduled, false otherwise
+         */
+        private boolean endCycle ()
         {
-            // Interrupt thread
-            exec.interrupt ();
+            // Single event timer stops after the first event
+            if ( cycle < 0 )
+            {
+                return false;
+            }
+            cycle++;
+
+            // Checking if we sould stop execution due to changes through events
+            return shouldContinue ( cycle );
+        }
 
-            // Stop execution from inside
-            setAlive ( lastId, false );
+        /**
+         * Returns whether execution should continue or not.
+         *
+         * @param cycle cycle number
+         * @return true if execution should continue, false otherwise
+         */
+        private boolean shouldContinue ( final int cycle )
+        {
+            return alive && ( cyclesLimit <= 0 || cyclesLimit > cycle );
+        }
 
-            // Wait for execution to stop
-            try
+        /**
+         * Returns whether this execution is still allowed to fire events or not.
+         *
+         * @return true if this execution is still allowed to fire events, false otherwise
+         */
+        private boolean isAlive ()
+        {
+            return alive;
+        }
+
+        /**
+         * Returns whether this execution has finished or not.
+         *
+         * @return true if this execution has finished, false otherwise
+         */
+        private synchronized boolean isFinished ()
+        {
+            return finished;
+        }
+
+        /**
+         * Marks this execution as finished.
+         */
+        private synchronized void finish ()
+        {
+            if ( !finished )
             {
-                exec.join ();
+                finished = true;
+                activeTimers.decrementAndGet ();
+                notifyAll ();
             }
-            catch ( InterruptedException e )
+        }
+
+        /**
+         * Stops this execution.
+         * Waits for the currently running cycle to finish unless that would block the cycle itself.
+         */
+        private synchronized void stop ()
+        {
+            alive = false;
+            if ( future != null && future.cancel ( false ) )
             {
-                e.printStackTrace ();
+                // Cycle was not started yet
+                finish ();
+            }
+            else if ( thread != null && thread != Thread.currentThread () &&
+                    !( useEventDispatchThread && SwingUtilities.isEventDispatchThread () ) )
+            {
+                // Wait for execution to stop
+                // EDT doesn't need to wait since events dispatched into it are checked against alive mark
+                while ( !finished )
+                {
+                    try
+                    {
+                        wait ();
+                    }
+                    catch ( final InterruptedException e )
+                    {
+                        e.printStackTrace ();
+                        break;
+                    }
+                }
             }
         }
     }
@@ -746,9 +995,11 @@ public class WebTimer
     }
 
     /**
-     * Fires action events.
+     * Fires action events in the current thread.
+     *
+     * @param execution execution firing events
      */
-    private void fireEvent ()
+    private void fireEvent ( final Execution execution )
     {
         if ( listeners.size () > 0 )
         {
@@ -758,48 +1009,42 @@ public class WebTimer
             // Working with local array
             final List<ActionListener> listenerList = CollectionUtils.copy ( listeners );
 
-            // Dispatch event in chosen way
-            if ( useEventDispatchThread )
+            // Timer might be stopped by one of the listeners
+            for ( final ActionListener listener : listenerList )
             {
-                if ( coalesce )
-                {
-                    // Merge all events into single call to event dispatch thread
-                    SwingUtils.invokeAndWaitSafely ( new Runnable ()
-                    {
-                        @Override
-                        public void run ()
-                        {
-                            for ( final ActionListener listener : listenerList )
-                            {
-                                listener.actionPerformed ( actionEvent );
-                            }
-                        }
-                    } );
-                }
-                else
+                if ( execution.isAlive () )
                 {
-                    // Make separate event calls to event dispatch thread
-                    for ( final ActionListener listener : listenerList )
-                    {
-                        SwingUtils.invokeAndWaitSafely ( new Runnable ()
-                        {
-                            @Override
-                            public void run ()
-                            {
-                                listener.actionPerformed ( actionEvent );
-                            }
-                        } );
-                    }
+                    listener.actionPerformed ( actionEvent );
                 }
             }
-            else
+        }
+    }
+
+    /**
+     * Fires action events through separate Event Dispatch Thread calls.
+     *
+     * @param execution execution firing events
+     */
+    private void fireSeparateEvents ( final Execution execution )
+    {
+        // Event
+        final ActionEvent actionEvent = createActionEvent ();
+
+        // Make separate event calls to event dispatch thread
+        for ( final ActionListener listener : CollectionUtils.copy ( listeners ) )
+        {
+            SwingUtilities.invokeLater ( new Runnable ()
             {
-                // Execute events in the same thread with timer
-                for ( final ActionListener listener : listenerList )
+                @Override
+                public void run ()
                 {
-                    listener.actionPerformed ( actionEvent );
+                    // Timer might have been stopped while this call was waiting in the queue
+                    if ( execution.isAlive () )
+                    {
+                        listener.actionPerformed ( actionEvent );
+                    }
                 }
-            }
+            } );
         }
     }
 
@@ -821,6 +1066,126 @@ public class WebTimer
         return name + ", delay (" + getStringDelay () + "), initialDelay (" + getInitialStringDelay () + ")";
     }
 
+    /**
+     * Returns shared scheduler which runs cycles of all timers.
+     *
+     * @return shared scheduler which runs cycles of all timers
+     */
+    private static ScheduledThreadPoolExecutor getScheduler ()
+    {
+        synchronized ( schedulerLock )
+        {
+            if ( scheduler == null )
+            {
+                scheduler = new ScheduledThreadPoolExecutor ( schedulerThreadsAmount,
+                        ThreadUtils.createThreadFactory ( schedulerThreadName, true ) );
+                scheduler.setKeepAliveTime ( 30, TimeUnit.SECONDS );
+                scheduler.allowCoreThreadTimeOut ( true );
+                scheduler.setRemoveOnCancelPolicy ( true );
+            }
+            return scheduler;
+        }
+    }
+
+    /**
+     * Returns shared worker threads pool which performs cycles of timers that do not use Event Dispatch Thread.
+     * Pool is not bounded since worker threads run listeners which might block.
+     *
+     * @return shared worker threads pool
+     */
+    private static ExecutorService getWorkers ()
+    {
+        synchronized ( schedulerLock )
+        {
+            if ( workers == null )
+            {
+                workers = new ThreadPoolExecutor ( 0, Integer.MAX_VALUE, 30, TimeUnit.SECONDS, new SynchronousQueue<Runnable> (),
+                        ThreadUtils.createThreadFactory ( workerThreadName, true ) );
+            }
+            return workers;
+        }
+    }
+
+    /**
+     * Returns maximum amount of shared scheduler threads.
+     *
+     * @return maximum amount of shared scheduler threads
+     */
+    public static int getSchedulerThreadsAmount ()
+    {
+        synchronized ( schedulerLock )
+        {
+            return schedulerThreadsAmount;
+        }
+    }
+
+    /**
+     * Sets maximum amount of shared scheduler threads.
+     *
+     * @param amount maximum amount of shared scheduler threads
+     */
+    public static void setSchedulerThreadsAmount ( final int amount )
+    {
+        if ( amount < 1 )
+        {
+            throw new IllegalArgumentException ( "Invalid scheduler threads amount: " + amount );
+        }
+        synchronized ( schedulerLock )
+        {
+            schedulerThreadsAmount = amount;
+            if ( scheduler != null )
+            {
+                scheduler.setCorePoolSize ( amount );
+            }
+        }
+    }
+
+    /**
+     * Returns amount of currently running timers.
+     *
+     * @return amount of currently running timers
+     */
+    public static int getActiveTimersCount ()
+    {
+        return activeTimers.get ();
+    }
+
+    /**
+     * Returns total amount of timer starts since application launch.
+     *
+     * @return total amount of timer starts since application launch
+     */
+    public static long getStartedTimersCount ()
+    {
+        return startedTimers.get ();
+    }
+
+    /**
+     * Returns amount of timer cycles waiting in the shared scheduler queue.
+     *
+     * @return amount of timer cycles waiting in the shared scheduler queue
+     */
+    public static int getScheduledCyclesCount ()
+    {
+        synchronized ( schedulerLock )
+        {
+            return scheduler != null ? scheduler.getQueue ().size () : 0;
+        }
+    }
+
+    /**
+     * Returns amount of shared scheduler threads which are currently passing timer cycles for execution.
+     *
+     * @return amount of shared scheduler threads which are currently passing timer cycles for execution
+     */
+    public static int getBusySchedulerThreadsCount ()
+    {
+        synchronized ( schedulerLock )
+        {
+            return scheduler != null ? scheduler.getActiveCount () : 0;
+        }
+    }
+
     /**
      * Returns newly created and started timer that doesn't repeat and has the specified delay and action listener.
      *